@@ -0,0 +1,58 @@
+package com.rafibaum.metal.drive;
+
+import com.rafibaum.metal.geometry.Angle;
+import com.rafibaum.metal.geometry.Polar;
+import com.rafibaum.metal.geometry.Vector;
+import com.rafibaum.metal.geometry.XY;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the batch swerve kinematics against composing module states from vector objects.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class KinematicsBenchmark {
+
+    private static final double[] MODULE_X = {-0.3, 0.3, -0.3, 0.3};
+    private static final double[] MODULE_Y = {0.3, 0.3, -0.3, -0.3};
+
+    private SwerveKinematics kinematics;
+    private SwerveModuleStates states;
+    private double[] currentAngles;
+
+    @Setup
+    public void setup() {
+        kinematics = new SwerveKinematics(MODULE_X, MODULE_Y);
+        states = new SwerveModuleStates(4);
+        currentAngles = new double[] {10, 100, 190, 280};
+    }
+
+    @Benchmark
+    public SwerveModuleStates batch() {
+        kinematics.toModuleStates(1.2, 2.3, 0.8, states);
+        states.optimize(currentAngles);
+        states.desaturate(3);
+        return states;
+    }
+
+    @Benchmark
+    public Polar[] objects() {
+        Polar[] result = new Polar[4];
+        Vector translation = new XY(1.2, 2.3);
+        for(int i = 0; i < 4; i++) {
+            Vector velocity = translation.add(new XY(0.8 * MODULE_Y[i], -0.8 * MODULE_X[i]));
+            Polar state = new Polar(velocity.getMagnitude(), velocity.getAngle());
+            if(Math.abs(state.getAngle().subtract(new Angle(currentAngles[i])).wrapNavigation().toDegrees()) > 90) {
+                state = new Polar(-state.getMagnitude(), state.getAngle().add(new Angle(180)).wrap());
+            }
+            result[i] = state;
+        }
+        return result;
+    }
+}
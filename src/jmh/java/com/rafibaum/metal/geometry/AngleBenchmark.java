@@ -0,0 +1,53 @@
+package com.rafibaum.metal.geometry;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of wrapping angles. The degree parameter covers ordinary headings as well
+ * as pathological ones, like an unwrapped gyro heading which has accumulated over a long match.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class AngleBenchmark {
+
+    @Param({"187.0", "-3535.1", "1e6", "-1e6"})
+    private double degrees;
+
+    private Angle angle;
+    private Angle min;
+    private Angle max;
+
+    @Setup
+    public void setup() {
+        angle = new Angle(degrees);
+        min = new Angle(-90);
+        max = new Angle(270);
+    }
+
+    @Benchmark
+    public Angle wrap() {
+        return angle.wrap();
+    }
+
+    @Benchmark
+    public Angle wrapNavigation() {
+        return angle.wrapNavigation();
+    }
+
+    @Benchmark
+    public Angle wrapRange() {
+        return angle.wrap(min, max);
+    }
+
+    @Benchmark
+    public double wrapDegrees() {
+        return Angle.wrapNavigationDegrees(degrees);
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.rafibaum.metal.geometry;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the trig providers against each other.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class TrigBenchmark {
+
+    @Param({"math", "fast"})
+    private String provider;
+
+    private TrigProvider trig;
+    private double radians;
+    private double x;
+    private double y;
+
+    @Setup
+    public void setup() {
+        trig = provider.equals("fast") ? new FastTrigProvider() : new MathTrigProvider();
+        radians = 2.3;
+        x = -3.1;
+        y = 1.7;
+    }
+
+    @Benchmark
+    public double sin() {
+        return trig.sin(radians);
+    }
+
+    @Benchmark
+    public double cos() {
+        return trig.cos(radians);
+    }
+
+    @Benchmark
+    public double atan2() {
+        return trig.atan2(y, x);
+    }
+
+}
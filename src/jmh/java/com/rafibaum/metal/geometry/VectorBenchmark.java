@@ -0,0 +1,113 @@
+package com.rafibaum.metal.geometry;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of the common vector operations for both XY and Polar vectors. The angle
+ * parameter is used for the polar vectors so that conversions of large unwrapped angles are
+ * covered as well.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class VectorBenchmark {
+
+    @Param({"30.0", "-3535.1", "1e6", "-1e6"})
+    private double degrees;
+
+    private XY xy1;
+    private XY xy2;
+    private Polar polar1;
+    private Polar polar2;
+
+    @Setup
+    public void setup() {
+        xy1 = new XY(34.32, 14.53);
+        xy2 = new XY(24.54, -124.632);
+        polar1 = new Polar(5, degrees);
+        polar2 = new Polar(-3, degrees + 135);
+    }
+
+    @Benchmark
+    public Angle xyGetAngle() {
+        return xy1.getAngle();
+    }
+
+    @Benchmark
+    public double polarGetX() {
+        return polar1.getX();
+    }
+
+    @Benchmark
+    public double polarGetY() {
+        return polar1.getY();
+    }
+
+    @Benchmark
+    public double polarComponentsUncached() {
+        //A fresh vector each time so the cost of converting to cartesian components is included
+        Polar polar = new Polar(5, degrees);
+        return polar.getX() + polar.getY();
+    }
+
+    @Benchmark
+    public Vector xyAdd() {
+        return xy1.add(xy2);
+    }
+
+    @Benchmark
+    public Vector polarAdd() {
+        return polar1.add(polar2);
+    }
+
+    @Benchmark
+    public Vector xySubtract() {
+        return xy1.subtract(xy2);
+    }
+
+    @Benchmark
+    public Vector polarSubtract() {
+        return polar1.subtract(polar2);
+    }
+
+    @Benchmark
+    public Vector xyNormalize() {
+        return xy2.normalize();
+    }
+
+    @Benchmark
+    public Vector polarNormalize() {
+        return polar2.normalize();
+    }
+
+    @Benchmark
+    public double xyCrossProduct() {
+        return xy1.crossProduct(xy2);
+    }
+
+    @Benchmark
+    public double polarCrossProduct() {
+        return polar1.crossProduct(polar2);
+    }
+
+    @Benchmark
+    public double mixedCrossProduct() {
+        return xy1.crossProduct(polar1);
+    }
+
+    @Benchmark
+    public Angle xyAngleBetween() {
+        return xy1.angleBetween(xy2);
+    }
+
+    @Benchmark
+    public Vector xyRotate() {
+        return xy1.rotate(polar1.getAngle());
+    }
+
+}
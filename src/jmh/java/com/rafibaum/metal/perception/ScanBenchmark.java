@@ -0,0 +1,69 @@
+package com.rafibaum.metal.perception;
+
+import com.rafibaum.metal.geometry.Angle;
+import com.rafibaum.metal.geometry.Polar;
+import com.rafibaum.metal.geometry.Pose2d;
+import com.rafibaum.metal.geometry.Vector;
+import com.rafibaum.metal.geometry.XY;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the batch scan transform against converting each point through vector objects.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ScanBenchmark {
+
+    @Param({"360", "2048"})
+    public int points;
+
+    private double[] ranges;
+    private double[] bearings;
+    private ScanTransformer transformer;
+    private PointCloud cloud;
+
+    @Setup
+    public void setup() {
+        ranges = new double[points];
+        bearings = new double[points];
+        for(int i = 0; i < points; i++) {
+            ranges[i] = 1 + (i % 17) * 0.3;
+            bearings[i] = -180 + 360.0 * i / points;
+        }
+
+        transformer = new ScanTransformer(0, 0.2, 0);
+        transformer.setBearings(-180, 360.0 / points, points);
+        transformer.setRangeLimits(0.1, 12);
+        cloud = new PointCloud(points);
+    }
+
+    @Benchmark
+    public PointCloud fixedBearings() {
+        transformer.transform(ranges, points, 1.5, 2.5, 37, cloud);
+        return cloud;
+    }
+
+    @Benchmark
+    public PointCloud scanBearings() {
+        transformer.transform(ranges, bearings, points, 1.5, 2.5, 37, cloud);
+        return cloud;
+    }
+
+    @Benchmark
+    public XY[] objects() {
+        Pose2d robot = new Pose2d(1.5, 2.5, new Angle(37));
+        XY mount = new XY(0, 0.2);
+        XY[] result = new XY[points];
+        for(int i = 0; i < points; i++) {
+            Vector local = new Polar(ranges[i], bearings[i]).add(mount);
+            result[i] = robot.toField(local);
+        }
+        return result;
+    }
+}
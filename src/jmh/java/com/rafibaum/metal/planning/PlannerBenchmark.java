@@ -0,0 +1,51 @@
+package com.rafibaum.metal.planning;
+
+import com.rafibaum.metal.geometry.VectorBuffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a full replan around moving defenders on a field sized grid, as teleop assist would do every loop.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class PlannerBenchmark {
+
+    @Param({"false", "true"})
+    public boolean anyAngle;
+
+    private OccupancyGrid field;
+    private OccupancyGrid obstacles;
+    private OccupancyGrid inflated;
+    private GridPlanner planner;
+    private VectorBuffer path;
+    private int tick;
+
+    @Setup
+    public void setup() {
+        //16.5 by 8.2 meter field at 5 centimeter cells, with a wall down the middle
+        field = new OccupancyGrid(0, 0, 0.05, 330, 164);
+        field.fillRectangle(8, 1, 8.5, 7.2, true);
+        obstacles = new OccupancyGrid(field);
+        inflated = new OccupancyGrid(field);
+        planner = new GridPlanner(inflated).setAnyAngle(anyAngle);
+        path = new VectorBuffer(field.getColumns() * field.getRows());
+    }
+
+    @Benchmark
+    public VectorBuffer replan() {
+        //Defenders move a little every tick
+        double offset = (tick++ % 50) * 0.02;
+        obstacles.copyFrom(field);
+        obstacles.fillCircle(5 + offset, 4, 0.45, true);
+        obstacles.fillCircle(11 - offset, 2.5, 0.45, true);
+        obstacles.inflate(0.45, inflated);
+        planner.plan(1, 4, 15.5, 4, path);
+        return path;
+    }
+}
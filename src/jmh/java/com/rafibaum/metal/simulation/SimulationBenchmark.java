@@ -0,0 +1,32 @@
+package com.rafibaum.metal.simulation;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of a single physics step.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class SimulationBenchmark {
+
+    private DifferentialDriveSim drive;
+
+    @Setup
+    public void setup() {
+        drive = new DifferentialDriveSim(MotorModel.CIM, 2, 10.71, 0.0762, 0.6, 60, 6);
+        drive.getLeftMotor().set(0.8);
+        drive.getRightMotor().set(0.6);
+    }
+
+    @Benchmark
+    public double differentialDriveStep() {
+        drive.step(0.001);
+        return drive.getX();
+    }
+}
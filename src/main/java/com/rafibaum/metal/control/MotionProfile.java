@@ -0,0 +1,257 @@
+package com.rafibaum.metal.control;
+
+import com.rafibaum.metal.utils.MetalConfigurationException;
+
+/**
+ * MotionProfile plans a move of a set distance, starting and ending at rest, without going over a
+ * maximum velocity, acceleration and, for S-curve profiles, jerk. Profiles are computed once when
+ * they're created and stored as a short table of segments in primitive arrays. Within each segment the
+ * jerk is constant, so sampling the profile at any time is a binary search over a handful of segments
+ * followed by an exact polynomial, with no allocation.
+ * <p>
+ * Profiles start at position zero, so the same profile can be reused for any move with the same
+ * constraints, see {@link MotionProfileCache}. Negative distances produce a mirrored profile.
+ */
+public class MotionProfile {
+
+    private final double distance;
+    private final double maxVelocity;
+    private final double maxAcceleration;
+    private final double maxJerk;
+
+    //State at the start of each segment, and the jerk throughout it
+    private final double[] times;
+    private final double[] positions;
+    private final double[] velocities;
+    private final double[] accelerations;
+    private final double[] jerks;
+    private final double duration;
+
+    private MotionProfile(double distance, double maxVelocity, double maxAcceleration, double maxJerk,
+                          double[] durations, double[] startAccelerations, double[] jerks, int segments) {
+        this.distance = distance;
+        this.maxVelocity = maxVelocity;
+        this.maxAcceleration = maxAcceleration;
+        this.maxJerk = maxJerk;
+
+        this.times = new double[segments];
+        this.positions = new double[segments];
+        this.velocities = new double[segments];
+        this.accelerations = new double[segments];
+        this.jerks = new double[segments];
+
+        //Integrate through each segment to find the state at the start of the next one
+        double sign = Math.signum(distance);
+        double t = 0;
+        double p = 0;
+        double v = 0;
+        for(int i = 0; i < segments; i++) {
+            double a = startAccelerations[i];
+            double j = jerks[i];
+            double d = durations[i];
+
+            this.times[i] = t;
+            this.positions[i] = p * sign;
+            this.velocities[i] = v * sign;
+            this.accelerations[i] = a * sign;
+            this.jerks[i] = j * sign;
+
+            p += v * d + a * d * d / 2 + j * d * d * d / 6;
+            v += a * d + j * d * d / 2;
+            t += d;
+        }
+        this.duration = t;
+    }
+
+    /**
+     * Creates a trapezoidal profile, which accelerates as hard as allowed, cruises at the maximum
+     * velocity and then decelerates. Short moves never reach the maximum velocity.
+     * @param distance the distance to move
+     * @param maxVelocity the maximum velocity
+     * @param maxAcceleration the maximum acceleration
+     * @return the profile
+     */
+    public static MotionProfile trapezoidal(double distance, double maxVelocity, double maxAcceleration) {
+        checkConstraints(maxVelocity, maxAcceleration, Double.POSITIVE_INFINITY);
+        double d = Math.abs(distance);
+
+        //Time to reach the cruise velocity, limited for moves too short to reach the maximum
+        double velocity = Math.min(maxVelocity, Math.sqrt(d * maxAcceleration));
+        double accelerationTime = velocity / maxAcceleration;
+        double cruiseTime = velocity > 0 ? (d - velocity * accelerationTime) / velocity : 0;
+
+        double[] durations = {accelerationTime, cruiseTime, accelerationTime};
+        double[] startAccelerations = {maxAcceleration, 0, -maxAcceleration};
+        double[] jerks = {0, 0, 0};
+
+        return build(distance, maxVelocity, maxAcceleration, Double.POSITIVE_INFINITY, durations, startAccelerations, jerks);
+    }
+
+    /**
+     * Creates an S-curve profile, which is like a trapezoidal profile but also limits jerk so the
+     * acceleration ramps up and down smoothly.
+     * @param distance the distance to move
+     * @param maxVelocity the maximum velocity
+     * @param maxAcceleration the maximum acceleration
+     * @param maxJerk the maximum jerk
+     * @return the profile
+     */
+    public static MotionProfile sCurve(double distance, double maxVelocity, double maxAcceleration, double maxJerk) {
+        checkConstraints(maxVelocity, maxAcceleration, maxJerk);
+        double d = Math.abs(distance);
+
+        //Lowest velocity at which the maximum acceleration is reached before ramping back down
+        double fullAccelerationVelocity = maxAcceleration * maxAcceleration / maxJerk;
+
+        //Peak velocity, lowered if the move is too short to reach the maximum
+        double velocity = maxVelocity;
+        if(velocity * accelerationPhaseTime(velocity, maxAcceleration, maxJerk) > d) {
+            //Both phases take up the whole distance: d = v * (v / a + a / j)
+            double ratio = maxAcceleration / maxJerk;
+            velocity = maxAcceleration * (-ratio + Math.sqrt(ratio * ratio + 4 * d / maxAcceleration)) / 2;
+
+            if(velocity < fullAccelerationVelocity) {
+                //Too short to reach the maximum acceleration either: d = 2 * v^(3/2) / sqrt(j)
+                velocity = Math.pow(d * Math.sqrt(maxJerk) / 2, 2.0 / 3.0);
+            }
+        }
+
+        double jerkTime;
+        double constantTime;
+        if(velocity >= fullAccelerationVelocity) {
+            jerkTime = maxAcceleration / maxJerk;
+            constantTime = velocity / maxAcceleration - jerkTime;
+        } else {
+            jerkTime = Math.sqrt(velocity / maxJerk);
+            constantTime = 0;
+        }
+
+        double peakAcceleration = maxJerk * jerkTime;
+        double cruiseTime = velocity > 0 ? (d - velocity * accelerationPhaseTime(velocity, maxAcceleration, maxJerk)) / velocity : 0;
+
+        double[] durations = {jerkTime, constantTime, jerkTime, cruiseTime, jerkTime, constantTime, jerkTime};
+        double[] startAccelerations = {0, peakAcceleration, peakAcceleration, 0, 0, -peakAcceleration, -peakAcceleration};
+        double[] jerks = {maxJerk, 0, -maxJerk, 0, -maxJerk, 0, maxJerk};
+
+        return build(distance, maxVelocity, maxAcceleration, maxJerk, durations, startAccelerations, jerks);
+    }
+
+    /**
+     * Returns how long it takes to go from rest to a velocity, following the S-curve rules.
+     */
+    private static double accelerationPhaseTime(double velocity, double maxAcceleration, double maxJerk) {
+        if(velocity >= maxAcceleration * maxAcceleration / maxJerk) {
+            return velocity / maxAcceleration + maxAcceleration / maxJerk;
+        }
+
+        return 2 * Math.sqrt(velocity / maxJerk);
+    }
+
+    /**
+     * Builds a profile from a list of segments, leaving out any which take no time.
+     */
+    private static MotionProfile build(double distance, double maxVelocity, double maxAcceleration, double maxJerk,
+                                       double[] durations, double[] startAccelerations, double[] jerks) {
+        int segments = 0;
+        for(int i = 0; i < durations.length; i++) {
+            if(durations[i] > 0) {
+                durations[segments] = durations[i];
+                startAccelerations[segments] = startAccelerations[i];
+                jerks[segments] = jerks[i];
+                segments++;
+            }
+        }
+
+        return new MotionProfile(distance, maxVelocity, maxAcceleration, maxJerk, durations, startAccelerations, jerks, segments);
+    }
+
+    private static void checkConstraints(double maxVelocity, double maxAcceleration, double maxJerk) {
+        if(!(maxVelocity > 0) || !(maxAcceleration > 0) || !(maxJerk > 0)) {
+            throw new MetalConfigurationException("Motion profile constraints must be positive.");
+        }
+    }
+
+    /**
+     * Returns how long the profile takes.
+     * @return the duration of the profile in seconds
+     */
+    public double getDuration() {
+        return duration;
+    }
+
+    /**
+     * Returns the distance the profile moves.
+     * @return the distance of the profile
+     */
+    public double getDistance() {
+        return distance;
+    }
+
+    /**
+     * Returns whether the profile was created with a set of constraints.
+     * @param distance the distance to move
+     * @param maxVelocity the maximum velocity
+     * @param maxAcceleration the maximum acceleration
+     * @param maxJerk the maximum jerk, or infinity for a trapezoidal profile
+     * @return true if the profile has the same constraints
+     */
+    public boolean matches(double distance, double maxVelocity, double maxAcceleration, double maxJerk) {
+        return this.distance == distance && this.maxVelocity == maxVelocity &&
+                this.maxAcceleration == maxAcceleration && this.maxJerk == maxJerk;
+    }
+
+    /**
+     * Returns the position at a time. Times outside of the profile are clamped to its start or end.
+     * @param t the time since the start of the profile in seconds
+     * @return the position at that time
+     */
+    public double getPosition(double t) {
+        if(t >= duration || times.length == 0) return distance;
+        int i = segment(t);
+        double dt = Math.max(t - times[i], 0);
+        return positions[i] + velocities[i] * dt + accelerations[i] * dt * dt / 2 + jerks[i] * dt * dt * dt / 6;
+    }
+
+    /**
+     * Returns the velocity at a time. Times outside of the profile are clamped to its start or end.
+     * @param t the time since the start of the profile in seconds
+     * @return the velocity at that time
+     */
+    public double getVelocity(double t) {
+        if(t >= duration || times.length == 0) return 0;
+        int i = segment(t);
+        double dt = Math.max(t - times[i], 0);
+        return velocities[i] + accelerations[i] * dt + jerks[i] * dt * dt / 2;
+    }
+
+    /**
+     * Returns the acceleration at a time. Times outside of the profile are clamped to its start or end.
+     * @param t the time since the start of the profile in seconds
+     * @return the acceleration at that time
+     */
+    public double getAcceleration(double t) {
+        if(t >= duration || times.length == 0) return 0;
+        int i = segment(t);
+        double dt = Math.max(t - times[i], 0);
+        return accelerations[i] + jerks[i] * dt;
+    }
+
+    /**
+     * Binary searches for the segment containing a time.
+     * @param t the time since the start of the profile
+     * @return the index of the segment
+     */
+    private int segment(double t) {
+        int low = 0;
+        int high = times.length - 1;
+        while(low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if(times[middle] <= t) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,73 @@
+package com.rafibaum.metal.control;
+
+import com.rafibaum.metal.utils.MetalConfigurationException;
+
+/**
+ * MotionProfileCache keeps a fixed number of recently used motion profiles so that mechanisms which
+ * make the same moves over and over, like an elevator moving between set heights, only compute each
+ * profile once. Looking up a cached profile doesn't allocate. When the cache is full, the profile which
+ * was added longest ago is replaced.
+ */
+public class MotionProfileCache {
+
+    private final MotionProfile[] profiles;
+    private int next;
+
+    /**
+     * Instantiates a cache holding a number of profiles.
+     * @param capacity the number of profiles to keep
+     */
+    public MotionProfileCache(int capacity) {
+        if(capacity < 1) {
+            throw new MetalConfigurationException("Motion profile cache must hold at least one profile.");
+        }
+
+        profiles = new MotionProfile[capacity];
+    }
+
+    /**
+     * Returns a trapezoidal profile with the given constraints, computing it if it isn't cached.
+     * @param distance the distance to move
+     * @param maxVelocity the maximum velocity
+     * @param maxAcceleration the maximum acceleration
+     * @return the profile
+     */
+    public MotionProfile trapezoidal(double distance, double maxVelocity, double maxAcceleration) {
+        MotionProfile profile = find(distance, maxVelocity, maxAcceleration, Double.POSITIVE_INFINITY);
+        if(profile == null) {
+            profile = add(MotionProfile.trapezoidal(distance, maxVelocity, maxAcceleration));
+        }
+        return profile;
+    }
+
+    /**
+     * Returns an S-curve profile with the given constraints, computing it if it isn't cached.
+     * @param distance the distance to move
+     * @param maxVelocity the maximum velocity
+     * @param maxAcceleration the maximum acceleration
+     * @param maxJerk the maximum jerk
+     * @return the profile
+     */
+    public MotionProfile sCurve(double distance, double maxVelocity, double maxAcceleration, double maxJerk) {
+        MotionProfile profile = find(distance, maxVelocity, maxAcceleration, maxJerk);
+        if(profile == null) {
+            profile = add(MotionProfile.sCurve(distance, maxVelocity, maxAcceleration, maxJerk));
+        }
+        return profile;
+    }
+
+    private MotionProfile find(double distance, double maxVelocity, double maxAcceleration, double maxJerk) {
+        for(MotionProfile profile : profiles) {
+            if(profile != null && profile.matches(distance, maxVelocity, maxAcceleration, maxJerk)) {
+                return profile;
+            }
+        }
+        return null;
+    }
+
+    private MotionProfile add(MotionProfile profile) {
+        profiles[next] = profile;
+        next = (next + 1) % profiles.length;
+        return profile;
+    }
+}
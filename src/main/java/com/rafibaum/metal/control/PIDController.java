@@ -0,0 +1,283 @@
+package com.rafibaum.metal.control;
+
+import com.rafibaum.metal.geometry.Angle;
+import com.rafibaum.metal.interfaces.IController;
+import com.rafibaum.metal.utils.MetalConfigurationException;
+
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleSupplier;
+
+/**
+ * PIDController is a PID controller with a feedforward term. It can run several independent loops
+ * sharing the same gains, like the four steering loops of a swerve drive, with each loop keeping its
+ * own state in primitive arrays. Calculating outputs never allocates.
+ * <p>
+ * The output of each loop is kP * error + kI * integral of error + kD * derivative of error + kF * setpoint.
+ * The integral term can be clamped to stop it winding up, and the derivative can be low pass filtered
+ * to smooth out sensor noise. For headings, continuous input can be enabled so errors are measured in
+ * degrees along the shortest turn, following {@link Angle#wrapNavigation()}.
+ * <p>
+ * As an {@link IController}, the first loop reads its measurement from an input and writes its output
+ * every update, chasing the setpoint given to {@link #setSetpoint(double)}.
+ */
+public class PIDController implements IController {
+
+    private double kP;
+    private double kI;
+    private double kD;
+    private double kF;
+
+    private double minOutput = Double.NEGATIVE_INFINITY;
+    private double maxOutput = Double.POSITIVE_INFINITY;
+    private double integralLimit = Double.POSITIVE_INFINITY;
+    private double derivativeTimeConstant;
+    private boolean continuous;
+
+    //State of each loop
+    private final double[] integrals;
+    private final double[] previousErrors;
+    private final double[] derivatives;
+    private final boolean[] hasPrevious;
+
+    //Used when run as an IController
+    private double setpoint;
+    private DoubleSupplier input;
+    private DoubleConsumer output;
+
+    /**
+     * Instantiates a controller running a single loop.
+     * @param kP the proportional gain
+     * @param kI the integral gain
+     * @param kD the derivative gain
+     */
+    public PIDController(double kP, double kI, double kD) {
+        this(kP, kI, kD, 0, 1);
+    }
+
+    /**
+     * Instantiates a controller running several loops with the same gains.
+     * @param kP the proportional gain
+     * @param kI the integral gain
+     * @param kD the derivative gain
+     * @param kF the feedforward gain, multiplied by the setpoint
+     * @param loops the number of loops
+     */
+    public PIDController(double kP, double kI, double kD, double kF, int loops) {
+        if(loops < 1) {
+            throw new MetalConfigurationException("PID controller must run at least one loop.");
+        }
+
+        setGains(kP, kI, kD, kF);
+        integrals = new double[loops];
+        previousErrors = new double[loops];
+        derivatives = new double[loops];
+        hasPrevious = new boolean[loops];
+    }
+
+    /**
+     * Sets the gains of the controller.
+     * @param kP the proportional gain
+     * @param kI the integral gain
+     * @param kD the derivative gain
+     * @param kF the feedforward gain, multiplied by the setpoint
+     */
+    public void setGains(double kP, double kI, double kD, double kF) {
+        this.kP = kP;
+        this.kI = kI;
+        this.kD = kD;
+        this.kF = kF;
+    }
+
+    /**
+     * Limits the output of the controller.
+     * @param min the lowest output
+     * @param max the highest output
+     */
+    public void setOutputRange(double min, double max) {
+        if(min > max) {
+            throw new MetalConfigurationException("PID output minimum must not be more than the maximum.");
+        }
+
+        this.minOutput = min;
+        this.maxOutput = max;
+    }
+
+    /**
+     * Limits how much the integral term can add to or take away from the output.
+     * @param limit the largest magnitude of the integral term
+     */
+    public void setIntegralLimit(double limit) {
+        if(limit < 0) {
+            throw new MetalConfigurationException("PID integral limit cannot be negative.");
+        }
+
+        this.integralLimit = limit;
+    }
+
+    /**
+     * Low pass filters the derivative with a time constant. Larger time constants give smoother but
+     * slower derivatives; zero turns filtering off.
+     * @param timeConstant the filter's time constant in seconds
+     */
+    public void setDerivativeFilter(double timeConstant) {
+        if(timeConstant < 0) {
+            throw new MetalConfigurationException("PID derivative filter time constant cannot be negative.");
+        }
+
+        this.derivativeTimeConstant = timeConstant;
+    }
+
+    /**
+     * Sets whether the input is a heading in degrees. If so, errors are wrapped between -180 and 180
+     * degrees so the controller always takes the shortest turn.
+     * @param continuous whether the input is continuous
+     */
+    public void setContinuous(boolean continuous) {
+        this.continuous = continuous;
+    }
+
+    /**
+     * Returns the number of loops the controller runs.
+     * @return the number of loops
+     */
+    public int getLoops() {
+        return integrals.length;
+    }
+
+    /**
+     * Clears the state of every loop.
+     */
+    public void reset() {
+        for(int i = 0; i < integrals.length; i++) {
+            reset(i);
+        }
+    }
+
+    /**
+     * Clears the state of a loop.
+     * @param loop the index of the loop
+     */
+    public void reset(int loop) {
+        integrals[loop] = 0;
+        previousErrors[loop] = 0;
+        derivatives[loop] = 0;
+        hasPrevious[loop] = false;
+    }
+
+    /**
+     * Calculates the output of a loop.
+     * @param loop the index of the loop
+     * @param setpoint the value the loop is trying to reach
+     * @param measurement the current value
+     * @param dt the time since the last calculation in seconds
+     * @return the output of the loop
+     */
+    public double calculate(int loop, double setpoint, double measurement, double dt) {
+        double error = setpoint - measurement;
+        if(continuous) error = Angle.wrapNavigationDegrees(error);
+
+        if(dt > 0) {
+            //Integral is clamped so the integral term stays within its limit
+            double integral = integrals[loop] + error * dt;
+            if(kI != 0) {
+                double limit = integralLimit / Math.abs(kI);
+                if(integral > limit) integral = limit;
+                else if(integral < -limit) integral = -limit;
+            }
+            integrals[loop] = integral;
+
+            if(hasPrevious[loop]) {
+                double change = error - previousErrors[loop];
+                if(continuous) change = Angle.wrapNavigationDegrees(change);
+
+                double derivative = change / dt;
+                if(derivativeTimeConstant > 0) {
+                    derivative = derivatives[loop] + (derivative - derivatives[loop]) * dt / (derivativeTimeConstant + dt);
+                }
+                derivatives[loop] = derivative;
+            }
+        }
+
+        previousErrors[loop] = error;
+        hasPrevious[loop] = true;
+
+        double result = kP * error + kI * integrals[loop] + kD * derivatives[loop] + kF * setpoint;
+        if(result > maxOutput) return maxOutput;
+        if(result < minOutput) return minOutput;
+        return result;
+    }
+
+    /**
+     * Calculates the output of the first loop.
+     * @param setpoint the value the loop is trying to reach
+     * @param measurement the current value
+     * @param dt the time since the last calculation in seconds
+     * @return the output of the loop
+     */
+    public double calculate(double setpoint, double measurement, double dt) {
+        return calculate(0, setpoint, measurement, dt);
+    }
+
+    /**
+     * Calculates the outputs of every loop at once.
+     * @param setpoints the setpoint of each loop
+     * @param measurements the current value of each loop
+     * @param outputs the array the output of each loop is written to
+     * @param dt the time since the last calculation in seconds
+     */
+    public void calculate(double[] setpoints, double[] measurements, double[] outputs, double dt) {
+        int loops = integrals.length;
+        if(setpoints.length < loops || measurements.length < loops || outputs.length < loops) {
+            throw new IndexOutOfBoundsException("Arrays must have an element for each of the " + loops + " loops.");
+        }
+
+        for(int i = 0; i < loops; i++) {
+            outputs[i] = calculate(i, setpoints[i], measurements[i], dt);
+        }
+    }
+
+    /**
+     * Sets the setpoint used when running as an IController.
+     * @param setpoint the value to reach
+     */
+    public void setSetpoint(double setpoint) {
+        this.setpoint = setpoint;
+    }
+
+    /**
+     * Returns the setpoint used when running as an IController.
+     * @return the setpoint
+     */
+    public double getSetpoint() {
+        return setpoint;
+    }
+
+    /**
+     * Sets where the measurement comes from and where the output goes when running as an IController.
+     * @param input supplies the current measurement
+     * @param output accepts the controller's output
+     */
+    public void setIO(DoubleSupplier input, DoubleConsumer output) {
+        this.input = input;
+        this.output = output;
+    }
+
+    @Override
+    public void init() {
+        if(input == null || output == null) {
+            throw new MetalConfigurationException("PID controller needs an input and output before it can be scheduled.");
+        }
+
+        reset();
+    }
+
+    @Override
+    public void update(double timestamp, double dt) {
+        output.accept(calculate(0, setpoint, input.getAsDouble(), dt));
+    }
+
+    @Override
+    public void stop() {
+        output.accept(0);
+    }
+}
@@ -0,0 +1,84 @@
+package com.rafibaum.metal.drive;
+
+import com.rafibaum.metal.geometry.Trig;
+
+/**
+ * ChassisSpeeds is how fast a drivetrain is moving, in the robot's frame: sideways (positive to the
+ * right), forwards, and turning (positive clockwise, in radians per second). It's mutable so it can be
+ * reused every loop without allocating.
+ */
+public class ChassisSpeeds {
+
+    private double vx;
+    private double vy;
+    private double omega;
+
+    /**
+     * Instantiates chassis speeds of zero.
+     */
+    public ChassisSpeeds() {
+    }
+
+    /**
+     * Instantiates chassis speeds.
+     * @param vx the speed to the robot's right
+     * @param vy the speed forwards
+     * @param omega the turning speed in radians per second, positive clockwise
+     */
+    public ChassisSpeeds(double vx, double vy, double omega) {
+        set(vx, vy, omega);
+    }
+
+    /**
+     * Sets the chassis speeds.
+     * @param vx the speed to the robot's right
+     * @param vy the speed forwards
+     * @param omega the turning speed in radians per second, positive clockwise
+     * @return these speeds, for chaining
+     */
+    public ChassisSpeeds set(double vx, double vy, double omega) {
+        this.vx = vx;
+        this.vy = vy;
+        this.omega = omega;
+        return this;
+    }
+
+    /**
+     * Sets the chassis speeds from speeds along the field's axes, for field oriented driving.
+     * @param fieldVx the speed along the field's X axis
+     * @param fieldVy the speed along the field's Y axis
+     * @param omega the turning speed in radians per second, positive clockwise
+     * @param headingDegrees the robot's heading on the field in degrees
+     * @return these speeds, for chaining
+     */
+    public ChassisSpeeds setFieldRelative(double fieldVx, double fieldVy, double omega, double headingDegrees) {
+        double radians = headingDegrees / 180.0 * Math.PI;
+        double cos = Trig.cos(radians);
+        double sin = Trig.sin(radians);
+        return set(fieldVx * cos - fieldVy * sin, fieldVy * cos + fieldVx * sin, omega);
+    }
+
+    /**
+     * Returns the speed to the robot's right.
+     * @return the sideways speed
+     */
+    public double getVx() {
+        return vx;
+    }
+
+    /**
+     * Returns the speed forwards.
+     * @return the forward speed
+     */
+    public double getVy() {
+        return vy;
+    }
+
+    /**
+     * Returns the turning speed, positive clockwise.
+     * @return the turning speed in radians per second
+     */
+    public double getOmega() {
+        return omega;
+    }
+}
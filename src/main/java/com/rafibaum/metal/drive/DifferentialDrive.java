@@ -0,0 +1,63 @@
+package com.rafibaum.metal.drive;
+
+import com.rafibaum.metal.interfaces.ICurvatureDrive;
+import com.rafibaum.metal.interfaces.IMotor;
+import com.rafibaum.metal.utils.MetalConfigurationException;
+
+/**
+ * DifferentialDrive drives a differential (tank) drivetrain's left and right motors. Arcs are driven by
+ * running the outside of the turn faster than the inside. Speeds are converted to motor outputs as a
+ * fraction of the drivetrain's top speed, and if either side would need more than full output both
+ * sides are slowed down together so the arc stays the same.
+ */
+public class DifferentialDrive implements ICurvatureDrive {
+
+    private final IMotor left;
+    private final IMotor right;
+    private final double trackWidth;
+    private final double maxSpeed;
+
+    /**
+     * Instantiates a differential drive.
+     * @param left the left side's motor
+     * @param right the right side's motor
+     * @param trackWidth the distance between the left and right wheels
+     * @param maxSpeed the speed the drivetrain drives at full output
+     */
+    public DifferentialDrive(IMotor left, IMotor right, double trackWidth, double maxSpeed) {
+        if(!(trackWidth > 0) || !(maxSpeed > 0)) {
+            throw new MetalConfigurationException("Drivetrain track width and top speed must be positive.");
+        }
+
+        this.left = left;
+        this.right = right;
+        this.trackWidth = trackWidth;
+        this.maxSpeed = maxSpeed;
+    }
+
+    @Override
+    public void drive(double speed, double curvature) {
+        //Clockwise turns run the left side faster
+        double turn = curvature * trackWidth / 2.0;
+        tank(speed * (1 + turn), speed * (1 - turn));
+    }
+
+    /**
+     * Drives each side at a speed.
+     * @param leftSpeed the speed of the left side
+     * @param rightSpeed the speed of the right side
+     */
+    public void tank(double leftSpeed, double rightSpeed) {
+        double leftOutput = leftSpeed / maxSpeed;
+        double rightOutput = rightSpeed / maxSpeed;
+
+        double largest = Math.max(Math.abs(leftOutput), Math.abs(rightOutput));
+        if(largest > 1) {
+            leftOutput /= largest;
+            rightOutput /= largest;
+        }
+
+        left.set(leftOutput);
+        right.set(rightOutput);
+    }
+}
@@ -0,0 +1,114 @@
+package com.rafibaum.metal.drive;
+
+import com.rafibaum.metal.utils.MetalConfigurationException;
+
+/**
+ * MecanumKinematics converts between how fast a mecanum drive's chassis is moving and the speed of each
+ * of its four wheels. The rollers are assumed to be in the usual X pattern seen from above, so driving
+ * the front left and back right wheels forwards and the others backwards strafes to the right. Unlike
+ * swerve modules mecanum wheels can't steer, so each wheel's state is just its speed. Wheel speeds are
+ * kept in arrays of four, in the order front left, front right, back left, back right.
+ */
+public class MecanumKinematics {
+
+    /**
+     * Index of the front left wheel.
+     */
+    public static final int FRONT_LEFT = 0;
+
+    /**
+     * Index of the front right wheel.
+     */
+    public static final int FRONT_RIGHT = 1;
+
+    /**
+     * Index of the back left wheel.
+     */
+    public static final int BACK_LEFT = 2;
+
+    /**
+     * Index of the back right wheel.
+     */
+    public static final int BACK_RIGHT = 3;
+
+    //Distance from the center to a wheel along X plus along Y, which scales turning
+    private final double turnRadius;
+
+    /**
+     * Instantiates mecanum kinematics for wheels placed symmetrically around the center of the robot.
+     * @param trackWidth the distance between the left and right wheels
+     * @param wheelBase the distance between the front and back wheels
+     */
+    public MecanumKinematics(double trackWidth, double wheelBase) {
+        if(!(trackWidth > 0) || !(wheelBase > 0)) {
+            throw new MetalConfigurationException("Mecanum track width and wheel base must be positive.");
+        }
+
+        this.turnRadius = (trackWidth + wheelBase) / 2.0;
+    }
+
+    /**
+     * Calculates the speed of each wheel for the chassis to move at a speed.
+     * @param speeds the speeds of the chassis
+     * @param wheelSpeeds the array of four wheel speeds to fill in
+     * @return the wheel speeds, for chaining
+     */
+    public double[] toWheelSpeeds(ChassisSpeeds speeds, double[] wheelSpeeds) {
+        return toWheelSpeeds(speeds.getVx(), speeds.getVy(), speeds.getOmega(), wheelSpeeds);
+    }
+
+    /**
+     * Calculates the speed of each wheel for the chassis to move at a speed.
+     * @param vx the speed to the robot's right
+     * @param vy the speed forwards
+     * @param omega the turning speed in radians per second, positive clockwise
+     * @param wheelSpeeds the array of four wheel speeds to fill in
+     * @return the wheel speeds, for chaining
+     */
+    public double[] toWheelSpeeds(double vx, double vy, double omega, double[] wheelSpeeds) {
+        double turn = omega * turnRadius;
+        wheelSpeeds[FRONT_LEFT] = vy + vx + turn;
+        wheelSpeeds[FRONT_RIGHT] = vy - vx - turn;
+        wheelSpeeds[BACK_LEFT] = vy - vx + turn;
+        wheelSpeeds[BACK_RIGHT] = vy + vx - turn;
+        return wheelSpeeds;
+    }
+
+    /**
+     * Calculates how fast the chassis is moving from the measured speed of each wheel.
+     * @param wheelSpeeds the four measured wheel speeds
+     * @param speeds the speeds to fill in
+     * @return the speeds, for chaining
+     */
+    public ChassisSpeeds toChassisSpeeds(double[] wheelSpeeds, ChassisSpeeds speeds) {
+        double fl = wheelSpeeds[FRONT_LEFT];
+        double fr = wheelSpeeds[FRONT_RIGHT];
+        double bl = wheelSpeeds[BACK_LEFT];
+        double br = wheelSpeeds[BACK_RIGHT];
+
+        return speeds.set(
+                (fl - fr - bl + br) / 4.0,
+                (fl + fr + bl + br) / 4.0,
+                (fl - fr + bl - br) / (4.0 * turnRadius));
+    }
+
+    /**
+     * Scales every wheel's speed down together if any are faster than a wheel can go, which keeps the
+     * robot moving in the same direction, just slower.
+     * @param wheelSpeeds the four wheel speeds
+     * @param maxSpeed the fastest a wheel can go
+     */
+    public static void desaturate(double[] wheelSpeeds, double maxSpeed) {
+        double largest = 0;
+        for(double speed : wheelSpeeds) {
+            largest = Math.max(largest, Math.abs(speed));
+        }
+
+        if(largest > maxSpeed) {
+            double scale = maxSpeed / largest;
+            for(int i = 0; i < wheelSpeeds.length; i++) {
+                wheelSpeeds[i] *= scale;
+            }
+        }
+    }
+}
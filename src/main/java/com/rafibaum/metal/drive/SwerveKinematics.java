@@ -0,0 +1,158 @@
+package com.rafibaum.metal.drive;
+
+import com.rafibaum.metal.geometry.Angle;
+import com.rafibaum.metal.geometry.Matrix3;
+import com.rafibaum.metal.geometry.Trig;
+import com.rafibaum.metal.utils.MetalConfigurationException;
+
+/**
+ * SwerveKinematics converts between how fast a swerve drive's chassis is moving and the speed and
+ * steering angle of each of its modules. Modules are given by their positions from the center of the
+ * robot, in the robot's frame (X to the right, Y forwards). Every module is calculated in one call over
+ * primitive arrays, with one atan2 per module and no allocation.
+ * <p>
+ * Going from module states back to chassis speeds uses a least squares fit, since with more than two
+ * modules there are more measurements than unknowns. The fit is worked out once when the kinematics
+ * are created.
+ */
+public class SwerveKinematics {
+
+    private final double[] moduleX;
+    private final double[] moduleY;
+
+    //Rows of the least squares solution, mapping module velocity components to chassis speeds
+    private final double[] vxFromX;
+    private final double[] vxFromY;
+    private final double[] vyFromX;
+    private final double[] vyFromY;
+    private final double[] omegaFromX;
+    private final double[] omegaFromY;
+
+    /**
+     * Instantiates swerve kinematics.
+     * @param moduleX the X coordinate of each module from the center of the robot
+     * @param moduleY the Y coordinate of each module from the center of the robot
+     */
+    public SwerveKinematics(double[] moduleX, double[] moduleY) {
+        int modules = moduleX.length;
+        if(modules < 2 || moduleY.length != modules) {
+            throw new MetalConfigurationException("Swerve drives need at least two modules, each with an X and Y coordinate.");
+        }
+
+        this.moduleX = moduleX.clone();
+        this.moduleY = moduleY.clone();
+
+        //Each module gives vmx = vx + omega * y and vmy = vy - omega * x. Solve the normal equations
+        //(A^T A) s = A^T v once, keeping inverse(A^T A) A^T
+        double n = modules;
+        double sumX = 0;
+        double sumY = 0;
+        double sumSquares = 0;
+        for(int i = 0; i < modules; i++) {
+            sumX += moduleX[i];
+            sumY += moduleY[i];
+            sumSquares += moduleX[i] * moduleX[i] + moduleY[i] * moduleY[i];
+        }
+
+        //A^T A is [[n, 0, sumY], [0, n, -sumX], [sumY, -sumX, sumSquares]]
+        double[] m = {n, 0, sumY, 0, n, -sumX, sumY, -sumX, sumSquares};
+        double[] inverse = new double[9];
+        if(!Matrix3.invert(m, inverse)) {
+            throw new MetalConfigurationException("Swerve modules can't all be in the same place.");
+        }
+
+        vxFromX = new double[modules];
+        vxFromY = new double[modules];
+        vyFromX = new double[modules];
+        vyFromY = new double[modules];
+        omegaFromX = new double[modules];
+        omegaFromY = new double[modules];
+        for(int i = 0; i < modules; i++) {
+            //Columns of A^T for the module's X row (1, 0, y) and Y row (0, 1, -x)
+            double y = moduleY[i];
+            double x = moduleX[i];
+            vxFromX[i] = inverse[0] + inverse[2] * y;
+            vxFromY[i] = inverse[1] - inverse[2] * x;
+            vyFromX[i] = inverse[3] + inverse[5] * y;
+            vyFromY[i] = inverse[4] - inverse[5] * x;
+            omegaFromX[i] = inverse[6] + inverse[8] * y;
+            omegaFromY[i] = inverse[7] - inverse[8] * x;
+        }
+    }
+
+    /**
+     * Returns the number of modules.
+     * @return the number of modules
+     */
+    public int getModules() {
+        return moduleX.length;
+    }
+
+    /**
+     * Calculates the state each module needs for the chassis to move at a speed. Module angles are
+     * between 0 and 360 degrees and speeds are positive.
+     * @param speeds the speeds of the chassis
+     * @param states the states to fill in, one per module
+     * @return the states, for chaining
+     */
+    public SwerveModuleStates toModuleStates(ChassisSpeeds speeds, SwerveModuleStates states) {
+        return toModuleStates(speeds.getVx(), speeds.getVy(), speeds.getOmega(), states);
+    }
+
+    /**
+     * Calculates the state each module needs for the chassis to move at a speed.
+     * @param vx the speed to the robot's right
+     * @param vy the speed forwards
+     * @param omega the turning speed in radians per second, positive clockwise
+     * @param states the states to fill in, one per module
+     * @return the states, for chaining
+     */
+    public SwerveModuleStates toModuleStates(double vx, double vy, double omega, SwerveModuleStates states) {
+        checkSize(states);
+        double[] speeds = states.speeds;
+        double[] angles = states.angles;
+
+        for(int i = 0; i < moduleX.length; i++) {
+            //Turning clockwise moves a point at (x, y) along (y, -x)
+            double mx = vx + omega * moduleY[i];
+            double my = vy - omega * moduleX[i];
+            speeds[i] = Math.sqrt(mx * mx + my * my);
+
+            double radians = Trig.atan2(mx, my);
+            angles[i] = Angle.wrapDegrees(radians / Math.PI * 180.0);
+        }
+
+        return states;
+    }
+
+    /**
+     * Calculates how fast the chassis is moving from the measured state of each module.
+     * @param states the measured states, one per module
+     * @param speeds the speeds to fill in
+     * @return the speeds, for chaining
+     */
+    public ChassisSpeeds toChassisSpeeds(SwerveModuleStates states, ChassisSpeeds speeds) {
+        checkSize(states);
+
+        double vx = 0;
+        double vy = 0;
+        double omega = 0;
+        for(int i = 0; i < moduleX.length; i++) {
+            double radians = states.angles[i] / 180.0 * Math.PI;
+            double mx = states.speeds[i] * Trig.sin(radians);
+            double my = states.speeds[i] * Trig.cos(radians);
+
+            vx += vxFromX[i] * mx + vxFromY[i] * my;
+            vy += vyFromX[i] * mx + vyFromY[i] * my;
+            omega += omegaFromX[i] * mx + omegaFromY[i] * my;
+        }
+
+        return speeds.set(vx, vy, omega);
+    }
+
+    private void checkSize(SwerveModuleStates states) {
+        if(states.size() != moduleX.length) {
+            throw new IllegalArgumentException("Expected states for " + moduleX.length + " modules, not " + states.size() + ".");
+        }
+    }
+}
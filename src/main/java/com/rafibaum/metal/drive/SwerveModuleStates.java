@@ -0,0 +1,114 @@
+package com.rafibaum.metal.drive;
+
+import com.rafibaum.metal.geometry.Angle;
+import com.rafibaum.metal.geometry.Polar;
+
+/**
+ * SwerveModuleStates holds the speed and steering angle of every module of a swerve drive in primitive
+ * arrays. Each module's state is a polar vector, with the speed as the magnitude and the steering angle
+ * in degrees as the angle, and can be read as a {@link Polar} with {@link #toPolar(int)}. The states are
+ * meant to be reused every loop so working with them never allocates.
+ */
+public class SwerveModuleStates {
+
+    final double[] speeds;
+    final double[] angles; //In degrees
+
+    /**
+     * Instantiates stopped states for a number of modules.
+     * @param modules the number of modules
+     */
+    public SwerveModuleStates(int modules) {
+        this.speeds = new double[modules];
+        this.angles = new double[modules];
+    }
+
+    /**
+     * Returns the number of modules.
+     * @return the number of modules
+     */
+    public int size() {
+        return speeds.length;
+    }
+
+    /**
+     * Sets the state of a module.
+     * @param module the index of the module
+     * @param speed the speed of the module's wheel
+     * @param angleDegrees the module's steering angle in degrees
+     */
+    public void set(int module, double speed, double angleDegrees) {
+        speeds[module] = speed;
+        angles[module] = angleDegrees;
+    }
+
+    /**
+     * Returns the speed of a module's wheel. Optimized states can have negative speeds.
+     * @param module the index of the module
+     * @return the speed of the wheel
+     */
+    public double getSpeed(int module) {
+        return speeds[module];
+    }
+
+    /**
+     * Returns the steering angle of a module, between 0 and 360 degrees.
+     * @param module the index of the module
+     * @return the steering angle in degrees
+     */
+    public double getAngleDegrees(int module) {
+        return angles[module];
+    }
+
+    /**
+     * Returns the state of a module as a polar vector. This allocates, so it's meant for logging and
+     * tests rather than loops.
+     * @param module the index of the module
+     * @return the module's state
+     */
+    public Polar toPolar(int module) {
+        return new Polar(speeds[module], new Angle(angles[module]));
+    }
+
+    /**
+     * Scales every module's speed down together if any are faster than a module can go, which keeps the
+     * robot moving in the same direction, just slower.
+     * @param maxSpeed the fastest a module can go
+     */
+    public void desaturate(double maxSpeed) {
+        double largest = 0;
+        for(double speed : speeds) {
+            largest = Math.max(largest, Math.abs(speed));
+        }
+
+        if(largest > maxSpeed) {
+            double scale = maxSpeed / largest;
+            for(int i = 0; i < speeds.length; i++) {
+                speeds[i] *= scale;
+            }
+        }
+    }
+
+    /**
+     * Minimizes how far each module has to steer. Pointing a module the opposite way and driving its
+     * wheel backwards gives the same motion, like {@link Polar#wrap()} treats a negative magnitude as
+     * the opposite angle, so whenever a module would have to turn more than 90 degrees it's flipped
+     * around instead. Modules which aren't moving keep their current angle.
+     * @param currentAngles the current steering angle of each module in degrees
+     */
+    public void optimize(double[] currentAngles) {
+        for(int i = 0; i < speeds.length; i++) {
+            double current = currentAngles[i];
+            if(speeds[i] == 0) {
+                angles[i] = Angle.wrapDegrees(current);
+                continue;
+            }
+
+            double turn = Angle.wrapNavigationDegrees(angles[i] - current);
+            if(turn > 90 || turn < -90) {
+                angles[i] = Angle.wrapDegrees(angles[i] + 180);
+                speeds[i] = -speeds[i];
+            }
+        }
+    }
+}
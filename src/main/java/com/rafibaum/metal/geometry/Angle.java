@@ -11,6 +11,14 @@ public class Angle {
 
     public static final Angle ZERO = new Angle(0.0);
 
+    private static final double FULL_ROTATION = 360.0;
+
+    //Bounds used by wrap() and wrapNavigation()
+    private static final double WRAP_MIN = 0.0;
+    private static final double WRAP_MAX = 360.0;
+    private static final double NAVIGATION_MIN = -180.0;
+    private static final double NAVIGATION_MAX = 180.0;
+
     private double degrees;
 
     /**
@@ -97,15 +105,60 @@ public class Angle {
      * @return the wrapped angle
      */
     public Angle wrap(Angle minAngle, Angle maxAngle) {
-        //Converting angles to degrees
-        double min = minAngle.toDegrees();
-        double max = maxAngle.toDegrees();
+        return wrap(minAngle.toDegrees(), maxAngle.toDegrees());
+    }
+
+    /**
+     * This method wraps an angle so that it's within a specified range of degrees.
+     * It behaves exactly like {@link #wrap(Angle, Angle)} but takes its bounds as primitives.
+     * @param min the lower bound of the wrapping range in degrees
+     * @param max the upper bound of the wrapping range in degrees
+     * @return the wrapped angle
+     */
+    public Angle wrap(double min, double max) {
+        double wrapped = wrapDegrees(degrees, min, max);
+
+        //Angles are immutable, so there's no need to allocate a new one if nothing changed
+        if(wrapped == degrees) return this;
+
+        return new Angle(wrapped);
+    }
+
+    /**
+     * This method wraps this angle between 0 (inclusive) and 360 (not inclusive).
+     * @return the wrapped angle between 0 and 360
+     */
+    public Angle wrap() {
+        return wrap(WRAP_MIN, WRAP_MAX);
+    }
+
+    /**
+     * This method wraps this angle between -180 (inclusive) and 180 (not inclusive).
+     * These bounds are commonly used when dealing with headings as it allows the use of
+     * negative angles to represent counter-clockwise rotations.
+     * @return the wrapped angle between -180 and 180
+     */
+    public Angle wrapNavigation() {
+        return wrap(NAVIGATION_MIN, NAVIGATION_MAX);
+    }
 
+    /**
+     * Wraps an angle in degrees so that it's within a specified range but still has the same
+     * reference angle. This follows the same rules as {@link #wrap(Angle, Angle)}: angles already
+     * in the range are left untouched, the range must be at least 360 degrees wide and angles equal
+     * to the upper bound are wrapped to the lower bound. The wrap takes constant time no matter
+     * how far outside of the range the angle is.
+     * @param degrees the angle to wrap in degrees
+     * @param min the lower bound of the wrapping range in degrees
+     * @param max the upper bound of the wrapping range in degrees
+     * @return the wrapped angle in degrees
+     */
+    public static double wrapDegrees(double degrees, double min, double max) {
         //Making sure a valid range has been specified
         double diff = max - min;
 
         //If the range is smaller than 360 degrees
-        if(diff < 360.0) {
+        if(diff < FULL_ROTATION) {
             if(diff < 0) {
                 //Range cannot be negative
                 throw new MetalConfigurationException("Angle wrapping range is negative. " +
@@ -117,39 +170,38 @@ public class Angle {
             }
         }
 
-        double degrees = this.degrees; //Copying angle value into separate variable
-
-        //Begin the wrapping
-        //Make sure degree value is above the minimum
-        while(degrees < min) {
-            degrees += 360.0;
-        }
-
-        //Make sure degree value is below the maximum
-        while(degrees >= max) {
-            degrees -= 360.0;
+        if(degrees < min) {
+            //Shift up by the fewest whole rotations needed to reach the minimum
+            degrees += FULL_ROTATION * Math.ceil((min - degrees) / FULL_ROTATION);
+            //Rounding can leave the value a hair outside of the range
+            if(degrees < min) degrees += FULL_ROTATION;
+            if(degrees >= max) degrees -= FULL_ROTATION;
+        } else if(degrees >= max) {
+            //Shift down by the fewest whole rotations needed to get below the maximum
+            degrees -= FULL_ROTATION * (Math.floor((degrees - max) / FULL_ROTATION) + 1);
+            if(degrees >= max) degrees -= FULL_ROTATION;
+            if(degrees < min) degrees += FULL_ROTATION;
         }
 
-        //Return the wrapped angle
-        return new Angle(degrees);
+        return degrees;
     }
 
     /**
-     * This method wraps this angle between 0 (inclusive) and 360 (not inclusive).
-     * @return the wrapped angle between 0 and 360
+     * Wraps an angle in degrees between 0 (inclusive) and 360 (not inclusive).
+     * @param degrees the angle to wrap in degrees
+     * @return the wrapped angle in degrees between 0 and 360
      */
-    public Angle wrap() {
-        return wrap(new Angle(0), new Angle(360));
+    public static double wrapDegrees(double degrees) {
+        return wrapDegrees(degrees, WRAP_MIN, WRAP_MAX);
     }
 
     /**
-     * This method wraps this angle between -180 (inclusive) and 180 (not inclusive).
-     * These bounds are commonly used when dealing with headings as it allows the use of
-     * negative angles to represent counter-clockwise rotations.
-     * @return the wrapped angle between -180 and 180
+     * Wraps an angle in degrees between -180 (inclusive) and 180 (not inclusive).
+     * @param degrees the angle to wrap in degrees
+     * @return the wrapped angle in degrees between -180 and 180
      */
-    public Angle wrapNavigation() {
-        return wrap(new Angle(-180), new Angle(180));
+    public static double wrapNavigationDegrees(double degrees) {
+        return wrapDegrees(degrees, NAVIGATION_MIN, NAVIGATION_MAX);
     }
 
     @Override
@@ -0,0 +1,212 @@
+package com.rafibaum.metal.geometry;
+
+/**
+ * BinaryAngle represents an angle as a 32 bit integer where a full rotation is 2^32 units, also known
+ * as a binary angular measurement. Since the integer overflows exactly once per rotation, binary angles
+ * are always wrapped and adding or subtracting them is exact, so they don't drift when many small
+ * changes are accumulated, like integrating gyro readings over a match. One unit is about 8.4e-8 degrees.
+ * <p>
+ * Like {@link Angle}, binary angles use navigation style angles and are immutable. The raw integer is
+ * available through {@link #toRaw()} so angles can be packed densely into int arrays, and the static
+ * raw methods allow the same math without creating objects.
+ */
+public final class BinaryAngle {
+
+    public static final BinaryAngle ZERO = new BinaryAngle(0);
+
+    //Number of units in a full rotation
+    private static final double UNITS_PER_ROTATION = 4294967296.0; //2^32
+    private static final double UNITS_PER_DEGREE = UNITS_PER_ROTATION / 360.0;
+    private static final double DEGREES_PER_UNIT = 360.0 / UNITS_PER_ROTATION;
+
+    private final int raw;
+
+    private BinaryAngle(int raw) {
+        this.raw = raw;
+    }
+
+    /**
+     * Creates a binary angle from its raw integer value.
+     * @param raw the raw value of the angle, where 2^32 units is a full rotation
+     * @return the binary angle
+     */
+    public static BinaryAngle fromRaw(int raw) {
+        return new BinaryAngle(raw);
+    }
+
+    /**
+     * Creates a binary angle from a measure in degrees, rounded to the nearest unit.
+     * @param degrees the angle's measure in degrees
+     * @return the binary angle
+     */
+    public static BinaryAngle fromDegrees(double degrees) {
+        return new BinaryAngle(degreesToRaw(degrees));
+    }
+
+    /**
+     * Creates a binary angle from a measure in the specified unit, rounded to the nearest unit.
+     * @param unit the unit of the angle
+     * @param value the angle's measure in the specified unit
+     * @return the binary angle
+     */
+    public static BinaryAngle from(AngleUnit unit, double value) {
+        if(unit == AngleUnit.RADIANS) {
+            value = (value / Math.PI) * 180.0; //Converts a radian angle to degrees
+        }
+
+        return fromDegrees(value);
+    }
+
+    /**
+     * Creates a binary angle from an angle, rounded to the nearest unit.
+     * @param angle the angle to convert
+     * @return the binary angle
+     */
+    public static BinaryAngle fromAngle(Angle angle) {
+        return fromDegrees(angle.toDegrees());
+    }
+
+    /**
+     * Converts a measure in degrees to a raw binary angle, rounded to the nearest unit.
+     * @param degrees the angle's measure in degrees
+     * @return the raw value of the angle
+     */
+    public static int degreesToRaw(double degrees) {
+        //Wrapping first keeps the value small enough to round exactly, and the cast to int
+        //then wraps 360 degrees around to zero
+        return (int) (long) Math.rint(Angle.wrapDegrees(degrees) * UNITS_PER_DEGREE);
+    }
+
+    /**
+     * Converts a raw binary angle to degrees between -180 (inclusive) and 180 (not inclusive).
+     * @param raw the raw value of the angle
+     * @return the angle's measure in degrees
+     */
+    public static double rawToDegrees(int raw) {
+        return raw * DEGREES_PER_UNIT;
+    }
+
+    /**
+     * Adds two raw binary angles. The sum is exact and always wrapped.
+     * @param a the raw value of the first angle
+     * @param b the raw value of the second angle
+     * @return the raw value of the sum
+     */
+    public static int addRaw(int a, int b) {
+        return a + b;
+    }
+
+    /**
+     * Subtracts one raw binary angle from another (as a - b = result). The difference is exact and always
+     * wrapped, so it's the shortest turn between the two angles.
+     * @param a the raw value of the angle to subtract from
+     * @param b the raw value of the angle to subtract
+     * @return the raw value of the difference
+     */
+    public static int subtractRaw(int a, int b) {
+        return a - b;
+    }
+
+    /**
+     * Returns the shortest turn from one raw binary angle to another in degrees, between -180 (inclusive)
+     * and 180 (not inclusive).
+     * @param from the raw value of the starting angle
+     * @param to the raw value of the ending angle
+     * @return the clockwise turn from the first angle to the second in degrees
+     */
+    public static double differenceDegrees(int from, int to) {
+        return rawToDegrees(to - from);
+    }
+
+    /**
+     * Returns the raw value of the angle, where 2^32 units is a full rotation. As a signed integer
+     * the raw value covers -180 (inclusive) to 180 (not inclusive) degrees.
+     * @return the raw value of the angle
+     */
+    public int toRaw() {
+        return raw;
+    }
+
+    /**
+     * Returns the value of the angle in degrees between -180 (inclusive) and 180 (not inclusive).
+     * @return the value of the angle in degrees
+     */
+    public double toDegrees() {
+        return rawToDegrees(raw);
+    }
+
+    /**
+     * Returns the value of the angle in degrees between 0 (inclusive) and 360 (not inclusive).
+     * @return the value of the angle in degrees
+     */
+    public double toDegreesUnsigned() {
+        //Reading the raw value as unsigned gives the [0, 360) range
+        return (raw & 0xFFFFFFFFL) * DEGREES_PER_UNIT;
+    }
+
+    /**
+     * Returns the value of the angle in radians between -pi (inclusive) and pi (not inclusive).
+     * @return the value of the angle in radians
+     */
+    public double toRadians() {
+        return (toDegrees()/180.0) * Math.PI;
+    }
+
+    /**
+     * Returns the angle as an {@link Angle} wrapped between -180 and 180 degrees.
+     * @return the angle as an Angle
+     */
+    public Angle toAngle() {
+        return new Angle(toDegrees());
+    }
+
+    /**
+     * Adds two angles together and returns the result. The sum is exact and always wrapped.
+     * @param angle the angle to be added to this one
+     * @return the sum of the two angles
+     */
+    public BinaryAngle add(BinaryAngle angle) {
+        return new BinaryAngle(addRaw(raw, angle.raw));
+    }
+
+    /**
+     * Subtracts another angle from this angle (as this angle - parameter = result) and returns the result.
+     * The difference is exact and always wrapped, so it's the shortest turn between the two angles.
+     * @param angle the angle to be subtracted from this one
+     * @return the difference of the two angles (as this angle - parameter = result)
+     */
+    public BinaryAngle subtract(BinaryAngle angle) {
+        return new BinaryAngle(subtractRaw(raw, angle.raw));
+    }
+
+    /**
+     * Returns the angle pointing the opposite way around the circle.
+     * @return the negated angle
+     */
+    public BinaryAngle negate() {
+        return new BinaryAngle(-raw);
+    }
+
+    /**
+     * Multiplies this angle by a scalar quantity and returns the result, rounded to the nearest unit.
+     * @param scalar the scalar multiplier of the angle
+     * @return the product of the angle and the scalar
+     */
+    public BinaryAngle multiply(double scalar) {
+        return fromDegrees(toDegrees() * scalar);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        //If object is not a binary angle, return false
+        if(!(o instanceof BinaryAngle)) return false;
+
+        //Binary angles are exact, so there's no need for a tolerance
+        return ((BinaryAngle) o).raw == raw;
+    }
+
+    @Override
+    public int hashCode() {
+        return raw;
+    }
+}
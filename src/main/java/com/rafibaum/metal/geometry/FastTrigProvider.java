@@ -0,0 +1,94 @@
+package com.rafibaum.metal.geometry;
+
+/**
+ * FastTrigProvider is a TrigProvider which trades a little accuracy for speed by looking values up
+ * in precomputed tables and linearly interpolating between them.
+ * <p>
+ * The absolute error of sin and cos is at most 3e-7 and the absolute error of atan2 is at most 1e-7
+ * radians (about 6e-6 degrees), which is well within the .0001 tolerance Metal uses when comparing
+ * angles and vectors. Accuracy of sin and cos drops for angles beyond about 1e9 radians, where the
+ * spacing between doubles becomes significant compared to the table spacing.
+ */
+public class FastTrigProvider implements TrigProvider {
+
+    //Number of table entries per full rotation, must be a power of two
+    private static final int SIN_SIZE = 4096;
+    private static final int SIN_MASK = SIN_SIZE - 1;
+    private static final double SIN_STEPS_PER_RADIAN = SIN_SIZE / (2 * Math.PI);
+    //Quarter of a rotation in table steps, used to turn sine into cosine
+    private static final double QUARTER_STEPS = SIN_SIZE / 4.0;
+
+    //Number of table entries covering atan on [0, 1]
+    private static final int ATAN_SIZE = 1024;
+
+    //Each table has one extra entry at the end so interpolation never has to wrap
+    private static final double[] SIN_TABLE = new double[SIN_SIZE + 1];
+    private static final double[] ATAN_TABLE = new double[ATAN_SIZE + 1];
+
+    static {
+        for(int i = 0; i <= SIN_SIZE; i++) {
+            SIN_TABLE[i] = Math.sin(i / SIN_STEPS_PER_RADIAN);
+        }
+
+        for(int i = 0; i <= ATAN_SIZE; i++) {
+            ATAN_TABLE[i] = Math.atan((double) i / ATAN_SIZE);
+        }
+    }
+
+    @Override
+    public double sin(double radians) {
+        return lookupSin(radians * SIN_STEPS_PER_RADIAN);
+    }
+
+    @Override
+    public double cos(double radians) {
+        //cos(a) = sin(a + 90 degrees)
+        return lookupSin(radians * SIN_STEPS_PER_RADIAN + QUARTER_STEPS);
+    }
+
+    @Override
+    public double atan2(double y, double x) {
+        double ax = Math.abs(x);
+        double ay = Math.abs(y);
+
+        //Zeroes, infinities and NaNs have special rules, so leave them to Math
+        if(ax == 0 || ay == 0 || Double.isInfinite(ax) || Double.isInfinite(ay) ||
+                Double.isNaN(ax) || Double.isNaN(ay)) {
+            return Math.atan2(y, x);
+        }
+
+        //Reduce to an angle between 0 and 45 degrees so the ratio fits in the table
+        boolean steep = ay > ax;
+        double ratio = steep ? ax / ay : ay / ax;
+
+        double position = ratio * ATAN_SIZE;
+        int index = (int) position;
+        double angle;
+        if(index >= ATAN_SIZE) {
+            angle = ATAN_TABLE[ATAN_SIZE];
+        } else {
+            angle = ATAN_TABLE[index] + (ATAN_TABLE[index + 1] - ATAN_TABLE[index]) * (position - index);
+        }
+
+        //Undo the reduction, moving the angle back into the right octant
+        if(steep) angle = Math.PI / 2 - angle;
+        if(x < 0) angle = Math.PI - angle;
+        if(y < 0) angle = -angle;
+
+        return angle;
+    }
+
+    /**
+     * Looks up the sine of an angle measured in table steps.
+     * @param steps the angle measured in table steps
+     * @return the interpolated sine of the angle
+     */
+    private static double lookupSin(double steps) {
+        double floor = Math.floor(steps);
+        double fraction = steps - floor;
+        //Masking the whole number of steps wraps it to a single rotation, including negative angles
+        int index = (int) ((long) floor & SIN_MASK);
+
+        return SIN_TABLE[index] + (SIN_TABLE[index + 1] - SIN_TABLE[index]) * fraction;
+    }
+}
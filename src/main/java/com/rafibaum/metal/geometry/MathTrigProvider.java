@@ -0,0 +1,23 @@
+package com.rafibaum.metal.geometry;
+
+/**
+ * MathTrigProvider is a TrigProvider backed by {@link java.lang.Math}. It's the most accurate
+ * provider and is the one Metal uses by default.
+ */
+public class MathTrigProvider implements TrigProvider {
+
+    @Override
+    public double sin(double radians) {
+        return Math.sin(radians);
+    }
+
+    @Override
+    public double cos(double radians) {
+        return Math.cos(radians);
+    }
+
+    @Override
+    public double atan2(double y, double x) {
+        return Math.atan2(y, x);
+    }
+}
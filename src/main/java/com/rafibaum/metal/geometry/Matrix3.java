@@ -0,0 +1,122 @@
+package com.rafibaum.metal.geometry;
+
+/**
+ * Matrix3 has hand unrolled operations on 3x3 matrices stored row by row in flat arrays of nine doubles.
+ * Results are written into arrays given by the caller, so nothing allocates. Outputs may not be the same
+ * array as an input unless noted.
+ */
+public final class Matrix3 {
+
+    //Determinants this small relative to the matrix's size are treated as singular
+    private static final double SINGULAR = 1e-12;
+
+    private Matrix3() {
+    }
+
+    /**
+     * Sets a matrix to a diagonal matrix.
+     * @param a the first entry on the diagonal
+     * @param b the second entry on the diagonal
+     * @param c the third entry on the diagonal
+     * @param out the matrix to set
+     */
+    public static void diagonal(double a, double b, double c, double[] out) {
+        out[0] = a; out[1] = 0; out[2] = 0;
+        out[3] = 0; out[4] = b; out[5] = 0;
+        out[6] = 0; out[7] = 0; out[8] = c;
+    }
+
+    /**
+     * Calculates a * b.
+     * @param a the left matrix
+     * @param b the right matrix
+     * @param out the matrix to write the product into
+     */
+    public static void multiply(double[] a, double[] b, double[] out) {
+        out[0] = a[0] * b[0] + a[1] * b[3] + a[2] * b[6];
+        out[1] = a[0] * b[1] + a[1] * b[4] + a[2] * b[7];
+        out[2] = a[0] * b[2] + a[1] * b[5] + a[2] * b[8];
+        out[3] = a[3] * b[0] + a[4] * b[3] + a[5] * b[6];
+        out[4] = a[3] * b[1] + a[4] * b[4] + a[5] * b[7];
+        out[5] = a[3] * b[2] + a[4] * b[5] + a[5] * b[8];
+        out[6] = a[6] * b[0] + a[7] * b[3] + a[8] * b[6];
+        out[7] = a[6] * b[1] + a[7] * b[4] + a[8] * b[7];
+        out[8] = a[6] * b[2] + a[7] * b[5] + a[8] * b[8];
+    }
+
+    /**
+     * Calculates a * b^T.
+     * @param a the left matrix
+     * @param b the matrix to transpose on the right
+     * @param out the matrix to write the product into
+     */
+    public static void multiplyTransposed(double[] a, double[] b, double[] out) {
+        out[0] = a[0] * b[0] + a[1] * b[1] + a[2] * b[2];
+        out[1] = a[0] * b[3] + a[1] * b[4] + a[2] * b[5];
+        out[2] = a[0] * b[6] + a[1] * b[7] + a[2] * b[8];
+        out[3] = a[3] * b[0] + a[4] * b[1] + a[5] * b[2];
+        out[4] = a[3] * b[3] + a[4] * b[4] + a[5] * b[5];
+        out[5] = a[3] * b[6] + a[4] * b[7] + a[5] * b[8];
+        out[6] = a[6] * b[0] + a[7] * b[1] + a[8] * b[2];
+        out[7] = a[6] * b[3] + a[7] * b[4] + a[8] * b[5];
+        out[8] = a[6] * b[6] + a[7] * b[7] + a[8] * b[8];
+    }
+
+    /**
+     * Calculates a + b. The output may be either input.
+     * @param a the first matrix
+     * @param b the second matrix
+     * @param out the matrix to write the sum into
+     */
+    public static void add(double[] a, double[] b, double[] out) {
+        for(int i = 0; i < 9; i++) {
+            out[i] = a[i] + b[i];
+        }
+    }
+
+    /**
+     * Calculates the inverse of a matrix. The matrix counts as singular when its determinant is tiny compared
+     * to the cube of its norm, so the same shape is treated the same whatever units it's in.
+     * @param m the matrix to invert
+     * @param out the matrix to write the inverse into
+     * @return false if the matrix is singular, in which case the output is unchanged
+     */
+    public static boolean invert(double[] m, double[] out) {
+        double c0 = m[4] * m[8] - m[5] * m[7];
+        double c1 = m[5] * m[6] - m[3] * m[8];
+        double c2 = m[3] * m[7] - m[4] * m[6];
+        double determinant = m[0] * c0 + m[1] * c1 + m[2] * c2;
+        double norm = 0;
+        for(int i = 0; i < 9; i++) {
+            norm += m[i] * m[i];
+        }
+        norm = Math.sqrt(norm);
+        if(!(Math.abs(determinant) > SINGULAR * norm * norm * norm)) return false;
+
+        double d = 1.0 / determinant;
+        out[0] = c0 * d;
+        out[1] = (m[2] * m[7] - m[1] * m[8]) * d;
+        out[2] = (m[1] * m[5] - m[2] * m[4]) * d;
+        out[3] = c1 * d;
+        out[4] = (m[0] * m[8] - m[2] * m[6]) * d;
+        out[5] = (m[2] * m[3] - m[0] * m[5]) * d;
+        out[6] = c2 * d;
+        out[7] = (m[1] * m[6] - m[0] * m[7]) * d;
+        out[8] = (m[0] * m[4] - m[1] * m[3]) * d;
+        return true;
+    }
+
+    /**
+     * Makes a matrix exactly symmetric by averaging it with its transpose, which stops rounding errors
+     * building up in covariance matrices. Works in place.
+     * @param m the matrix to make symmetric
+     */
+    public static void symmetrize(double[] m) {
+        double a = (m[1] + m[3]) / 2;
+        double b = (m[2] + m[6]) / 2;
+        double c = (m[5] + m[7]) / 2;
+        m[1] = a; m[3] = a;
+        m[2] = b; m[6] = b;
+        m[5] = c; m[7] = c;
+    }
+}
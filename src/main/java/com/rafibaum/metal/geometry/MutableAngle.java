@@ -0,0 +1,180 @@
+package com.rafibaum.metal.geometry;
+
+/**
+ * MutableAngle is an angle which can be changed in place. Like {@link MutableXY}, it's meant to be
+ * used as a temporary inside of loops which need to run without creating garbage. The in-place
+ * methods modify this angle and return it so calls can be chained. Use {@link #toAngle()} to take
+ * an immutable copy.
+ */
+public class MutableAngle {
+
+    private double degrees;
+
+    /**
+     * Instantiates a mutable angle at zero.
+     */
+    public MutableAngle() {
+    }
+
+    /**
+     * Instantiates a mutable angle in degrees.
+     * @param degrees the angle's measure in degrees
+     */
+    public MutableAngle(double degrees) {
+        this.degrees = degrees;
+    }
+
+    /**
+     * Sets the value of this angle.
+     * @param unit the unit of the value
+     * @param value the angle's new measure in the specified unit
+     * @return this angle
+     */
+    public MutableAngle set(AngleUnit unit, double value) {
+        if(unit == AngleUnit.RADIANS) {
+            value = (value / Math.PI) * 180.0; //Converts a radian angle to degrees
+        }
+
+        this.degrees = value;
+        return this;
+    }
+
+    /**
+     * Sets the value of this angle in degrees.
+     * @param degrees the angle's new measure in degrees
+     * @return this angle
+     */
+    public MutableAngle set(double degrees) {
+        this.degrees = degrees;
+        return this;
+    }
+
+    /**
+     * Sets the value of this angle to match another angle.
+     * @param angle the angle to copy
+     * @return this angle
+     */
+    public MutableAngle set(Angle angle) {
+        return set(angle.toDegrees());
+    }
+
+    /**
+     * Returns the value of the angle in degrees.
+     * @return the value of the angle in degrees
+     */
+    public double toDegrees() {
+        return degrees;
+    }
+
+    /**
+     * Returns the value of the angle in radians.
+     * @return the value of the angle in radians
+     */
+    public double toRadians() {
+        return (degrees/180.0) * Math.PI;
+    }
+
+    /**
+     * Adds an angle to this one in place.
+     * @param degrees the angle to add in degrees
+     * @return this angle
+     */
+    public MutableAngle addInPlace(double degrees) {
+        this.degrees += degrees;
+        return this;
+    }
+
+    /**
+     * Adds an angle to this one in place.
+     * @param angle the angle to add
+     * @return this angle
+     */
+    public MutableAngle addInPlace(Angle angle) {
+        return addInPlace(angle.toDegrees());
+    }
+
+    /**
+     * Subtracts an angle from this one in place (as this angle - parameter = result).
+     * @param degrees the angle to subtract in degrees
+     * @return this angle
+     */
+    public MutableAngle subtractInPlace(double degrees) {
+        this.degrees -= degrees;
+        return this;
+    }
+
+    /**
+     * Subtracts an angle from this one in place (as this angle - parameter = result).
+     * @param angle the angle to subtract
+     * @return this angle
+     */
+    public MutableAngle subtractInPlace(Angle angle) {
+        return subtractInPlace(angle.toDegrees());
+    }
+
+    /**
+     * Multiplies this angle by a scalar in place.
+     * @param scalar the scalar multiplier of the angle
+     * @return this angle
+     */
+    public MutableAngle scaleInPlace(double scalar) {
+        this.degrees *= scalar;
+        return this;
+    }
+
+    /**
+     * Wraps this angle in place so that it's within a specified range of degrees, following the
+     * same rules as {@link Angle#wrap(Angle, Angle)}.
+     * @param min the lower bound of the wrapping range in degrees
+     * @param max the upper bound of the wrapping range in degrees
+     * @return this angle
+     */
+    public MutableAngle wrapInPlace(double min, double max) {
+        this.degrees = Angle.wrapDegrees(degrees, min, max);
+        return this;
+    }
+
+    /**
+     * Wraps this angle in place between 0 (inclusive) and 360 (not inclusive).
+     * @return this angle
+     */
+    public MutableAngle wrapInPlace() {
+        this.degrees = Angle.wrapDegrees(degrees);
+        return this;
+    }
+
+    /**
+     * Wraps this angle in place between -180 (inclusive) and 180 (not inclusive).
+     * @return this angle
+     */
+    public MutableAngle wrapNavigationInPlace() {
+        this.degrees = Angle.wrapNavigationDegrees(degrees);
+        return this;
+    }
+
+    /**
+     * Returns an immutable copy of this angle.
+     * @return an immutable copy of this angle
+     */
+    public Angle toAngle() {
+        return new Angle(degrees);
+    }
+
+    /**
+     * Returns whether this angle has the same value as an immutable angle, within a tolerance.
+     * @param angle the angle to compare with
+     * @return true if the angles are similar
+     */
+    public boolean isEquivalent(Angle angle) {
+        return Math.abs(angle.toDegrees() - degrees) < .0001;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        //Only other mutable angles, so equals stays symmetric with Angle's equals
+        if(!(o instanceof MutableAngle)) return false;
+
+        //Return true if they're similar within a tolerance
+        return Math.abs(((MutableAngle) o).toDegrees() - degrees) < .0001;
+    }
+}
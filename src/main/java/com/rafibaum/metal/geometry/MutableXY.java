@@ -0,0 +1,310 @@
+package com.rafibaum.metal.geometry;
+
+/**
+ * MutableXY is a cartesian vector which can be changed in place. It's meant to be used as a
+ * temporary inside of loops which need to run without creating garbage, usually handed out by a
+ * {@link ScratchArena}. It implements {@link Vector} so it can be passed anywhere a vector is
+ * expected, and the Vector methods behave exactly like {@link XY}'s, returning new vectors. The
+ * in-place methods modify this vector and return it so calls can be chained.
+ * <p>
+ * Since it can change, a MutableXY shouldn't be stored by code expecting an immutable vector.
+ * Use {@link #toXY()} to take an immutable copy.
+ */
+public class MutableXY implements Vector {
+
+    private double x;
+    private double y;
+
+    /**
+     * Instantiates a mutable vector at zero.
+     */
+    public MutableXY() {
+    }
+
+    /**
+     * Instantiates a mutable vector with coordinates X and Y.
+     * @param x X coordinate of the vector
+     * @param y Y coordinate of the vector
+     */
+    public MutableXY(double x, double y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Sets the coordinates of this vector.
+     * @param x the new X coordinate
+     * @param y the new Y coordinate
+     * @return this vector
+     */
+    public MutableXY set(double x, double y) {
+        this.x = x;
+        this.y = y;
+        return this;
+    }
+
+    /**
+     * Sets the coordinates of this vector to match another vector.
+     * @param vector the vector to copy
+     * @return this vector
+     */
+    public MutableXY set(Vector vector) {
+        return set(vector.getX(), vector.getY());
+    }
+
+    /**
+     * Adds a vector to this one in place.
+     * @param x the X coordinate of the vector to add
+     * @param y the Y coordinate of the vector to add
+     * @return this vector
+     */
+    public MutableXY addInPlace(double x, double y) {
+        this.x += x;
+        this.y += y;
+        return this;
+    }
+
+    /**
+     * Adds a vector to this one in place.
+     * @param vector the vector to add
+     * @return this vector
+     */
+    public MutableXY addInPlace(Vector vector) {
+        return addInPlace(vector.getX(), vector.getY());
+    }
+
+    /**
+     * Subtracts a vector from this one in place (as this - parameter = result).
+     * @param x the X coordinate of the vector to subtract
+     * @param y the Y coordinate of the vector to subtract
+     * @return this vector
+     */
+    public MutableXY subtractInPlace(double x, double y) {
+        this.x -= x;
+        this.y -= y;
+        return this;
+    }
+
+    /**
+     * Subtracts a vector from this one in place (as this - parameter = result).
+     * @param vector the vector to subtract
+     * @return this vector
+     */
+    public MutableXY subtractInPlace(Vector vector) {
+        return subtractInPlace(vector.getX(), vector.getY());
+    }
+
+    /**
+     * Scales this vector in place.
+     * @param scalar the number to scale the vector by
+     * @return this vector
+     */
+    public MutableXY scaleInPlace(double scalar) {
+        this.x *= scalar;
+        this.y *= scalar;
+        return this;
+    }
+
+    /**
+     * Turns this vector into a unit vector pointing in the same direction.
+     * @return this vector
+     */
+    public MutableXY normalizeInPlace() {
+        return scaleInPlace(1.0 / getMagnitude());
+    }
+
+    /**
+     * Rotates this vector clockwise in place.
+     * @param angle the angle to rotate the vector by
+     * @return this vector
+     */
+    public MutableXY rotateInPlace(Angle angle) {
+        double radians = angle.toRadians();
+        return rotateInPlace(Trig.cos(radians), Trig.sin(radians));
+    }
+
+    /**
+     * Rotates this vector clockwise in place by an angle given as its cosine and sine.
+     * @param cos the cosine of the angle to rotate by
+     * @param sin the sine of the angle to rotate by
+     * @return this vector
+     */
+    public MutableXY rotateInPlace(double cos, double sin) {
+        double x = this.x;
+        this.x = x * cos + this.y * sin;
+        this.y = this.y * cos - x * sin;
+        return this;
+    }
+
+    /**
+     * Returns an immutable copy of this vector.
+     * @return an immutable copy of this vector
+     */
+    public XY toXY() {
+        return new XY(x, y);
+    }
+
+    /**
+     * Returns the X coordinate of the vector.
+     * @return the X coordinate of the vector
+     */
+    @Override
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * Returns the Y coordinate of the vector.
+     * @return the Y coordinate of the vector
+     */
+    @Override
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * Returns the magnitude of the vector.
+     * @return the magnitude of the vector
+     */
+    @Override
+    public double getMagnitude() {
+        return Math.sqrt(x*x + y*y);
+    }
+
+    /**
+     * Returns the angle of the vector wrapped between zero and 360 degrees.
+     * @see Angle
+     * @return the angle of the vector wrapped between zero and 360 degrees.
+     */
+    @Override
+    public Angle getAngle() {
+        return new Angle(AngleUnit.RADIANS, Trig.atan2(x, y)).wrap();
+    }
+
+    /**
+     * Adds a vector to this one.
+     * @param vector the vector to be added to this one
+     * @return the vector sum
+     */
+    @Override
+    public Vector add(Vector vector) {
+        return new XY(this.x + vector.getX(), this.y + vector.getY());
+    }
+
+    /**
+     * Subtracts a vector from this one (as this - parameter = result).
+     *
+     * @param vector the vector to be subtracted from this one
+     * @return the vector difference
+     */
+    @Override
+    public Vector subtract(Vector vector) {
+        return new XY(this.x - vector.getX(), this.y - vector.getY());
+    }
+
+    /**
+     * Returns a vector which has been scaled by the scalar.
+     *
+     * @param scalar the number to scale the vector by
+     * @return the scaled vector
+     */
+    @Override
+    public Vector scale(double scalar) {
+        return new XY(this.x * scalar, this.y * scalar);
+    }
+
+    /**
+     * Returns a unit vector in the same direction as this one.
+     *
+     * @return a unit vector in the same direction as this one
+     */
+    @Override
+    public Vector normalize() {
+        double magnitude = getMagnitude();
+        return new XY(this.x / magnitude, this.y / magnitude);
+    }
+
+    /**
+     * Returns the dot product of this vector and another one.
+     *
+     * @param vector the vector to dot with this one
+     * @return the dot product of this vector and another one
+     */
+    @Override
+    public double dotProduct(Vector vector) {
+        return this.x * vector.getX() + this.y * vector.getY();
+    }
+
+    /**
+     * Returns the magnitude of the cross product of this vector and another one.
+     *
+     * @param vector the vector to cross with this one
+     * @return the magnitude of the cross product of this vector and another one
+     */
+    @Override
+    public double crossProduct(Vector vector) {
+        return Math.abs(signedCrossProduct(vector));
+    }
+
+    /**
+     * Returns the signed magnitude of the cross product of this vector and another one
+     * (x1 * y2 - y1 * x2). The result is positive when the other vector points counter-clockwise
+     * of this one and negative when it points clockwise of this one.
+     *
+     * @param vector the vector to cross with this one
+     * @return the signed magnitude of the cross product of this vector and another one
+     */
+    @Override
+    public double signedCrossProduct(Vector vector) {
+        return this.x * vector.getY() - this.y * vector.getX();
+    }
+
+    /**
+     * Returns the angle from this vector to another one, wrapped between -180 and 180 degrees.
+     * The result is positive when the other vector points clockwise of this one.
+     *
+     * @param vector the vector to measure the angle to
+     * @return the angle from this vector to the other one
+     */
+    @Override
+    public Angle angleBetween(Vector vector) {
+        return new Angle(AngleUnit.RADIANS, Trig.atan2(-signedCrossProduct(vector), dotProduct(vector)));
+    }
+
+    /**
+     * Returns this vector rotated clockwise by an angle.
+     *
+     * @param angle the angle to rotate the vector by
+     * @return the rotated vector
+     */
+    @Override
+    public Vector rotate(Angle angle) {
+        double radians = angle.toRadians();
+        return rotate(Trig.cos(radians), Trig.sin(radians));
+    }
+
+    /**
+     * Returns this vector rotated clockwise by an angle given as its cosine and sine.
+     *
+     * @param cos the cosine of the angle to rotate by
+     * @param sin the sine of the angle to rotate by
+     * @return the rotated vector
+     */
+    @Override
+    public Vector rotate(double cos, double sin) {
+        return new XY(this.x * cos + this.y * sin, this.y * cos - this.x * sin);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        //If object is not a vector, it cannot be equal
+        if(!(o instanceof Vector)) return false;
+
+        //Now it's safe to cast the object as a vector
+        Vector v = (Vector) o;
+
+        //If x and y coordinates are equal within tolerance, the vectors are equal
+        return(Math.abs(v.getX() - this.x) < .0001 &&
+                Math.abs(v.getY() - this.y) < .0001);
+    }
+}
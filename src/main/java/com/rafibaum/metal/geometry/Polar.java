@@ -10,6 +10,13 @@ public class Polar implements Vector {
     private double magnitude;
     private Angle angle;
 
+    //Cartesian components, computed the first time they're needed. Since the vector is immutable
+    //they never need to be recomputed. The volatile flag is written after the components so other
+    //threads never see it set before the components are.
+    private double x;
+    private double y;
+    private volatile boolean cartesianComputed;
+
     /**
      * Instantiates a polar vector given a vector magnitude and an angle.
      * @param magnitude the magnitude of the vector
@@ -35,7 +42,8 @@ public class Polar implements Vector {
      */
     @Override
     public double getX() {
-        return magnitude * Math.sin(angle.toRadians());
+        if(!cartesianComputed) computeCartesian();
+        return x;
     }
 
     /**
@@ -44,7 +52,19 @@ public class Polar implements Vector {
      */
     @Override
     public double getY() {
-        return magnitude * Math.cos(angle.toRadians());
+        if(!cartesianComputed) computeCartesian();
+        return y;
+    }
+
+    /**
+     * Computes and caches both cartesian components of the vector at once so that the angle only has
+     * to be converted to radians once and each trig function is only called once.
+     */
+    private void computeCartesian() {
+        double radians = angle.toRadians();
+        x = magnitude * Trig.sin(radians);
+        y = magnitude * Trig.cos(radians);
+        cartesianComputed = true;
     }
 
     /**
@@ -128,15 +148,60 @@ public class Polar implements Vector {
      */
     @Override
     public double crossProduct(Vector vector) {
-        //Obtains the angles of the two vectors, wrapped between 0 and 360
-        Angle a1 = this.getAngle().wrap(new Angle(0), new Angle(360));
-        Angle a2 = vector.getAngle().wrap(new Angle(0), new Angle(360));
+        return Math.abs(signedCrossProduct(vector));
+    }
+
+    /**
+     * Returns the signed magnitude of the cross product of this vector and another one
+     * (x1 * y2 - y1 * x2). The result is positive when the other vector points counter-clockwise
+     * of this one and negative when it points clockwise of this one.
+     *
+     * @param vector the vector to cross with this one
+     * @return the signed magnitude of the cross product of this vector and another one
+     */
+    @Override
+    public double signedCrossProduct(Vector vector) {
+        return this.getX() * vector.getY() - this.getY() * vector.getX();
+    }
+
+    /**
+     * Returns the angle from this vector to another one, wrapped between -180 and 180 degrees.
+     * The result is positive when the other vector points clockwise of this one.
+     *
+     * @param vector the vector to measure the angle to
+     * @return the angle from this vector to the other one
+     */
+    @Override
+    public Angle angleBetween(Vector vector) {
+        //atan2 of the cross and dot products gives the angle without finding either vector's angle.
+        //The cross product is negated since navigation angles increase clockwise.
+        return new Angle(AngleUnit.RADIANS, Trig.atan2(-signedCrossProduct(vector), dotProduct(vector)));
+    }
 
-        //Finds the angle between the two vectors
-        double angleBetween = Math.abs(a1.toRadians() - a2.toRadians());
+    /**
+     * Returns this vector rotated clockwise by an angle. Polar vectors can be rotated by simply
+     * adding to their angle, so no trig is needed.
+     *
+     * @param angle the angle to rotate the vector by
+     * @return the rotated vector
+     */
+    @Override
+    public Vector rotate(Angle angle) {
+        return new Polar(this.magnitude, this.angle.add(angle));
+    }
 
-        //Magnitude of the cross product = |V1| * |V2| * sin(angle between vectors)
-        return this.getMagnitude() * vector.getMagnitude() * Math.sin(angleBetween);
+    /**
+     * Returns this vector rotated clockwise by an angle given as its cosine and sine.
+     *
+     * @param cos the cosine of the angle to rotate by
+     * @param sin the sine of the angle to rotate by
+     * @return the rotated vector
+     */
+    @Override
+    public Vector rotate(double cos, double sin) {
+        double x = this.getX();
+        double y = this.getY();
+        return new XY(x * cos + y * sin, y * cos - x * sin);
     }
 
     /**
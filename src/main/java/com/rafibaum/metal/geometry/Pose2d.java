@@ -0,0 +1,244 @@
+package com.rafibaum.metal.geometry;
+
+/**
+ * Pose2d is the position and heading of a robot on the field. The heading uses Metal's navigation
+ * style angles, so a heading of zero faces along the field's Y axis and headings increase clockwise.
+ * In the robot's own frame, X points to its right and Y points forward.
+ * <p>
+ * The cosine and sine of the heading are computed once when the pose is created, so moving between
+ * the field frame and the robot frame only costs multiplies. Poses are immutable.
+ */
+public class Pose2d {
+
+    public static final Pose2d ORIGIN = new Pose2d(0, 0, Angle.ZERO);
+
+    private final double x;
+    private final double y;
+    private final Angle heading;
+    private final double cos;
+    private final double sin;
+
+    /**
+     * Instantiates a pose from a position and a heading.
+     * @param translation the position of the robot on the field
+     * @param heading the heading of the robot
+     */
+    public Pose2d(Vector translation, Angle heading) {
+        this(translation.getX(), translation.getY(), heading);
+    }
+
+    /**
+     * Instantiates a pose from a position and a heading.
+     * @param x the X coordinate of the robot on the field
+     * @param y the Y coordinate of the robot on the field
+     * @param heading the heading of the robot
+     */
+    public Pose2d(double x, double y, Angle heading) {
+        this.x = x;
+        this.y = y;
+        this.heading = heading;
+
+        double radians = heading.toRadians();
+        this.cos = Trig.cos(radians);
+        this.sin = Trig.sin(radians);
+    }
+
+    /**
+     * Returns the position of the robot on the field.
+     * @return the position of the robot
+     */
+    public XY getTranslation() {
+        return new XY(x, y);
+    }
+
+    /**
+     * Returns the X coordinate of the robot on the field.
+     * @return the X coordinate of the robot
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * Returns the Y coordinate of the robot on the field.
+     * @return the Y coordinate of the robot
+     */
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * Returns the heading of the robot.
+     * @return the heading of the robot
+     */
+    public Angle getHeading() {
+        return heading;
+    }
+
+    /**
+     * Returns the cosine of the heading.
+     * @return the cosine of the heading
+     */
+    public double getCos() {
+        return cos;
+    }
+
+    /**
+     * Returns the sine of the heading.
+     * @return the sine of the heading
+     */
+    public double getSin() {
+        return sin;
+    }
+
+    /**
+     * Returns the pose reached by applying a transform to this pose.
+     * @param transform the transform, in the frame of this pose
+     * @return the transformed pose
+     */
+    public Pose2d transformBy(Transform2d transform) {
+        return new Pose2d(toFieldX(transform.getX(), transform.getY()), toFieldY(transform.getX(), transform.getY()),
+                heading.add(transform.getRotation()));
+    }
+
+    /**
+     * Returns this pose as seen from another pose, i.e. in the other pose's frame.
+     * @param other the pose to use as the origin
+     * @return this pose relative to the other pose
+     */
+    public Pose2d relativeTo(Pose2d other) {
+        return new Pose2d(other.toLocalX(x, y), other.toLocalY(x, y), heading.subtract(other.heading));
+    }
+
+    /**
+     * Returns the pose reached by following a twist from this pose, assuming the robot moves along
+     * an arc of constant curvature.
+     * @param twist the twist, in the frame of this pose
+     * @return the pose at the end of the twist
+     */
+    public Pose2d exp(Twist2d twist) {
+        double dtheta = twist.getDthetaRadians();
+
+        //s and c are the integrals of cos and sin of the heading over the arc
+        double s = Twist2d.sinOverAngle(dtheta);
+        double c = Twist2d.versineOverAngle(dtheta);
+
+        double localX = twist.getDx() * s + twist.getDy() * c;
+        double localY = twist.getDy() * s - twist.getDx() * c;
+
+        return new Pose2d(toFieldX(localX, localY), toFieldY(localX, localY),
+                heading.add(new Angle(AngleUnit.RADIANS, dtheta)));
+    }
+
+    /**
+     * Returns the twist which takes this pose to another pose. This is the inverse of {@link #exp(Twist2d)}.
+     * @param end the pose to reach
+     * @return the twist, in the frame of this pose
+     */
+    public Twist2d log(Pose2d end) {
+        double localX = toLocalX(end.x, end.y);
+        double localY = toLocalY(end.x, end.y);
+        double dtheta = Angle.wrapNavigationDegrees(end.heading.toDegrees() - heading.toDegrees()) / 180.0 * Math.PI;
+
+        double s = Twist2d.sinOverAngle(dtheta);
+        double c = Twist2d.versineOverAngle(dtheta);
+
+        //Inverting the matrix used by exp
+        double det = s * s + c * c;
+        return new Twist2d((s * localX - c * localY) / det, (c * localX + s * localY) / det, dtheta);
+    }
+
+    /**
+     * Converts a vector in the robot's frame to the field's frame.
+     * @param vector the vector in the robot's frame
+     * @return the vector in the field's frame
+     */
+    public XY toField(Vector vector) {
+        return new XY(toFieldX(vector.getX(), vector.getY()), toFieldY(vector.getX(), vector.getY()));
+    }
+
+    /**
+     * Converts a vector in the field's frame to the robot's frame.
+     * @param vector the vector in the field's frame
+     * @return the vector in the robot's frame
+     */
+    public XY toRobot(Vector vector) {
+        return new XY(toLocalX(vector.getX(), vector.getY()), toLocalY(vector.getX(), vector.getY()));
+    }
+
+    /**
+     * Converts a range of points in a buffer from the robot's frame to the field's frame, in place.
+     * @param points the points to convert
+     * @param from the first index of the range (inclusive)
+     * @param to the last index of the range (exclusive)
+     */
+    public void toField(VectorBuffer points, int from, int to) {
+        points.rotate(from, to, cos, sin);
+        points.add(from, to, x, y);
+    }
+
+    /**
+     * Converts a range of points in a buffer from the field's frame to the robot's frame, in place.
+     * @param points the points to convert
+     * @param from the first index of the range (inclusive)
+     * @param to the last index of the range (exclusive)
+     */
+    public void toRobot(VectorBuffer points, int from, int to) {
+        points.subtract(from, to, x, y);
+        points.rotate(from, to, cos, -sin);
+    }
+
+    /**
+     * Returns the field X coordinate of a point given in the robot's frame.
+     * @param localX the X coordinate of the point in the robot's frame
+     * @param localY the Y coordinate of the point in the robot's frame
+     * @return the X coordinate of the point on the field
+     */
+    public double toFieldX(double localX, double localY) {
+        return x + localX * cos + localY * sin;
+    }
+
+    /**
+     * Returns the field Y coordinate of a point given in the robot's frame.
+     * @param localX the X coordinate of the point in the robot's frame
+     * @param localY the Y coordinate of the point in the robot's frame
+     * @return the Y coordinate of the point on the field
+     */
+    public double toFieldY(double localX, double localY) {
+        return y + localY * cos - localX * sin;
+    }
+
+    /**
+     * Returns the robot frame X coordinate of a point given in the field's frame.
+     * @param fieldX the X coordinate of the point on the field
+     * @param fieldY the Y coordinate of the point on the field
+     * @return the X coordinate of the point in the robot's frame
+     */
+    public double toLocalX(double fieldX, double fieldY) {
+        double dx = fieldX - x;
+        double dy = fieldY - y;
+        return dx * cos - dy * sin;
+    }
+
+    /**
+     * Returns the robot frame Y coordinate of a point given in the field's frame.
+     * @param fieldX the X coordinate of the point on the field
+     * @param fieldY the Y coordinate of the point on the field
+     * @return the Y coordinate of the point in the robot's frame
+     */
+    public double toLocalY(double fieldX, double fieldY) {
+        double dx = fieldX - x;
+        double dy = fieldY - y;
+        return dy * cos + dx * sin;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(!(o instanceof Pose2d)) return false;
+        Pose2d p = (Pose2d) o;
+
+        //Headings are compared by the direction they face, so 0 and 360 degrees are equal
+        return Math.abs(p.x - x) < .0001 && Math.abs(p.y - y) < .0001 &&
+                Math.abs(Angle.wrapNavigationDegrees(p.heading.toDegrees() - heading.toDegrees())) < .0001;
+    }
+}
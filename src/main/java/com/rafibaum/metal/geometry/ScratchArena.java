@@ -0,0 +1,142 @@
+package com.rafibaum.metal.geometry;
+
+/**
+ * ScratchArena hands out temporary {@link MutableXY} and {@link MutableAngle} objects for use within
+ * a single loop iteration. Calling {@link #reset()} at the end of the iteration makes every temporary
+ * available again, so a loop which asks for the same number of temporaries each time allocates
+ * nothing once the arena has warmed up. If an iteration asks for more temporaries than the arena holds
+ * it grows, which allocates once but never again for that many temporaries.
+ * <p>
+ * Temporaries must not be used after the arena is reset, since they'll be handed out again. An arena
+ * isn't thread safe, so each loop thread should have its own.
+ */
+public class ScratchArena {
+
+    private static final int DEFAULT_CAPACITY = 32;
+
+    private MutableXY[] vectors;
+    private MutableAngle[] angles;
+    private int vectorsUsed;
+    private int anglesUsed;
+
+    /**
+     * Instantiates an arena with a default number of temporaries of each type.
+     */
+    public ScratchArena() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Instantiates an arena holding a number of temporaries of each type.
+     * @param capacity the number of vectors and angles to preallocate
+     */
+    public ScratchArena(int capacity) {
+        vectors = new MutableXY[Math.max(capacity, 1)];
+        angles = new MutableAngle[Math.max(capacity, 1)];
+        fill(vectors, 0);
+        fill(angles, 0);
+    }
+
+    /**
+     * Returns a temporary vector set to zero.
+     * @return a temporary vector
+     */
+    public MutableXY vector() {
+        if(vectorsUsed == vectors.length) {
+            MutableXY[] grown = new MutableXY[vectors.length * 2];
+            System.arraycopy(vectors, 0, grown, 0, vectors.length);
+            fill(grown, vectors.length);
+            vectors = grown;
+        }
+
+        return vectors[vectorsUsed++].set(0, 0);
+    }
+
+    /**
+     * Returns a temporary vector set to the given coordinates.
+     * @param x the X coordinate of the vector
+     * @param y the Y coordinate of the vector
+     * @return a temporary vector
+     */
+    public MutableXY vector(double x, double y) {
+        return vector().set(x, y);
+    }
+
+    /**
+     * Returns a temporary vector set to match another vector.
+     * @param vector the vector to copy
+     * @return a temporary vector
+     */
+    public MutableXY vector(Vector vector) {
+        return vector().set(vector);
+    }
+
+    /**
+     * Returns a temporary angle set to zero.
+     * @return a temporary angle
+     */
+    public MutableAngle angle() {
+        if(anglesUsed == angles.length) {
+            MutableAngle[] grown = new MutableAngle[angles.length * 2];
+            System.arraycopy(angles, 0, grown, 0, angles.length);
+            fill(grown, angles.length);
+            angles = grown;
+        }
+
+        return angles[anglesUsed++].set(0);
+    }
+
+    /**
+     * Returns a temporary angle set to a value in degrees.
+     * @param degrees the angle's measure in degrees
+     * @return a temporary angle
+     */
+    public MutableAngle angle(double degrees) {
+        return angle().set(degrees);
+    }
+
+    /**
+     * Returns a temporary angle set to match another angle.
+     * @param angle the angle to copy
+     * @return a temporary angle
+     */
+    public MutableAngle angle(Angle angle) {
+        return angle().set(angle);
+    }
+
+    /**
+     * Makes every temporary available again. This should be called at the end of each loop iteration.
+     */
+    public void reset() {
+        vectorsUsed = 0;
+        anglesUsed = 0;
+    }
+
+    /**
+     * Returns the number of vectors the arena can hand out before it has to grow.
+     * @return the vector capacity of the arena
+     */
+    public int vectorCapacity() {
+        return vectors.length;
+    }
+
+    /**
+     * Returns the number of angles the arena can hand out before it has to grow.
+     * @return the angle capacity of the arena
+     */
+    public int angleCapacity() {
+        return angles.length;
+    }
+
+    private static void fill(MutableXY[] vectors, int from) {
+        for(int i = from; i < vectors.length; i++) {
+            vectors[i] = new MutableXY();
+        }
+    }
+
+    private static void fill(MutableAngle[] angles, int from) {
+        for(int i = from; i < angles.length; i++) {
+            angles[i] = new MutableAngle();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.rafibaum.metal.geometry;
+
+/**
+ * Transform2d describes a change from one pose to another: a translation, in the frame of the
+ * starting pose, followed by a clockwise rotation. The cosine and sine of the rotation are computed
+ * once when the transform is created so applying it only costs multiplies.
+ */
+public class Transform2d {
+
+    private final double x;
+    private final double y;
+    private final Angle rotation;
+    private final double cos;
+    private final double sin;
+
+    /**
+     * Instantiates a transform from a translation and a rotation.
+     * @param translation the translation, in the frame of the starting pose
+     * @param rotation the clockwise rotation
+     */
+    public Transform2d(Vector translation, Angle rotation) {
+        this(translation.getX(), translation.getY(), rotation);
+    }
+
+    /**
+     * Instantiates a transform from a translation and a rotation.
+     * @param x the translation to the right of the starting pose
+     * @param y the translation forward of the starting pose
+     * @param rotation the clockwise rotation
+     */
+    public Transform2d(double x, double y, Angle rotation) {
+        this.x = x;
+        this.y = y;
+        this.rotation = rotation;
+
+        double radians = rotation.toRadians();
+        this.cos = Trig.cos(radians);
+        this.sin = Trig.sin(radians);
+    }
+
+    /**
+     * Instantiates the transform which takes one pose to another.
+     * @param initial the starting pose
+     * @param last the ending pose
+     */
+    public Transform2d(Pose2d initial, Pose2d last) {
+        this(initial.toLocalX(last.getX(), last.getY()), initial.toLocalY(last.getX(), last.getY()),
+                last.getHeading().subtract(initial.getHeading()));
+    }
+
+    /**
+     * Returns the translation of the transform.
+     * @return the translation of the transform
+     */
+    public XY getTranslation() {
+        return new XY(x, y);
+    }
+
+    /**
+     * Returns the translation to the right of the starting pose.
+     * @return the X component of the translation
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * Returns the translation forward of the starting pose.
+     * @return the Y component of the translation
+     */
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * Returns the clockwise rotation of the transform.
+     * @return the rotation of the transform
+     */
+    public Angle getRotation() {
+        return rotation;
+    }
+
+    /**
+     * Returns the cosine of the rotation.
+     * @return the cosine of the rotation
+     */
+    public double getCos() {
+        return cos;
+    }
+
+    /**
+     * Returns the sine of the rotation.
+     * @return the sine of the rotation
+     */
+    public double getSin() {
+        return sin;
+    }
+
+    /**
+     * Returns the transform which undoes this one.
+     * @return the inverse of this transform
+     */
+    public Transform2d inverse() {
+        //Undo the translation in the frame of the ending pose
+        return new Transform2d(-(x * cos - y * sin), -(y * cos + x * sin), rotation.multiply(-1));
+    }
+
+    /**
+     * Returns the transform equivalent to applying this transform and then another one.
+     * @param other the transform to apply after this one
+     * @return the combined transform
+     */
+    public Transform2d plus(Transform2d other) {
+        return new Transform2d(x + other.x * cos + other.y * sin, y + other.y * cos - other.x * sin,
+                rotation.add(other.rotation));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(!(o instanceof Transform2d)) return false;
+        Transform2d t = (Transform2d) o;
+
+        //Rotations are compared by the direction they leave the pose facing
+        return Math.abs(t.x - x) < .0001 && Math.abs(t.y - y) < .0001 &&
+                Math.abs(Angle.wrapNavigationDegrees(t.rotation.toDegrees() - rotation.toDegrees())) < .0001;
+    }
+}
@@ -0,0 +1,65 @@
+package com.rafibaum.metal.geometry;
+
+import com.rafibaum.metal.utils.MetalConfigurationException;
+
+/**
+ * Trig is where the geometry package gets its trigonometric functions from. By default it uses
+ * {@link MathTrigProvider}, but a faster, approximate provider like {@link FastTrigProvider} can be
+ * selected instead. The provider should be chosen once when the robot starts, before any vectors are
+ * used, since polar vectors cache their cartesian components the first time they're computed.
+ */
+public final class Trig {
+
+    private static TrigProvider provider = new MathTrigProvider();
+
+    private Trig() {
+    }
+
+    /**
+     * Selects the trig provider used by the geometry package.
+     * @param provider the trig provider to use
+     */
+    public static void setProvider(TrigProvider provider) {
+        if(provider == null) {
+            throw new MetalConfigurationException("Trig provider cannot be null.");
+        }
+
+        Trig.provider = provider;
+    }
+
+    /**
+     * Returns the trig provider currently used by the geometry package.
+     * @return the trig provider in use
+     */
+    public static TrigProvider getProvider() {
+        return provider;
+    }
+
+    /**
+     * Returns the sine of an angle using the selected provider.
+     * @param radians the angle in radians
+     * @return the sine of the angle
+     */
+    public static double sin(double radians) {
+        return provider.sin(radians);
+    }
+
+    /**
+     * Returns the cosine of an angle using the selected provider.
+     * @param radians the angle in radians
+     * @return the cosine of the angle
+     */
+    public static double cos(double radians) {
+        return provider.cos(radians);
+    }
+
+    /**
+     * Returns the angle of the point (x, y) from the positive X axis using the selected provider.
+     * @param y the Y coordinate of the point
+     * @param x the X coordinate of the point
+     * @return the angle of the point in radians between -pi and pi
+     */
+    public static double atan2(double y, double x) {
+        return provider.atan2(y, x);
+    }
+}
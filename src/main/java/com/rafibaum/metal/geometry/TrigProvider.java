@@ -0,0 +1,32 @@
+package com.rafibaum.metal.geometry;
+
+/**
+ * TrigProvider describes an implementation of the trigonometric functions used by the geometry
+ * package. All angles are in radians. The provider in use can be selected with {@link Trig#setProvider}.
+ */
+public interface TrigProvider {
+
+    /**
+     * Returns the sine of an angle.
+     * @param radians the angle in radians
+     * @return the sine of the angle
+     */
+    double sin(double radians);
+
+    /**
+     * Returns the cosine of an angle.
+     * @param radians the angle in radians
+     * @return the cosine of the angle
+     */
+    double cos(double radians);
+
+    /**
+     * Returns the angle of the point (x, y) from the positive X axis, with the same conventions as
+     * {@link Math#atan2(double, double)}.
+     * @param y the Y coordinate of the point
+     * @param x the X coordinate of the point
+     * @return the angle of the point in radians between -pi and pi
+     */
+    double atan2(double y, double x);
+
+}
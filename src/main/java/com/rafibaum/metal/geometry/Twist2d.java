@@ -0,0 +1,110 @@
+package com.rafibaum.metal.geometry;
+
+/**
+ * Twist2d describes a movement along an arc from a pose, in the frame of that pose. Like the rest of
+ * Metal, X points to the robot's right, Y points forward and rotations are clockwise. Twists are
+ * what odometry measures each loop, and are turned into poses with {@link Pose2d#exp(Twist2d)}.
+ */
+public class Twist2d {
+
+    //Below this turn in radians the series are used, since the trig versions lose precision
+    //with table based trig providers
+    private static final double SMALL_ANGLE = 1e-3;
+
+    private final double dx;
+    private final double dy;
+    private final double dtheta;
+
+    /**
+     * Instantiates a twist.
+     * @param dx the distance travelled to the right
+     * @param dy the distance travelled forward
+     * @param dtheta the clockwise change in heading
+     */
+    public Twist2d(double dx, double dy, Angle dtheta) {
+        this(dx, dy, dtheta.toRadians());
+    }
+
+    /**
+     * Instantiates a twist with the change in heading given in radians.
+     * @param dx the distance travelled to the right
+     * @param dy the distance travelled forward
+     * @param dthetaRadians the clockwise change in heading in radians
+     */
+    public Twist2d(double dx, double dy, double dthetaRadians) {
+        this.dx = dx;
+        this.dy = dy;
+        this.dtheta = dthetaRadians;
+    }
+
+    /**
+     * Returns the distance travelled to the right.
+     * @return the distance travelled to the right
+     */
+    public double getDx() {
+        return dx;
+    }
+
+    /**
+     * Returns the distance travelled forward.
+     * @return the distance travelled forward
+     */
+    public double getDy() {
+        return dy;
+    }
+
+    /**
+     * Returns the clockwise change in heading.
+     * @return the change in heading
+     */
+    public Angle getDtheta() {
+        return new Angle(AngleUnit.RADIANS, dtheta);
+    }
+
+    /**
+     * Returns the clockwise change in heading in radians.
+     * @return the change in heading in radians
+     */
+    public double getDthetaRadians() {
+        return dtheta;
+    }
+
+    /**
+     * Returns sin(dtheta) / dtheta, the average cosine of the heading change over an arc which turns by
+     * dtheta. Shared by everything which integrates movement along arcs.
+     * @param dtheta the clockwise change in heading over the arc in radians
+     * @return sin(dtheta) / dtheta
+     */
+    public static double sinOverAngle(double dtheta) {
+        if(Math.abs(dtheta) < SMALL_ANGLE) {
+            return 1.0 - dtheta * dtheta / 6.0;
+        }
+
+        return Trig.sin(dtheta) / dtheta;
+    }
+
+    /**
+     * Returns (1 - cos(dtheta)) / dtheta, the average sine of the heading change over an arc which turns
+     * by dtheta. It's calculated as 2 sin^2(dtheta / 2) / dtheta, which doesn't cancel for small turns.
+     * @param dtheta the clockwise change in heading over the arc in radians
+     * @return (1 - cos(dtheta)) / dtheta
+     */
+    public static double versineOverAngle(double dtheta) {
+        if(Math.abs(dtheta) < SMALL_ANGLE) {
+            return dtheta / 2.0 - dtheta * dtheta * dtheta / 24.0;
+        }
+
+        double half = Trig.sin(dtheta / 2.0);
+        return 2.0 * half * half / dtheta;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(!(o instanceof Twist2d)) return false;
+        Twist2d t = (Twist2d) o;
+
+        //Equal if every component is similar within a tolerance
+        return Math.abs(t.dx - dx) < .0001 && Math.abs(t.dy - dy) < .0001 &&
+                Math.abs(t.dtheta - dtheta) < .0001;
+    }
+}
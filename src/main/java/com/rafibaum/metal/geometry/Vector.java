@@ -3,7 +3,8 @@ package com.rafibaum.metal.geometry;
 /**
  * This interface describes the basic functionality that vector classes should
  * have in Metal and how they should function. Vector classes which implement this interface
- * should be immutable.
+ * should be immutable. The one exception is {@link MutableXY}, a scratch vector for garbage free
+ * code, which should never be held onto by code that expects an immutable vector.
  */
 public interface Vector {
 
@@ -73,4 +74,38 @@ public interface Vector {
      */
     double crossProduct(Vector vector);
 
+    /**
+     * Returns the signed magnitude of the cross product of this vector and another one
+     * (x1 * y2 - y1 * x2). The result is positive when the other vector points counter-clockwise
+     * of this one and negative when it points clockwise of this one.
+     * @param vector the vector to cross with this one
+     * @return the signed magnitude of the cross product of this vector and another one
+     */
+    double signedCrossProduct(Vector vector);
+
+    /**
+     * Returns the angle from this vector to another one, wrapped between -180 and 180 degrees.
+     * Following Metal's navigation style angles, the result is positive when the other vector
+     * points clockwise of this one.
+     * @param vector the vector to measure the angle to
+     * @return the angle from this vector to the other one
+     */
+    Angle angleBetween(Vector vector);
+
+    /**
+     * Returns this vector rotated clockwise by an angle.
+     * @param angle the angle to rotate the vector by
+     * @return the rotated vector
+     */
+    Vector rotate(Angle angle);
+
+    /**
+     * Returns this vector rotated clockwise by an angle given as its cosine and sine. This allows
+     * the trig for an angle to be computed once and reused when rotating many vectors.
+     * @param cos the cosine of the angle to rotate by
+     * @param sin the sine of the angle to rotate by
+     * @return the rotated vector
+     */
+    Vector rotate(double cos, double sin);
+
 }
@@ -0,0 +1,322 @@
+package com.rafibaum.metal.geometry;
+
+import com.rafibaum.metal.utils.MetalConfigurationException;
+
+/**
+ * VectorBuffer stores a fixed number of cartesian vectors in two parallel primitive arrays, one for
+ * X coordinates and one for Y coordinates. It's meant for processing large batches of vectors, like
+ * path points or sensor samples, without creating an object for every vector. All of the bulk
+ * operations work in place over a range of indices, from an inclusive start to an exclusive end.
+ * Unlike the {@link Vector} classes, a VectorBuffer is mutable.
+ */
+public class VectorBuffer {
+
+    private final double[] x;
+    private final double[] y;
+    private int size;
+
+    /**
+     * Instantiates an empty buffer which can hold up to the specified number of vectors.
+     * @param capacity the maximum number of vectors the buffer can hold
+     */
+    public VectorBuffer(int capacity) {
+        if(capacity < 0) {
+            throw new MetalConfigurationException("Vector buffer capacity cannot be negative.");
+        }
+
+        this.x = new double[capacity];
+        this.y = new double[capacity];
+    }
+
+    /**
+     * Returns the maximum number of vectors the buffer can hold.
+     * @return the capacity of the buffer
+     */
+    public int capacity() {
+        return x.length;
+    }
+
+    /**
+     * Returns the number of vectors currently stored in the buffer.
+     * @return the number of vectors in the buffer
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Empties the buffer. The underlying arrays are kept so the buffer can be refilled without allocating.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Appends a vector to the end of the buffer.
+     * @param x the X coordinate of the vector
+     * @param y the Y coordinate of the vector
+     * @return the index the vector was stored at
+     */
+    public int append(double x, double y) {
+        if(size == this.x.length) {
+            throw new IndexOutOfBoundsException("Vector buffer is full (capacity " + this.x.length + ").");
+        }
+
+        this.x[size] = x;
+        this.y[size] = y;
+        return size++;
+    }
+
+    /**
+     * Appends a vector to the end of the buffer.
+     * @param vector the vector to append
+     * @return the index the vector was stored at
+     */
+    public int append(Vector vector) {
+        return append(vector.getX(), vector.getY());
+    }
+
+    /**
+     * Replaces the vector at an index.
+     * @param index the index of the vector
+     * @param x the new X coordinate
+     * @param y the new Y coordinate
+     */
+    public void set(int index, double x, double y) {
+        checkIndex(index);
+        this.x[index] = x;
+        this.y[index] = y;
+    }
+
+    /**
+     * Replaces the vector at an index.
+     * @param index the index of the vector
+     * @param vector the new vector
+     */
+    public void set(int index, Vector vector) {
+        set(index, vector.getX(), vector.getY());
+    }
+
+    /**
+     * Returns the X coordinate of the vector at an index.
+     * @param index the index of the vector
+     * @return the X coordinate of the vector
+     */
+    public double getX(int index) {
+        checkIndex(index);
+        return x[index];
+    }
+
+    /**
+     * Returns the Y coordinate of the vector at an index.
+     * @param index the index of the vector
+     * @return the Y coordinate of the vector
+     */
+    public double getY(int index) {
+        checkIndex(index);
+        return y[index];
+    }
+
+    /**
+     * Returns the vector at an index as a new XY vector. This allocates, so it shouldn't be
+     * used inside of loops that need to be garbage free.
+     * @param index the index of the vector
+     * @return the vector at the index
+     */
+    public XY get(int index) {
+        checkIndex(index);
+        return new XY(x[index], y[index]);
+    }
+
+    /**
+     * Adds a vector to every vector in a range.
+     * @param from the first index of the range (inclusive)
+     * @param to the last index of the range (exclusive)
+     * @param dx the X coordinate of the vector to add
+     * @param dy the Y coordinate of the vector to add
+     */
+    public void add(int from, int to, double dx, double dy) {
+        checkRange(from, to);
+        for(int i = from; i < to; i++) {
+            x[i] += dx;
+            y[i] += dy;
+        }
+    }
+
+    /**
+     * Adds the vectors of another buffer to the vectors in a range, element by element.
+     * @param from the first index of the range (inclusive)
+     * @param to the last index of the range (exclusive)
+     * @param other the buffer holding the vectors to add
+     * @param otherFrom the index in the other buffer which lines up with from
+     */
+    public void add(int from, int to, VectorBuffer other, int otherFrom) {
+        checkRange(from, to);
+        other.checkRange(otherFrom, otherFrom + (to - from));
+        int offset = otherFrom - from;
+        for(int i = from; i < to; i++) {
+            x[i] += other.x[i + offset];
+            y[i] += other.y[i + offset];
+        }
+    }
+
+    /**
+     * Subtracts a vector from every vector in a range (as element - parameter = result).
+     * @param from the first index of the range (inclusive)
+     * @param to the last index of the range (exclusive)
+     * @param dx the X coordinate of the vector to subtract
+     * @param dy the Y coordinate of the vector to subtract
+     */
+    public void subtract(int from, int to, double dx, double dy) {
+        add(from, to, -dx, -dy);
+    }
+
+    /**
+     * Subtracts the vectors of another buffer from the vectors in a range, element by element.
+     * @param from the first index of the range (inclusive)
+     * @param to the last index of the range (exclusive)
+     * @param other the buffer holding the vectors to subtract
+     * @param otherFrom the index in the other buffer which lines up with from
+     */
+    public void subtract(int from, int to, VectorBuffer other, int otherFrom) {
+        checkRange(from, to);
+        other.checkRange(otherFrom, otherFrom + (to - from));
+        int offset = otherFrom - from;
+        for(int i = from; i < to; i++) {
+            x[i] -= other.x[i + offset];
+            y[i] -= other.y[i + offset];
+        }
+    }
+
+    /**
+     * Scales every vector in a range by a scalar.
+     * @param from the first index of the range (inclusive)
+     * @param to the last index of the range (exclusive)
+     * @param scalar the number to scale the vectors by
+     */
+    public void scale(int from, int to, double scalar) {
+        checkRange(from, to);
+        for(int i = from; i < to; i++) {
+            x[i] *= scalar;
+            y[i] *= scalar;
+        }
+    }
+
+    /**
+     * Rotates every vector in a range clockwise by an angle. The sine and cosine of the angle are
+     * only computed once for the whole range.
+     * @param from the first index of the range (inclusive)
+     * @param to the last index of the range (exclusive)
+     * @param angle the angle to rotate the vectors by
+     */
+    public void rotate(int from, int to, Angle angle) {
+        double radians = angle.toRadians();
+        rotate(from, to, Trig.cos(radians), Trig.sin(radians));
+    }
+
+    /**
+     * Rotates every vector in a range clockwise by an angle given as its cosine and sine.
+     * @param from the first index of the range (inclusive)
+     * @param to the last index of the range (exclusive)
+     * @param cos the cosine of the angle to rotate by
+     * @param sin the sine of the angle to rotate by
+     */
+    public void rotate(int from, int to, double cos, double sin) {
+        checkRange(from, to);
+        for(int i = from; i < to; i++) {
+            double px = x[i];
+            double py = y[i];
+            //Clockwise rotation since angles increase clockwise from the Y axis
+            x[i] = px * cos + py * sin;
+            y[i] = py * cos - px * sin;
+        }
+    }
+
+    /**
+     * Scales every vector in a range to be a unit vector. Vectors with no length are left as they are.
+     * @param from the first index of the range (inclusive)
+     * @param to the last index of the range (exclusive)
+     */
+    public void normalize(int from, int to) {
+        checkRange(from, to);
+        for(int i = from; i < to; i++) {
+            double magnitude = Math.sqrt(x[i] * x[i] + y[i] * y[i]);
+            if(magnitude != 0) {
+                x[i] /= magnitude;
+                y[i] /= magnitude;
+            }
+        }
+    }
+
+    /**
+     * Computes the dot product of every vector in a range with a single vector.
+     * @param from the first index of the range (inclusive)
+     * @param to the last index of the range (exclusive)
+     * @param dx the X coordinate of the vector to dot with
+     * @param dy the Y coordinate of the vector to dot with
+     * @param out the array the dot products are written to
+     * @param outFrom the index in out which lines up with from
+     */
+    public void dot(int from, int to, double dx, double dy, double[] out, int outFrom) {
+        checkRange(from, to);
+        checkOutput(out, outFrom, to - from);
+        int offset = outFrom - from;
+        for(int i = from; i < to; i++) {
+            out[i + offset] = x[i] * dx + y[i] * dy;
+        }
+    }
+
+    /**
+     * Computes the dot products of the vectors in a range with the vectors of another buffer, element by element.
+     * @param from the first index of the range (inclusive)
+     * @param to the last index of the range (exclusive)
+     * @param other the buffer holding the vectors to dot with
+     * @param otherFrom the index in the other buffer which lines up with from
+     * @param out the array the dot products are written to
+     * @param outFrom the index in out which lines up with from
+     */
+    public void dot(int from, int to, VectorBuffer other, int otherFrom, double[] out, int outFrom) {
+        checkRange(from, to);
+        other.checkRange(otherFrom, otherFrom + (to - from));
+        checkOutput(out, outFrom, to - from);
+        int otherOffset = otherFrom - from;
+        int outOffset = outFrom - from;
+        for(int i = from; i < to; i++) {
+            out[i + outOffset] = x[i] * other.x[i + otherOffset] + y[i] * other.y[i + otherOffset];
+        }
+    }
+
+    /**
+     * Computes the magnitude of every vector in a range.
+     * @param from the first index of the range (inclusive)
+     * @param to the last index of the range (exclusive)
+     * @param out the array the magnitudes are written to
+     * @param outFrom the index in out which lines up with from
+     */
+    public void magnitude(int from, int to, double[] out, int outFrom) {
+        checkRange(from, to);
+        checkOutput(out, outFrom, to - from);
+        int offset = outFrom - from;
+        for(int i = from; i < to; i++) {
+            out[i + offset] = Math.sqrt(x[i] * x[i] + y[i] * y[i]);
+        }
+    }
+
+    private void checkIndex(int index) {
+        if(index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " is outside of the buffer (size " + size + ").");
+        }
+    }
+
+    private void checkRange(int from, int to) {
+        if(from < 0 || to > size || from > to) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") is outside of the buffer (size " + size + ").");
+        }
+    }
+
+    private static void checkOutput(double[] out, int outFrom, int length) {
+        if(outFrom < 0 || outFrom + length > out.length) {
+            throw new IndexOutOfBoundsException("Output array is too small for the range.");
+        }
+    }
+}
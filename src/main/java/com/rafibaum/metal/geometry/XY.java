@@ -52,7 +52,7 @@ public class XY implements Vector {
      */
     @Override
     public Angle getAngle() {
-        return new Angle(AngleUnit.RADIANS, Math.atan2(x, y)).wrap();
+        return new Angle(AngleUnit.RADIANS, Trig.atan2(x, y)).wrap();
     }
 
     /**
@@ -118,15 +118,58 @@ public class XY implements Vector {
      */
     @Override
     public double crossProduct(Vector vector) {
-        //Obtains the angles of the two vectors, wrapped between 0 and 360
-        Angle a1 = this.getAngle().wrap(new Angle(0), new Angle(360));
-        Angle a2 = vector.getAngle().wrap(new Angle(0), new Angle(360));
+        return Math.abs(signedCrossProduct(vector));
+    }
 
-        //Finds the angle between the two vectors
-        double angleBetween = Math.abs(a1.toRadians() - a2.toRadians());
+    /**
+     * Returns the signed magnitude of the cross product of this vector and another one
+     * (x1 * y2 - y1 * x2). The result is positive when the other vector points counter-clockwise
+     * of this one and negative when it points clockwise of this one.
+     *
+     * @param vector the vector to cross with this one
+     * @return the signed magnitude of the cross product of this vector and another one
+     */
+    @Override
+    public double signedCrossProduct(Vector vector) {
+        return this.x * vector.getY() - this.y * vector.getX();
+    }
 
-        //Magnitude of the cross product = |V1| * |V2| * sin(angle between vectors)
-        return this.getMagnitude() * vector.getMagnitude() * Math.sin(angleBetween);
+    /**
+     * Returns the angle from this vector to another one, wrapped between -180 and 180 degrees.
+     * The result is positive when the other vector points clockwise of this one.
+     *
+     * @param vector the vector to measure the angle to
+     * @return the angle from this vector to the other one
+     */
+    @Override
+    public Angle angleBetween(Vector vector) {
+        //atan2 of the cross and dot products gives the angle without finding either vector's angle.
+        //The cross product is negated since navigation angles increase clockwise.
+        return new Angle(AngleUnit.RADIANS, Trig.atan2(-signedCrossProduct(vector), dotProduct(vector)));
+    }
+
+    /**
+     * Returns this vector rotated clockwise by an angle.
+     *
+     * @param angle the angle to rotate the vector by
+     * @return the rotated vector
+     */
+    @Override
+    public Vector rotate(Angle angle) {
+        double radians = angle.toRadians();
+        return rotate(Trig.cos(radians), Trig.sin(radians));
+    }
+
+    /**
+     * Returns this vector rotated clockwise by an angle given as its cosine and sine.
+     *
+     * @param cos the cosine of the angle to rotate by
+     * @param sin the sine of the angle to rotate by
+     * @return the rotated vector
+     */
+    @Override
+    public Vector rotate(double cos, double sin) {
+        return new XY(this.x * cos + this.y * sin, this.y * cos - this.x * sin);
     }
 
     @Override
@@ -1,7 +1,34 @@
 package com.rafibaum.metal.interfaces;
 
+/**
+ * IController is implemented by anything which needs to run periodically in a control loop, like
+ * a feedback controller or a mechanism. Controllers are run by a
+ * {@link com.rafibaum.metal.scheduler.Scheduler}, which calls {@link #init()} once before the first
+ * update, {@link #update(double, double)} once every period and {@link #stop()} once when the
+ * scheduler stops. All three are called on the same thread.
+ * <p>
+ * Controllers should read time only from the timestamps they are given, never from the wall clock,
+ * so that they behave the same way when run against a simulated clock.
+ */
 public interface IController {
 
+    /**
+     * Called once before the controller's first update.
+     */
+    default void init() {
+    }
 
+    /**
+     * Called once every period.
+     * @param timestamp the time of this update in seconds since the scheduler started
+     * @param dt the time since the previous update in seconds, or zero for the first update
+     */
+    void update(double timestamp, double dt);
+
+    /**
+     * Called once after the controller's last update.
+     */
+    default void stop() {
+    }
 
 }
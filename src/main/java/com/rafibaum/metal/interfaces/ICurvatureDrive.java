@@ -0,0 +1,17 @@
+package com.rafibaum.metal.interfaces;
+
+/**
+ * ICurvatureDrive is implemented by drivetrains which can be driven along an arc, given a forward
+ * speed and the curvature of the arc. Curvature is one over the radius of the arc, and is positive
+ * for clockwise (right) turns.
+ */
+public interface ICurvatureDrive {
+
+    /**
+     * Drives the robot along an arc.
+     * @param speed the forward speed of the robot
+     * @param curvature the curvature of the arc, positive to turn clockwise
+     */
+    void drive(double speed, double curvature);
+
+}
@@ -0,0 +1,21 @@
+package com.rafibaum.metal.interfaces;
+
+/**
+ * IEncoder is implemented by sensors which measure how far something has moved, like the encoders on a
+ * drivetrain's wheels. Units are chosen when the encoder is set up, like meters of wheel travel.
+ */
+public interface IEncoder {
+
+    /**
+     * Returns the distance moved since the encoder was reset.
+     * @return the position of the encoder
+     */
+    double getPosition();
+
+    /**
+     * Returns how fast the encoder is moving.
+     * @return the velocity of the encoder in units per second
+     */
+    double getVelocity();
+
+}
@@ -0,0 +1,15 @@
+package com.rafibaum.metal.interfaces;
+
+/**
+ * IGyro is implemented by sensors which measure the robot's heading.
+ */
+public interface IGyro {
+
+    /**
+     * Returns the heading measured by the gyro in degrees, using navigation style angles. Gyros don't
+     * have to wrap their headings.
+     * @return the heading in degrees
+     */
+    double getHeadingDegrees();
+
+}
@@ -0,0 +1,28 @@
+package com.rafibaum.metal.interfaces;
+
+import java.util.function.DoubleConsumer;
+
+/**
+ * IMotor is implemented by motor controllers which are driven by a percentage of their supply voltage.
+ * Motors are also {@link DoubleConsumer}s so they can be used directly as a controller's output.
+ */
+public interface IMotor extends DoubleConsumer {
+
+    /**
+     * Sets the output of the motor.
+     * @param output the output, from -1 (full reverse) to 1 (full forward)
+     */
+    void set(double output);
+
+    /**
+     * Returns the output the motor was last set to.
+     * @return the output, from -1 to 1
+     */
+    double get();
+
+    @Override
+    default void accept(double output) {
+        set(output);
+    }
+
+}
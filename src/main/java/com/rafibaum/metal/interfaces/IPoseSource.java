@@ -0,0 +1,27 @@
+package com.rafibaum.metal.interfaces;
+
+/**
+ * IPoseSource is implemented by anything which knows where the robot is on the field, like odometry,
+ * so that controllers can read the robot's pose without creating objects.
+ */
+public interface IPoseSource {
+
+    /**
+     * Returns the X coordinate of the robot on the field.
+     * @return the X coordinate of the robot
+     */
+    double getX();
+
+    /**
+     * Returns the Y coordinate of the robot on the field.
+     * @return the Y coordinate of the robot
+     */
+    double getY();
+
+    /**
+     * Returns the heading of the robot in degrees, using navigation style angles.
+     * @return the heading of the robot in degrees
+     */
+    double getHeadingDegrees();
+
+}
@@ -0,0 +1,207 @@
+package com.rafibaum.metal.odometry;
+
+import com.rafibaum.metal.geometry.Angle;
+import com.rafibaum.metal.geometry.AngleUnit;
+import com.rafibaum.metal.geometry.MutableAngle;
+import com.rafibaum.metal.geometry.MutableXY;
+import com.rafibaum.metal.geometry.Pose2d;
+import com.rafibaum.metal.geometry.Trig;
+import com.rafibaum.metal.geometry.Twist2d;
+import com.rafibaum.metal.interfaces.IPoseSource;
+import com.rafibaum.metal.utils.MetalConfigurationException;
+
+/**
+ * Odometry keeps track of where the robot is on the field by integrating how far it has moved each
+ * loop, as measured by its encoders, along with its heading as measured by a gyro. Each step is
+ * integrated as an arc, like {@link Pose2d#exp}, and every pose is recorded in a {@link PoseHistory}
+ * so that late measurements, like those from vision, can be fused against where the robot was when
+ * they were captured.
+ * <p>
+ * The pose is kept as primitives and updating it allocates nothing. Timestamps are in seconds.
+ */
+public class Odometry implements IPoseSource {
+
+    private final PoseHistory history;
+
+    //Temporaries used when looking up the history
+    private final MutableXY pastPosition = new MutableXY();
+    private final MutableAngle pastHeading = new MutableAngle();
+
+    private double x;
+    private double y;
+    private double heading; //In degrees
+
+    //Offset from the gyro's heading to the field heading, in degrees
+    private double gyroOffset;
+    private double lastGyro;
+
+    /**
+     * Instantiates odometry starting at the origin.
+     * @param historyCapacity the number of past poses to remember
+     */
+    public Odometry(int historyCapacity) {
+        this.history = new PoseHistory(historyCapacity);
+    }
+
+    /**
+     * Resets the pose of the robot. The gyro's current heading is recorded so that later gyro
+     * headings are measured relative to the new pose. The pose history is cleared.
+     * @param timestamp the current time in seconds
+     * @param pose the new pose of the robot
+     * @param gyroHeading the gyro's current heading
+     */
+    public void reset(double timestamp, Pose2d pose, Angle gyroHeading) {
+        x = pose.getX();
+        y = pose.getY();
+        heading = pose.getHeading().toDegrees();
+        lastGyro = gyroHeading.toDegrees();
+        gyroOffset = heading - lastGyro;
+
+        history.clear();
+        history.record(timestamp, x, y, heading);
+    }
+
+    /**
+     * Integrates a movement of the robot. The distances are how far the robot moved since the last
+     * update, in the robot's frame, and the heading is the gyro's current heading.
+     * @param timestamp the current time in seconds
+     * @param dx the distance moved to the robot's right since the last update
+     * @param dy the distance moved forward since the last update
+     * @param gyroDegrees the gyro's current heading in degrees
+     */
+    public void update(double timestamp, double dx, double dy, double gyroDegrees) {
+        //Change in heading along the shortest turn, so gyros which wrap are handled too
+        double dtheta = Angle.wrapNavigationDegrees(gyroDegrees - lastGyro);
+        lastGyro = gyroDegrees;
+
+        double radians = dtheta / 180.0 * Math.PI;
+
+        //s and c are the integrals of cos and sin of the heading over the arc
+        double s = Twist2d.sinOverAngle(radians);
+        double c = Twist2d.versineOverAngle(radians);
+
+        double localX = dx * s + dy * c;
+        double localY = dy * s - dx * c;
+
+        //Rotate from the robot's frame at the start of the step into the field's frame
+        double headingRadians = heading / 180.0 * Math.PI;
+        double cos = Trig.cos(headingRadians);
+        double sin = Trig.sin(headingRadians);
+        x += localX * cos + localY * sin;
+        y += localY * cos - localX * sin;
+        heading = gyroDegrees + gyroOffset;
+
+        history.record(timestamp, x, y, heading);
+    }
+
+    /**
+     * Integrates a movement of the robot.
+     * @param timestamp the current time in seconds
+     * @param dx the distance moved to the robot's right since the last update
+     * @param dy the distance moved forward since the last update
+     * @param gyroHeading the gyro's current heading
+     */
+    public void update(double timestamp, double dx, double dy, Angle gyroHeading) {
+        update(timestamp, dx, dy, gyroHeading.toDegrees());
+    }
+
+    /**
+     * Integrates a movement of a differential (tank) drive robot, which can't move sideways.
+     * @param timestamp the current time in seconds
+     * @param leftDistance the distance the left side moved since the last update
+     * @param rightDistance the distance the right side moved since the last update
+     * @param gyroHeading the gyro's current heading
+     */
+    public void updateDifferential(double timestamp, double leftDistance, double rightDistance, Angle gyroHeading) {
+        update(timestamp, 0, (leftDistance + rightDistance) / 2.0, gyroHeading.toDegrees());
+    }
+
+    /**
+     * Fuses a pose measured at some time in the past, like one from vision. The robot's pose at the
+     * time of the measurement is found in the history and moved towards the measurement by the given
+     * weight. The movement since then is kept, so the current pose moves by the same correction.
+     * Measurements older than the history are ignored.
+     * @param timestamp the time the measurement was captured in seconds
+     * @param measurement the measured pose
+     * @param weight how much to trust the measurement, from 0 (not at all) to 1 (completely)
+     * @return true if the measurement was used
+     */
+    public boolean addMeasurement(double timestamp, Pose2d measurement, double weight) {
+        if(weight < 0 || weight > 1) {
+            throw new MetalConfigurationException("Measurement weight must be between 0 and 1.");
+        }
+
+        if(history.size() == 0 || timestamp < history.getOldestTimestamp()) return false;
+        history.getPose(timestamp, pastPosition, pastHeading);
+
+        //Where the robot was, corrected towards the measurement
+        double pastX = pastPosition.getX();
+        double pastY = pastPosition.getY();
+        double pastHeadingDegrees = pastHeading.toDegrees();
+        double correctedX = pastX + (measurement.getX() - pastX) * weight;
+        double correctedY = pastY + (measurement.getY() - pastY) * weight;
+        double correctedHeading = pastHeadingDegrees +
+                Angle.wrapNavigationDegrees(measurement.getHeading().toDegrees() - pastHeadingDegrees) * weight;
+
+        double rotation = correctedHeading - pastHeadingDegrees;
+
+        //Every pose since the measurement, including the current one, keeps its movement relative
+        //to the past pose, so it's rotated about the past pose and moved with it
+        history.correctAfter(timestamp, pastX, pastY, correctedX, correctedY, rotation);
+
+        double radians = rotation / 180.0 * Math.PI;
+        double cos = Trig.cos(radians);
+        double sin = Trig.sin(radians);
+        double dx = x - pastX;
+        double dy = y - pastY;
+        x = correctedX + dx * cos + dy * sin;
+        y = correctedY + dy * cos - dx * sin;
+        heading += rotation;
+        gyroOffset = heading - lastGyro;
+
+        return true;
+    }
+
+    /**
+     * Returns the X coordinate of the robot on the field.
+     * @return the X coordinate of the robot
+     */
+    @Override
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * Returns the Y coordinate of the robot on the field.
+     * @return the Y coordinate of the robot
+     */
+    @Override
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * Returns the heading of the robot in degrees.
+     * @return the heading of the robot in degrees
+     */
+    @Override
+    public double getHeadingDegrees() {
+        return heading;
+    }
+
+    /**
+     * Returns the current pose of the robot. This allocates a new pose.
+     * @return the current pose of the robot
+     */
+    public Pose2d getPose() {
+        return new Pose2d(x, y, new Angle(AngleUnit.DEGREES, heading));
+    }
+
+    /**
+     * Returns the history of poses the robot has been at.
+     * @return the pose history
+     */
+    public PoseHistory getHistory() {
+        return history;
+    }
+}
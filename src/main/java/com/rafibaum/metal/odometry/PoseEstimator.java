@@ -0,0 +1,325 @@
+package com.rafibaum.metal.odometry;
+
+import com.rafibaum.metal.geometry.Angle;
+import com.rafibaum.metal.geometry.Matrix3;
+import com.rafibaum.metal.geometry.Pose2d;
+import com.rafibaum.metal.geometry.Trig;
+import com.rafibaum.metal.geometry.Twist2d;
+import com.rafibaum.metal.interfaces.IPoseSource;
+import com.rafibaum.metal.utils.MetalConfigurationException;
+
+/**
+ * PoseEstimator tracks the robot's pose with an extended Kalman filter, fusing odometry with pose
+ * measurements like those from vision. Along with the pose it keeps a covariance saying how uncertain
+ * the pose is, so measurements are trusted more when the pose is uncertain and less when the
+ * measurements themselves are noisy. Compared to {@link Odometry#addMeasurement}, which takes a fixed
+ * weight, this works out the weights from how noisy each source is.
+ * <p>
+ * Each odometry update predicts the new pose by integrating the movement as an arc, like
+ * {@link Odometry}, and grows the uncertainty by the process noise. Each measurement corrects the pose.
+ * Since vision measurements arrive late, every step is kept in a ring buffer along with its odometry
+ * movement. A late measurement is applied to the filter's state as it was at the time the measurement
+ * was captured, and the odometry since then is replayed on top of it.
+ * <p>
+ * The state is three numbers and the covariance is a 3x3 matrix in a flat array, and all of the
+ * matrix math is hand unrolled, so neither predicting nor correcting allocates. Headings are in degrees
+ * and timestamps in seconds; the heading's variance is in square radians.
+ */
+public class PoseEstimator implements IPoseSource {
+
+    //Ring buffer of every step: its time, odometry movement, and the filter's state after it
+    private final double[] timestamps;
+    private final double[] movements; //dx, dy, dtheta in degrees
+    private final double[] states; //x, y, heading in degrees
+    private final double[] covariances;
+    private int start;
+    private int size;
+
+    //Current state
+    private double x;
+    private double y;
+    private double heading; //In degrees
+    private final double[] covariance = new double[9];
+
+    //Process noise per second, as variances
+    private double processX = 0.01;
+    private double processY = 0.01;
+    private double processHeading = 0.0001;
+
+    //Scratch matrices
+    private final double[] jacobian = new double[9];
+    private final double[] product = new double[9];
+    private final double[] innovation = new double[9];
+    private final double[] inverse = new double[9];
+    private final double[] gain = new double[9];
+
+    /**
+     * Instantiates a pose estimator at the origin.
+     * @param historyCapacity the number of past steps to remember for late measurements
+     */
+    public PoseEstimator(int historyCapacity) {
+        if(historyCapacity < 1) {
+            throw new MetalConfigurationException("Pose estimator history must be able to hold at least one step.");
+        }
+
+        timestamps = new double[historyCapacity];
+        movements = new double[historyCapacity * 3];
+        states = new double[historyCapacity * 3];
+        covariances = new double[historyCapacity * 9];
+    }
+
+    /**
+     * Sets how much uncertainty odometry adds, as the standard deviations it drifts by each second.
+     * @param xStd the standard deviation along X per second
+     * @param yStd the standard deviation along Y per second
+     * @param headingStdDegrees the standard deviation of the heading per second in degrees
+     */
+    public void setProcessNoise(double xStd, double yStd, double headingStdDegrees) {
+        double headingStd = headingStdDegrees / 180.0 * Math.PI;
+        processX = xStd * xStd;
+        processY = yStd * yStd;
+        processHeading = headingStd * headingStd;
+    }
+
+    /**
+     * Resets the pose of the robot and how uncertain it is. The history is cleared.
+     * @param timestamp the current time in seconds
+     * @param pose the new pose of the robot
+     * @param xStd the standard deviation of the pose along X
+     * @param yStd the standard deviation of the pose along Y
+     * @param headingStdDegrees the standard deviation of the heading in degrees
+     */
+    public void reset(double timestamp, Pose2d pose, double xStd, double yStd, double headingStdDegrees) {
+        double headingStd = headingStdDegrees / 180.0 * Math.PI;
+        x = pose.getX();
+        y = pose.getY();
+        heading = Angle.wrapDegrees(pose.getHeading().toDegrees());
+        Matrix3.diagonal(xStd * xStd, yStd * yStd, headingStd * headingStd, covariance);
+
+        start = 0;
+        size = 0;
+        record(timestamp, 0, 0, 0);
+    }
+
+    /**
+     * Predicts the pose after a movement of the robot, as measured by odometry.
+     * @param timestamp the current time in seconds
+     * @param dx the distance moved to the robot's right since the last update
+     * @param dy the distance moved forward since the last update
+     * @param dthetaDegrees the change in heading since the last update in degrees, positive clockwise
+     * @return true if the movement was applied, false if it was older than the last one
+     */
+    public boolean predict(double timestamp, double dx, double dy, double dthetaDegrees) {
+        double dt = 0;
+        if(size > 0) {
+            dt = timestamp - timestamps[physical(size - 1)];
+            if(dt < 0) return false;
+        }
+
+        propagate(dx, dy, dthetaDegrees, dt);
+        record(timestamp, dx, dy, dthetaDegrees);
+        return true;
+    }
+
+    /**
+     * Corrects the pose with a measurement captured at some time, which may be in the past. Measurements
+     * from before the oldest remembered step are ignored.
+     * @param timestamp the time the measurement was captured in seconds
+     * @param measuredX the measured X coordinate
+     * @param measuredY the measured Y coordinate
+     * @param measuredHeadingDegrees the measured heading in degrees
+     * @param xStd the standard deviation of the measurement along X
+     * @param yStd the standard deviation of the measurement along Y
+     * @param headingStdDegrees the standard deviation of the measured heading in degrees
+     * @return true if the measurement was applied, false if it was too old
+     */
+    public boolean addMeasurement(double timestamp, double measuredX, double measuredY, double measuredHeadingDegrees,
+                                  double xStd, double yStd, double headingStdDegrees) {
+        //Last step at or before the measurement
+        int step = search(timestamp) - 1;
+        if(step < 0) return false;
+
+        load(step);
+        correct(measuredX, measuredY, measuredHeadingDegrees, xStd, yStd, headingStdDegrees / 180.0 * Math.PI);
+        store(step);
+
+        //Replay the odometry since the measurement on top of the corrected state
+        for(int i = step + 1; i < size; i++) {
+            int index = physical(i);
+            double dt = timestamps[index] - timestamps[physical(i - 1)];
+            propagate(movements[index * 3], movements[index * 3 + 1], movements[index * 3 + 2], dt);
+            store(i);
+        }
+
+        return true;
+    }
+
+    /**
+     * Corrects the pose with a measurement captured at some time, which may be in the past.
+     * @param timestamp the time the measurement was captured in seconds
+     * @param measurement the measured pose
+     * @param xStd the standard deviation of the measurement along X
+     * @param yStd the standard deviation of the measurement along Y
+     * @param headingStdDegrees the standard deviation of the measured heading in degrees
+     * @return true if the measurement was applied, false if it was too old
+     */
+    public boolean addMeasurement(double timestamp, Pose2d measurement, double xStd, double yStd, double headingStdDegrees) {
+        return addMeasurement(timestamp, measurement.getX(), measurement.getY(), measurement.getHeading().toDegrees(),
+                xStd, yStd, headingStdDegrees);
+    }
+
+    /**
+     * Moves the current state along an arc and grows its covariance.
+     */
+    private void propagate(double dx, double dy, double dthetaDegrees, double dt) {
+        double radians = dthetaDegrees / 180.0 * Math.PI;
+
+        //s and c are the integrals of cos and sin of the heading over the arc
+        double s = Twist2d.sinOverAngle(radians);
+        double c = Twist2d.versineOverAngle(radians);
+
+        double localX = dx * s + dy * c;
+        double localY = dy * s - dx * c;
+
+        double headingRadians = heading / 180.0 * Math.PI;
+        double cos = Trig.cos(headingRadians);
+        double sin = Trig.sin(headingRadians);
+        double fieldX = localX * cos + localY * sin;
+        double fieldY = localY * cos - localX * sin;
+        x += fieldX;
+        y += fieldY;
+        heading = Angle.wrapDegrees(heading + dthetaDegrees);
+
+        //Turning the starting heading swings the movement around: d(fieldX) = fieldY, d(fieldY) = -fieldX
+        jacobian[0] = 1; jacobian[1] = 0; jacobian[2] = fieldY;
+        jacobian[3] = 0; jacobian[4] = 1; jacobian[5] = -fieldX;
+        jacobian[6] = 0; jacobian[7] = 0; jacobian[8] = 1;
+
+        //P = F P F^T + Q dt
+        Matrix3.multiply(jacobian, covariance, product);
+        Matrix3.multiplyTransposed(product, jacobian, covariance);
+        covariance[0] += processX * dt;
+        covariance[4] += processY * dt;
+        covariance[8] += processHeading * dt;
+    }
+
+    /**
+     * Corrects the current state with a direct measurement of the pose.
+     */
+    private void correct(double measuredX, double measuredY, double measuredHeadingDegrees,
+                         double xStd, double yStd, double headingStd) {
+        //S = P + R
+        System.arraycopy(covariance, 0, innovation, 0, 9);
+        innovation[0] += xStd * xStd;
+        innovation[4] += yStd * yStd;
+        innovation[8] += headingStd * headingStd;
+        if(!Matrix3.invert(innovation, inverse)) return;
+
+        //K = P S^-1
+        Matrix3.multiply(covariance, inverse, gain);
+
+        double ex = measuredX - x;
+        double ey = measuredY - y;
+        double eh = Angle.wrapNavigationDegrees(measuredHeadingDegrees - heading) / 180.0 * Math.PI;
+        x += gain[0] * ex + gain[1] * ey + gain[2] * eh;
+        y += gain[3] * ex + gain[4] * ey + gain[5] * eh;
+        heading = Angle.wrapDegrees(heading + (gain[6] * ex + gain[7] * ey + gain[8] * eh) / Math.PI * 180.0);
+
+        //P = (I - K) P
+        Matrix3.multiply(gain, covariance, product);
+        for(int i = 0; i < 9; i++) {
+            covariance[i] -= product[i];
+        }
+        Matrix3.symmetrize(covariance);
+    }
+
+    private void record(double timestamp, double dx, double dy, double dthetaDegrees) {
+        int logical;
+        if(size < timestamps.length) {
+            logical = size++;
+        } else {
+            //Full, so overwrite the oldest step
+            start = physical(1);
+            logical = size - 1;
+        }
+
+        int index = physical(logical);
+        timestamps[index] = timestamp;
+        movements[index * 3] = dx;
+        movements[index * 3 + 1] = dy;
+        movements[index * 3 + 2] = dthetaDegrees;
+        store(logical);
+    }
+
+    private void store(int logical) {
+        int index = physical(logical);
+        states[index * 3] = x;
+        states[index * 3 + 1] = y;
+        states[index * 3 + 2] = heading;
+        System.arraycopy(covariance, 0, covariances, index * 9, 9);
+    }
+
+    private void load(int logical) {
+        int index = physical(logical);
+        x = states[index * 3];
+        y = states[index * 3 + 1];
+        heading = states[index * 3 + 2];
+        System.arraycopy(covariances, index * 9, covariance, 0, 9);
+    }
+
+    /**
+     * Finds the logical index of the first step after a time.
+     */
+    private int search(double timestamp) {
+        int low = 0;
+        int high = size;
+        while(low < high) {
+            int middle = (low + high) >>> 1;
+            if(timestamps[physical(middle)] <= timestamp) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private int physical(int logical) {
+        int index = start + logical;
+        return index >= timestamps.length ? index - timestamps.length : index;
+    }
+
+    @Override
+    public double getX() {
+        return x;
+    }
+
+    @Override
+    public double getY() {
+        return y;
+    }
+
+    @Override
+    public double getHeadingDegrees() {
+        return heading;
+    }
+
+    /**
+     * Returns the estimated pose of the robot.
+     * @return the pose of the robot
+     */
+    public Pose2d getPose() {
+        return new Pose2d(x, y, new Angle(heading));
+    }
+
+    /**
+     * Returns an entry of the covariance of the estimate, in the order X, Y, heading.
+     * @param row the row of the entry
+     * @param column the column of the entry
+     * @return the covariance, in square radians for the heading
+     */
+    public double getCovariance(int row, int column) {
+        return covariance[row * 3 + column];
+    }
+}
@@ -0,0 +1,226 @@
+package com.rafibaum.metal.odometry;
+
+import com.rafibaum.metal.geometry.Angle;
+import com.rafibaum.metal.geometry.MutableAngle;
+import com.rafibaum.metal.geometry.MutableXY;
+import com.rafibaum.metal.geometry.Pose2d;
+import com.rafibaum.metal.geometry.Trig;
+import com.rafibaum.metal.utils.MetalConfigurationException;
+
+/**
+ * PoseHistory remembers the most recent timestamped poses of the robot in a fixed size ring buffer
+ * made of primitive arrays. Once full, recording a pose overwrites the oldest one, so the memory
+ * used never grows. Poses can be looked up at any time within the history in O(log n) time, with
+ * positions and headings linearly interpolated between the recorded poses.
+ * <p>
+ * Poses must be recorded in time order. Timestamps are in seconds.
+ */
+public class PoseHistory {
+
+    private final double[] timestamps;
+    private final double[] x;
+    private final double[] y;
+    private final double[] headings; //In degrees
+
+    //Physical index of the oldest pose and the number of poses stored
+    private int start;
+    private int size;
+
+    /**
+     * Instantiates an empty history which remembers a number of poses.
+     * @param capacity the number of poses to remember
+     */
+    public PoseHistory(int capacity) {
+        if(capacity < 1) {
+            throw new MetalConfigurationException("Pose history must be able to hold at least one pose.");
+        }
+
+        timestamps = new double[capacity];
+        x = new double[capacity];
+        y = new double[capacity];
+        headings = new double[capacity];
+    }
+
+    /**
+     * Returns the number of poses the history can remember.
+     * @return the capacity of the history
+     */
+    public int capacity() {
+        return timestamps.length;
+    }
+
+    /**
+     * Returns the number of poses currently remembered.
+     * @return the number of poses in the history
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Forgets every pose in the history.
+     */
+    public void clear() {
+        start = 0;
+        size = 0;
+    }
+
+    /**
+     * Records a pose, overwriting the oldest pose if the history is full. Poses older than the
+     * newest recorded pose are rejected, since the history must stay in time order.
+     * @param timestamp the time of the pose in seconds
+     * @param x the X coordinate of the robot
+     * @param y the Y coordinate of the robot
+     * @param headingDegrees the heading of the robot in degrees
+     * @return true if the pose was recorded, false if it was older than the newest pose
+     */
+    public boolean record(double timestamp, double x, double y, double headingDegrees) {
+        if(size > 0 && timestamp < timestamps[physical(size - 1)]) return false;
+
+        int index;
+        if(size < timestamps.length) {
+            index = physical(size);
+            size++;
+        } else {
+            //Overwrite the oldest pose
+            index = start;
+            start = (start + 1) % timestamps.length;
+        }
+
+        timestamps[index] = timestamp;
+        this.x[index] = x;
+        this.y[index] = y;
+        headings[index] = headingDegrees;
+        return true;
+    }
+
+    /**
+     * Records a pose, overwriting the oldest pose if the history is full.
+     * @param timestamp the time of the pose in seconds
+     * @param pose the pose of the robot
+     * @return true if the pose was recorded, false if it was older than the newest pose
+     */
+    public boolean record(double timestamp, Pose2d pose) {
+        return record(timestamp, pose.getX(), pose.getY(), pose.getHeading().toDegrees());
+    }
+
+    /**
+     * Returns the time of the oldest pose in the history.
+     * @return the oldest timestamp, or NaN if the history is empty
+     */
+    public double getOldestTimestamp() {
+        return size == 0 ? Double.NaN : timestamps[start];
+    }
+
+    /**
+     * Returns the time of the newest pose in the history.
+     * @return the newest timestamp, or NaN if the history is empty
+     */
+    public double getNewestTimestamp() {
+        return size == 0 ? Double.NaN : timestamps[physical(size - 1)];
+    }
+
+    /**
+     * Finds the pose of the robot at a time without allocating. Times before the oldest pose or after
+     * the newest pose are clamped to those poses. Headings are interpolated along the shortest turn.
+     * @param timestamp the time to look up in seconds
+     * @param position set to the position of the robot at that time
+     * @param heading set to the heading of the robot at that time
+     * @return true if a pose was found, false if the history is empty
+     */
+    public boolean getPose(double timestamp, MutableXY position, MutableAngle heading) {
+        if(size == 0) return false;
+
+        int upper = search(timestamp, false);
+
+        if(upper == 0 || upper == size) {
+            //Outside of the history, use the nearest pose
+            int index = physical(upper == 0 ? 0 : size - 1);
+            position.set(x[index], y[index]);
+            heading.set(headings[index]);
+            return true;
+        }
+
+        int before = physical(upper - 1);
+        int after = physical(upper);
+        double span = timestamps[after] - timestamps[before];
+        double t = span > 0 ? (timestamp - timestamps[before]) / span : 0;
+
+        position.set(x[before] + (x[after] - x[before]) * t, y[before] + (y[after] - y[before]) * t);
+        heading.set(headings[before] + Angle.wrapNavigationDegrees(headings[after] - headings[before]) * t);
+        return true;
+    }
+
+    /**
+     * Finds the pose of the robot at a time. This allocates, see
+     * {@link #getPose(double, MutableXY, MutableAngle)} for a version that doesn't.
+     * @param timestamp the time to look up in seconds
+     * @return the pose of the robot at that time, or null if the history is empty
+     */
+    public Pose2d getPose(double timestamp) {
+        MutableXY position = new MutableXY();
+        MutableAngle heading = new MutableAngle();
+        if(!getPose(timestamp, position, heading)) return null;
+
+        return new Pose2d(position, heading.toAngle());
+    }
+
+    /**
+     * Moves every pose recorded at or after a time as though the robot's path from that time on was picked
+     * up and placed somewhere else. Each pose is rotated clockwise about an anchor point, which is then
+     * moved to a new location. This is used to apply a correction to the history after a late measurement.
+     * @param timestamp the time from which poses are moved, in seconds
+     * @param anchorX the X coordinate of the point the poses rotate around
+     * @param anchorY the Y coordinate of the point the poses rotate around
+     * @param newAnchorX the X coordinate the anchor point is moved to
+     * @param newAnchorY the Y coordinate the anchor point is moved to
+     * @param rotationDegrees the clockwise rotation in degrees
+     */
+    public void correctAfter(double timestamp, double anchorX, double anchorY, double newAnchorX, double newAnchorY,
+                             double rotationDegrees) {
+        double radians = rotationDegrees / 180.0 * Math.PI;
+        double cos = Trig.cos(radians);
+        double sin = Trig.sin(radians);
+
+        for(int i = search(timestamp, true); i < size; i++) {
+            int index = physical(i);
+            double dx = x[index] - anchorX;
+            double dy = y[index] - anchorY;
+            x[index] = newAnchorX + dx * cos + dy * sin;
+            y[index] = newAnchorY + dy * cos - dx * sin;
+            headings[index] += rotationDegrees;
+        }
+    }
+
+    /**
+     * Binary searches for the first logical index with a timestamp after the given time.
+     * @param timestamp the time to search for
+     * @param inclusive whether a pose exactly at the time counts as after it
+     * @return the logical index of the first pose after the time, or size if there is none
+     */
+    private int search(double timestamp, boolean inclusive) {
+        int low = 0;
+        int high = size;
+        while(low < high) {
+            int middle = (low + high) >>> 1;
+            double middleTimestamp = timestamps[physical(middle)];
+            if(middleTimestamp < timestamp || (!inclusive && middleTimestamp == timestamp)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Converts a logical index, where zero is the oldest pose, to an index in the arrays.
+     * @param logical the logical index
+     * @return the physical index
+     */
+    private int physical(int logical) {
+        int index = start + logical;
+        return index >= timestamps.length ? index - timestamps.length : index;
+    }
+}
@@ -0,0 +1,126 @@
+package com.rafibaum.metal.path;
+
+import com.rafibaum.metal.geometry.Angle;
+import com.rafibaum.metal.geometry.Pose2d;
+
+/**
+ * HermiteSpline is a single segment of a path, a polynomial curve which starts at one waypoint and
+ * ends at the next, leaving and arriving in the direction of each waypoint's heading. The curve is
+ * parameterized by t from 0 at the start to 1 at the end. The polynomial coefficients are stored in
+ * primitive arrays, lowest power first.
+ */
+public class HermiteSpline {
+
+    //Tangents are scaled by the distance between the waypoints so the curve bends evenly
+    private static final double TANGENT_SCALE = 1.2;
+
+    private final double[] xCoefficients = new double[6];
+    private final double[] yCoefficients = new double[6];
+
+    /**
+     * Instantiates a spline between two waypoints.
+     * @param start the waypoint the spline starts at
+     * @param end the waypoint the spline ends at
+     * @param type whether the spline is cubic or quintic
+     */
+    public HermiteSpline(Pose2d start, Pose2d end, SplineType type) {
+        double dx = end.getX() - start.getX();
+        double dy = end.getY() - start.getY();
+        double scale = Math.sqrt(dx * dx + dy * dy) * TANGENT_SCALE;
+
+        //Headings are navigation style, so the direction of travel is (sin, cos)
+        double startVX = start.getSin() * scale;
+        double startVY = start.getCos() * scale;
+        double endVX = end.getSin() * scale;
+        double endVY = end.getCos() * scale;
+
+        if(type == SplineType.QUINTIC) {
+            quintic(xCoefficients, start.getX(), startVX, end.getX(), endVX);
+            quintic(yCoefficients, start.getY(), startVY, end.getY(), endVY);
+        } else {
+            cubic(xCoefficients, start.getX(), startVX, end.getX(), endVX);
+            cubic(yCoefficients, start.getY(), startVY, end.getY(), endVY);
+        }
+    }
+
+    /**
+     * Fills in the coefficients of a cubic Hermite polynomial.
+     */
+    private static void cubic(double[] c, double p0, double v0, double p1, double v1) {
+        c[0] = p0;
+        c[1] = v0;
+        c[2] = -3 * p0 - 2 * v0 + 3 * p1 - v1;
+        c[3] = 2 * p0 + v0 - 2 * p1 + v1;
+    }
+
+    /**
+     * Fills in the coefficients of a quintic Hermite polynomial with zero acceleration at both ends.
+     */
+    private static void quintic(double[] c, double p0, double v0, double p1, double v1) {
+        c[0] = p0;
+        c[1] = v0;
+        c[2] = 0;
+        c[3] = -10 * p0 - 6 * v0 - 4 * v1 + 10 * p1;
+        c[4] = 15 * p0 + 8 * v0 + 7 * v1 - 15 * p1;
+        c[5] = -6 * p0 - 3 * v0 - 3 * v1 + 6 * p1;
+    }
+
+    /**
+     * Returns the X coordinate of the spline at t.
+     * @param t the spline parameter between 0 and 1
+     * @return the X coordinate
+     */
+    public double getX(double t) {
+        return evaluate(xCoefficients, t);
+    }
+
+    /**
+     * Returns the Y coordinate of the spline at t.
+     * @param t the spline parameter between 0 and 1
+     * @return the Y coordinate
+     */
+    public double getY(double t) {
+        return evaluate(yCoefficients, t);
+    }
+
+    /**
+     * Returns the heading of the spline at t in degrees, wrapped between 0 and 360.
+     * @param t the spline parameter between 0 and 1
+     * @return the heading in degrees
+     */
+    public double getHeadingDegrees(double t) {
+        double radians = Math.atan2(derivative(xCoefficients, t), derivative(yCoefficients, t));
+        return Angle.wrapDegrees(radians / Math.PI * 180.0);
+    }
+
+    /**
+     * Returns the curvature of the spline at t. Curvature is positive when the spline is turning
+     * clockwise, following Metal's navigation style angles.
+     * @param t the spline parameter between 0 and 1
+     * @return the curvature, one over the radius of the turn
+     */
+    public double getCurvature(double t) {
+        double dx = derivative(xCoefficients, t);
+        double dy = derivative(yCoefficients, t);
+        double ddx = secondDerivative(xCoefficients, t);
+        double ddy = secondDerivative(yCoefficients, t);
+
+        double speedSquared = dx * dx + dy * dy;
+        if(speedSquared == 0) return 0;
+
+        //Negated so clockwise turns are positive
+        return (dy * ddx - dx * ddy) / (speedSquared * Math.sqrt(speedSquared));
+    }
+
+    private static double evaluate(double[] c, double t) {
+        return c[0] + t * (c[1] + t * (c[2] + t * (c[3] + t * (c[4] + t * c[5]))));
+    }
+
+    private static double derivative(double[] c, double t) {
+        return c[1] + t * (2 * c[2] + t * (3 * c[3] + t * (4 * c[4] + t * 5 * c[5])));
+    }
+
+    private static double secondDerivative(double[] c, double t) {
+        return 2 * c[2] + t * (6 * c[3] + t * (12 * c[4] + t * 20 * c[5]));
+    }
+}
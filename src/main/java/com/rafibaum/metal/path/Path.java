@@ -0,0 +1,151 @@
+package com.rafibaum.metal.path;
+
+import com.rafibaum.metal.geometry.Angle;
+import com.rafibaum.metal.geometry.MutableXY;
+
+/**
+ * Path is a generated path stored as a table of samples, ordered by the distance along the path to
+ * each sample. Looking up the position, heading or curvature at a distance is a binary search over the
+ * table followed by linear interpolation between the two nearest samples, and never allocates.
+ * Distances outside of the path are clamped to its start or end. Paths are created by a
+ * {@link PathGenerator} and are immutable.
+ */
+public class Path {
+
+    private final double[] distances;
+    private final double[] x;
+    private final double[] y;
+    private final double[] headings; //In degrees
+    private final double[] curvatures;
+
+    Path(double[] distances, double[] x, double[] y, double[] headings, double[] curvatures) {
+        this.distances = distances;
+        this.x = x;
+        this.y = y;
+        this.headings = headings;
+        this.curvatures = curvatures;
+    }
+
+    /**
+     * Returns the length of the path.
+     * @return the length of the path
+     */
+    public double getLength() {
+        return distances[distances.length - 1];
+    }
+
+    /**
+     * Returns the number of samples in the path's table.
+     * @return the number of samples
+     */
+    public int size() {
+        return distances.length;
+    }
+
+    /**
+     * Returns the distance along the path to a sample.
+     * @param index the index of the sample
+     * @return the distance to the sample
+     */
+    public double getSampleDistance(int index) {
+        return distances[index];
+    }
+
+    /**
+     * Returns the X coordinate of a sample.
+     * @param index the index of the sample
+     * @return the X coordinate of the sample
+     */
+    public double getSampleX(int index) {
+        return x[index];
+    }
+
+    /**
+     * Returns the Y coordinate of a sample.
+     * @param index the index of the sample
+     * @return the Y coordinate of the sample
+     */
+    public double getSampleY(int index) {
+        return y[index];
+    }
+
+    /**
+     * Returns the heading of a sample in degrees.
+     * @param index the index of the sample
+     * @return the heading of the sample in degrees
+     */
+    public double getSampleHeadingDegrees(int index) {
+        return headings[index];
+    }
+
+    /**
+     * Returns the curvature of a sample.
+     * @param index the index of the sample
+     * @return the curvature of the sample
+     */
+    public double getSampleCurvature(int index) {
+        return curvatures[index];
+    }
+
+    /**
+     * Finds the position at a distance along the path.
+     * @param distance the distance along the path
+     * @param position set to the position at that distance
+     * @return the position that was passed in
+     */
+    public MutableXY getPosition(double distance, MutableXY position) {
+        int i = index(distance);
+        double t = fraction(i, distance);
+        return position.set(x[i] + (x[i + 1] - x[i]) * t, y[i] + (y[i + 1] - y[i]) * t);
+    }
+
+    /**
+     * Returns the heading at a distance along the path in degrees, wrapped between 0 and 360.
+     * @param distance the distance along the path
+     * @return the heading in degrees
+     */
+    public double getHeadingDegrees(double distance) {
+        int i = index(distance);
+        double t = fraction(i, distance);
+        //Interpolating along the shortest turn
+        return Angle.wrapDegrees(headings[i] + Angle.wrapNavigationDegrees(headings[i + 1] - headings[i]) * t);
+    }
+
+    /**
+     * Returns the curvature at a distance along the path. Curvature is positive when the path turns clockwise.
+     * @param distance the distance along the path
+     * @return the curvature, one over the radius of the turn
+     */
+    public double getCurvature(double distance) {
+        int i = index(distance);
+        double t = fraction(i, distance);
+        return curvatures[i] + (curvatures[i + 1] - curvatures[i]) * t;
+    }
+
+    /**
+     * Binary searches for the sample at or before a distance, so that it and the next sample surround it.
+     * @param distance the distance along the path
+     * @return the index of the sample, never the last one
+     */
+    int index(double distance) {
+        int low = 0;
+        int high = distances.length - 2;
+        while(low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if(distances[middle] <= distance) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    private double fraction(int i, double distance) {
+        double span = distances[i + 1] - distances[i];
+        if(span <= 0) return 0;
+
+        double t = (distance - distances[i]) / span;
+        return t < 0 ? 0 : (t > 1 ? 1 : t);
+    }
+}
@@ -0,0 +1,206 @@
+package com.rafibaum.metal.path;
+
+import com.rafibaum.metal.geometry.Angle;
+import com.rafibaum.metal.geometry.Pose2d;
+import com.rafibaum.metal.utils.MetalConfigurationException;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * PathGenerator turns a list of waypoints into a {@link Path}. Consecutive waypoints are joined by
+ * Hermite splines, which are then sampled by adaptive subdivision: a stretch of spline is split in half
+ * until it's shorter than the maximum step, turns less than the maximum heading step and is close
+ * enough to a straight line. The samples are then measured to build the path's arc length table.
+ * <p>
+ * Each spline is sampled as a separate task on a fork-join pool, so long paths are generated in parallel.
+ */
+public class PathGenerator {
+
+    //Deepest a stretch of spline is split, which limits a segment to 2^20 samples
+    private static final int MAX_DEPTH = 20;
+
+    private final SplineType type;
+    private final ForkJoinPool pool;
+    private double maxStep = 0.05;
+    private double maxHeadingStep = 2.0;
+    private double tolerance = 0.0005;
+
+    /**
+     * Instantiates a path generator which runs on the common fork-join pool.
+     * @param type whether the splines are cubic or quintic
+     */
+    public PathGenerator(SplineType type) {
+        this(type, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Instantiates a path generator.
+     * @param type whether the splines are cubic or quintic
+     * @param pool the fork-join pool segments are generated on
+     */
+    public PathGenerator(SplineType type, ForkJoinPool pool) {
+        this.type = type;
+        this.pool = pool;
+    }
+
+    /**
+     * Sets the limits used when sampling the splines.
+     * @param maxStep the longest distance between two samples
+     * @param maxHeadingStep the largest change in heading between two samples, in degrees
+     * @param tolerance how far the distance between two samples can differ from the length of the curve between them
+     * @return this generator
+     */
+    public PathGenerator setSampling(double maxStep, double maxHeadingStep, double tolerance) {
+        if(!(maxStep > 0) || !(maxHeadingStep > 0) || !(tolerance > 0)) {
+            throw new MetalConfigurationException("Path sampling limits must be positive.");
+        }
+
+        this.maxStep = maxStep;
+        this.maxHeadingStep = maxHeadingStep;
+        this.tolerance = tolerance;
+        return this;
+    }
+
+    /**
+     * Generates a path through a list of waypoints. Each waypoint's heading is the direction the path
+     * travels through it.
+     * @param waypoints the waypoints, at least two
+     * @return the path
+     */
+    public Path generate(List<Pose2d> waypoints) {
+        if(waypoints.size() < 2) {
+            throw new MetalConfigurationException("A path needs at least two waypoints.");
+        }
+
+        int segments = waypoints.size() - 1;
+        HermiteSpline[] splines = new HermiteSpline[segments];
+        for(int i = 0; i < segments; i++) {
+            splines[i] = new HermiteSpline(waypoints.get(i), waypoints.get(i + 1), type);
+        }
+
+        //Sample every segment in parallel
+        SampledSegment[] sampled = new SampledSegment[segments];
+        pool.invoke(new SampleTask(splines, sampled, 0, segments));
+
+        //Stitch the segments together, measuring the distance to each sample along the way
+        int total = 1;
+        for(SampledSegment segment : sampled) {
+            total += segment.size;
+        }
+
+        double[] distances = new double[total];
+        double[] x = new double[total];
+        double[] y = new double[total];
+        double[] headings = new double[total];
+        double[] curvatures = new double[total];
+
+        HermiteSpline first = splines[0];
+        x[0] = first.getX(0);
+        y[0] = first.getY(0);
+        headings[0] = first.getHeadingDegrees(0);
+        curvatures[0] = first.getCurvature(0);
+
+        int index = 1;
+        for(int s = 0; s < segments; s++) {
+            SampledSegment segment = sampled[s];
+            for(int i = 0; i < segment.size; i++) {
+                double t = segment.t[i];
+                HermiteSpline spline = splines[s];
+                x[index] = spline.getX(t);
+                y[index] = spline.getY(t);
+                headings[index] = spline.getHeadingDegrees(t);
+                curvatures[index] = spline.getCurvature(t);
+
+                double dx = x[index] - x[index - 1];
+                double dy = y[index] - y[index - 1];
+                distances[index] = distances[index - 1] + Math.sqrt(dx * dx + dy * dy);
+                index++;
+            }
+        }
+
+        return new Path(distances, x, y, headings, curvatures);
+    }
+
+    /**
+     * Splits the segments in half until each task samples a single one.
+     */
+    private class SampleTask extends RecursiveAction {
+
+        private final HermiteSpline[] splines;
+        private final SampledSegment[] results;
+        private final int from;
+        private final int to;
+
+        SampleTask(HermiteSpline[] splines, SampledSegment[] results, int from, int to) {
+            this.splines = splines;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from == 1) {
+                results[from] = sample(splines[from]);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new SampleTask(splines, results, from, middle), new SampleTask(splines, results, middle, to));
+            }
+        }
+    }
+
+    /**
+     * Samples a spline, returning the parameters of the samples after its start, up to and including its end.
+     */
+    private SampledSegment sample(HermiteSpline spline) {
+        SampledSegment segment = new SampledSegment();
+        subdivide(spline, segment, 0, 1, 0);
+        return segment;
+    }
+
+    private void subdivide(HermiteSpline spline, SampledSegment segment, double t0, double t1, int depth) {
+        double middle = (t0 + t1) / 2;
+
+        if(depth < MAX_DEPTH && needsSplit(spline, t0, middle, t1)) {
+            subdivide(spline, segment, t0, middle, depth + 1);
+            subdivide(spline, segment, middle, t1, depth + 1);
+        } else {
+            segment.add(t1);
+        }
+    }
+
+    private boolean needsSplit(HermiteSpline spline, double t0, double middle, double t1) {
+        double x0 = spline.getX(t0);
+        double y0 = spline.getY(t0);
+        double xm = spline.getX(middle);
+        double ym = spline.getY(middle);
+        double x1 = spline.getX(t1);
+        double y1 = spline.getY(t1);
+
+        double chord = Math.hypot(x1 - x0, y1 - y0);
+        if(chord > maxStep) return true;
+
+        double turn = Angle.wrapNavigationDegrees(spline.getHeadingDegrees(t1) - spline.getHeadingDegrees(t0));
+        if(Math.abs(turn) > maxHeadingStep) return true;
+
+        //If going through the middle is much longer than the chord, the curve isn't straight enough
+        double halves = Math.hypot(xm - x0, ym - y0) + Math.hypot(x1 - xm, y1 - ym);
+        return halves - chord > tolerance;
+    }
+
+    /**
+     * Growable list of spline parameters.
+     */
+    private static class SampledSegment {
+        double[] t = new double[64];
+        int size;
+
+        void add(double value) {
+            if(size == t.length) t = Arrays.copyOf(t, size * 2);
+            t[size++] = value;
+        }
+    }
+}
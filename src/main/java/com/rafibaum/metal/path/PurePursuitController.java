@@ -0,0 +1,231 @@
+package com.rafibaum.metal.path;
+
+import com.rafibaum.metal.geometry.MutableXY;
+import com.rafibaum.metal.geometry.Trig;
+import com.rafibaum.metal.interfaces.IController;
+import com.rafibaum.metal.interfaces.ICurvatureDrive;
+import com.rafibaum.metal.interfaces.IPoseSource;
+import com.rafibaum.metal.utils.MetalConfigurationException;
+
+/**
+ * PurePursuitController drives the robot along a {@link Path} by steering towards a point on the path
+ * a set distance ahead of the robot, the lookahead point. Each update it finds the point on the path
+ * nearest to the robot, then the point where a circle around the robot with a radius of the lookahead
+ * distance crosses the path ahead of it, and drives along the arc which passes through that point.
+ * <p>
+ * Finding the nearest point uses a {@link SegmentIndex} so only the segments near the robot are checked.
+ * The search also only moves forwards along the path, starting from the nearest segment found in the
+ * previous update and looking no more than a few lookahead distances ahead. This keeps the follower from
+ * jumping to a later part of a path which crosses itself. The robot slows down so it can stop at the end of
+ * the path, and the controller finishes once the robot is close enough to the end. Updates don't allocate.
+ */
+public class PurePursuitController implements IController {
+
+    //How many lookahead distances ahead of the nearest point the searches look
+    private static final double SEARCH_LOOKAHEADS = 3.0;
+
+    private final Path path;
+    private final SegmentIndex index;
+    private final double lookahead;
+    private final double speed;
+    private final IPoseSource pose;
+    private final ICurvatureDrive drive;
+
+    private double maxDeceleration = Double.POSITIVE_INFINITY;
+    private double endTolerance = 0.05;
+
+    //Scratch vectors for finding the lookahead point
+    private final MutableXY toStart = new MutableXY();
+    private final MutableXY segment = new MutableXY();
+
+    //State of the follower
+    private int cursor;
+    private double nearestDistance;
+    private final MutableXY target = new MutableXY();
+    private double curvature;
+    private double commandedSpeed;
+    private boolean finished;
+
+    /**
+     * Instantiates a pure pursuit controller.
+     * @param path the path to follow
+     * @param lookahead how far ahead of the robot to steer towards
+     * @param speed the speed to drive at
+     * @param pose where the robot's pose is read from
+     * @param drive the drivetrain to drive
+     */
+    public PurePursuitController(Path path, double lookahead, double speed, IPoseSource pose, ICurvatureDrive drive) {
+        if(!(lookahead > 0)) {
+            throw new MetalConfigurationException("Pure pursuit lookahead distance must be positive.");
+        }
+
+        this.path = path;
+        this.index = new SegmentIndex(path, lookahead);
+        this.lookahead = lookahead;
+        this.speed = speed;
+        this.pose = pose;
+        this.drive = drive;
+    }
+
+    /**
+     * Limits how hard the robot decelerates coming to a stop at the end of the path.
+     * @param maxDeceleration the maximum deceleration
+     */
+    public void setMaxDeceleration(double maxDeceleration) {
+        if(!(maxDeceleration > 0)) {
+            throw new MetalConfigurationException("Pure pursuit deceleration must be positive.");
+        }
+
+        this.maxDeceleration = maxDeceleration;
+    }
+
+    /**
+     * Sets how close to the end of the path the robot has to get for the path to be finished.
+     * @param endTolerance the distance from the end of the path
+     */
+    public void setEndTolerance(double endTolerance) {
+        this.endTolerance = endTolerance;
+    }
+
+    /**
+     * Calculates the arc to drive along from a pose. This is what each update does, and can also be
+     * called directly when the controller isn't being scheduled.
+     * @param x the X coordinate of the robot
+     * @param y the Y coordinate of the robot
+     * @param headingDegrees the heading of the robot in degrees
+     */
+    public void calculate(double x, double y, double headingDegrees) {
+        int lastSegment = path.size() - 2;
+        double searchEnd = path.getSampleDistance(cursor) + lookahead * SEARCH_LOOKAHEADS;
+        int toSegment = Math.min(lastSegment, path.index(searchEnd) + 1);
+
+        //Nearest point, using the grid if the robot is near the path
+        int nearest = index.findNearest(x, y, lookahead, cursor, toSegment);
+        if(nearest < 0) nearest = index.scanNearest(x, y, cursor, toSegment);
+        cursor = nearest;
+
+        double t = index.projectOnto(nearest, x, y);
+        double segmentStart = path.getSampleDistance(nearest);
+        nearestDistance = segmentStart + (path.getSampleDistance(nearest + 1) - segmentStart) * t;
+
+        findTarget(x, y, nearest, t);
+
+        //Curvature of the arc through the target, from the target's position in the robot's frame
+        double radians = headingDegrees / 180.0 * Math.PI;
+        double cos = Trig.cos(radians);
+        double sin = Trig.sin(radians);
+        double dx = target.getX() - x;
+        double dy = target.getY() - y;
+        double localX = dx * cos - dy * sin;
+        double localY = dy * cos + dx * sin;
+        double distanceSquared = localX * localX + localY * localY;
+        curvature = distanceSquared > 0 ? 2 * localX / distanceSquared : 0;
+
+        double remaining = path.getLength() - nearestDistance;
+        //Zero length segments can end the path, so finish on any segment which reaches the end
+        finished = remaining <= endTolerance && path.getSampleDistance(nearest + 1) >= path.getLength() - endTolerance;
+
+        //At the end there's no distance left to stop in, which would be infinity times zero with no deceleration limit
+        double stoppingSpeed = remaining > 0 ? Math.sqrt(2 * maxDeceleration * remaining) : 0;
+        commandedSpeed = finished ? 0 : Math.min(speed, stoppingSpeed);
+    }
+
+    /**
+     * Finds where the lookahead circle leaves the path, searching forwards from the nearest point.
+     * If the whole rest of the path is inside of the circle, the end of the path is used.
+     */
+    private void findTarget(double x, double y, int nearest, double nearestT) {
+        int lastSegment = path.size() - 2;
+        double searchEnd = nearestDistance + lookahead * SEARCH_LOOKAHEADS;
+
+        for(int s = nearest; s <= lastSegment && path.getSampleDistance(s) <= searchEnd; s++) {
+            double ax = path.getSampleX(s);
+            double ay = path.getSampleY(s);
+            segment.set(path.getSampleX(s + 1), path.getSampleY(s + 1)).subtractInPlace(ax, ay);
+            toStart.set(ax, ay).subtractInPlace(x, y);
+
+            //Solve |start + u * segment - robot| = lookahead for u
+            double a = segment.dotProduct(segment);
+            double b = 2 * toStart.dotProduct(segment);
+            double c = toStart.dotProduct(toStart) - lookahead * lookahead;
+            double discriminant = b * b - 4 * a * c;
+            if(a == 0 || discriminant < 0) continue;
+
+            //The larger root is where the path leaves the circle
+            double u = (-b + Math.sqrt(discriminant)) / (2 * a);
+            double minimum = s == nearest ? nearestT : 0;
+            if(u >= minimum && u <= 1) {
+                target.set(ax, ay).addInPlace(segment.scaleInPlace(u));
+                return;
+            }
+        }
+
+        target.set(path.getSampleX(lastSegment + 1), path.getSampleY(lastSegment + 1));
+    }
+
+    /**
+     * Returns the curvature of the arc calculated in the last update.
+     * @return the curvature, positive to turn clockwise
+     */
+    public double getCurvature() {
+        return curvature;
+    }
+
+    /**
+     * Returns the speed calculated in the last update.
+     * @return the speed to drive at
+     */
+    public double getCommandedSpeed() {
+        return commandedSpeed;
+    }
+
+    /**
+     * Returns the distance along the path to the point nearest the robot, as of the last update.
+     * @return the distance along the path
+     */
+    public double getNearestDistance() {
+        return nearestDistance;
+    }
+
+    /**
+     * Returns the lookahead point found in the last update. The vector is reused by every update.
+     * @return the lookahead point
+     */
+    public MutableXY getTarget() {
+        return target;
+    }
+
+    /**
+     * Returns whether the robot has reached the end of the path.
+     * @return true if the path is finished
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Starts following the path from its beginning.
+     */
+    @Override
+    public void init() {
+        cursor = 0;
+        nearestDistance = 0;
+        finished = false;
+    }
+
+    @Override
+    public void update(double timestamp, double dt) {
+        if(finished) {
+            drive.drive(0, 0);
+            return;
+        }
+
+        calculate(pose.getX(), pose.getY(), pose.getHeadingDegrees());
+        drive.drive(commandedSpeed, curvature);
+    }
+
+    @Override
+    public void stop() {
+        drive.drive(0, 0);
+    }
+}
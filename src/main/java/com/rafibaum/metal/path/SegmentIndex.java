@@ -0,0 +1,214 @@
+package com.rafibaum.metal.path;
+
+import com.rafibaum.metal.geometry.MutableXY;
+import com.rafibaum.metal.utils.MetalConfigurationException;
+
+/**
+ * SegmentIndex is a uniform grid over the segments of a {@link Path}, the straight lines between
+ * consecutive samples. Each grid cell lists the segments which pass near it, so finding the segment
+ * nearest to a point only has to look at the segments in the few cells around the point instead of
+ * the whole path. The grid is stored in flat primitive arrays and searching it never allocates.
+ * <p>
+ * An index isn't thread safe, since searches share scratch vectors.
+ */
+public class SegmentIndex {
+
+    private final Path path;
+    private final double cellSize;
+    private final double minX;
+    private final double minY;
+    private final int columns;
+    private final int rows;
+
+    //Segments in cell c are cellSegments[cellStarts[c]] to cellSegments[cellStarts[c + 1] - 1]
+    private final int[] cellStarts;
+    private final int[] cellSegments;
+
+    //Scratch vectors for projecting points onto segments
+    private final MutableXY toPoint = new MutableXY();
+    private final MutableXY segment = new MutableXY();
+
+    //Result of the last projection
+    private double projectionT;
+    private double projectionDistanceSquared;
+
+    /**
+     * Builds an index over a path.
+     * @param path the path to index
+     * @param cellSize the width and height of each grid cell
+     */
+    public SegmentIndex(Path path, double cellSize) {
+        if(!(cellSize > 0)) {
+            throw new MetalConfigurationException("Segment index cell size must be positive.");
+        }
+
+        this.path = path;
+        this.cellSize = cellSize;
+
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for(int i = 0; i < path.size(); i++) {
+            minX = Math.min(minX, path.getSampleX(i));
+            minY = Math.min(minY, path.getSampleY(i));
+            maxX = Math.max(maxX, path.getSampleX(i));
+            maxY = Math.max(maxY, path.getSampleY(i));
+        }
+
+        this.minX = minX;
+        this.minY = minY;
+        this.columns = (int) ((maxX - minX) / cellSize) + 1;
+        this.rows = (int) ((maxY - minY) / cellSize) + 1;
+
+        //Count the segments in each cell, then fill them in
+        int segments = path.size() - 1;
+        int[] counts = new int[columns * rows + 1];
+        for(int s = 0; s < segments; s++) {
+            forEachCell(s, counts, null, null);
+        }
+
+        cellStarts = new int[columns * rows + 1];
+        for(int c = 0; c < columns * rows; c++) {
+            cellStarts[c + 1] = cellStarts[c] + counts[c];
+        }
+
+        cellSegments = new int[cellStarts[columns * rows]];
+        int[] filled = new int[columns * rows];
+        for(int s = 0; s < segments; s++) {
+            forEachCell(s, null, filled, cellSegments);
+        }
+    }
+
+    /**
+     * Visits every cell overlapped by a segment's bounding box, either counting the segment or adding it.
+     */
+    private void forEachCell(int s, int[] counts, int[] filled, int[] segments) {
+        int startColumn = column(Math.min(path.getSampleX(s), path.getSampleX(s + 1)));
+        int endColumn = column(Math.max(path.getSampleX(s), path.getSampleX(s + 1)));
+        int startRow = row(Math.min(path.getSampleY(s), path.getSampleY(s + 1)));
+        int endRow = row(Math.max(path.getSampleY(s), path.getSampleY(s + 1)));
+
+        for(int r = startRow; r <= endRow; r++) {
+            for(int c = startColumn; c <= endColumn; c++) {
+                int cell = r * columns + c;
+                if(counts != null) {
+                    counts[cell]++;
+                } else {
+                    segments[cellStarts[cell] + filled[cell]++] = s;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the path the index covers.
+     * @return the indexed path
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Finds the segment nearest to a point, out of the segments within a radius of the point and within
+     * a range of segment indices. Only the cells around the point are searched.
+     * @param x the X coordinate of the point
+     * @param y the Y coordinate of the point
+     * @param radius how far from the point to look
+     * @param fromSegment the first segment which may be returned
+     * @param toSegment the last segment which may be returned
+     * @return the index of the nearest segment, or -1 if none were found
+     */
+    public int findNearest(double x, double y, double radius, int fromSegment, int toSegment) {
+        int startColumn = column(x - radius);
+        int endColumn = column(x + radius);
+        int startRow = row(y - radius);
+        int endRow = row(y + radius);
+
+        int nearest = -1;
+        double nearestDistance = radius * radius;
+        for(int r = startRow; r <= endRow; r++) {
+            for(int c = startColumn; c <= endColumn; c++) {
+                int cell = r * columns + c;
+                for(int i = cellStarts[cell]; i < cellStarts[cell + 1]; i++) {
+                    int s = cellSegments[i];
+                    if(s < fromSegment || s > toSegment) continue;
+
+                    project(s, x, y);
+                    if(projectionDistanceSquared < nearestDistance ||
+                            (projectionDistanceSquared == nearestDistance && s < nearest)) {
+                        nearest = s;
+                        nearestDistance = projectionDistanceSquared;
+                    }
+                }
+            }
+        }
+
+        return nearest;
+    }
+
+    /**
+     * Finds the segment nearest to a point by checking every segment in a range, for when the point is
+     * too far from the path for the grid to help.
+     * @param x the X coordinate of the point
+     * @param y the Y coordinate of the point
+     * @param fromSegment the first segment to check
+     * @param toSegment the last segment to check
+     * @return the index of the nearest segment
+     */
+    public int scanNearest(double x, double y, int fromSegment, int toSegment) {
+        int nearest = fromSegment;
+        double nearestDistance = Double.POSITIVE_INFINITY;
+        for(int s = fromSegment; s <= toSegment; s++) {
+            project(s, x, y);
+            if(projectionDistanceSquared < nearestDistance) {
+                nearest = s;
+                nearestDistance = projectionDistanceSquared;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Returns how far along a segment the point on it nearest to a point is.
+     * @param s the index of the segment
+     * @param x the X coordinate of the point
+     * @param y the Y coordinate of the point
+     * @return the position along the segment, from 0 at its start to 1 at its end
+     */
+    public double projectOnto(int s, double x, double y) {
+        project(s, x, y);
+        return projectionT;
+    }
+
+    /**
+     * Projects a point onto a segment, storing how far along the segment the nearest point is and
+     * the squared distance to it.
+     */
+    private void project(int s, double x, double y) {
+        double ax = path.getSampleX(s);
+        double ay = path.getSampleY(s);
+        segment.set(path.getSampleX(s + 1), path.getSampleY(s + 1)).subtractInPlace(ax, ay);
+        toPoint.set(x, y).subtractInPlace(ax, ay);
+
+        double lengthSquared = segment.dotProduct(segment);
+        double t = lengthSquared > 0 ? toPoint.dotProduct(segment) / lengthSquared : 0;
+        if(t < 0) t = 0;
+        else if(t > 1) t = 1;
+
+        //Offset from the nearest point on the segment to the point
+        toPoint.subtractInPlace(segment.scaleInPlace(t));
+        projectionT = t;
+        projectionDistanceSquared = toPoint.dotProduct(toPoint);
+    }
+
+    private int column(double x) {
+        int column = (int) Math.floor((x - minX) / cellSize);
+        return column < 0 ? 0 : (column >= columns ? columns - 1 : column);
+    }
+
+    private int row(double y) {
+        int row = (int) Math.floor((y - minY) / cellSize);
+        return row < 0 ? 0 : (row >= rows ? rows - 1 : row);
+    }
+}
@@ -0,0 +1,11 @@
+package com.rafibaum.metal.path;
+
+/**
+ * The SplineType enum is used to specify which kind of Hermite spline joins the waypoints of a path.
+ * Cubic splines match the position and heading at each waypoint. Quintic splines also bring the
+ * curvature to zero at each waypoint, which gives smoother changes in curvature between segments.
+ */
+public enum SplineType {
+    CUBIC,
+    QUINTIC
+}
@@ -0,0 +1,212 @@
+package com.rafibaum.metal.path;
+
+import com.rafibaum.metal.geometry.Angle;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Trajectory is a path along with how fast to drive along it, stored as a table of samples ordered by
+ * time. Each sample has the time, distance along the path, position, heading, velocity, acceleration and
+ * curvature at that point.
+ * <p>
+ * The table is kept in a binary format inside a byte buffer rather than in arrays, so a trajectory
+ * saved with {@link #save(java.nio.file.Path)} can be loaded with {@link #load(java.nio.file.Path)} by
+ * memory mapping the file and sampled in place, with no parsing or copying. Paths which never change
+ * can be generated ahead of time, see {@link TrajectoryCompiler}, and cost nothing to load. The format
+ * is a 16 byte header followed by each column of the table in turn, as big endian doubles:
+ * <pre>
+ * int magic "MTRJ", short version, short columns, int samples, int reserved
+ * double[samples] times, distances, x, y, headings, velocities, accelerations, curvatures
+ * </pre>
+ * Sampling is a binary search over the times followed by interpolation, and never allocates. Times
+ * outside of the trajectory are clamped to its start or end. Trajectories are immutable.
+ */
+public class Trajectory {
+
+    static final int MAGIC = 0x4D54524A; //"MTRJ"
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 16;
+
+    //Columns of the table
+    static final int TIME = 0;
+    static final int DISTANCE = 1;
+    static final int X = 2;
+    static final int Y = 3;
+    static final int HEADING = 4;
+    static final int VELOCITY = 5;
+    static final int ACCELERATION = 6;
+    static final int CURVATURE = 7;
+    static final int COLUMNS = 8;
+
+    private final ByteBuffer buffer;
+    private final int size;
+
+    /**
+     * Wraps a buffer holding a trajectory in the binary format.
+     * @param buffer the buffer, with the trajectory starting at position zero
+     * @throws IllegalArgumentException if the buffer doesn't hold a trajectory
+     */
+    Trajectory(ByteBuffer buffer) {
+        if(buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Buffer does not hold a trajectory.");
+        }
+        if(buffer.getShort(4) != VERSION || buffer.getShort(6) != COLUMNS) {
+            throw new IllegalArgumentException("Trajectory has unsupported version " + buffer.getShort(4) + ".");
+        }
+
+        this.size = buffer.getInt(8);
+        if(size < 2 || buffer.capacity() < bytes(size)) {
+            throw new IllegalArgumentException("Trajectory is truncated.");
+        }
+
+        this.buffer = buffer;
+    }
+
+    /**
+     * Creates an empty trajectory table to be filled in by a generator.
+     */
+    static ByteBuffer allocate(int size) {
+        ByteBuffer buffer = ByteBuffer.allocate(bytes(size));
+        buffer.putInt(0, MAGIC);
+        buffer.putShort(4, VERSION);
+        buffer.putShort(6, (short) COLUMNS);
+        buffer.putInt(8, size);
+        return buffer;
+    }
+
+    static int bytes(int size) {
+        return HEADER_BYTES + COLUMNS * size * Double.BYTES;
+    }
+
+    static void put(ByteBuffer buffer, int size, int column, int index, double value) {
+        buffer.putDouble(HEADER_BYTES + (column * size + index) * Double.BYTES, value);
+    }
+
+    /**
+     * Memory maps a trajectory file. The file is only read as it's sampled.
+     * @param file the file to load
+     * @return the trajectory
+     * @throws IOException if the file can't be read or isn't a trajectory
+     */
+    public static Trajectory load(java.nio.file.Path file) throws IOException {
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new Trajectory(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch(IllegalArgumentException e) {
+            throw new IOException(file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Saves the trajectory to a file in the binary format.
+     * @param file the file to save to
+     * @throws IOException if the file can't be written
+     */
+    public void save(java.nio.file.Path file) throws IOException {
+        ByteBuffer contents = buffer.duplicate();
+        contents.clear().limit(bytes(size));
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while(contents.hasRemaining()) {
+                channel.write(contents);
+            }
+        }
+    }
+
+    private double get(int column, int index) {
+        return buffer.getDouble(HEADER_BYTES + (column * size + index) * Double.BYTES);
+    }
+
+    /**
+     * Returns the number of samples in the trajectory's table.
+     * @return the number of samples
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns how long the trajectory takes to drive.
+     * @return the duration in seconds
+     */
+    public double getDuration() {
+        return get(TIME, size - 1);
+    }
+
+    /**
+     * Returns the length of the trajectory's path.
+     * @return the length of the path
+     */
+    public double getLength() {
+        return get(DISTANCE, size - 1);
+    }
+
+    /**
+     * Returns the time of a sample in the table.
+     * @param index the index of the sample
+     * @return the time of the sample in seconds
+     */
+    public double getSampleTime(int index) {
+        return get(TIME, index);
+    }
+
+    /**
+     * Returns the velocity of a sample in the table.
+     * @param index the index of the sample
+     * @return the velocity of the sample
+     */
+    public double getSampleVelocity(int index) {
+        return get(VELOCITY, index);
+    }
+
+    /**
+     * Samples the trajectory at a time. Between samples in the table the acceleration is constant,
+     * so the distance and velocity are exact, and the rest is interpolated by distance.
+     * @param time the time since the start of the trajectory in seconds
+     * @param sample the sample to fill in
+     * @return the sample, for chaining
+     */
+    public TrajectorySample sample(double time, TrajectorySample sample) {
+        time = Math.max(0, Math.min(getDuration(), time));
+
+        //Binary search for the last sample at or before the time
+        int low = 0;
+        int high = size - 2;
+        while(low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if(get(TIME, middle) <= time) low = middle;
+            else high = middle - 1;
+        }
+
+        int i = low;
+        double t = time - get(TIME, i);
+        double d0 = get(DISTANCE, i);
+        double d1 = get(DISTANCE, i + 1);
+        double v0 = get(VELOCITY, i);
+        double acceleration = get(ACCELERATION, i + 1);
+
+        double distance = Math.min(d1, d0 + v0 * t + acceleration * t * t / 2.0);
+        double fraction = d1 > d0 ? (distance - d0) / (d1 - d0) : 0;
+
+        sample.time = time;
+        sample.distance = distance;
+        sample.velocity = Math.max(0, v0 + acceleration * t);
+        sample.acceleration = acceleration;
+        sample.x = lerp(get(X, i), get(X, i + 1), fraction);
+        sample.y = lerp(get(Y, i), get(Y, i + 1), fraction);
+        sample.curvature = lerp(get(CURVATURE, i), get(CURVATURE, i + 1), fraction);
+
+        //Headings are interpolated along the shortest turn
+        double h0 = get(HEADING, i);
+        double turn = Angle.wrapNavigationDegrees(get(HEADING, i + 1) - h0);
+        sample.heading = Angle.wrapDegrees(h0 + turn * fraction);
+        return sample;
+    }
+
+    private static double lerp(double a, double b, double fraction) {
+        return a + (b - a) * fraction;
+    }
+}
@@ -0,0 +1,135 @@
+package com.rafibaum.metal.path;
+
+import com.rafibaum.metal.geometry.Angle;
+import com.rafibaum.metal.geometry.Pose2d;
+import com.rafibaum.metal.utils.MetalConfigurationException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TrajectoryCompiler generates trajectories ahead of time, at build time, from simple text definitions
+ * and saves them in the binary {@link Trajectory} format so the robot only has to memory map them. It's
+ * run by the compileTrajectories task in the build, which turns every .traj file in
+ * src/main/trajectories into a .mtraj file of the same name. A definition looks like:
+ * <pre>
+ * # Drive to the scale
+ * spline quintic
+ * maxVelocity 3.0
+ * maxAcceleration 2.0
+ * maxCentripetalAcceleration 2.5
+ * waypoint 0 0 0
+ * waypoint 1.5 3 90
+ * waypoint 4 3 90
+ * </pre>
+ * Waypoints are an X coordinate, a Y coordinate and a heading in degrees. The spline type and
+ * centripetal limit are optional, and blank lines and lines starting with # are ignored.
+ */
+public final class TrajectoryCompiler {
+
+    //File extensions of definitions and compiled trajectories
+    static final String SOURCE_EXTENSION = ".traj";
+    static final String COMPILED_EXTENSION = ".mtraj";
+
+    private TrajectoryCompiler() {
+    }
+
+    /**
+     * Compiles every definition in a directory.
+     * @param args the directory of definitions and the directory to write trajectories to
+     * @throws IOException if a file can't be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if(args.length != 2) {
+            System.err.println("Usage: TrajectoryCompiler <definition directory> <output directory>");
+            System.exit(1);
+        }
+
+        java.nio.file.Path sources = java.nio.file.Paths.get(args[0]);
+        java.nio.file.Path output = java.nio.file.Paths.get(args[1]);
+        Files.createDirectories(output);
+        if(!Files.isDirectory(sources)) return;
+
+        try(DirectoryStream<java.nio.file.Path> definitions = Files.newDirectoryStream(sources, "*" + SOURCE_EXTENSION)) {
+            for(java.nio.file.Path definition : definitions) {
+                String name = definition.getFileName().toString();
+                name = name.substring(0, name.length() - SOURCE_EXTENSION.length());
+
+                Trajectory trajectory = compile(Files.readAllLines(definition, StandardCharsets.UTF_8), definition.toString());
+                trajectory.save(output.resolve(name + COMPILED_EXTENSION));
+                System.out.printf("Compiled %s: %.2f m, %.2f s%n", name, trajectory.getLength(), trajectory.getDuration());
+            }
+        }
+    }
+
+    /**
+     * Generates a trajectory from the lines of a definition.
+     * @param lines the lines of the definition
+     * @param source the name of the definition, for error messages
+     * @return the trajectory
+     */
+    public static Trajectory compile(List<String> lines, String source) {
+        SplineType type = SplineType.QUINTIC;
+        double maxVelocity = Double.NaN;
+        double maxAcceleration = Double.NaN;
+        double maxCentripetal = Double.NaN;
+        List<Pose2d> waypoints = new ArrayList<>();
+
+        for(int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if(line.isEmpty() || line.startsWith("#")) continue;
+
+            String[] parts = line.split("\\s+");
+            try {
+                switch(parts[0]) {
+                    case "spline":
+                        expect(parts, 2);
+                        type = SplineType.valueOf(parts[1].toUpperCase());
+                        break;
+                    case "maxVelocity":
+                        expect(parts, 2);
+                        maxVelocity = Double.parseDouble(parts[1]);
+                        break;
+                    case "maxAcceleration":
+                        expect(parts, 2);
+                        maxAcceleration = Double.parseDouble(parts[1]);
+                        break;
+                    case "maxCentripetalAcceleration":
+                        expect(parts, 2);
+                        maxCentripetal = Double.parseDouble(parts[1]);
+                        break;
+                    case "waypoint":
+                        expect(parts, 4);
+                        waypoints.add(new Pose2d(Double.parseDouble(parts[1]), Double.parseDouble(parts[2]),
+                                new Angle(Double.parseDouble(parts[3]))));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown setting " + parts[0]);
+                }
+            } catch(IllegalArgumentException e) {
+                throw new MetalConfigurationException(source + ":" + (i + 1) + ": " + e.getMessage());
+            }
+        }
+
+        if(Double.isNaN(maxVelocity) || Double.isNaN(maxAcceleration)) {
+            throw new MetalConfigurationException(source + ": maxVelocity and maxAcceleration must be set.");
+        }
+        if(waypoints.size() < 2) {
+            throw new MetalConfigurationException(source + ": at least two waypoints are needed.");
+        }
+
+        TrajectoryGenerator generator = new TrajectoryGenerator(maxVelocity, maxAcceleration);
+        if(!Double.isNaN(maxCentripetal)) generator.setMaxCentripetalAcceleration(maxCentripetal);
+        return generator.generate(new PathGenerator(type).generate(waypoints));
+    }
+
+    private static void expect(String[] parts, int count) {
+        if(parts.length != count) {
+            throw new IllegalArgumentException(parts[0] + " takes " + (count - 1) + " value(s)");
+        }
+    }
+}
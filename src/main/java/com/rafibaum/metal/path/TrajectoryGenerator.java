@@ -0,0 +1,104 @@
+package com.rafibaum.metal.path;
+
+import com.rafibaum.metal.utils.MetalConfigurationException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * TrajectoryGenerator works out how fast to drive along a {@link Path}, turning it into a
+ * {@link Trajectory}. The robot starts and ends stopped, never goes faster than the maximum velocity,
+ * never speeds up or slows down faster than the maximum acceleration, and slows down for tight turns so
+ * the sideways acceleration stays under a limit too. Velocities are found at each of the path's samples
+ * with a pass forwards to limit speeding up and a pass backwards to limit slowing down, then the time
+ * to each sample is integrated assuming constant acceleration between them.
+ */
+public class TrajectoryGenerator {
+
+    private final double maxVelocity;
+    private final double maxAcceleration;
+    private double maxCentripetalAcceleration = Double.POSITIVE_INFINITY;
+
+    /**
+     * Instantiates a trajectory generator.
+     * @param maxVelocity the fastest the robot may drive
+     * @param maxAcceleration the fastest the robot may speed up or slow down
+     */
+    public TrajectoryGenerator(double maxVelocity, double maxAcceleration) {
+        if(!(maxVelocity > 0) || !(maxAcceleration > 0)) {
+            throw new MetalConfigurationException("Trajectory velocity and acceleration limits must be positive.");
+        }
+
+        this.maxVelocity = maxVelocity;
+        this.maxAcceleration = maxAcceleration;
+    }
+
+    /**
+     * Limits the sideways acceleration of the robot in turns, which is velocity squared times curvature.
+     * @param maxCentripetalAcceleration the largest sideways acceleration
+     * @return this generator, for chaining
+     */
+    public TrajectoryGenerator setMaxCentripetalAcceleration(double maxCentripetalAcceleration) {
+        if(!(maxCentripetalAcceleration > 0)) {
+            throw new MetalConfigurationException("Trajectory centripetal acceleration limit must be positive.");
+        }
+
+        this.maxCentripetalAcceleration = maxCentripetalAcceleration;
+        return this;
+    }
+
+    /**
+     * Generates a trajectory along a path.
+     * @param path the path to drive along
+     * @return the trajectory
+     */
+    public Trajectory generate(Path path) {
+        int size = path.size();
+        double[] velocities = new double[size];
+
+        //Speed limit at each sample from the maximum velocity and the curvature
+        for(int i = 0; i < size; i++) {
+            double curvature = Math.abs(path.getSampleCurvature(i));
+            velocities[i] = curvature > 0
+                    ? Math.min(maxVelocity, Math.sqrt(maxCentripetalAcceleration / curvature))
+                    : maxVelocity;
+        }
+        velocities[0] = 0;
+        velocities[size - 1] = 0;
+
+        //Limit speeding up going forwards, and slowing down going backwards
+        for(int i = 1; i < size; i++) {
+            double step = path.getSampleDistance(i) - path.getSampleDistance(i - 1);
+            velocities[i] = Math.min(velocities[i], Math.sqrt(velocities[i - 1] * velocities[i - 1] + 2 * maxAcceleration * step));
+        }
+        for(int i = size - 2; i >= 0; i--) {
+            double step = path.getSampleDistance(i + 1) - path.getSampleDistance(i);
+            velocities[i] = Math.min(velocities[i], Math.sqrt(velocities[i + 1] * velocities[i + 1] + 2 * maxAcceleration * step));
+        }
+
+        ByteBuffer buffer = Trajectory.allocate(size);
+        double time = 0;
+        for(int i = 0; i < size; i++) {
+            //Acceleration is stored with the sample at the end of the stretch it applies to
+            double acceleration = 0;
+            if(i > 0) {
+                double step = path.getSampleDistance(i) - path.getSampleDistance(i - 1);
+                double speed = velocities[i - 1] + velocities[i];
+                if(step > 0 && speed > 0) {
+                    time += 2 * step / speed;
+                    acceleration = (velocities[i] * velocities[i] - velocities[i - 1] * velocities[i - 1]) / (2 * step);
+                }
+            }
+
+            Trajectory.put(buffer, size, Trajectory.TIME, i, time);
+            Trajectory.put(buffer, size, Trajectory.DISTANCE, i, path.getSampleDistance(i));
+            Trajectory.put(buffer, size, Trajectory.X, i, path.getSampleX(i));
+            Trajectory.put(buffer, size, Trajectory.Y, i, path.getSampleY(i));
+            Trajectory.put(buffer, size, Trajectory.HEADING, i, path.getSampleHeadingDegrees(i));
+            Trajectory.put(buffer, size, Trajectory.VELOCITY, i, velocities[i]);
+            Trajectory.put(buffer, size, Trajectory.ACCELERATION, i, acceleration);
+            Trajectory.put(buffer, size, Trajectory.CURVATURE, i, path.getSampleCurvature(i));
+        }
+
+        return new Trajectory(buffer);
+    }
+}
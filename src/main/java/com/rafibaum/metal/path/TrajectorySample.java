@@ -0,0 +1,82 @@
+package com.rafibaum.metal.path;
+
+/**
+ * TrajectorySample holds the state of a {@link Trajectory} at a point in time. Samples are filled in by
+ * {@link Trajectory#sample(double, TrajectorySample)} and are meant to be reused every loop so sampling
+ * never allocates.
+ */
+public class TrajectorySample {
+
+    double time;
+    double distance;
+    double x;
+    double y;
+    double heading;
+    double velocity;
+    double acceleration;
+    double curvature;
+
+    /**
+     * Returns the time of the sample.
+     * @return the time since the start of the trajectory in seconds
+     */
+    public double getTime() {
+        return time;
+    }
+
+    /**
+     * Returns the distance travelled along the path.
+     * @return the distance along the path
+     */
+    public double getDistance() {
+        return distance;
+    }
+
+    /**
+     * Returns the X coordinate of the robot.
+     * @return the X coordinate
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * Returns the Y coordinate of the robot.
+     * @return the Y coordinate
+     */
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * Returns the heading of the robot in degrees, between 0 and 360.
+     * @return the heading in degrees
+     */
+    public double getHeadingDegrees() {
+        return heading;
+    }
+
+    /**
+     * Returns the speed of the robot along the path.
+     * @return the velocity
+     */
+    public double getVelocity() {
+        return velocity;
+    }
+
+    /**
+     * Returns the acceleration of the robot along the path.
+     * @return the acceleration
+     */
+    public double getAcceleration() {
+        return acceleration;
+    }
+
+    /**
+     * Returns the curvature of the path, positive for clockwise turns.
+     * @return the curvature
+     */
+    public double getCurvature() {
+        return curvature;
+    }
+}
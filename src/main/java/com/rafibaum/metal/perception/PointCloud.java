@@ -0,0 +1,96 @@
+package com.rafibaum.metal.perception;
+
+import com.rafibaum.metal.geometry.XY;
+import com.rafibaum.metal.utils.MetalConfigurationException;
+
+/**
+ * PointCloud holds a batch of points on the field, like a lidar scan after it's been transformed by a
+ * {@link ScanTransformer}, in two parallel primitive arrays. It has a fixed capacity and is meant to be
+ * reused every frame so processing scans never allocates.
+ */
+public class PointCloud {
+
+    final double[] x;
+    final double[] y;
+    int size;
+
+    /**
+     * Instantiates an empty point cloud.
+     * @param capacity the largest number of points the cloud can hold
+     */
+    public PointCloud(int capacity) {
+        if(capacity < 1) {
+            throw new MetalConfigurationException("Point clouds must be able to hold at least one point.");
+        }
+
+        x = new double[capacity];
+        y = new double[capacity];
+    }
+
+    /**
+     * Returns the largest number of points the cloud can hold.
+     * @return the capacity of the cloud
+     */
+    public int capacity() {
+        return x.length;
+    }
+
+    /**
+     * Returns the number of points in the cloud.
+     * @return the number of points
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the X coordinate of a point.
+     * @param index the index of the point
+     * @return the X coordinate
+     */
+    public double getX(int index) {
+        checkIndex(index);
+        return x[index];
+    }
+
+    /**
+     * Returns the Y coordinate of a point.
+     * @param index the index of the point
+     * @return the Y coordinate
+     */
+    public double getY(int index) {
+        checkIndex(index);
+        return y[index];
+    }
+
+    /**
+     * Returns a point as a vector. This allocates, so it's meant for tests and debugging.
+     * @param index the index of the point
+     * @return the point
+     */
+    public XY get(int index) {
+        return new XY(getX(index), getY(index));
+    }
+
+    /**
+     * Copies the points' X coordinates into an array.
+     * @param out the array to copy into, at least as long as the cloud
+     */
+    public void copyX(double[] out) {
+        System.arraycopy(x, 0, out, 0, size);
+    }
+
+    /**
+     * Copies the points' Y coordinates into an array.
+     * @param out the array to copy into, at least as long as the cloud
+     */
+    public void copyY(double[] out) {
+        System.arraycopy(y, 0, out, 0, size);
+    }
+
+    private void checkIndex(int index) {
+        if(index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " is outside of the cloud's " + size + " points.");
+        }
+    }
+}
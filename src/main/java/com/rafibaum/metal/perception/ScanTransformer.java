@@ -0,0 +1,266 @@
+package com.rafibaum.metal.perception;
+
+import com.rafibaum.metal.geometry.Trig;
+import com.rafibaum.metal.utils.MetalConfigurationException;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * ScanTransformer converts range and bearing scans, like those from a 2D lidar, into points on the field.
+ * Each point of a scan is a polar vector from the sensor: a range, and a bearing in degrees using
+ * navigation style angles. The sensor is mounted on the robot at an offset and angle, and the robot's
+ * pose is given for each scan.
+ * <p>
+ * Since the mount and the robot's pose are the same for every point in a scan, they're combined into a
+ * single rotation and offset once per scan. Most sensors also measure at the same bearings every scan, so
+ * the direction of each bearing can be worked out once with {@link #setBearings(double, double, int)} and
+ * no trig is needed per point at all. Transforming is then one pass of multiplies and adds over primitive
+ * arrays, with no branches, which the JIT can vectorize. Points outside of the range limits, including
+ * NaN and infinite readings, are dropped in a second pass. Large scans can be split across a fork-join pool.
+ */
+public class ScanTransformer {
+
+    //Smallest number of points for a parallel task
+    private static final int MIN_CHUNK = 1024;
+
+    private final double mountX;
+    private final double mountY;
+    private final double mountDegrees;
+
+    //Direction of each bearing, as the sine and cosine of the bearing
+    private double[] directionX = new double[0];
+    private double[] directionY = new double[0];
+
+    private double minRange = 0;
+    private double maxRange = Double.POSITIVE_INFINITY;
+
+    private ForkJoinPool pool;
+    private int parallelThreshold = Integer.MAX_VALUE;
+
+    /**
+     * Instantiates a scan transformer for a sensor at the center of the robot, facing forwards.
+     */
+    public ScanTransformer() {
+        this(0, 0, 0);
+    }
+
+    /**
+     * Instantiates a scan transformer for a sensor mounted on the robot.
+     * @param mountX the X coordinate of the sensor in the robot's frame
+     * @param mountY the Y coordinate of the sensor in the robot's frame
+     * @param mountDegrees the direction the sensor faces on the robot in degrees
+     */
+    public ScanTransformer(double mountX, double mountY, double mountDegrees) {
+        this.mountX = mountX;
+        this.mountY = mountY;
+        this.mountDegrees = mountDegrees;
+    }
+
+    /**
+     * Sets the bearings the sensor measures at, evenly spaced, so their directions are only calculated once.
+     * @param startDegrees the bearing of the first point in degrees
+     * @param incrementDegrees the change in bearing from one point to the next in degrees
+     * @param count the number of points in a scan
+     */
+    public void setBearings(double startDegrees, double incrementDegrees, int count) {
+        directionX = new double[count];
+        directionY = new double[count];
+        for(int i = 0; i < count; i++) {
+            double radians = (startDegrees + incrementDegrees * i) / 180.0 * Math.PI;
+            directionX[i] = Math.sin(radians);
+            directionY[i] = Math.cos(radians);
+        }
+    }
+
+    /**
+     * Sets the bearings the sensor measures at, so their directions are only calculated once.
+     * @param bearingsDegrees the bearing of each point in degrees
+     */
+    public void setBearings(double[] bearingsDegrees) {
+        directionX = new double[bearingsDegrees.length];
+        directionY = new double[bearingsDegrees.length];
+        for(int i = 0; i < bearingsDegrees.length; i++) {
+            double radians = bearingsDegrees[i] / 180.0 * Math.PI;
+            directionX[i] = Math.sin(radians);
+            directionY[i] = Math.cos(radians);
+        }
+    }
+
+    /**
+     * Sets the ranges the sensor measures reliably. Points outside of these are dropped.
+     * @param minRange the smallest valid range
+     * @param maxRange the largest valid range
+     */
+    public void setRangeLimits(double minRange, double maxRange) {
+        if(!(maxRange >= minRange)) {
+            throw new MetalConfigurationException("Scan range limits must have the maximum above the minimum.");
+        }
+
+        this.minRange = minRange;
+        this.maxRange = maxRange;
+    }
+
+    /**
+     * Splits scans of at least a number of points across a fork-join pool.
+     * @param pool the pool to transform on, or null to always transform on the calling thread
+     * @param threshold the number of points a scan must have to be split
+     */
+    public void setParallel(ForkJoinPool pool, int threshold) {
+        this.pool = pool;
+        this.parallelThreshold = Math.max(threshold, MIN_CHUNK * 2);
+    }
+
+    /**
+     * Transforms a scan taken at the bearings set with {@link #setBearings}.
+     * @param ranges the range of each point
+     * @param count the number of points in the scan
+     * @param robotX the X coordinate of the robot when the scan was taken
+     * @param robotY the Y coordinate of the robot when the scan was taken
+     * @param robotHeadingDegrees the heading of the robot when the scan was taken in degrees
+     * @param out the point cloud to fill with the valid points, in scan order
+     * @return the number of valid points
+     */
+    public int transform(double[] ranges, int count, double robotX, double robotY, double robotHeadingDegrees,
+                         PointCloud out) {
+        if(count > directionX.length) {
+            throw new IllegalArgumentException("Scan has " + count + " points but only " + directionX.length + " bearings are set.");
+        }
+
+        return transform(ranges, directionX, directionY, count, robotX, robotY, robotHeadingDegrees, out);
+    }
+
+    /**
+     * Transforms a scan with its own bearings. Each point needs a sine and cosine, so scans with the same
+     * bearings every time should use {@link #setBearings} instead.
+     * @param ranges the range of each point
+     * @param bearingsDegrees the bearing of each point in degrees
+     * @param count the number of points in the scan
+     * @param robotX the X coordinate of the robot when the scan was taken
+     * @param robotY the Y coordinate of the robot when the scan was taken
+     * @param robotHeadingDegrees the heading of the robot when the scan was taken in degrees
+     * @param out the point cloud to fill with the valid points, in scan order
+     * @return the number of valid points
+     */
+    public int transform(double[] ranges, double[] bearingsDegrees, int count, double robotX, double robotY,
+                         double robotHeadingDegrees, PointCloud out) {
+        checkCount(count, out);
+
+        //Work the directions out into the cloud, then transform in place
+        double[] x = out.x;
+        double[] y = out.y;
+        for(int i = 0; i < count; i++) {
+            double radians = bearingsDegrees[i] / 180.0 * Math.PI;
+            x[i] = Trig.sin(radians);
+            y[i] = Trig.cos(radians);
+        }
+
+        return transform(ranges, x, y, count, robotX, robotY, robotHeadingDegrees, out);
+    }
+
+    private int transform(double[] ranges, double[] dx, double[] dy, int count, double robotX, double robotY,
+                          double robotHeadingDegrees, PointCloud out) {
+        checkCount(count, out);
+
+        //Combine the robot's pose and the mount into one rotation and offset for the whole scan
+        double headingRadians = robotHeadingDegrees / 180.0 * Math.PI;
+        double robotCos = Trig.cos(headingRadians);
+        double robotSin = Trig.sin(headingRadians);
+        double originX = robotX + mountX * robotCos + mountY * robotSin;
+        double originY = robotY + mountY * robotCos - mountX * robotSin;
+
+        double scanRadians = (robotHeadingDegrees + mountDegrees) / 180.0 * Math.PI;
+        double cos = Trig.cos(scanRadians);
+        double sin = Trig.sin(scanRadians);
+
+        if(pool != null && count >= parallelThreshold) {
+            pool.invoke(new TransformTask(ranges, dx, dy, out.x, out.y, originX, originY, cos, sin, 0, count));
+        } else {
+            transformRange(ranges, dx, dy, out.x, out.y, originX, originY, cos, sin, 0, count);
+        }
+
+        out.size = filter(ranges, out.x, out.y, count);
+        return out.size;
+    }
+
+    /**
+     * Transforms a range of points. Kept free of branches so it vectorizes.
+     */
+    private static void transformRange(double[] ranges, double[] dx, double[] dy, double[] outX, double[] outY,
+                                       double originX, double originY, double cos, double sin, int from, int to) {
+        for(int i = from; i < to; i++) {
+            double r = ranges[i];
+            double px = r * dx[i];
+            double py = r * dy[i];
+            outX[i] = originX + px * cos + py * sin;
+            outY[i] = originY + py * cos - px * sin;
+        }
+    }
+
+    /**
+     * Moves the valid points to the front of the arrays, keeping their order.
+     */
+    private int filter(double[] ranges, double[] x, double[] y, int count) {
+        int valid = 0;
+        for(int i = 0; i < count; i++) {
+            double r = ranges[i];
+            //Many sensors report no return as infinity, which is never a point even with no upper limit
+            if(r >= minRange && r <= maxRange && r < Double.POSITIVE_INFINITY) {
+                x[valid] = x[i];
+                y[valid] = y[i];
+                valid++;
+            }
+        }
+        return valid;
+    }
+
+    private static void checkCount(int count, PointCloud out) {
+        if(count < 0 || count > out.capacity()) {
+            throw new IllegalArgumentException("Scan has " + count + " points but the cloud holds " + out.capacity() + ".");
+        }
+    }
+
+    /**
+     * Splits the points in half until each task has a chunk small enough to do on its own.
+     */
+    private static class TransformTask extends RecursiveAction {
+
+        private final double[] ranges;
+        private final double[] dx;
+        private final double[] dy;
+        private final double[] outX;
+        private final double[] outY;
+        private final double originX;
+        private final double originY;
+        private final double cos;
+        private final double sin;
+        private final int from;
+        private final int to;
+
+        TransformTask(double[] ranges, double[] dx, double[] dy, double[] outX, double[] outY,
+                      double originX, double originY, double cos, double sin, int from, int to) {
+            this.ranges = ranges;
+            this.dx = dx;
+            this.dy = dy;
+            this.outX = outX;
+            this.outY = outY;
+            this.originX = originX;
+            this.originY = originY;
+            this.cos = cos;
+            this.sin = sin;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from <= MIN_CHUNK * 2) {
+                transformRange(ranges, dx, dy, outX, outY, originX, originY, cos, sin, from, to);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new TransformTask(ranges, dx, dy, outX, outY, originX, originY, cos, sin, from, middle),
+                        new TransformTask(ranges, dx, dy, outX, outY, originX, originY, cos, sin, middle, to));
+            }
+        }
+    }
+}
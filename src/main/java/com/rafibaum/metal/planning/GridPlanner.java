@@ -0,0 +1,341 @@
+package com.rafibaum.metal.planning;
+
+import com.rafibaum.metal.geometry.VectorBuffer;
+
+import java.util.Arrays;
+
+/**
+ * GridPlanner finds the shortest path between two points through the free cells of an {@link OccupancyGrid},
+ * usually one whose obstacles have already been inflated by the robot's radius. It searches with A* over the
+ * eight neighbours of each cell, without cutting corners past obstacles, or with Lazy Theta* which lets each
+ * cell link back to any earlier cell it can see, giving any angle paths with far fewer waypoints. The lazy
+ * variant assumes each link is clear and only checks line of sight when a cell is expanded, which is once
+ * per cell instead of once per neighbour.
+ * <p>
+ * Everything a search needs is kept in primitive arrays sized to the grid when the planner is created: the
+ * open set is a binary heap of cell indices with each cell's position stored so keys can be decreased, and
+ * cells are marked with the number of the search that last touched them so nothing has to be cleared
+ * between searches. Replanning every loop as obstacles move doesn't allocate.
+ */
+public class GridPlanner {
+
+    private static final double SQRT_2 = Math.sqrt(2);
+
+    //Column and row offsets of the eight neighbours, orthogonal ones first
+    private static final int[] NEIGHBOUR_COLUMNS = {1, -1, 0, 0, 1, 1, -1, -1};
+    private static final int[] NEIGHBOUR_ROWS = {0, 0, 1, -1, 1, -1, 1, -1};
+
+    private final OccupancyGrid grid;
+    private final int columns;
+    private final int rows;
+
+    //Per cell search state, valid only where the stamp matches the current search
+    private final double[] cost;
+    private final double[] estimate;
+    private final int[] parent;
+    private final int[] openStamp;
+    private final int[] closedStamp;
+    private final int[] heapPosition;
+    private int search;
+
+    //Open set as a binary heap of cell indices ordered by estimate
+    private final int[] heap;
+    private int heapSize;
+
+    //Cells of the last path, goal first
+    private final int[] pathCells;
+
+    private boolean anyAngle;
+    private int expanded;
+
+    /**
+     * Instantiates a planner for a grid. The grid can change between plans but its shape can't.
+     * @param grid the grid to plan through
+     */
+    public GridPlanner(OccupancyGrid grid) {
+        this.grid = grid;
+        this.columns = grid.getColumns();
+        this.rows = grid.getRows();
+
+        int cells = columns * rows;
+        cost = new double[cells];
+        estimate = new double[cells];
+        parent = new int[cells];
+        openStamp = new int[cells];
+        closedStamp = new int[cells];
+        heapPosition = new int[cells];
+        heap = new int[cells];
+        pathCells = new int[cells];
+    }
+
+    /**
+     * Sets whether to plan any angle paths with Lazy Theta* instead of eight way paths with A*.
+     * @param anyAngle true to use Lazy Theta*
+     * @return this planner
+     */
+    public GridPlanner setAnyAngle(boolean anyAngle) {
+        this.anyAngle = anyAngle;
+        return this;
+    }
+
+    /**
+     * Returns the number of cells expanded by the last search, for tuning.
+     * @return the number of expanded cells
+     */
+    public int getExpanded() {
+        return expanded;
+    }
+
+    /**
+     * Plans a path between two points. The path starts exactly at the start point, ends exactly at the goal
+     * point, and goes through the centers of the cells in between. The start is allowed to be in an occupied
+     * cell next to a free one, so a robot which has been pushed onto the edge of an inflated obstacle can
+     * still plan its way out.
+     * @param startX the X coordinate of the start
+     * @param startY the Y coordinate of the start
+     * @param goalX the X coordinate of the goal
+     * @param goalY the Y coordinate of the goal
+     * @param out the buffer to write the path's waypoints into, which must be big enough to hold them
+     * @return true if a path was found, otherwise false and the buffer is left empty
+     */
+    public boolean plan(double startX, double startY, double goalX, double goalY, VectorBuffer out) {
+        out.clear();
+        expanded = 0;
+
+        int startColumn = grid.toColumn(startX);
+        int startRow = grid.toRow(startY);
+        int goalColumn = grid.toColumn(goalX);
+        int goalRow = grid.toRow(goalY);
+        if(!grid.contains(startColumn, startRow) || grid.isOccupied(goalColumn, goalRow)) return false;
+
+        int start = startRow * columns + startColumn;
+        int goal = goalRow * columns + goalColumn;
+        if(!search(start, goal, goalColumn, goalRow)) return false;
+
+        //Walk back from the goal, then write the path out start first
+        int length = 0;
+        for(int cell = goal; cell != start; cell = parent[cell]) {
+            pathCells[length++] = cell;
+        }
+
+        out.append(startX, startY);
+        for(int i = length - 1; i > 0; i--) {
+            int cell = pathCells[i];
+            int row = cell / columns;
+            out.append(grid.getCenterX(cell - row * columns), grid.getCenterY(row));
+        }
+        out.append(goalX, goalY);
+        return true;
+    }
+
+    private boolean search(int start, int goal, int goalColumn, int goalRow) {
+        nextSearch();
+        heapSize = 0;
+
+        cost[start] = 0;
+        parent[start] = start;
+        open(start, heuristic(start, goalColumn, goalRow));
+
+        while(heapSize > 0) {
+            int current = poll();
+            int row = current / columns;
+            int column = current - row * columns;
+
+            //The assumed link is checked before the goal test, so the goal can't keep a parent it can't see
+            if(anyAngle && parent[current] != current && !lineOfSight(parent[current], current)) {
+                relink(current, column, row);
+            }
+            if(current == goal) return true;
+
+            closedStamp[current] = search;
+            expanded++;
+
+            int currentParent = parent[current];
+
+            for(int i = 0; i < 8; i++) {
+                int neighbourColumn = column + NEIGHBOUR_COLUMNS[i];
+                int neighbourRow = row + NEIGHBOUR_ROWS[i];
+                if(grid.isOccupied(neighbourColumn, neighbourRow)) continue;
+
+                //Diagonal moves can't squeeze past the corner of an obstacle
+                boolean diagonal = i >= 4;
+                if(diagonal && (grid.isOccupied(neighbourColumn, row) || grid.isOccupied(column, neighbourRow))) continue;
+
+                int neighbour = neighbourRow * columns + neighbourColumn;
+                if(closedStamp[neighbour] == search) continue;
+
+                //Lazy Theta* links straight back to the current cell's parent and checks it's clear when expanding
+                int from = current;
+                double candidate = cost[current] + (diagonal ? SQRT_2 : 1);
+                if(anyAngle && currentParent != current) {
+                    from = currentParent;
+                    candidate = cost[currentParent] + distance(currentParent, neighbour);
+                }
+
+                boolean discovered = openStamp[neighbour] == search;
+                if(discovered && candidate >= cost[neighbour]) continue;
+
+                cost[neighbour] = candidate;
+                parent[neighbour] = from;
+                double key = candidate + heuristic(neighbour, goalColumn, goalRow);
+                if(discovered) {
+                    estimate[neighbour] = key;
+                    siftUp(heapPosition[neighbour]);
+                } else {
+                    open(neighbour, key);
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Links a cell whose assumed parent turned out to be out of sight to its best expanded neighbour instead.
+     * The neighbour which discovered the cell is always one of them.
+     */
+    private void relink(int cell, int column, int row) {
+        double best = Double.POSITIVE_INFINITY;
+        for(int i = 0; i < 8; i++) {
+            int neighbourColumn = column + NEIGHBOUR_COLUMNS[i];
+            int neighbourRow = row + NEIGHBOUR_ROWS[i];
+            if(!grid.contains(neighbourColumn, neighbourRow)) continue;
+
+            int neighbour = neighbourRow * columns + neighbourColumn;
+            if(closedStamp[neighbour] != search) continue;
+
+            //The start can be occupied, but moving past an obstacle's corner still isn't allowed
+            boolean diagonal = i >= 4;
+            if(diagonal && (grid.isOccupied(neighbourColumn, row) || grid.isOccupied(column, neighbourRow))) continue;
+
+            double candidate = cost[neighbour] + (diagonal ? SQRT_2 : 1);
+            if(candidate < best) {
+                best = candidate;
+                parent[cell] = neighbour;
+            }
+        }
+        cost[cell] = best;
+    }
+
+    private void nextSearch() {
+        search++;
+        if(search == Integer.MAX_VALUE) {
+            //Stamps from old searches could be mistaken for new ones after wrapping, so start over
+            Arrays.fill(openStamp, 0);
+            Arrays.fill(closedStamp, 0);
+            search = 1;
+        }
+    }
+
+    /**
+     * Estimates the remaining cost to the goal, octile distance for A* and straight line distance for Theta*.
+     */
+    private double heuristic(int cell, int goalColumn, int goalRow) {
+        int row = cell / columns;
+        int dx = Math.abs(cell - row * columns - goalColumn);
+        int dy = Math.abs(row - goalRow);
+        if(anyAngle) {
+            return Math.sqrt(dx * dx + dy * dy);
+        }
+
+        return Math.max(dx, dy) + (SQRT_2 - 1) * Math.min(dx, dy);
+    }
+
+    private double distance(int from, int to) {
+        int fromRow = from / columns;
+        int toRow = to / columns;
+        int dx = (to - toRow * columns) - (from - fromRow * columns);
+        int dy = toRow - fromRow;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /**
+     * Returns whether the straight line between two cell centers only crosses free cells, not counting the
+     * first cell. Lines passing exactly through a corner must have both cells beside the corner free.
+     */
+    private boolean lineOfSight(int from, int to) {
+        int row = from / columns;
+        int column = from - row * columns;
+        int toRow = to / columns;
+        int toColumn = to - toRow * columns;
+
+        int dx = Math.abs(toColumn - column);
+        int dy = Math.abs(toRow - row);
+        int stepX = toColumn > column ? 1 : -1;
+        int stepY = toRow > row ? 1 : -1;
+        int error = dx - dy;
+        dx *= 2;
+        dy *= 2;
+
+        while(column != toColumn || row != toRow) {
+            if(error > 0) {
+                column += stepX;
+                error -= dy;
+            } else if(error < 0) {
+                row += stepY;
+                error += dx;
+            } else {
+                if(grid.isOccupied(column + stepX, row) || grid.isOccupied(column, row + stepY)) return false;
+                column += stepX;
+                row += stepY;
+                error += dx - dy;
+            }
+
+            if(grid.isOccupied(column, row)) return false;
+        }
+
+        return true;
+    }
+
+    private void open(int cell, double key) {
+        openStamp[cell] = search;
+        estimate[cell] = key;
+        heap[heapSize] = cell;
+        heapPosition[cell] = heapSize;
+        siftUp(heapSize++);
+    }
+
+    private int poll() {
+        int top = heap[0];
+        heapSize--;
+        if(heapSize > 0) {
+            heap[0] = heap[heapSize];
+            heapPosition[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int position) {
+        int cell = heap[position];
+        double key = estimate[cell];
+        while(position > 0) {
+            int above = (position - 1) >>> 1;
+            int aboveCell = heap[above];
+            if(estimate[aboveCell] <= key) break;
+
+            heap[position] = aboveCell;
+            heapPosition[aboveCell] = position;
+            position = above;
+        }
+        heap[position] = cell;
+        heapPosition[cell] = position;
+    }
+
+    private void siftDown(int position) {
+        int cell = heap[position];
+        double key = estimate[cell];
+        while(true) {
+            int child = position * 2 + 1;
+            if(child >= heapSize) break;
+            if(child + 1 < heapSize && estimate[heap[child + 1]] < estimate[heap[child]]) child++;
+            if(estimate[heap[child]] >= key) break;
+
+            heap[position] = heap[child];
+            heapPosition[heap[position]] = position;
+            position = child;
+        }
+        heap[position] = cell;
+        heapPosition[cell] = position;
+    }
+}
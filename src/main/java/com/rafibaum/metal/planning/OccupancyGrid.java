@@ -0,0 +1,388 @@
+package com.rafibaum.metal.planning;
+
+import com.rafibaum.metal.perception.PointCloud;
+import com.rafibaum.metal.utils.MetalConfigurationException;
+
+import java.util.Arrays;
+
+/**
+ * OccupancyGrid is a map of the field split into square cells, each of which is either free or occupied by
+ * an obstacle. Cells are packed one bit each into a long array, row by row, so a whole field fits in a few
+ * kilobytes and copying or clearing a grid is a straight array copy.
+ * <p>
+ * Cell (0, 0) has its corner at the grid's origin, columns go along +X and rows go along +Y. Anything
+ * outside of the grid counts as occupied. Obstacles are usually marked as they are, then grown by the
+ * robot's radius with {@link #inflate(double, OccupancyGrid)} so the planner can treat the robot as a point.
+ */
+public class OccupancyGrid {
+
+    private final double originX;
+    private final double originY;
+    private final double cellSize;
+    private final int columns;
+    private final int rows;
+    private final long[] bits;
+
+    //Half width in cells of the inflation disc at each row offset, kept between inflations
+    private int[] discWidths = new int[0];
+    private double discRadius = -1;
+
+    /**
+     * Instantiates an empty occupancy grid.
+     * @param originX the X coordinate of the grid's corner
+     * @param originY the Y coordinate of the grid's corner
+     * @param cellSize the width of each square cell
+     * @param columns the number of cells along X
+     * @param rows the number of cells along Y
+     */
+    public OccupancyGrid(double originX, double originY, double cellSize, int columns, int rows) {
+        if(!(cellSize > 0)) {
+            throw new MetalConfigurationException("Occupancy grid cells must have a positive size.");
+        }
+
+        if(columns < 1 || rows < 1 || (long) columns * rows > Integer.MAX_VALUE) {
+            throw new MetalConfigurationException("Occupancy grids must have at least one cell and fit in an int index.");
+        }
+
+        this.originX = originX;
+        this.originY = originY;
+        this.cellSize = cellSize;
+        this.columns = columns;
+        this.rows = rows;
+        this.bits = new long[(int) (((long) columns * rows + 63) >>> 6)];
+    }
+
+    /**
+     * Instantiates an empty occupancy grid the same shape as another.
+     * @param shape the grid to copy the shape of
+     */
+    public OccupancyGrid(OccupancyGrid shape) {
+        this(shape.originX, shape.originY, shape.cellSize, shape.columns, shape.rows);
+    }
+
+    /**
+     * Returns the number of cells along X.
+     * @return the number of columns
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the number of cells along Y.
+     * @return the number of rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the width of each cell.
+     * @return the size of a cell
+     */
+    public double getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * Returns the column containing an X coordinate. The column may be outside of the grid.
+     * @param x the X coordinate
+     * @return the column
+     */
+    public int toColumn(double x) {
+        return (int) Math.floor((x - originX) / cellSize);
+    }
+
+    /**
+     * Returns the row containing a Y coordinate. The row may be outside of the grid.
+     * @param y the Y coordinate
+     * @return the row
+     */
+    public int toRow(double y) {
+        return (int) Math.floor((y - originY) / cellSize);
+    }
+
+    /**
+     * Returns the X coordinate of the center of a column.
+     * @param column the column
+     * @return the X coordinate of the column's center
+     */
+    public double getCenterX(int column) {
+        return originX + (column + 0.5) * cellSize;
+    }
+
+    /**
+     * Returns the Y coordinate of the center of a row.
+     * @param row the row
+     * @return the Y coordinate of the row's center
+     */
+    public double getCenterY(int row) {
+        return originY + (row + 0.5) * cellSize;
+    }
+
+    /**
+     * Returns whether a cell is inside of the grid.
+     * @param column the column of the cell
+     * @param row the row of the cell
+     * @return true if the cell is in the grid
+     */
+    public boolean contains(int column, int row) {
+        return column >= 0 && column < columns && row >= 0 && row < rows;
+    }
+
+    /**
+     * Returns whether a cell is occupied. Cells outside of the grid are always occupied.
+     * @param column the column of the cell
+     * @param row the row of the cell
+     * @return true if the cell is occupied
+     */
+    public boolean isOccupied(int column, int row) {
+        if(!contains(column, row)) return true;
+        return isOccupied(row * columns + column);
+    }
+
+    /**
+     * Returns whether the cell containing a point is occupied.
+     * @param x the X coordinate of the point
+     * @param y the Y coordinate of the point
+     * @return true if the point's cell is occupied
+     */
+    public boolean isOccupiedAt(double x, double y) {
+        return isOccupied(toColumn(x), toRow(y));
+    }
+
+    /**
+     * Returns whether a cell is occupied by its index, row * columns + column. Only for cells in the grid.
+     */
+    boolean isOccupied(int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Marks a cell as occupied or free. Cells outside of the grid are ignored.
+     * @param column the column of the cell
+     * @param row the row of the cell
+     * @param occupied whether the cell is occupied
+     */
+    public void set(int column, int row, boolean occupied) {
+        if(!contains(column, row)) return;
+
+        int index = row * columns + column;
+        if(occupied) {
+            bits[index >>> 6] |= 1L << index;
+        } else {
+            bits[index >>> 6] &= ~(1L << index);
+        }
+    }
+
+    /**
+     * Marks the cell containing a point as occupied or free. Points outside of the grid are ignored.
+     * @param x the X coordinate of the point
+     * @param y the Y coordinate of the point
+     * @param occupied whether the cell is occupied
+     */
+    public void setAt(double x, double y, boolean occupied) {
+        set(toColumn(x), toRow(y), occupied);
+    }
+
+    /**
+     * Marks the cells containing each point of a point cloud as occupied.
+     * @param points the points to mark
+     */
+    public void mark(PointCloud points) {
+        for(int i = 0; i < points.size(); i++) {
+            set(toColumn(points.getX(i)), toRow(points.getY(i)), true);
+        }
+    }
+
+    /**
+     * Marks every cell whose center is inside of a rectangle as occupied or free.
+     * @param minX the smallest X coordinate of the rectangle
+     * @param minY the smallest Y coordinate of the rectangle
+     * @param maxX the largest X coordinate of the rectangle
+     * @param maxY the largest Y coordinate of the rectangle
+     * @param occupied whether the cells are occupied
+     */
+    public void fillRectangle(double minX, double minY, double maxX, double maxY, boolean occupied) {
+        int fromColumn = Math.max(0, firstCenter(minX - originX));
+        int toColumn = Math.min(columns - 1, lastCenter(maxX - originX));
+        int fromRow = Math.max(0, firstCenter(minY - originY));
+        int toRow = Math.min(rows - 1, lastCenter(maxY - originY));
+        for(int row = fromRow; row <= toRow; row++) {
+            setSpan(row, fromColumn, toColumn, occupied);
+        }
+    }
+
+    /**
+     * Marks every cell whose center is inside of a circle as occupied or free.
+     * @param x the X coordinate of the circle's center
+     * @param y the Y coordinate of the circle's center
+     * @param radius the radius of the circle
+     * @param occupied whether the cells are occupied
+     */
+    public void fillCircle(double x, double y, double radius, boolean occupied) {
+        int fromRow = Math.max(0, toRow(y - radius));
+        int toRow = Math.min(rows - 1, toRow(y + radius));
+        for(int row = fromRow; row <= toRow; row++) {
+            double dy = getCenterY(row) - y;
+            double halfWidth = radius * radius - dy * dy;
+            if(halfWidth < 0) continue;
+
+            halfWidth = Math.sqrt(halfWidth);
+            int fromColumn = Math.max(0, firstCenter(x - halfWidth - originX));
+            int toColumn = Math.min(columns - 1, lastCenter(x + halfWidth - originX));
+            setSpan(row, fromColumn, toColumn, occupied);
+        }
+    }
+
+    /**
+     * Returns the first cell whose center is at or after a distance from the origin, allowing for rounding.
+     */
+    private int firstCenter(double distance) {
+        return (int) Math.ceil(distance / cellSize - 0.5 - 1e-9);
+    }
+
+    /**
+     * Returns the last cell whose center is at or before a distance from the origin, allowing for rounding.
+     */
+    private int lastCenter(double distance) {
+        return (int) Math.floor(distance / cellSize - 0.5 + 1e-9);
+    }
+
+    /**
+     * Marks every cell as free.
+     */
+    public void clear() {
+        Arrays.fill(bits, 0);
+    }
+
+    /**
+     * Copies every cell from another grid of the same shape.
+     * @param other the grid to copy
+     */
+    public void copyFrom(OccupancyGrid other) {
+        checkShape(other);
+        System.arraycopy(other.bits, 0, bits, 0, bits.length);
+    }
+
+    /**
+     * Adds every occupied cell from another grid of the same shape to this one.
+     * @param other the grid to add
+     */
+    public void union(OccupancyGrid other) {
+        checkShape(other);
+        for(int i = 0; i < bits.length; i++) {
+            bits[i] |= other.bits[i];
+        }
+    }
+
+    /**
+     * Returns the number of occupied cells.
+     * @return the number of occupied cells
+     */
+    public int countOccupied() {
+        int count = 0;
+        for(long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Grows every obstacle by a radius and writes the result into another grid of the same shape, so a cell
+     * is occupied in the result if any occupied cell's center is within the radius of its center. Each
+     * occupied cell fills a precomputed disc of spans a word at a time, so this doesn't allocate unless the
+     * radius changes.
+     * @param radius the radius to grow obstacles by, usually the robot's radius
+     * @param out the grid to write the inflated obstacles into, which can't be this grid
+     */
+    public void inflate(double radius, OccupancyGrid out) {
+        checkShape(out);
+        if(out == this) {
+            throw new IllegalArgumentException("Occupancy grids can't be inflated in place.");
+        }
+
+        if(!(radius >= 0)) {
+            throw new IllegalArgumentException("Inflation radius can't be negative.");
+        }
+
+        if(radius != discRadius) {
+            //Radius in cells, nudged up so a radius of an exact number of cells isn't rounded down
+            double cells = radius / cellSize + 1e-9;
+            int reach = (int) Math.floor(cells);
+            discWidths = new int[reach + 1];
+            for(int dy = 0; dy <= reach; dy++) {
+                discWidths[dy] = (int) Math.floor(Math.sqrt(Math.max(0, cells * cells - dy * dy)));
+            }
+            discRadius = radius;
+        }
+
+        //Starting from the obstacles themselves lets cells inside of an obstacle be skipped below
+        out.copyFrom(this);
+        int reach = discWidths.length - 1;
+        for(int word = 0; word < bits.length; word++) {
+            long remaining = bits[word];
+            while(remaining != 0) {
+                int index = (word << 6) + Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+
+                int row = index / columns;
+                int column = index - row * columns;
+
+                //A cell surrounded by obstacles adds nothing its neighbours don't, which skips the inside of big obstacles
+                if(reach > 0 && column > 0 && column < columns - 1 && row > 0 && row < rows - 1
+                        && isOccupied(index - 1) && isOccupied(index + 1)
+                        && isOccupied(index - columns) && isOccupied(index + columns)) {
+                    continue;
+                }
+
+                int fromRow = Math.max(0, row - reach);
+                int toRow = Math.min(rows - 1, row + reach);
+                for(int r = fromRow; r <= toRow; r++) {
+                    int width = discWidths[Math.abs(r - row)];
+                    out.setSpan(r, Math.max(0, column - width), Math.min(columns - 1, column + width), true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Marks a span of cells in one row, a whole word at a time where possible.
+     */
+    private void setSpan(int row, int fromColumn, int toColumn, boolean occupied) {
+        if(fromColumn > toColumn) return;
+
+        int from = row * columns + fromColumn;
+        int to = row * columns + toColumn; //Inclusive
+        int fromWord = from >>> 6;
+        int toWord = to >>> 6;
+        long fromMask = -1L << from;
+        long toMask = -1L >>> (63 - (to & 63));
+
+        if(fromWord == toWord) {
+            setWord(fromWord, fromMask & toMask, occupied);
+            return;
+        }
+
+        setWord(fromWord, fromMask, occupied);
+        for(int word = fromWord + 1; word < toWord; word++) {
+            bits[word] = occupied ? -1L : 0;
+        }
+        setWord(toWord, toMask, occupied);
+    }
+
+    private void setWord(int word, long mask, boolean occupied) {
+        if(occupied) {
+            bits[word] |= mask;
+        } else {
+            bits[word] &= ~mask;
+        }
+    }
+
+    private void checkShape(OccupancyGrid other) {
+        if(other.columns != columns || other.rows != rows || other.cellSize != cellSize
+                || other.originX != originX || other.originY != originY) {
+            throw new IllegalArgumentException("Occupancy grids must be the same shape.");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.rafibaum.metal.scheduler;
+
+/**
+ * Clock is the source of time for a {@link Scheduler}. Keeping time behind an interface allows
+ * controllers to be run against a simulated clock just as well as against the real one.
+ */
+public interface Clock {
+
+    /**
+     * Returns the current time in nanoseconds. Like {@link System#nanoTime()}, the value is only
+     * meaningful when compared to other values from the same clock.
+     * @return the current time in nanoseconds
+     */
+    long nanoTime();
+
+    /**
+     * Blocks until the clock reaches a time. Returns immediately if the time has already passed.
+     * @param deadline the time to wait for in nanoseconds
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    void waitUntil(long deadline) throws InterruptedException;
+
+}
@@ -0,0 +1,88 @@
+package com.rafibaum.metal.scheduler;
+
+/**
+ * HistogramSnapshot is a copy of a {@link LatencyHistogram} at some point in time. Percentiles are
+ * reported as the upper bound of the bucket they fall in, capped at the exact maximum, so they're
+ * never lower than the true value.
+ */
+public class HistogramSnapshot {
+
+    private final int[] counts = new int[LatencyHistogram.BUCKETS];
+    private long count;
+    private long max;
+    private long sum;
+
+    void copy(int[] source, long max, long sum) {
+        //The count comes from the copied buckets so percentiles always agree with them
+        long count = 0;
+        for(int i = 0; i < counts.length; i++) {
+            counts[i] = source[i];
+            count += source[i];
+        }
+        this.count = count;
+        this.max = max;
+        this.sum = sum;
+    }
+
+    /**
+     * Returns the number of durations in the snapshot.
+     * @return the number of durations
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the longest duration recorded.
+     * @return the maximum duration in nanoseconds
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Returns the average duration.
+     * @return the mean duration in nanoseconds, or zero if nothing was recorded
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Returns the duration which a percentage of the recorded durations are at or below.
+     * @param percentile the percentile, between 0 and 100
+     * @return the duration at the percentile in nanoseconds, or zero if nothing was recorded
+     */
+    public long getPercentile(double percentile) {
+        if(count == 0) return 0;
+
+        long rank = (long) Math.ceil(percentile / 100.0 * count);
+        if(rank < 1) rank = 1;
+
+        long seen = 0;
+        for(int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if(seen >= rank) {
+                return Math.min(LatencyHistogram.bucketUpperBound(i), max);
+            }
+        }
+
+        return max;
+    }
+
+    /**
+     * Returns the median duration.
+     * @return the 50th percentile in nanoseconds
+     */
+    public long getP50() {
+        return getPercentile(50);
+    }
+
+    /**
+     * Returns the 99th percentile duration.
+     * @return the 99th percentile in nanoseconds
+     */
+    public long getP99() {
+        return getPercentile(99);
+    }
+}
@@ -0,0 +1,115 @@
+package com.rafibaum.metal.scheduler;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LatencyHistogram counts durations in nanoseconds into fixed log-linear buckets. Each power of two
+ * is split into 16 equal buckets, so any recorded value is known to within about 6%, from single
+ * nanoseconds up to about 18 minutes. Longer durations are counted in the last bucket. The exact
+ * maximum is tracked separately.
+ * <p>
+ * Recording costs a few nanoseconds and never allocates. A histogram must only be recorded to by one
+ * thread, but other threads can take snapshots at any time without stopping the recording thread.
+ * The recording thread writes plain fields and publishes them with a sequence number, like a seqlock,
+ * using ordered stores which don't need a full memory fence. Snapshots retry until they copy the
+ * histogram without a value being recorded part way through.
+ */
+public class LatencyHistogram {
+
+    //Number of linear buckets per power of two, as a power of two
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    //Highest power of two tracked, 2^40 ns is about 18 minutes
+    private static final int MAX_MAGNITUDE = 40;
+
+    static final int BUCKETS = (MAX_MAGNITUDE - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    //Only written by the recording thread
+    private final int[] counts = new int[BUCKETS];
+    private long max;
+    private long sum;
+    private long sequence;
+
+    //Odd while a value is being recorded, and twice the number of values recorded otherwise
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Records a duration. Negative durations are counted as zero.
+     * @param nanos the duration in nanoseconds
+     */
+    public void record(long nanos) {
+        if(nanos < 0) nanos = 0;
+
+        version.lazySet(++sequence);
+        counts[bucket(nanos)]++;
+        if(nanos > max) max = nanos;
+        sum += nanos;
+        version.lazySet(++sequence);
+    }
+
+    /**
+     * Returns the number of durations recorded.
+     * @return the number of durations recorded
+     */
+    public int getCount() {
+        return (int) (version.get() >>> 1);
+    }
+
+    /**
+     * Copies the histogram into a snapshot, which can then be queried while recording carries on.
+     * Reusing a snapshot avoids allocating.
+     * @param snapshot the snapshot to copy into
+     * @return the snapshot
+     */
+    public HistogramSnapshot snapshot(HistogramSnapshot snapshot) {
+        while(true) {
+            long before = version.get();
+            if((before & 1) == 0) {
+                snapshot.copy(counts, max, sum);
+
+                //The ordered stores only order the version after the fields, so the copied buckets are
+                //also checked against the version in case the fields of the next value were seen early
+                if(version.get() == before && snapshot.getCount() == before >>> 1) return snapshot;
+            }
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Copies the histogram into a new snapshot.
+     * @return the snapshot
+     */
+    public HistogramSnapshot snapshot() {
+        return snapshot(new HistogramSnapshot());
+    }
+
+    /**
+     * Returns the bucket a duration is counted in.
+     * @param nanos the duration in nanoseconds, not negative
+     * @return the index of the bucket
+     */
+    static int bucket(long nanos) {
+        if(nanos < SUB_BUCKETS) return (int) nanos;
+
+        int magnitude = 63 - Long.numberOfLeadingZeros(nanos);
+        if(magnitude > MAX_MAGNITUDE) return BUCKETS - 1;
+
+        //The bits after the leading one pick the linear bucket within the power of two
+        int sub = (int) (nanos >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Returns the largest duration counted in a bucket.
+     * @param bucket the index of the bucket
+     * @return the upper bound of the bucket in nanoseconds
+     */
+    static long bucketUpperBound(int bucket) {
+        if(bucket < SUB_BUCKETS) return bucket;
+
+        int magnitude = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        int shift = magnitude - SUB_BUCKET_BITS;
+        return ((SUB_BUCKETS + sub + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,110 @@
+package com.rafibaum.metal.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * LoopGroup runs a set of scheduled controllers on a single thread. It always waits for the
+ * earliest deadline among its controllers and then runs every controller which is due, in the
+ * order they were registered.
+ */
+final class LoopGroup implements Runnable {
+
+    private final Clock clock;
+    private final List<ScheduledController> registered = new ArrayList<>();
+
+    //Copied from the registered list when the group starts so running never allocates
+    private ScheduledController[] loops = new ScheduledController[0];
+    private long start;
+    private volatile boolean running;
+
+    LoopGroup(Clock clock) {
+        this.clock = clock;
+    }
+
+    void add(ScheduledController loop) {
+        registered.add(loop);
+    }
+
+    List<ScheduledController> getRegistered() {
+        return registered;
+    }
+
+    boolean isEmpty() {
+        return registered.isEmpty();
+    }
+
+    /**
+     * Prepares the group to run with the first updates due at a time. This is called before the
+     * group's thread is started.
+     * @param start the time the scheduler started in nanoseconds
+     */
+    void prepare(long start) {
+        this.start = start;
+        loops = registered.toArray(new ScheduledController[0]);
+        running = true;
+    }
+
+    /**
+     * Initializes every controller in the group.
+     */
+    void init() {
+        for(ScheduledController loop : loops) {
+            loop.init(start);
+        }
+    }
+
+    /**
+     * Returns the earliest deadline of the controllers in the group.
+     * @return the next time a controller is due in nanoseconds
+     */
+    long nextDeadline() {
+        long next = Long.MAX_VALUE;
+        for(ScheduledController loop : loops) {
+            if(loop.deadline < next) next = loop.deadline;
+        }
+        return next;
+    }
+
+    /**
+     * Runs every controller which is due at a time.
+     * @param now the time to check deadlines against in nanoseconds
+     */
+    void runDue(long now) {
+        for(ScheduledController loop : loops) {
+            if(loop.deadline <= now) {
+                loop.run(clock, start);
+            }
+        }
+    }
+
+    /**
+     * Stops every controller in the group.
+     */
+    void stop() {
+        running = false;
+        for(ScheduledController loop : loops) {
+            loop.getController().stop();
+        }
+    }
+
+    void halt() {
+        running = false;
+    }
+
+    @Override
+    public void run() {
+        init();
+        try {
+            while(running) {
+                clock.waitUntil(nextDeadline());
+                if(!running) break;
+                runDue(clock.nanoTime());
+            }
+        } catch(InterruptedException e) {
+            //Interrupted by the scheduler stopping, fall through to stopping the controllers
+        } finally {
+            stop();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.rafibaum.metal.scheduler;
+
+import com.rafibaum.metal.interfaces.IController;
+
+/**
+ * ScheduledController is a controller registered with a {@link Scheduler}, along with its timing.
+ * It's returned when a controller is registered and can be used to check how the controller's loop
+ * is keeping up. An overrun is counted whenever an update finishes after the controller's next update
+ * was due to start. The updates which should have happened in the meantime are skipped rather than run
+ * back to back, and are counted as missed periods.
+ * <p>
+ * Every update is also timed into two histograms: how long the update took, and how late it started
+ * compared to its deadline, which is the jitter of the loop's period.
+ */
+public class ScheduledController {
+
+    private final IController controller;
+    private final long period;
+
+    //Timing state, only changed by the thread running the controller
+    long deadline;
+    long lastStart;
+    private volatile long updates;
+    private volatile long overruns;
+    private volatile long missedPeriods;
+
+    private final LatencyHistogram executionTime = new LatencyHistogram();
+    private final LatencyHistogram startLatency = new LatencyHistogram();
+
+    ScheduledController(IController controller, long period) {
+        this.controller = controller;
+        this.period = period;
+    }
+
+    /**
+     * Returns the controller being scheduled.
+     * @return the controller
+     */
+    public IController getController() {
+        return controller;
+    }
+
+    /**
+     * Returns the time between the controller's updates in nanoseconds.
+     * @return the period of the controller in nanoseconds
+     */
+    public long getPeriodNanos() {
+        return period;
+    }
+
+    /**
+     * Returns the number of times the controller has been updated.
+     * @return the number of updates
+     */
+    public long getUpdates() {
+        return updates;
+    }
+
+    /**
+     * Returns the number of updates which finished after the next update was due.
+     * @return the number of overruns
+     */
+    public long getOverruns() {
+        return overruns;
+    }
+
+    /**
+     * Returns the number of updates which were skipped because of overruns.
+     * @return the number of missed periods
+     */
+    public long getMissedPeriods() {
+        return missedPeriods;
+    }
+
+    /**
+     * Returns the histogram of how long the controller's updates take.
+     * @return the execution time histogram
+     */
+    public LatencyHistogram getExecutionTime() {
+        return executionTime;
+    }
+
+    /**
+     * Returns the histogram of how late the controller's updates start compared to their deadlines.
+     * @return the start latency histogram
+     */
+    public LatencyHistogram getStartLatency() {
+        return startLatency;
+    }
+
+    /**
+     * Starts the controller's schedule at a time.
+     * @param start the time of the first update in nanoseconds
+     */
+    void init(long start) {
+        deadline = start;
+        lastStart = start;
+        controller.init();
+    }
+
+    /**
+     * Updates the controller and moves its deadline on to the next period.
+     * @param clock the clock to measure the update with
+     * @param start the time the scheduler started in nanoseconds
+     */
+    void run(Clock clock, long start) {
+        //Sampled here rather than once per group pass, so controllers after a slow one in the same
+        //group get their real start time
+        long now = clock.nanoTime();
+        startLatency.record(now - deadline);
+
+        double timestamp = (now - start) / 1e9;
+        double dt = (now - lastStart) / 1e9;
+        lastStart = now;
+
+        controller.update(timestamp, dt);
+        updates++;
+
+        long end = clock.nanoTime();
+        executionTime.record(end - now);
+
+        //Deadlines always move by whole periods so they never drift
+        deadline += period;
+        if(end > deadline) {
+            long missed = (end - deadline) / period + 1;
+            deadline += missed * period;
+            overruns++;
+            missedPeriods += missed;
+        }
+    }
+}
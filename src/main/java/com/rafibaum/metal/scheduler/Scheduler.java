@@ -0,0 +1,201 @@
+package com.rafibaum.metal.scheduler;
+
+import com.rafibaum.metal.interfaces.IController;
+import com.rafibaum.metal.utils.MetalConfigurationException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Scheduler runs controllers at fixed rates. Each controller is registered with its own rate, so tight
+ * inner loops can run much faster than the usual 20 ms robot loop while slower ones, like telemetry,
+ * run less often. Controllers are spread across a fixed number of threads chosen when the scheduler is
+ * created; controllers on the same thread never run at the same time, so they can share state safely.
+ * <p>
+ * Deadlines are kept on a fixed grid from the time the scheduler starts, so timing never drifts no
+ * matter how long updates take. Updates which run past the next deadline are counted as overruns,
+ * see {@link ScheduledController}. Waiting is done by the scheduler's {@link Clock}, which by default
+ * is a {@link SystemClock} that parks and then spins for low jitter.
+ * <p>
+ * Instead of starting threads, the scheduler can also be run on the calling thread with
+ * {@link #runUntil(long)}. Paired with a {@link VirtualClock} this runs the controllers deterministically
+ * and as fast as possible, for simulations and replays.
+ */
+public class Scheduler {
+
+    private final Clock clock;
+    private final LoopGroup[] groups;
+    private Thread[] threads;
+    private boolean started;
+    private boolean stepping;
+
+    /**
+     * Instantiates a scheduler with a single thread running on the system clock.
+     */
+    public Scheduler() {
+        this(new SystemClock(), 1);
+    }
+
+    /**
+     * Instantiates a scheduler.
+     * @param clock the clock used for timing
+     * @param threads the number of threads controllers can run on
+     */
+    public Scheduler(Clock clock, int threads) {
+        if(threads < 1) {
+            throw new MetalConfigurationException("Scheduler must have at least one thread.");
+        }
+
+        this.clock = clock;
+        this.groups = new LoopGroup[threads];
+        for(int i = 0; i < threads; i++) {
+            groups[i] = new LoopGroup(clock);
+        }
+    }
+
+    /**
+     * Registers a controller to run on the scheduler's first thread.
+     * @param controller the controller to run
+     * @param frequency how many times a second the controller is updated
+     * @return the scheduled controller, which tracks the controller's timing
+     */
+    public ScheduledController register(IController controller, double frequency) {
+        return register(controller, frequency, 0);
+    }
+
+    /**
+     * Registers a controller to run on one of the scheduler's threads.
+     * @param controller the controller to run
+     * @param frequency how many times a second the controller is updated
+     * @param thread the index of the thread to run the controller on
+     * @return the scheduled controller, which tracks the controller's timing
+     */
+    public ScheduledController register(IController controller, double frequency, int thread) {
+        if(started) {
+            throw new MetalConfigurationException("Controllers cannot be registered after the scheduler has started.");
+        }
+        if(!(frequency > 0)) {
+            throw new MetalConfigurationException("Controller frequency must be positive.");
+        }
+        if(thread < 0 || thread >= groups.length) {
+            throw new MetalConfigurationException("Scheduler has no thread " + thread + ".");
+        }
+
+        ScheduledController loop = new ScheduledController(controller, Math.round(1e9 / frequency));
+        groups[thread].add(loop);
+        return loop;
+    }
+
+    /**
+     * Returns the clock used by the scheduler.
+     * @return the scheduler's clock
+     */
+    public Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Returns every controller registered with the scheduler, so their timing can be reported.
+     * @return the scheduled controllers
+     */
+    public List<ScheduledController> getScheduled() {
+        List<ScheduledController> scheduled = new ArrayList<>();
+        for(LoopGroup group : groups) {
+            scheduled.addAll(group.getRegistered());
+        }
+        return Collections.unmodifiableList(scheduled);
+    }
+
+    LoopGroup getGroup(int thread) {
+        return groups[thread];
+    }
+
+    /**
+     * Starts running the registered controllers on background threads. Each controller is initialized
+     * on its own thread before its first update.
+     */
+    public synchronized void start() {
+        if(started) {
+            throw new MetalConfigurationException("Scheduler has already been started.");
+        }
+        started = true;
+
+        long start = clock.nanoTime();
+        threads = new Thread[groups.length];
+        for(int i = 0; i < groups.length; i++) {
+            if(groups[i].isEmpty()) continue;
+
+            groups[i].prepare(start);
+            threads[i] = new Thread(groups[i], "Metal scheduler " + i);
+            threads[i].setDaemon(true);
+            threads[i].setPriority(Thread.MAX_PRIORITY);
+            threads[i].start();
+        }
+    }
+
+    /**
+     * Runs the registered controllers on the calling thread until the clock reaches a time, then
+     * returns. The first call initializes the controllers and later calls carry on from where the last
+     * one finished. Controllers on every thread are run in turn, in order of their deadlines and then
+     * by thread, so the order of updates is the same every time. This is meant to be used with a
+     * {@link VirtualClock}, but waits on any clock.
+     * @param end the time to run until in nanoseconds
+     * @throws InterruptedException if interrupted while waiting on the clock
+     */
+    public synchronized void runUntil(long end) throws InterruptedException {
+        if(!stepping) {
+            if(started) {
+                throw new MetalConfigurationException("Scheduler has already been started on its own threads.");
+            }
+            started = true;
+            stepping = true;
+
+            long start = clock.nanoTime();
+            for(LoopGroup group : groups) {
+                group.prepare(start);
+                group.init();
+            }
+        }
+
+        while(true) {
+            long next = Long.MAX_VALUE;
+            for(LoopGroup group : groups) {
+                next = Math.min(next, group.nextDeadline());
+            }
+            if(next > end) break;
+
+            clock.waitUntil(next);
+            long now = clock.nanoTime();
+            for(LoopGroup group : groups) {
+                group.runDue(now);
+            }
+        }
+
+        clock.waitUntil(end);
+    }
+
+    /**
+     * Stops the scheduler and waits for every controller to finish its last update and be stopped.
+     * @throws InterruptedException if interrupted while waiting for the threads to finish
+     */
+    public synchronized void stop() throws InterruptedException {
+        if(stepping) {
+            for(LoopGroup group : groups) {
+                group.stop();
+            }
+            stepping = false;
+            return;
+        }
+        if(threads == null) return;
+
+        for(int i = 0; i < groups.length; i++) {
+            groups[i].halt();
+            if(threads[i] != null) threads[i].interrupt();
+        }
+        for(Thread thread : threads) {
+            if(thread != null) thread.join();
+        }
+        threads = null;
+    }
+}
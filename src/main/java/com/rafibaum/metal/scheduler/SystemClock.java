@@ -0,0 +1,58 @@
+package com.rafibaum.metal.scheduler;
+
+import com.rafibaum.metal.utils.MetalConfigurationException;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * SystemClock is a {@link Clock} backed by {@link System#nanoTime()}. Waiting is done in two stages:
+ * the thread parks until shortly before the deadline, then spins for the rest of the wait. Parking
+ * frees the CPU but can wake up late, so spinning for the last stretch keeps loop timing jitter low.
+ */
+public class SystemClock implements Clock {
+
+    //Default length of the spin at the end of a wait in nanoseconds
+    private static final long DEFAULT_SPIN_NANOS = 250_000;
+
+    private final long spinNanos;
+
+    /**
+     * Instantiates a system clock with the default spin length.
+     */
+    public SystemClock() {
+        this(DEFAULT_SPIN_NANOS);
+    }
+
+    /**
+     * Instantiates a system clock which spins for a set time at the end of each wait. Longer spins
+     * give less jitter but use more CPU; a spin of zero parks for the whole wait.
+     * @param spinNanos the length of the spin in nanoseconds
+     */
+    public SystemClock(long spinNanos) {
+        if(spinNanos < 0) {
+            throw new MetalConfigurationException("Clock spin length cannot be negative.");
+        }
+
+        this.spinNanos = spinNanos;
+    }
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public void waitUntil(long deadline) throws InterruptedException {
+        //Park until the spin should start. Parking can return early, so keep checking
+        long remaining;
+        while((remaining = deadline - System.nanoTime()) > spinNanos) {
+            LockSupport.parkNanos(remaining - spinNanos);
+            if(Thread.interrupted()) throw new InterruptedException();
+        }
+
+        //Spin for the rest of the wait
+        while(deadline - System.nanoTime() > 0) {
+            if(Thread.interrupted()) throw new InterruptedException();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.rafibaum.metal.scheduler;
+
+/**
+ * VirtualClock is a {@link Clock} which only moves when it's told to. Waiting jumps the clock straight
+ * to the deadline instead of blocking, and updates take no time at all, so a {@link Scheduler} on a
+ * virtual clock runs its controllers as fast as the CPU allows and always produces the same timestamps.
+ * This is meant for simulations, replays and tests, usually with {@link Scheduler#runUntil(long)}.
+ * <p>
+ * Virtual clocks aren't meant to be shared between threads which are waiting on them.
+ */
+public class VirtualClock implements Clock {
+
+    private volatile long now;
+
+    /**
+     * Instantiates a virtual clock starting at zero.
+     */
+    public VirtualClock() {
+        this(0);
+    }
+
+    /**
+     * Instantiates a virtual clock starting at a time.
+     * @param start the starting time in nanoseconds
+     */
+    public VirtualClock(long start) {
+        this.now = start;
+    }
+
+    @Override
+    public long nanoTime() {
+        return now;
+    }
+
+    @Override
+    public void waitUntil(long deadline) {
+        if(deadline > now) now = deadline;
+    }
+
+    /**
+     * Moves the clock forwards.
+     * @param nanos how far to move the clock in nanoseconds
+     */
+    public void advance(long nanos) {
+        if(nanos < 0) {
+            throw new IllegalArgumentException("Virtual clocks can't move backwards.");
+        }
+
+        now += nanos;
+    }
+
+    /**
+     * Returns the current time in seconds.
+     * @return the current time in seconds
+     */
+    public double getSeconds() {
+        return now / 1e9;
+    }
+}
@@ -0,0 +1,245 @@
+package com.rafibaum.metal.simulation;
+
+import com.rafibaum.metal.geometry.Angle;
+import com.rafibaum.metal.geometry.Pose2d;
+import com.rafibaum.metal.geometry.Trig;
+import com.rafibaum.metal.geometry.Twist2d;
+import com.rafibaum.metal.interfaces.IController;
+import com.rafibaum.metal.interfaces.IPoseSource;
+import com.rafibaum.metal.utils.MetalConfigurationException;
+
+/**
+ * DifferentialDriveSim simulates the physics of a differential (tank) drivetrain. Each step it reads the
+ * outputs of its left and right {@link SimMotor}s, works out the force each side of the drivetrain puts
+ * on the ground from its {@link MotorModel}, and moves the robot. The wheels' {@link SimEncoder}s and the
+ * {@link SimGyro} are moved along with it, so the robot's code can read them like it would on a robot.
+ * The true pose of the robot is also available to check the robot's code against.
+ * <p>
+ * The simulation is a controller so it can be run by a {@link com.rafibaum.metal.scheduler.Scheduler}
+ * alongside the robot's controllers, usually on a {@link com.rafibaum.metal.scheduler.VirtualClock} and
+ * at a higher rate than them. Steps of a few milliseconds or less are accurate. Stepping allocates
+ * nothing.
+ */
+public class DifferentialDriveSim implements IController, IPoseSource {
+
+    private final MotorModel motor;
+    private final int motorsPerSide;
+    private final double gearRatio;
+    private final double wheelRadius;
+    private final double trackWidth;
+    private final double mass;
+    private final double momentOfInertia;
+    private double supplyVoltage = 12;
+
+    private final SimMotor leftMotor = new SimMotor();
+    private final SimMotor rightMotor = new SimMotor();
+    private final SimEncoder leftEncoder;
+    private final SimEncoder rightEncoder;
+    private final SimGyro gyro = new SimGyro();
+
+    //True state of the robot
+    private double x;
+    private double y;
+    private double heading; //In degrees
+    private double velocity;
+    private double angularVelocity; //Clockwise in radians per second
+    private double leftPosition;
+    private double rightPosition;
+
+    /**
+     * Instantiates a drivetrain simulation with perfect encoders.
+     * @param motor the model of the drivetrain's motors
+     * @param motorsPerSide the number of motors on each side
+     * @param gearRatio how many times the motors turn for each turn of the wheels
+     * @param wheelRadius the radius of the wheels in meters
+     * @param trackWidth the distance between the left and right wheels in meters
+     * @param mass the mass of the robot in kilograms
+     * @param momentOfInertia the robot's moment of inertia about its center in kilogram square meters
+     */
+    public DifferentialDriveSim(MotorModel motor, int motorsPerSide, double gearRatio, double wheelRadius,
+                                double trackWidth, double mass, double momentOfInertia) {
+        if(motorsPerSide < 1 || !(gearRatio > 0) || !(wheelRadius > 0) || !(trackWidth > 0)
+                || !(mass > 0) || !(momentOfInertia > 0)) {
+            throw new MetalConfigurationException("Drivetrain dimensions must be positive.");
+        }
+
+        this.motor = motor;
+        this.motorsPerSide = motorsPerSide;
+        this.gearRatio = gearRatio;
+        this.wheelRadius = wheelRadius;
+        this.trackWidth = trackWidth;
+        this.mass = mass;
+        this.momentOfInertia = momentOfInertia;
+        this.leftEncoder = new SimEncoder();
+        this.rightEncoder = new SimEncoder();
+    }
+
+    /**
+     * Sets the voltage of the simulated battery.
+     * @param supplyVoltage the battery voltage
+     */
+    public void setSupplyVoltage(double supplyVoltage) {
+        this.supplyVoltage = supplyVoltage;
+    }
+
+    /**
+     * Moves the robot to a pose and stops it. The encoders and gyro aren't reset, like on a real robot.
+     * @param pose the new pose of the robot
+     */
+    public void setPose(Pose2d pose) {
+        x = pose.getX();
+        y = pose.getY();
+        heading = pose.getHeading().toDegrees();
+        velocity = 0;
+        angularVelocity = 0;
+    }
+
+    /**
+     * Moves the simulation forward in time.
+     * @param dt the length of the step in seconds
+     */
+    public void step(double dt) {
+        if(dt <= 0) return;
+
+        //Force each side puts on the ground, from the motor torque at the current wheel speeds
+        double halfTrack = trackWidth / 2.0;
+        double leftSpeed = velocity + angularVelocity * halfTrack;
+        double rightSpeed = velocity - angularVelocity * halfTrack;
+        double leftForce = sideForce(leftMotor.getVoltage(supplyVoltage), leftSpeed);
+        double rightForce = sideForce(rightMotor.getVoltage(supplyVoltage), rightSpeed);
+
+        //The left side pushing harder turns the robot clockwise
+        double oldVelocity = velocity;
+        double oldAngularVelocity = angularVelocity;
+        velocity += (leftForce + rightForce) / mass * dt;
+        angularVelocity += (leftForce - rightForce) * halfTrack / momentOfInertia * dt;
+
+        //Move along an arc using the average speeds over the step
+        double distance = (oldVelocity + velocity) / 2.0 * dt;
+        double dtheta = (oldAngularVelocity + angularVelocity) / 2.0 * dt;
+        move(distance, dtheta);
+
+        leftSpeed = velocity + angularVelocity * halfTrack;
+        rightSpeed = velocity - angularVelocity * halfTrack;
+        leftPosition += distance + dtheta * halfTrack;
+        rightPosition += distance - dtheta * halfTrack;
+        leftEncoder.set(leftPosition, leftSpeed);
+        rightEncoder.set(rightPosition, rightSpeed);
+        gyro.turn(dtheta / Math.PI * 180.0, dt);
+    }
+
+    private double sideForce(double voltage, double wheelSpeed) {
+        double motorSpeed = wheelSpeed / wheelRadius * gearRatio;
+        return motorsPerSide * motor.getTorque(voltage, motorSpeed) * gearRatio / wheelRadius;
+    }
+
+    /**
+     * Moves the robot forward along an arc, turning clockwise by dtheta radians.
+     */
+    private void move(double distance, double dtheta) {
+        double localX = distance * Twist2d.versineOverAngle(dtheta);
+        double localY = distance * Twist2d.sinOverAngle(dtheta);
+        double radians = heading / 180.0 * Math.PI;
+        double cos = Trig.cos(radians);
+        double sin = Trig.sin(radians);
+        x += localX * cos + localY * sin;
+        y += localY * cos - localX * sin;
+        heading = Angle.wrapNavigationDegrees(heading + dtheta / Math.PI * 180.0);
+    }
+
+    @Override
+    public void update(double timestamp, double dt) {
+        step(dt);
+    }
+
+    /**
+     * Returns the left side's motor controller.
+     * @return the left motor
+     */
+    public SimMotor getLeftMotor() {
+        return leftMotor;
+    }
+
+    /**
+     * Returns the right side's motor controller.
+     * @return the right motor
+     */
+    public SimMotor getRightMotor() {
+        return rightMotor;
+    }
+
+    /**
+     * Returns the left wheels' encoder, measuring meters of wheel travel.
+     * @return the left encoder
+     */
+    public SimEncoder getLeftEncoder() {
+        return leftEncoder;
+    }
+
+    /**
+     * Returns the right wheels' encoder, measuring meters of wheel travel.
+     * @return the right encoder
+     */
+    public SimEncoder getRightEncoder() {
+        return rightEncoder;
+    }
+
+    /**
+     * Returns the gyro.
+     * @return the gyro
+     */
+    public SimGyro getGyro() {
+        return gyro;
+    }
+
+    /**
+     * Returns the fastest the robot can drive on a full battery, with no load.
+     * @return the top speed in meters per second
+     */
+    public double getFreeSpeed() {
+        return motor.getFreeSpeed() / gearRatio * wheelRadius * supplyVoltage / motor.getNominalVoltage();
+    }
+
+    /**
+     * Returns the true X coordinate of the robot.
+     * @return the X coordinate of the robot
+     */
+    @Override
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * Returns the true Y coordinate of the robot.
+     * @return the Y coordinate of the robot
+     */
+    @Override
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * Returns the true heading of the robot.
+     * @return the heading of the robot in degrees
+     */
+    @Override
+    public double getHeadingDegrees() {
+        return heading;
+    }
+
+    /**
+     * Returns the true forward speed of the robot.
+     * @return the speed in meters per second
+     */
+    public double getVelocity() {
+        return velocity;
+    }
+
+    /**
+     * Returns the true pose of the robot.
+     * @return the pose of the robot
+     */
+    public Pose2d getPose() {
+        return new Pose2d(x, y, new Angle(heading));
+    }
+}
@@ -0,0 +1,83 @@
+package com.rafibaum.metal.simulation;
+
+import com.rafibaum.metal.utils.MetalConfigurationException;
+
+/**
+ * MotorModel describes a brushed or brushless DC motor from the figures on its datasheet, and calculates
+ * the torque it produces from the voltage across it and how fast it's spinning. Torque falls off in a
+ * straight line from the stall torque at zero speed to nothing at the free speed. Friction inside the
+ * motor is left to the mechanism's model.
+ */
+public final class MotorModel {
+
+    /**
+     * A CIM motor.
+     */
+    public static final MotorModel CIM = new MotorModel(12, 2.42, 133, 5310);
+
+    /**
+     * A NEO brushless motor.
+     */
+    public static final MotorModel NEO = new MotorModel(12, 2.6, 105, 5676);
+
+    private final double nominalVoltage;
+    private final double resistance;
+    private final double torquePerAmp;
+    private final double speedPerVolt;
+    private final double freeSpeed;
+
+    /**
+     * Instantiates a motor model from datasheet figures.
+     * @param nominalVoltage the voltage the figures were measured at
+     * @param stallTorque the torque at zero speed in newton meters
+     * @param stallCurrent the current at zero speed in amps
+     * @param freeSpeedRpm the speed with no load in rotations per minute
+     */
+    public MotorModel(double nominalVoltage, double stallTorque, double stallCurrent, double freeSpeedRpm) {
+        if(!(nominalVoltage > 0) || !(stallTorque > 0) || !(stallCurrent > 0) || !(freeSpeedRpm > 0)) {
+            throw new MetalConfigurationException("Motor figures must be positive.");
+        }
+
+        this.nominalVoltage = nominalVoltage;
+        this.resistance = nominalVoltage / stallCurrent;
+        this.torquePerAmp = stallTorque / stallCurrent;
+        this.freeSpeed = freeSpeedRpm / 60.0 * 2 * Math.PI;
+        this.speedPerVolt = freeSpeed / nominalVoltage;
+    }
+
+    /**
+     * Returns the torque the motor produces.
+     * @param voltage the voltage across the motor
+     * @param speed how fast the motor is spinning in radians per second
+     * @return the torque in newton meters
+     */
+    public double getTorque(double voltage, double speed) {
+        return torquePerAmp * getCurrent(voltage, speed);
+    }
+
+    /**
+     * Returns the current the motor draws.
+     * @param voltage the voltage across the motor
+     * @param speed how fast the motor is spinning in radians per second
+     * @return the current in amps
+     */
+    public double getCurrent(double voltage, double speed) {
+        return (voltage - speed / speedPerVolt) / resistance;
+    }
+
+    /**
+     * Returns the voltage the motor's figures were measured at.
+     * @return the nominal voltage
+     */
+    public double getNominalVoltage() {
+        return nominalVoltage;
+    }
+
+    /**
+     * Returns the speed of the motor with no load at its nominal voltage.
+     * @return the free speed in radians per second
+     */
+    public double getFreeSpeed() {
+        return freeSpeed;
+    }
+}
@@ -0,0 +1,53 @@
+package com.rafibaum.metal.simulation;
+
+import com.rafibaum.metal.interfaces.IEncoder;
+
+/**
+ * SimEncoder is a simulated encoder, moved by a physics model. Like a real encoder it can only measure
+ * whole counts, so its position can be rounded down to its resolution.
+ */
+public class SimEncoder implements IEncoder {
+
+    private final double countsPerUnit;
+    private volatile double position;
+    private volatile double velocity;
+
+    /**
+     * Instantiates a simulated encoder with perfect resolution.
+     */
+    public SimEncoder() {
+        this(0);
+    }
+
+    /**
+     * Instantiates a simulated encoder with a limited resolution.
+     * @param countsPerUnit how many counts the encoder measures per unit moved, or zero for perfect resolution
+     */
+    public SimEncoder(double countsPerUnit) {
+        this.countsPerUnit = countsPerUnit;
+    }
+
+    /**
+     * Sets the true state of the encoder. Called by physics models.
+     * @param position the true position of the encoder
+     * @param velocity the true velocity of the encoder
+     */
+    public void set(double position, double velocity) {
+        this.position = position;
+        this.velocity = velocity;
+    }
+
+    @Override
+    public double getPosition() {
+        if(countsPerUnit > 0) {
+            return Math.floor(position * countsPerUnit) / countsPerUnit;
+        }
+
+        return position;
+    }
+
+    @Override
+    public double getVelocity() {
+        return velocity;
+    }
+}
@@ -0,0 +1,43 @@
+package com.rafibaum.metal.simulation;
+
+import com.rafibaum.metal.interfaces.IGyro;
+
+/**
+ * SimGyro is a simulated gyro, turned by a physics model. It can drift at a constant rate like a real
+ * gyro does.
+ */
+public class SimGyro implements IGyro {
+
+    private double drift;
+    private volatile double heading;
+
+    /**
+     * Sets how fast the gyro drifts.
+     * @param degreesPerSecond the drift in degrees per second
+     */
+    public void setDrift(double degreesPerSecond) {
+        this.drift = degreesPerSecond;
+    }
+
+    /**
+     * Turns the gyro. Called by physics models.
+     * @param degrees how far the robot turned, clockwise
+     * @param dt the time the turn took in seconds
+     */
+    public void turn(double degrees, double dt) {
+        heading += degrees + drift * dt;
+    }
+
+    /**
+     * Sets the gyro's heading.
+     * @param degrees the heading in degrees
+     */
+    public void setHeadingDegrees(double degrees) {
+        this.heading = degrees;
+    }
+
+    @Override
+    public double getHeadingDegrees() {
+        return heading;
+    }
+}
@@ -0,0 +1,36 @@
+package com.rafibaum.metal.simulation;
+
+import com.rafibaum.metal.interfaces.IMotor;
+
+/**
+ * SimMotor is a simulated motor controller. It only remembers its output, which a physics model reads
+ * each step to work out the voltage across its motors.
+ */
+public class SimMotor implements IMotor {
+
+    private volatile double output;
+
+    @Override
+    public void set(double output) {
+        //Motor controllers clamp their output, and treat NaN as stopped
+        if(output > 1) output = 1;
+        else if(output < -1) output = -1;
+        else if(output != output) output = 0;
+
+        this.output = output;
+    }
+
+    @Override
+    public double get() {
+        return output;
+    }
+
+    /**
+     * Returns the voltage the motor controller applies to its motors.
+     * @param supplyVoltage the voltage of the battery
+     * @return the voltage across the motors
+     */
+    public double getVoltage(double supplyVoltage) {
+        return output * supplyVoltage;
+    }
+}
@@ -0,0 +1,20 @@
+package com.rafibaum.metal.simulation;
+
+/**
+ * Simulation is a single simulated run of a robot, like an autonomous routine, which can be run many
+ * times by a {@link SimulationRunner} with different parameters and random seeds. Each run sets up its
+ * own robot from its parameters, runs it on the context's scheduler and records its metrics on the
+ * context. Runs happen in parallel, so they mustn't share any state which changes.
+ * @param <P> the type of the parameters
+ */
+@FunctionalInterface
+public interface Simulation<P> {
+
+    /**
+     * Runs the simulation once.
+     * @param context the run's parameters, seed, scheduler and metrics
+     * @throws Exception if the run fails, which is recorded in its result
+     */
+    void run(SimulationContext<P> context) throws Exception;
+
+}
@@ -0,0 +1,103 @@
+package com.rafibaum.metal.simulation;
+
+import com.rafibaum.metal.scheduler.Scheduler;
+import com.rafibaum.metal.scheduler.VirtualClock;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * SimulationContext is everything a single run of a {@link Simulation} needs: its parameters, a random
+ * number generator seeded for the run, a fresh {@link Scheduler} on a {@link VirtualClock}, and the
+ * metrics the run records. Metrics are registered with the {@link SimulationRunner} and set here by
+ * their index. Metrics a run doesn't set are NaN.
+ * @param <P> the type of the parameters
+ */
+public class SimulationContext<P> {
+
+    private final P parameters;
+    private final long seed;
+    private final Random random;
+    private final VirtualClock clock = new VirtualClock();
+    private final Scheduler scheduler = new Scheduler(clock, 1);
+    private final double[] metrics;
+
+    SimulationContext(P parameters, long seed, int metrics) {
+        this.parameters = parameters;
+        this.seed = seed;
+        this.random = new Random(seed);
+        this.metrics = new double[metrics];
+        Arrays.fill(this.metrics, Double.NaN);
+    }
+
+    /**
+     * Returns the parameters of the run.
+     * @return the parameters
+     */
+    public P getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Returns the run's random seed.
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns a random number generator seeded with the run's seed, for adding noise to the simulation.
+     * @return the random number generator
+     */
+    public Random getRandom() {
+        return random;
+    }
+
+    /**
+     * Returns the run's virtual clock.
+     * @return the clock
+     */
+    public VirtualClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Returns a scheduler for the run, on the run's virtual clock.
+     * @return the scheduler
+     */
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Sets a metric.
+     * @param metric the index of the metric, from {@link SimulationRunner#addMetric(String)}
+     * @param value the value of the metric
+     */
+    public void set(int metric, double value) {
+        metrics[metric] = value;
+    }
+
+    /**
+     * Raises a metric to a value if it's higher, for tracking the worst of something over a run.
+     * @param metric the index of the metric
+     * @param value the value to compare
+     */
+    public void max(int metric, double value) {
+        if(!(metrics[metric] >= value)) metrics[metric] = value;
+    }
+
+    /**
+     * Returns the current value of a metric.
+     * @param metric the index of the metric
+     * @return the value of the metric, or NaN if it hasn't been set
+     */
+    public double get(int metric) {
+        return metrics[metric];
+    }
+
+    double[] getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,62 @@
+package com.rafibaum.metal.simulation;
+
+/**
+ * SimulationResult is the outcome of a single run of a {@link Simulation}: the parameters and seed it
+ * was run with, the metrics it recorded and the exception it failed with, if it did.
+ * @param <P> the type of the parameters
+ */
+public class SimulationResult<P> {
+
+    private final P parameters;
+    private final long seed;
+    private final double[] metrics;
+    private final Throwable failure;
+
+    SimulationResult(P parameters, long seed, double[] metrics, Throwable failure) {
+        this.parameters = parameters;
+        this.seed = seed;
+        this.metrics = metrics;
+        this.failure = failure;
+    }
+
+    /**
+     * Returns the parameters the run used.
+     * @return the parameters
+     */
+    public P getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Returns the run's random seed.
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns a metric recorded by the run.
+     * @param metric the index of the metric
+     * @return the value of the metric, or NaN if it wasn't recorded
+     */
+    public double getMetric(int metric) {
+        return metrics[metric];
+    }
+
+    /**
+     * Returns whether the run failed.
+     * @return true if the run threw an exception
+     */
+    public boolean isFailed() {
+        return failure != null;
+    }
+
+    /**
+     * Returns the exception the run failed with.
+     * @return the exception, or null if the run didn't fail
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+}
@@ -0,0 +1,172 @@
+package com.rafibaum.metal.simulation;
+
+import com.rafibaum.metal.scheduler.ScheduledController;
+import com.rafibaum.metal.utils.MetalConfigurationException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * SimulationRunner runs a {@link Simulation} many times in parallel on a fork-join pool, once for every
+ * combination of parameter set and random seed, and summarizes the metrics of all the runs. It's meant
+ * for sweeps, like trying many sets of gains or paths and picking the best:
+ * <pre>
+ * SimulationRunner&lt;Double&gt; runner = new SimulationRunner&lt;&gt;(this::runAutonomous);
+ * int error = runner.addMetric("pathError");
+ * SimulationSummary&lt;Double&gt; summary = runner.run(lookaheads, 10, 42);
+ * double best = summary.getBest(error).getParameters();
+ * </pre>
+ * Every run gets its own scheduler and virtual clock, so runs are deterministic and independent of
+ * each other and of how many cores they're spread over. A few metrics are recorded for every run:
+ * {@link #SIMULATED_SECONDS}, {@link #WALL_SECONDS} and {@link #UPDATE_NANOS}.
+ * @param <P> the type of the parameters
+ */
+public class SimulationRunner<P> {
+
+    /**
+     * Index of the metric of how far the run's virtual clock moved, in seconds.
+     */
+    public static final int SIMULATED_SECONDS = 0;
+
+    /**
+     * Index of the metric of how long the run took in real time, in seconds.
+     */
+    public static final int WALL_SECONDS = 1;
+
+    /**
+     * Index of the metric of the run's real time divided by the number of controller updates it ran, in
+     * nanoseconds. This is the real cost of simulating each update, setup included.
+     */
+    public static final int UPDATE_NANOS = 2;
+
+    private final Simulation<P> simulation;
+    private final ForkJoinPool pool;
+    private final List<String> metricNames = new ArrayList<>(Arrays.asList("simulatedSeconds", "wallSeconds", "updateNanos"));
+
+    /**
+     * Instantiates a simulation runner which runs on the common fork-join pool.
+     * @param simulation the simulation to run
+     */
+    public SimulationRunner(Simulation<P> simulation) {
+        this(simulation, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Instantiates a simulation runner.
+     * @param simulation the simulation to run
+     * @param pool the fork-join pool runs happen on
+     */
+    public SimulationRunner(Simulation<P> simulation, ForkJoinPool pool) {
+        this.simulation = simulation;
+        this.pool = pool;
+    }
+
+    /**
+     * Adds a metric which runs can record.
+     * @param name the name of the metric
+     * @return the index of the metric, used to record and read it
+     */
+    public int addMetric(String name) {
+        if(metricNames.contains(name)) {
+            throw new MetalConfigurationException("Simulation already has a metric named " + name + ".");
+        }
+
+        metricNames.add(name);
+        return metricNames.size() - 1;
+    }
+
+    /**
+     * Runs the simulation once for each set of parameters, all with a seed of zero.
+     * @param parameters the parameter sets
+     * @return the summary of the runs
+     */
+    public SimulationSummary<P> run(List<P> parameters) {
+        return run(parameters, 1, 0);
+    }
+
+    /**
+     * Runs the simulation several times for each set of parameters, each time with a different seed.
+     * Seeds count up from the base seed, and every parameter set uses the same seeds.
+     * @param parameters the parameter sets
+     * @param seeds the number of seeds to run each parameter set with
+     * @param baseSeed the first seed
+     * @return the summary of the runs, in order of parameter set and then seed
+     */
+    public SimulationSummary<P> run(List<P> parameters, int seeds, long baseSeed) {
+        if(seeds < 1) {
+            throw new MetalConfigurationException("Simulations must be run with at least one seed.");
+        }
+
+        int runs = parameters.size() * seeds;
+        List<SimulationResult<P>> results = new ArrayList<>(Collections.<SimulationResult<P>>nCopies(runs, null));
+        if(runs > 0) {
+            pool.invoke(new RunTask(parameters, seeds, baseSeed, results, 0, runs));
+        }
+
+        return new SimulationSummary<>(new ArrayList<>(metricNames), results);
+    }
+
+    /**
+     * Splits the runs in half until each task does a single one.
+     */
+    private class RunTask extends RecursiveAction {
+
+        private final List<P> parameters;
+        private final int seeds;
+        private final long baseSeed;
+        private final List<SimulationResult<P>> results;
+        private final int from;
+        private final int to;
+
+        RunTask(List<P> parameters, int seeds, long baseSeed, List<SimulationResult<P>> results, int from, int to) {
+            this.parameters = parameters;
+            this.seeds = seeds;
+            this.baseSeed = baseSeed;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from == 1) {
+                SimulationResult<P> result = runOnce(parameters.get(from / seeds), baseSeed + from % seeds);
+                synchronized(results) {
+                    results.set(from, result);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RunTask(parameters, seeds, baseSeed, results, from, middle),
+                        new RunTask(parameters, seeds, baseSeed, results, middle, to));
+            }
+        }
+    }
+
+    private SimulationResult<P> runOnce(P parameters, long seed) {
+        SimulationContext<P> context = new SimulationContext<>(parameters, seed, metricNames.size());
+        Throwable failure = null;
+
+        long start = System.nanoTime();
+        try {
+            simulation.run(context);
+        } catch(Exception | AssertionError e) {
+            failure = e;
+        }
+        long wall = System.nanoTime() - start;
+
+        //Updates are timed by the virtual clock, so their real cost has to be measured separately
+        long updates = 0;
+        for(ScheduledController scheduled : context.getScheduler().getScheduled()) {
+            updates += scheduled.getUpdates();
+        }
+
+        context.set(SIMULATED_SECONDS, context.getClock().getSeconds());
+        context.set(WALL_SECONDS, wall / 1e9);
+        context.set(UPDATE_NANOS, updates == 0 ? Double.NaN : (double) wall / updates);
+        return new SimulationResult<>(parameters, seed, context.getMetrics(), failure);
+    }
+}
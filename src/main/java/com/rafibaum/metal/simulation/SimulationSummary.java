@@ -0,0 +1,157 @@
+package com.rafibaum.metal.simulation;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SimulationSummary collects the results of every run of a {@link SimulationRunner} and summarizes each
+ * metric across them. Runs which failed or didn't record a metric are left out of that metric's
+ * statistics.
+ * @param <P> the type of the parameters
+ */
+public class SimulationSummary<P> {
+
+    private final List<String> metricNames;
+    private final List<SimulationResult<P>> results;
+
+    //Each metric's recorded values, sorted
+    private final double[][] sorted;
+
+    SimulationSummary(List<String> metricNames, List<SimulationResult<P>> results) {
+        this.metricNames = metricNames;
+        this.results = Collections.unmodifiableList(results);
+        this.sorted = new double[metricNames.size()][];
+
+        for(int metric = 0; metric < sorted.length; metric++) {
+            double[] values = new double[results.size()];
+            int count = 0;
+            for(SimulationResult<P> result : results) {
+                double value = result.getMetric(metric);
+                if(!result.isFailed() && !Double.isNaN(value)) values[count++] = value;
+            }
+            values = Arrays.copyOf(values, count);
+            Arrays.sort(values);
+            sorted[metric] = values;
+        }
+    }
+
+    /**
+     * Returns the result of every run, in the order the runs were given.
+     * @return the results
+     */
+    public List<SimulationResult<P>> getResults() {
+        return results;
+    }
+
+    /**
+     * Returns the number of runs which failed.
+     * @return the number of failures
+     */
+    public int getFailures() {
+        int failures = 0;
+        for(SimulationResult<P> result : results) {
+            if(result.isFailed()) failures++;
+        }
+        return failures;
+    }
+
+    /**
+     * Returns the index of a metric from its name.
+     * @param name the name of the metric
+     * @return the index of the metric, or -1 if there isn't one with that name
+     */
+    public int getMetricIndex(String name) {
+        return metricNames.indexOf(name);
+    }
+
+    /**
+     * Returns how many runs recorded a metric.
+     * @param metric the index of the metric
+     * @return the number of runs
+     */
+    public int getCount(int metric) {
+        return sorted[metric].length;
+    }
+
+    /**
+     * Returns the mean of a metric across the runs.
+     * @param metric the index of the metric
+     * @return the mean, or NaN if no run recorded it
+     */
+    public double getMean(int metric) {
+        double[] values = sorted[metric];
+        if(values.length == 0) return Double.NaN;
+
+        double sum = 0;
+        for(double value : values) {
+            sum += value;
+        }
+        return sum / values.length;
+    }
+
+    /**
+     * Returns the lowest value of a metric across the runs.
+     * @param metric the index of the metric
+     * @return the lowest value, or NaN if no run recorded it
+     */
+    public double getMin(int metric) {
+        double[] values = sorted[metric];
+        return values.length == 0 ? Double.NaN : values[0];
+    }
+
+    /**
+     * Returns the highest value of a metric across the runs.
+     * @param metric the index of the metric
+     * @return the highest value, or NaN if no run recorded it
+     */
+    public double getMax(int metric) {
+        double[] values = sorted[metric];
+        return values.length == 0 ? Double.NaN : values[values.length - 1];
+    }
+
+    /**
+     * Returns a percentile of a metric across the runs, using the nearest run.
+     * @param metric the index of the metric
+     * @param percentile the percentile, from 0 to 100
+     * @return the value at the percentile, or NaN if no run recorded it
+     */
+    public double getPercentile(int metric, double percentile) {
+        double[] values = sorted[metric];
+        if(values.length == 0) return Double.NaN;
+
+        int index = (int) Math.ceil(percentile / 100.0 * values.length) - 1;
+        return values[Math.max(0, Math.min(values.length - 1, index))];
+    }
+
+    /**
+     * Returns the run with the lowest value of a metric, like the run with the least path error.
+     * @param metric the index of the metric
+     * @return the best run, or null if no run recorded the metric
+     */
+    public SimulationResult<P> getBest(int metric) {
+        SimulationResult<P> best = null;
+        for(SimulationResult<P> result : results) {
+            double value = result.getMetric(metric);
+            if(result.isFailed() || Double.isNaN(value)) continue;
+            if(best == null || value < best.getMetric(metric)) best = result;
+        }
+        return best;
+    }
+
+    /**
+     * Returns a table of each metric's statistics.
+     * @return the summary as text
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("%d runs, %d failed%n", results.size(), getFailures()));
+        builder.append(String.format("%-20s %12s %12s %12s %12s%n", "metric", "mean", "min", "p95", "max"));
+        for(int metric = 0; metric < metricNames.size(); metric++) {
+            builder.append(String.format("%-20s %12.5g %12.5g %12.5g %12.5g%n", metricNames.get(metric),
+                    getMean(metric), getMin(metric), getPercentile(metric, 95), getMax(metric)));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,24 @@
+package com.rafibaum.metal.telemetry;
+
+/**
+ * The types of values a telemetry channel can hold. Every value is stored as a double, so the type
+ * only decides how many doubles a record has and how they should be read back.
+ */
+public enum ChannelType {
+    /**
+     * A single number, like a sensor reading or a controller output.
+     */
+    DOUBLE,
+    /**
+     * An angle, stored in degrees.
+     */
+    ANGLE,
+    /**
+     * A vector, stored as its X and Y components.
+     */
+    VECTOR,
+    /**
+     * A fixed number of numbers, like the outputs of every loop of a controller.
+     */
+    ARRAY
+}
@@ -0,0 +1,124 @@
+package com.rafibaum.metal.telemetry;
+
+import java.util.Arrays;
+
+/**
+ * RecordedChannel holds every record of one channel from a telemetry log, loaded into primitive arrays
+ * for a {@link Replay}. Values are looked up by time with sample and hold: the value at a time is the
+ * last one recorded at or before it. Lookups remember where the last one was, so stepping through time
+ * in order is constant time per lookup.
+ */
+public class RecordedChannel {
+
+    private final String name;
+    private final ChannelType type;
+    private final int valueCount;
+
+    private double[] timestamps = new double[64];
+    private double[] values;
+    private int size;
+
+    //Sample found by the last lookup
+    private int cursor;
+
+    RecordedChannel(String name, ChannelType type, int valueCount) {
+        this.name = name;
+        this.type = type;
+        this.valueCount = valueCount;
+        this.values = new double[timestamps.length * valueCount];
+    }
+
+    void add(TelemetryReader reader) {
+        if(size == timestamps.length) {
+            timestamps = Arrays.copyOf(timestamps, size * 2);
+            values = Arrays.copyOf(values, size * 2 * valueCount);
+        }
+
+        timestamps[size] = reader.getTimestamp();
+        for(int i = 0; i < valueCount; i++) {
+            values[size * valueCount + i] = reader.getValue(i);
+        }
+        size++;
+    }
+
+    /**
+     * Returns the name of the channel.
+     * @return the name of the channel
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the type of the channel.
+     * @return the type of the channel
+     */
+    public ChannelType getType() {
+        return type;
+    }
+
+    /**
+     * Returns how many values each sample of the channel has.
+     * @return the number of values
+     */
+    public int getValueCount() {
+        return valueCount;
+    }
+
+    /**
+     * Returns the number of samples recorded.
+     * @return the number of samples
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the timestamp of a sample.
+     * @param sample the index of the sample
+     * @return the timestamp in seconds
+     */
+    public double getTimestamp(int sample) {
+        return timestamps[sample];
+    }
+
+    /**
+     * Returns a value of a sample.
+     * @param sample the index of the sample
+     * @param index the index of the value within the sample
+     * @return the value
+     */
+    public double getValue(int sample, int index) {
+        return values[sample * valueCount + index];
+    }
+
+    /**
+     * Finds the last sample recorded at or before a time.
+     * @param time the time in seconds
+     * @return the index of the sample, or -1 if nothing was recorded by then
+     */
+    public int sampleAt(double time) {
+        if(size == 0 || time < timestamps[0]) return -1;
+
+        //Walk forwards from the last lookup, which is usually only a step or two
+        if(timestamps[cursor] > time) cursor = 0;
+        while(cursor + 1 < size && timestamps[cursor + 1] <= time) {
+            cursor++;
+        }
+        return cursor;
+    }
+
+    /**
+     * Returns a value as it was at a time. Before the first sample, the first sample's value is used.
+     * @param time the time in seconds
+     * @param index the index of the value within the sample
+     * @return the value
+     */
+    public double valueAt(double time, int index) {
+        if(size == 0) {
+            throw new IllegalStateException("Channel " + name + " has no samples.");
+        }
+
+        return getValue(Math.max(0, sampleAt(time)), index);
+    }
+}
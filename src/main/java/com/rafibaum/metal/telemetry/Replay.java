@@ -0,0 +1,196 @@
+package com.rafibaum.metal.telemetry;
+
+import com.rafibaum.metal.interfaces.IController;
+import com.rafibaum.metal.scheduler.ScheduledController;
+import com.rafibaum.metal.scheduler.Scheduler;
+import com.rafibaum.metal.scheduler.VirtualClock;
+import com.rafibaum.metal.utils.MetalConfigurationException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Replay runs controllers against recorded telemetry instead of a robot. Recorded channels are fed to
+ * the controllers as sensor inputs, the controllers are run by a {@link Scheduler} on a
+ * {@link VirtualClock}, and their outputs are collected so they can be compared with what was recorded.
+ * The clock starts at zero like the scheduler which recorded the log, so recorded timestamps line up
+ * with the replay's. Nothing in a replay reads the wall clock, so it runs as fast as the CPU allows and
+ * gives the same results every time, which makes it useful for checking tuning changes against old
+ * matches:
+ * <pre>
+ * Replay replay = Replay.load(directory, "match12");
+ * PIDController arm = new PIDController(0.8, 0, 0.05);
+ * ReplayOutput output = replay.output("arm/output");
+ * arm.setIO(replay.input("arm/position"), output);
+ * replay.register(arm, 200);
+ * replay.run();
+ * double change = output.maxDifference(replay.getChannel("arm/output"), 0);
+ * </pre>
+ */
+public class Replay {
+
+    private final Map<String, RecordedChannel> channels = new HashMap<>();
+    private final Map<String, ReplayOutput> outputs = new HashMap<>();
+    private final VirtualClock clock = new VirtualClock();
+    private final Scheduler scheduler;
+    private double endTime;
+
+    /**
+     * Instantiates a replay of a log's files, with controllers run on one thread.
+     * @param files the files of the log, in order
+     * @throws IOException if a file can't be read
+     */
+    public Replay(List<Path> files) throws IOException {
+        this(files, 1);
+    }
+
+    /**
+     * Instantiates a replay of a log's files.
+     * @param files the files of the log, in order
+     * @param threads the number of scheduler threads controllers can be registered on
+     * @throws IOException if a file can't be read
+     */
+    public Replay(List<Path> files, int threads) throws IOException {
+        this.scheduler = new Scheduler(clock, threads);
+
+        for(Path file : files) {
+            TelemetryReader reader = new TelemetryReader(file);
+            RecordedChannel[] fileChannels = new RecordedChannel[reader.getChannelCount()];
+            for(int i = 0; i < fileChannels.length; i++) {
+                String name = reader.getChannelName(i);
+                RecordedChannel channel = channels.get(name);
+                if(channel == null) {
+                    channel = new RecordedChannel(name, reader.getChannelType(i), reader.getValueCount(i));
+                    channels.put(name, channel);
+                }
+                fileChannels[i] = channel;
+            }
+
+            while(reader.next()) {
+                fileChannels[reader.getChannel()].add(reader);
+                endTime = Math.max(endTime, reader.getTimestamp());
+            }
+        }
+    }
+
+    /**
+     * Loads every file written by a {@link TelemetryLog}.
+     * @param directory the directory the log was written to
+     * @param name the base name of the log
+     * @return the replay
+     * @throws IOException if a file can't be read
+     */
+    public static Replay load(Path directory, String name) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for(int i = 0; Files.exists(TelemetryLog.getFile(directory, name, i)); i++) {
+            files.add(TelemetryLog.getFile(directory, name, i));
+        }
+
+        return new Replay(files);
+    }
+
+    /**
+     * Returns a recorded channel.
+     * @param name the name of the channel
+     * @return the recorded channel
+     */
+    public RecordedChannel getChannel(String name) {
+        RecordedChannel channel = channels.get(name);
+        if(channel == null) {
+            throw new MetalConfigurationException("Replay has no channel named " + name + ".");
+        }
+
+        return channel;
+    }
+
+    /**
+     * Returns an input which gives the first value of a recorded channel at the replay's current time.
+     * @param name the name of the channel
+     * @return the input
+     */
+    public DoubleSupplier input(String name) {
+        return input(name, 0);
+    }
+
+    /**
+     * Returns an input which gives a value of a recorded channel at the replay's current time, like the
+     * Y component of a vector channel.
+     * @param name the name of the channel
+     * @param index the index of the value within the channel's samples
+     * @return the input
+     */
+    public DoubleSupplier input(String name, int index) {
+        RecordedChannel channel = getChannel(name);
+        if(index < 0 || index >= channel.getValueCount()) {
+            throw new MetalConfigurationException("Channel " + name + " has no value " + index + ".");
+        }
+
+        return () -> channel.valueAt(clock.getSeconds(), index);
+    }
+
+    /**
+     * Returns an output which collects values with the replay's current time. Asking for the same name
+     * again returns the same output.
+     * @param name the name of the output
+     * @return the output
+     */
+    public ReplayOutput output(String name) {
+        return outputs.computeIfAbsent(name, key -> new ReplayOutput(key, clock));
+    }
+
+    /**
+     * Registers a controller to run during the replay.
+     * @param controller the controller to run
+     * @param frequency how many times a second the controller is updated
+     * @return the scheduled controller
+     */
+    public ScheduledController register(IController controller, double frequency) {
+        return scheduler.register(controller, frequency);
+    }
+
+    /**
+     * Registers a controller to run on one of the replay's scheduler threads. Controllers run in the
+     * same order whichever thread they're on.
+     * @param controller the controller to run
+     * @param frequency how many times a second the controller is updated
+     * @param thread the index of the thread
+     * @return the scheduled controller
+     */
+    public ScheduledController register(IController controller, double frequency, int thread) {
+        return scheduler.register(controller, frequency, thread);
+    }
+
+    /**
+     * Runs the controllers from the start of the log to its last record, then stops them.
+     */
+    public void run() {
+        try {
+            scheduler.runUntil(Math.round(endTime * 1e9));
+            scheduler.stop();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the virtual clock the replay runs on.
+     * @return the replay's clock
+     */
+    public VirtualClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Returns the time of the last record in the log.
+     * @return the end time in seconds
+     */
+    public double getEndTime() {
+        return endTime;
+    }
+}
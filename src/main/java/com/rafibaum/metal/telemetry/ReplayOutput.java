@@ -0,0 +1,103 @@
+package com.rafibaum.metal.telemetry;
+
+import com.rafibaum.metal.scheduler.Clock;
+
+import java.util.Arrays;
+import java.util.function.DoubleConsumer;
+
+/**
+ * ReplayOutput collects the values a controller outputs during a {@link Replay}, timestamped by the
+ * replay's clock, so they can be compared against the outputs which were recorded.
+ */
+public class ReplayOutput implements DoubleConsumer {
+
+    private final String name;
+    private final Clock clock;
+
+    private double[] timestamps = new double[64];
+    private double[] values = new double[64];
+    private int size;
+
+    ReplayOutput(String name, Clock clock) {
+        this.name = name;
+        this.clock = clock;
+    }
+
+    @Override
+    public void accept(double value) {
+        if(size == timestamps.length) {
+            timestamps = Arrays.copyOf(timestamps, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+
+        timestamps[size] = clock.nanoTime() / 1e9;
+        values[size] = value;
+        size++;
+    }
+
+    /**
+     * Returns the name of the output.
+     * @return the name of the output
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the number of values output.
+     * @return the number of values
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the time a value was output.
+     * @param sample the index of the value
+     * @return the time in seconds
+     */
+    public double getTimestamp(int sample) {
+        return timestamps[sample];
+    }
+
+    /**
+     * Returns a value which was output.
+     * @param sample the index of the value
+     * @return the value
+     */
+    public double getValue(int sample) {
+        return values[sample];
+    }
+
+    /**
+     * Compares the output against a recorded channel and returns the largest difference. Values output
+     * at the same time as recorded samples are paired with them in order, and any others are compared
+     * with the last value recorded before them.
+     * @param recorded the recorded channel
+     * @param index the index of the value within the recorded channel's samples
+     * @return the largest absolute difference, or zero if nothing was output
+     */
+    public double maxDifference(RecordedChannel recorded, int index) {
+        if(recorded.size() == 0) {
+            throw new IllegalStateException("Channel " + recorded.getName() + " has no samples.");
+        }
+
+        double max = 0;
+        int next = 0;
+        for(int i = 0; i < size; i++) {
+            while(next < recorded.size() && recorded.getTimestamp(next) < timestamps[i]) {
+                next++;
+            }
+
+            int sample;
+            if(next < recorded.size() && recorded.getTimestamp(next) == timestamps[i]) {
+                sample = next++;
+            } else {
+                sample = Math.max(0, next - 1);
+            }
+
+            max = Math.max(max, Math.abs(values[i] - recorded.getValue(sample, index)));
+        }
+        return max;
+    }
+}
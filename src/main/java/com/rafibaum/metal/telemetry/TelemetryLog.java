@@ -0,0 +1,434 @@
+package com.rafibaum.metal.telemetry;
+
+import com.rafibaum.metal.geometry.Angle;
+import com.rafibaum.metal.geometry.Vector;
+import com.rafibaum.metal.utils.MetalConfigurationException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * TelemetryLog records typed channels of values into memory mapped files. Channels are added before the
+ * log starts and make up a fixed schema, which is written at the start of each file. After that each
+ * record is just the channel, a timestamp and the channel's values as raw doubles, so logging a value is
+ * a handful of buffer puts with no formatting, allocation or I/O on the calling thread.
+ * <p>
+ * Files are a fixed size and are mapped ahead of time by a background thread, which also flushes them to
+ * disk periodically. When a file fills up the writer switches to the next one that's already mapped and
+ * hands the full file to the background thread to finish. If the background thread has fallen behind
+ * and no file is ready, the record is dropped rather than waiting; the log methods return false and the
+ * drop is counted. Files are named after the log's base name with an index, see {@link #getFile(int)},
+ * and can be read back with a {@link TelemetryReader}.
+ * <p>
+ * A log should only be written by one thread, like a single scheduler thread. Use a log per thread
+ * when logging from several.
+ */
+public class TelemetryLog implements Closeable {
+
+    //Format of the files
+    static final int MAGIC = 0x4D544C47; //"MTLG"
+    static final short VERSION = 1;
+    static final String EXTENSION = ".mlog";
+
+    //Default time between flushes to disk in milliseconds
+    private static final long DEFAULT_FLUSH_MILLIS = 500;
+
+    private final Path directory;
+    private final String name;
+    private final int fileSize;
+    private long flushNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_FLUSH_MILLIS);
+
+    //Schema
+    private final List<String> channelNames = new ArrayList<>();
+    private final List<ChannelType> channelTypes = new ArrayList<>();
+    private int[] valueCounts = new int[8];
+    private int[] recordSizes = new int[8];
+
+    //Written by the logging thread only
+    private MappedByteBuffer buffer;
+    private volatile int nextIndex;
+    private volatile long dropped;
+    private volatile long records;
+
+    //Handed between the logging thread and the background thread
+    private volatile MappedByteBuffer active;
+    private volatile MappedByteBuffer next;
+    private volatile MappedByteBuffer retired;
+    private volatile IOException failure;
+
+    private Thread background;
+    private volatile boolean running;
+
+    /**
+     * Instantiates a telemetry log.
+     * @param directory the directory to write the files to
+     * @param name the base name of the files
+     * @param fileSize the size of each file in bytes
+     */
+    public TelemetryLog(Path directory, String name, int fileSize) {
+        if(fileSize < 1024) {
+            throw new MetalConfigurationException("Telemetry files must be at least 1024 bytes.");
+        }
+
+        this.directory = directory;
+        this.name = name;
+        this.fileSize = fileSize;
+    }
+
+    /**
+     * Sets how often the background thread flushes the file being written to disk.
+     * @param millis the time between flushes in milliseconds
+     */
+    public void setFlushInterval(long millis) {
+        if(millis <= 0) {
+            throw new MetalConfigurationException("Telemetry flush interval must be positive.");
+        }
+
+        this.flushNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    /**
+     * Adds a channel which holds a single value of the given type.
+     * @param name the name of the channel
+     * @param type the type of the channel
+     * @return the channel's index, used when logging to it
+     */
+    public int addChannel(String name, ChannelType type) {
+        if(type == ChannelType.ARRAY) {
+            throw new MetalConfigurationException("Array channels need a length, use addArrayChannel.");
+        }
+
+        return addChannel(name, type, type == ChannelType.VECTOR ? 2 : 1);
+    }
+
+    /**
+     * Adds a channel which holds a fixed number of values.
+     * @param name the name of the channel
+     * @param length the number of values in each record
+     * @return the channel's index, used when logging to it
+     */
+    public int addArrayChannel(String name, int length) {
+        if(length < 1) {
+            throw new MetalConfigurationException("Array channels must hold at least one value.");
+        }
+
+        return addChannel(name, ChannelType.ARRAY, length);
+    }
+
+    private int addChannel(String name, ChannelType type, int valueCount) {
+        if(buffer != null) {
+            throw new MetalConfigurationException("Channels cannot be added after the log has started.");
+        }
+        if(channelNames.size() == Short.MAX_VALUE - 1) {
+            throw new MetalConfigurationException("Telemetry log has too many channels.");
+        }
+
+        int channel = channelNames.size();
+        if(channel == valueCounts.length) {
+            valueCounts = Arrays.copyOf(valueCounts, channel * 2);
+            recordSizes = Arrays.copyOf(recordSizes, channel * 2);
+        }
+
+        channelNames.add(name);
+        channelTypes.add(type);
+        valueCounts[channel] = valueCount;
+        recordSizes[channel] = Short.BYTES + Double.BYTES * (1 + valueCount);
+        return channel;
+    }
+
+    /**
+     * Maps the first file and starts the background thread.
+     * @throws IOException if the first file can't be created
+     */
+    public void start() throws IOException {
+        if(buffer != null) {
+            throw new MetalConfigurationException("Telemetry log has already been started.");
+        }
+
+        //Every file has to fit the schema and at least one of the largest record
+        int required = Integer.BYTES * 2 + Short.BYTES * 2;
+        int largest = 0;
+        for(int i = 0; i < channelNames.size(); i++) {
+            required += 1 + Short.BYTES * 2 + channelNames.get(i).getBytes(StandardCharsets.UTF_8).length;
+            largest = Math.max(largest, recordSizes[i]);
+        }
+        if(required + largest > fileSize) {
+            throw new MetalConfigurationException("Telemetry files are too small to hold the schema.");
+        }
+
+        buffer = map();
+        active = buffer;
+        running = true;
+        background = new Thread(this::runBackground, "Metal telemetry " + name);
+        background.setDaemon(true);
+        background.start();
+    }
+
+    /**
+     * Logs a single number.
+     * @param channel the index of a {@link ChannelType#DOUBLE} channel
+     * @param timestamp the time of the value in seconds
+     * @param value the value
+     * @return true if the value was written, false if it was dropped
+     */
+    public boolean logDouble(int channel, double timestamp, double value) {
+        if(!begin(channel, ChannelType.DOUBLE, timestamp)) return false;
+        buffer.putDouble(value);
+        return true;
+    }
+
+    /**
+     * Logs an angle in degrees.
+     * @param channel the index of a {@link ChannelType#ANGLE} channel
+     * @param timestamp the time of the value in seconds
+     * @param degrees the angle in degrees
+     * @return true if the value was written, false if it was dropped
+     */
+    public boolean logAngle(int channel, double timestamp, double degrees) {
+        if(!begin(channel, ChannelType.ANGLE, timestamp)) return false;
+        buffer.putDouble(degrees);
+        return true;
+    }
+
+    /**
+     * Logs an angle.
+     * @param channel the index of a {@link ChannelType#ANGLE} channel
+     * @param timestamp the time of the value in seconds
+     * @param angle the angle
+     * @return true if the value was written, false if it was dropped
+     */
+    public boolean logAngle(int channel, double timestamp, Angle angle) {
+        return logAngle(channel, timestamp, angle.toDegrees());
+    }
+
+    /**
+     * Logs a vector's components.
+     * @param channel the index of a {@link ChannelType#VECTOR} channel
+     * @param timestamp the time of the value in seconds
+     * @param x the X component
+     * @param y the Y component
+     * @return true if the value was written, false if it was dropped
+     */
+    public boolean logVector(int channel, double timestamp, double x, double y) {
+        if(!begin(channel, ChannelType.VECTOR, timestamp)) return false;
+        buffer.putDouble(x);
+        buffer.putDouble(y);
+        return true;
+    }
+
+    /**
+     * Logs a vector.
+     * @param channel the index of a {@link ChannelType#VECTOR} channel
+     * @param timestamp the time of the value in seconds
+     * @param vector the vector
+     * @return true if the value was written, false if it was dropped
+     */
+    public boolean logVector(int channel, double timestamp, Vector vector) {
+        return logVector(channel, timestamp, vector.getX(), vector.getY());
+    }
+
+    /**
+     * Logs values from an array, as many as the channel's length.
+     * @param channel the index of a {@link ChannelType#ARRAY} channel
+     * @param timestamp the time of the values in seconds
+     * @param values the array to read the values from
+     * @param from the index of the first value in the array
+     * @return true if the values were written, false if they were dropped
+     */
+    public boolean logArray(int channel, double timestamp, double[] values, int from) {
+        checkChannel(channel, ChannelType.ARRAY);
+        if(from < 0 || from + valueCounts[channel] > values.length) {
+            throw new IndexOutOfBoundsException("Not enough values for channel " + channel + ".");
+        }
+        if(!begin(channel, ChannelType.ARRAY, timestamp)) return false;
+
+        for(int i = 0, n = valueCounts[channel]; i < n; i++) {
+            buffer.putDouble(values[from + i]);
+        }
+        return true;
+    }
+
+    /**
+     * Checks the channel, makes room for the record and writes its start.
+     */
+    private boolean begin(int channel, ChannelType type, double timestamp) {
+        checkChannel(channel, type);
+        if(buffer == null) return false;
+
+        if(buffer.remaining() < recordSizes[channel] && !rotate()) {
+            dropped++;
+            return false;
+        }
+
+        //Channels are stored from one so that zero marks the end of the records
+        buffer.putShort((short) (channel + 1));
+        buffer.putDouble(timestamp);
+        records++;
+        return true;
+    }
+
+    private void checkChannel(int channel, ChannelType type) {
+        if(channel < 0 || channel >= channelTypes.size() || channelTypes.get(channel) != type) {
+            throw new IllegalArgumentException("Channel " + channel + " is not a " + type + " channel.");
+        }
+    }
+
+    /**
+     * Switches to the next file if the background thread has one ready and has finished the last one.
+     */
+    private boolean rotate() {
+        MappedByteBuffer spare = next;
+        if(spare == null || retired != null) return false;
+
+        next = null;
+        retired = buffer;
+        buffer = spare;
+        active = spare;
+        LockSupport.unpark(background);
+        return true;
+    }
+
+    /**
+     * Maps the next file and writes the schema at its start.
+     */
+    private MappedByteBuffer map() throws IOException {
+        MappedByteBuffer file;
+        try(RandomAccessFile raf = new RandomAccessFile(getFile(nextIndex).toFile(), "rw")) {
+            raf.setLength(0);
+            raf.setLength(fileSize);
+            file = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+        }
+
+        file.putInt(MAGIC);
+        file.putShort(VERSION);
+        file.putInt(nextIndex);
+        file.putShort((short) channelNames.size());
+        for(int i = 0; i < channelNames.size(); i++) {
+            byte[] channelName = channelNames.get(i).getBytes(StandardCharsets.UTF_8);
+            file.put((byte) channelTypes.get(i).ordinal());
+            file.putShort((short) valueCounts[i]);
+            file.putShort((short) channelName.length);
+            file.put(channelName);
+        }
+
+        nextIndex++;
+        return file;
+    }
+
+    /**
+     * Finishes full files, keeps the next file mapped and flushes the active file.
+     */
+    private void runBackground() {
+        long lastFlush = System.nanoTime();
+        while(running) {
+            try {
+                MappedByteBuffer full = retired;
+                if(full != null) {
+                    full.force();
+                    retired = null;
+                }
+                if(next == null) {
+                    next = map();
+                }
+            } catch(IOException e) {
+                failure = e;
+                return;
+            }
+
+            long now = System.nanoTime();
+            if(now - lastFlush >= flushNanos) {
+                active.force();
+                lastFlush = now;
+            }
+
+            LockSupport.parkNanos(Math.max(0, flushNanos - (System.nanoTime() - lastFlush)));
+        }
+    }
+
+    /**
+     * Returns the path of one of the log's files.
+     * @param index the index of the file, starting from zero
+     * @return the path of the file
+     */
+    public Path getFile(int index) {
+        return getFile(directory, name, index);
+    }
+
+    /**
+     * Returns the path of one of a log's files.
+     * @param directory the directory the log is written to
+     * @param name the base name of the log
+     * @param index the index of the file, starting from zero
+     * @return the path of the file
+     */
+    public static Path getFile(Path directory, String name, int index) {
+        return directory.resolve(String.format("%s-%04d%s", name, index, EXTENSION));
+    }
+
+    /**
+     * Returns how many files the log has created, including the one being written and the spare.
+     * @return the number of files
+     */
+    public int getFileCount() {
+        return nextIndex;
+    }
+
+    /**
+     * Returns the number of records written.
+     * @return the number of records written
+     */
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * Returns the number of records dropped because no file was ready.
+     * @return the number of records dropped
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Returns the error which stopped the background thread, if there was one.
+     * @return the error, or null if there wasn't one
+     */
+    public IOException getFailure() {
+        return failure;
+    }
+
+    /**
+     * Stops the background thread and flushes everything written to disk. The log can't be written after
+     * it's closed. Must be called from the thread writing the log.
+     * @throws IOException if the background thread failed
+     */
+    @Override
+    public void close() throws IOException {
+        if(buffer == null) return;
+
+        running = false;
+        LockSupport.unpark(background);
+        try {
+            background.join();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        MappedByteBuffer full = retired;
+        if(full != null) full.force();
+        buffer.force();
+        buffer = null;
+
+        if(failure != null) throw failure;
+    }
+}
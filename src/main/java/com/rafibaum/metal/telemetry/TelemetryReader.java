@@ -0,0 +1,165 @@
+package com.rafibaum.metal.telemetry;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * TelemetryReader reads the records of a file written by a {@link TelemetryLog}. The file's schema is
+ * read when it's opened, then the records are stepped through in order with {@link #next()}:
+ * <pre>
+ * TelemetryReader reader = new TelemetryReader(log.getFile(0));
+ * while(reader.next()) {
+ *     double value = reader.getValue(0);
+ * }
+ * </pre>
+ */
+public class TelemetryReader {
+
+    private final MappedByteBuffer buffer;
+    private final int fileIndex;
+    private final String[] names;
+    private final ChannelType[] types;
+    private final int[] valueCounts;
+
+    //Current record
+    private int channel = -1;
+    private double timestamp;
+    private final double[] values;
+
+    /**
+     * Opens a telemetry file and reads its schema.
+     * @param file the file to read
+     * @throws IOException if the file can't be read or isn't a telemetry file
+     */
+    public TelemetryReader(Path file) throws IOException {
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if(buffer.remaining() < Integer.BYTES + Short.BYTES || buffer.getInt() != TelemetryLog.MAGIC) {
+            throw new IOException(file + " is not a telemetry file.");
+        }
+        short version = buffer.getShort();
+        if(version != TelemetryLog.VERSION) {
+            throw new IOException(file + " has unsupported version " + version + ".");
+        }
+
+        fileIndex = buffer.getInt();
+        int channels = buffer.getShort();
+        names = new String[channels];
+        types = new ChannelType[channels];
+        valueCounts = new int[channels];
+
+        int largest = 0;
+        for(int i = 0; i < channels; i++) {
+            types[i] = ChannelType.values()[buffer.get()];
+            valueCounts[i] = buffer.getShort();
+            byte[] name = new byte[buffer.getShort()];
+            buffer.get(name);
+            names[i] = new String(name, StandardCharsets.UTF_8);
+            largest = Math.max(largest, valueCounts[i]);
+        }
+
+        values = new double[largest];
+    }
+
+    /**
+     * Moves to the next record.
+     * @return true if there was another record, false if the end of the file was reached
+     */
+    public boolean next() {
+        if(buffer.remaining() < Short.BYTES) return false;
+
+        //A channel of zero is unwritten space at the end of the file
+        int stored = buffer.getShort();
+        if(stored <= 0 || stored > names.length
+                || buffer.remaining() < Double.BYTES * (1 + valueCounts[stored - 1])) {
+            channel = -1;
+            return false;
+        }
+
+        channel = stored - 1;
+        timestamp = buffer.getDouble();
+        for(int i = 0; i < valueCounts[channel]; i++) {
+            values[i] = buffer.getDouble();
+        }
+        return true;
+    }
+
+    /**
+     * Returns the index of the file in its log's sequence of files.
+     * @return the file index
+     */
+    public int getFileIndex() {
+        return fileIndex;
+    }
+
+    /**
+     * Returns the number of channels in the file's schema.
+     * @return the number of channels
+     */
+    public int getChannelCount() {
+        return names.length;
+    }
+
+    /**
+     * Returns the name of a channel.
+     * @param channel the index of the channel
+     * @return the name of the channel
+     */
+    public String getChannelName(int channel) {
+        return names[channel];
+    }
+
+    /**
+     * Returns the type of a channel.
+     * @param channel the index of the channel
+     * @return the type of the channel
+     */
+    public ChannelType getChannelType(int channel) {
+        return types[channel];
+    }
+
+    /**
+     * Returns how many values each record of a channel has.
+     * @param channel the index of the channel
+     * @return the number of values
+     */
+    public int getValueCount(int channel) {
+        return valueCounts[channel];
+    }
+
+    /**
+     * Returns the channel of the current record.
+     * @return the index of the channel
+     */
+    public int getChannel() {
+        return channel;
+    }
+
+    /**
+     * Returns the timestamp of the current record.
+     * @return the timestamp in seconds
+     */
+    public double getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Returns one of the values of the current record. Angles are in degrees and vectors are
+     * their X then Y components.
+     * @param index the index of the value in the record
+     * @return the value
+     */
+    public double getValue(int index) {
+        if(channel < 0 || index < 0 || index >= valueCounts[channel]) {
+            throw new IndexOutOfBoundsException("Record has no value " + index + ".");
+        }
+
+        return values[index];
+    }
+}
@@ -0,0 +1,82 @@
+package com.rafibaum.metal.control;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MotionProfileTest {
+
+    private static final double TOLERANCE = 0.001;
+
+    /*
+    Makes sure trapezoidal profiles have the expected shape
+     */
+    @Test
+    public void trapezoidal() {
+        //Accelerate for 1 s over 1 m, cruise 8 m for 4 s, decelerate for 1 s over 1 m
+        MotionProfile profile = MotionProfile.trapezoidal(10, 2, 2);
+        assertTrue(aboutEqual(6, profile.getDuration()));
+        assertTrue(aboutEqual(0.25, profile.getPosition(0.5)));
+        assertTrue(aboutEqual(1, profile.getVelocity(0.5)));
+        assertTrue(aboutEqual(2, profile.getAcceleration(0.5)));
+        assertTrue(aboutEqual(5, profile.getPosition(3)));
+        assertTrue(aboutEqual(0, profile.getAcceleration(3)));
+        assertTrue(aboutEqual(-2, profile.getAcceleration(5.5)));
+        assertTrue(aboutEqual(10, profile.getPosition(7)));
+        assertTrue(aboutEqual(0, profile.getPosition(-1)));
+
+        //Short move never reaches full speed
+        MotionProfile triangle = MotionProfile.trapezoidal(-1, 2, 2);
+        assertTrue(aboutEqual(2 * Math.sqrt(0.5), triangle.getDuration()));
+        assertTrue(aboutEqual(-Math.sqrt(2), triangle.getVelocity(Math.sqrt(0.5))));
+        assertTrue(aboutEqual(-1, triangle.getPosition(triangle.getDuration())));
+    }
+
+    /*
+    Makes sure S-curve profiles stay within their limits and end where they should
+     */
+    @Test
+    public void sCurve() {
+        double[][] cases = {{10, 2, 2, 4}, {1, 2, 2, 4}, {0.1, 2, 2, 4}, {-3, 1.5, 3, 10}};
+        for(double[] c : cases) {
+            MotionProfile profile = MotionProfile.sCurve(c[0], c[1], c[2], c[3]);
+            double end = profile.getDuration();
+            assertTrue(aboutEqual(c[0], profile.getPosition(end - 1e-9)));
+            assertTrue(aboutEqual(0, profile.getVelocity(end - 1e-9)));
+            assertTrue(aboutEqual(0, profile.getAcceleration(end - 1e-9)));
+
+            double previous = 0;
+            for(double t = 0; t < end; t += end / 1000) {
+                assertTrue(Math.abs(profile.getVelocity(t)) <= c[1] + TOLERANCE);
+                assertTrue(Math.abs(profile.getAcceleration(t)) <= c[2] + TOLERANCE);
+
+                //Always moving towards the end
+                double position = profile.getPosition(t);
+                assertTrue(Math.abs(position) >= Math.abs(previous) - TOLERANCE);
+                previous = position;
+            }
+        }
+    }
+
+    /*
+    Makes sure the cache reuses profiles and replaces the oldest
+     */
+    @Test
+    public void cache() {
+        MotionProfileCache cache = new MotionProfileCache(2);
+        MotionProfile a = cache.trapezoidal(10, 2, 2);
+        MotionProfile b = cache.sCurve(10, 2, 2, 4);
+        assertSame(a, cache.trapezoidal(10, 2, 2));
+        assertSame(b, cache.sCurve(10, 2, 2, 4));
+
+        cache.trapezoidal(5, 2, 2);
+        assertNotSame(a, cache.trapezoidal(10, 2, 2));
+    }
+
+    public boolean aboutEqual(double d1, double d2) {
+        return Math.abs(d1 - d2) < TOLERANCE;
+    }
+
+}
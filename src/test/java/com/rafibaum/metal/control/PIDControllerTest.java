@@ -0,0 +1,99 @@
+package com.rafibaum.metal.control;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
+public class PIDControllerTest {
+
+    private static final double TOLERANCE = 0.001;
+
+    /*
+    Makes sure each term of the controller behaves as described
+     */
+    @Test
+    public void terms() {
+        PIDController pid = new PIDController(2, 0, 0);
+        assertTrue(aboutEqual(20, pid.calculate(10, 0, 0.02)));
+
+        //Integral builds up, but is clamped
+        pid = new PIDController(0, 1, 0);
+        pid.setIntegralLimit(0.5);
+        assertTrue(aboutEqual(0.2, pid.calculate(10, 0, 0.02)));
+        assertTrue(aboutEqual(0.4, pid.calculate(10, 0, 0.02)));
+        assertTrue(aboutEqual(0.5, pid.calculate(10, 0, 0.02)));
+
+        //Derivative is zero to start with and then follows the change in error
+        pid = new PIDController(0, 0, 1);
+        assertTrue(aboutEqual(0, pid.calculate(10, 0, 0.02)));
+        assertTrue(aboutEqual(-50, pid.calculate(10, 1, 0.02)));
+
+        //Filtered derivative only moves part of the way
+        pid.reset();
+        pid.setDerivativeFilter(0.02);
+        pid.calculate(10, 0, 0.02);
+        assertTrue(aboutEqual(-25, pid.calculate(10, 1, 0.02)));
+
+        //Feedforward and output limits
+        pid = new PIDController(1, 0, 0, 0.5, 1);
+        assertTrue(aboutEqual(4, pid.calculate(4, 2, 0.02)));
+        pid.setOutputRange(-1, 1);
+        assertTrue(aboutEqual(1, pid.calculate(4, 2, 0.02)));
+    }
+
+    /*
+    Makes sure headings take the shortest turn
+     */
+    @Test
+    public void continuous() {
+        PIDController pid = new PIDController(1, 0, 1);
+        pid.setContinuous(true);
+
+        //From 170 to -170 is 20 degrees clockwise
+        assertTrue(aboutEqual(20, pid.calculate(-170, 170, 0.02)));
+        //Crossing from -180 to 180 doesn't look like a jump to the derivative
+        assertTrue(aboutEqual(15 + (15 - 20) / 0.02, pid.calculate(-170, 175, 0.02)));
+    }
+
+    /*
+    Makes sure batched loops keep their own state
+     */
+    @Test
+    public void batch() {
+        PIDController pid = new PIDController(1, 1, 0, 0, 4);
+        double[] setpoints = {1, 2, 3, 4};
+        double[] measurements = {0, 0, 0, 4};
+        double[] outputs = new double[4];
+
+        pid.calculate(setpoints, measurements, outputs, 0.5);
+        assertTrue(aboutEqual(1.5, outputs[0]));
+        assertTrue(aboutEqual(4.5, outputs[2]));
+        assertTrue(aboutEqual(0, outputs[3]));
+
+        pid.calculate(setpoints, measurements, outputs, 0.5);
+        assertTrue(aboutEqual(2, outputs[0]));
+        assertTrue(aboutEqual(6, outputs[2]));
+    }
+
+    /*
+    Makes sure the controller runs as an IController
+     */
+    @Test
+    public void scheduled() {
+        double[] output = new double[1];
+        PIDController pid = new PIDController(2, 0, 0);
+        pid.setIO(() -> 3, value -> output[0] = value);
+        pid.setSetpoint(5);
+
+        pid.init();
+        pid.update(0, 0);
+        assertTrue(aboutEqual(4, output[0]));
+        pid.stop();
+        assertTrue(aboutEqual(0, output[0]));
+    }
+
+    public boolean aboutEqual(double d1, double d2) {
+        return Math.abs(d1 - d2) < TOLERANCE;
+    }
+
+}
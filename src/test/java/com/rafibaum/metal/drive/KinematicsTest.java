@@ -0,0 +1,155 @@
+package com.rafibaum.metal.drive;
+
+import com.rafibaum.metal.geometry.Polar;
+import com.rafibaum.metal.utils.MetalConfigurationException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class KinematicsTest {
+
+    private static final double TOLERANCE = 0.001;
+
+    //A square swerve drive with modules front left, front right, back left and back right
+    private static final double[] MODULE_X = {-0.3, 0.3, -0.3, 0.3};
+    private static final double[] MODULE_Y = {0.3, 0.3, -0.3, -0.3};
+
+    /*
+    Makes sure swerve modules point the right way for driving, strafing and turning
+     */
+    @Test
+    public void swerveInverse() {
+        SwerveKinematics kinematics = new SwerveKinematics(MODULE_X, MODULE_Y);
+        SwerveModuleStates states = new SwerveModuleStates(4);
+
+        //Strafing right points every module at 90 degrees
+        kinematics.toModuleStates(2, 0, 0, states);
+        for(int i = 0; i < 4; i++) {
+            assertTrue(new Polar(2, 90).equals(states.toPolar(i)));
+        }
+
+        //Turning clockwise in place pushes the front left module right and the back left forwards
+        kinematics.toModuleStates(new ChassisSpeeds(0, 0, 1), states);
+        double radius = Math.hypot(0.3, 0.3);
+        assertTrue(aboutEqual(radius, states.getSpeed(0)));
+        assertTrue(aboutEqual(45, states.getAngleDegrees(0)));
+        assertTrue(aboutEqual(135, states.getAngleDegrees(1)));
+        assertTrue(aboutEqual(315, states.getAngleDegrees(2)));
+        assertTrue(aboutEqual(225, states.getAngleDegrees(3)));
+
+        //Field oriented forward while facing right is the robot's left
+        ChassisSpeeds speeds = new ChassisSpeeds().setFieldRelative(0, 1, 0, 90);
+        assertTrue(aboutEqual(-1, speeds.getVx()));
+        assertTrue(aboutEqual(0, speeds.getVy()));
+    }
+
+    /*
+    Makes sure module states convert back into the chassis speeds they came from
+     */
+    @Test
+    public void swerveForward() {
+        //An offset layout, so the least squares fit isn't trivial
+        SwerveKinematics kinematics = new SwerveKinematics(new double[] {-0.2, 0.4, 0.1}, new double[] {0.5, 0.3, -0.4});
+        SwerveModuleStates states = new SwerveModuleStates(3);
+        ChassisSpeeds speeds = new ChassisSpeeds();
+
+        kinematics.toModuleStates(1.2, -0.7, 2.5, states);
+        kinematics.toChassisSpeeds(states, speeds);
+        assertTrue(aboutEqual(1.2, speeds.getVx()));
+        assertTrue(aboutEqual(-0.7, speeds.getVy()));
+        assertTrue(aboutEqual(2.5, speeds.getOmega()));
+    }
+
+    /*
+    Makes sure the least squares fit works the same in any units, and modules in one place are rejected
+     */
+    @Test
+    public void swerveUnits() {
+        //The square drive in millimetres
+        double[] moduleX = new double[4];
+        double[] moduleY = new double[4];
+        for(int i = 0; i < 4; i++) {
+            moduleX[i] = MODULE_X[i] * 1000;
+            moduleY[i] = MODULE_Y[i] * 1000;
+        }
+        SwerveKinematics kinematics = new SwerveKinematics(moduleX, moduleY);
+        SwerveModuleStates states = new SwerveModuleStates(4);
+        ChassisSpeeds speeds = new ChassisSpeeds();
+        kinematics.toModuleStates(1200, -700, 2.5, states);
+        kinematics.toChassisSpeeds(states, speeds);
+        assertTrue(aboutEqual(1200, speeds.getVx()));
+        assertTrue(aboutEqual(2.5, speeds.getOmega()));
+
+        //Rounding leaves a determinant which is only tiny next to the size of the numbers
+        for(double scale : new double[] {1e-3, 1, 1000}) {
+            try {
+                new SwerveKinematics(new double[] {0.31234 * scale, 0.31234 * scale, 0.31234 * scale},
+                        new double[] {0.27891 * scale, 0.27891 * scale, 0.27891 * scale});
+                fail();
+            } catch(MetalConfigurationException e) {
+                //Expected
+            }
+        }
+    }
+
+    /*
+    Makes sure modules are flipped instead of turning far, and are slowed down together
+     */
+    @Test
+    public void swerveOptimization() {
+        SwerveModuleStates states = new SwerveModuleStates(3);
+        states.set(0, 2, 170);
+        states.set(1, 4, 10);
+        states.set(2, 0, 45);
+
+        states.optimize(new double[] {-10, 80, 123});
+        assertTrue(aboutEqual(-2, states.getSpeed(0)));
+        assertTrue(aboutEqual(350, states.getAngleDegrees(0)));
+        assertTrue(aboutEqual(4, states.getSpeed(1)));
+        assertTrue(aboutEqual(10, states.getAngleDegrees(1)));
+
+        //Stopped modules stay where they are
+        assertTrue(aboutEqual(123, states.getAngleDegrees(2)));
+
+        //A flipped state is the same vector as the original
+        assertTrue(new Polar(2, 170).equals(states.toPolar(0)));
+
+        states.desaturate(3);
+        assertTrue(aboutEqual(-1.5, states.getSpeed(0)));
+        assertTrue(aboutEqual(3, states.getSpeed(1)));
+    }
+
+    /*
+    Makes sure mecanum wheels strafe and turn and convert back into chassis speeds
+     */
+    @Test
+    public void mecanum() {
+        MecanumKinematics kinematics = new MecanumKinematics(0.5, 0.4);
+        double[] wheels = new double[4];
+
+        //Strafing right drives the front left and back right wheels forwards
+        kinematics.toWheelSpeeds(1, 0, 0, wheels);
+        assertTrue(aboutEqual(1, wheels[MecanumKinematics.FRONT_LEFT]));
+        assertTrue(aboutEqual(-1, wheels[MecanumKinematics.FRONT_RIGHT]));
+        assertTrue(aboutEqual(-1, wheels[MecanumKinematics.BACK_LEFT]));
+        assertTrue(aboutEqual(1, wheels[MecanumKinematics.BACK_RIGHT]));
+
+        ChassisSpeeds speeds = new ChassisSpeeds();
+        kinematics.toWheelSpeeds(new ChassisSpeeds(0.5, 1.5, -2), wheels);
+        kinematics.toChassisSpeeds(wheels, speeds);
+        assertTrue(aboutEqual(0.5, speeds.getVx()));
+        assertTrue(aboutEqual(1.5, speeds.getVy()));
+        assertTrue(aboutEqual(-2, speeds.getOmega()));
+
+        //The back right wheel is fastest, so it's slowed to the limit and the rest keep their ratios
+        MecanumKinematics.desaturate(wheels, 1);
+        assertTrue(aboutEqual(1, wheels[MecanumKinematics.BACK_RIGHT]));
+        assertTrue(aboutEqual(1.1 / 2.9, wheels[MecanumKinematics.FRONT_LEFT]));
+    }
+
+    public boolean aboutEqual(double d1, double d2) {
+        return Math.abs(d1 - d2) < TOLERANCE;
+    }
+
+}
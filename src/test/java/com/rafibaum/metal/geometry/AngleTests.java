@@ -75,6 +75,39 @@ public class AngleTests {
         assertTrue(aboutEqual(-30, navAngle));
     }
 
+    /*
+    Makes sure that angles far outside of the range wrap correctly
+     */
+    @Test
+    public void largeWrappingTest() {
+        //1e6 = 2777 * 360 + 280
+        assertTrue(aboutEqual(280, new Angle(1e6).wrap().toDegrees()));
+        assertTrue(aboutEqual(80, new Angle(-1e6).wrap().toDegrees()));
+        assertTrue(aboutEqual(-80, new Angle(1e6).wrapNavigation().toDegrees()));
+        assertTrue(aboutEqual(80, new Angle(-1e6).wrapNavigation().toDegrees()));
+
+        //Upper bounds wrap to the lower bound
+        assertTrue(aboutEqual(0, new Angle(360 * 50).wrap().toDegrees()));
+        assertTrue(aboutEqual(-180, new Angle(180 + 360 * 7).wrapNavigation().toDegrees()));
+        assertTrue(aboutEqual(-180, new Angle(-180 - 360 * 7).wrapNavigation().toDegrees()));
+    }
+
+    /*
+    Makes sure that wrapping with primitive bounds matches wrapping with angle bounds
+     */
+    @Test
+    public void primitiveWrappingTest() {
+        assertTrue(aboutEqual(17.0, Angle.wrapDegrees(377)));
+        assertTrue(aboutEqual(-30, Angle.wrapNavigationDegrees(330)));
+        assertTrue(aboutEqual(new Angle(-725).wrap(new Angle(-90), new Angle(270)).toDegrees(),
+                new Angle(-725).wrap(-90, 270).toDegrees()));
+
+        //Angles already within a range wider than 360 degrees are left alone
+        assertTrue(aboutEqual(500, Angle.wrapDegrees(500, 0, 720)));
+        assertTrue(aboutEqual(380, Angle.wrapDegrees(740, 0, 720)));
+        assertTrue(aboutEqual(350, Angle.wrapDegrees(-10, 0, 720)));
+    }
+
     @Test
     public void equalsTest() {
         Angle a = new Angle(180);
@@ -0,0 +1,64 @@
+package com.rafibaum.metal.geometry;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BinaryAngleTest {
+
+    private static final double TOLERANCE = 0.001;
+
+    /*
+    Makes sure binary angles convert to and from degrees and radians
+     */
+    @Test
+    public void conversions() {
+        assertTrue(aboutEqual(-30, BinaryAngle.fromDegrees(330).toDegrees()));
+        assertTrue(aboutEqual(330, BinaryAngle.fromDegrees(-30).toDegreesUnsigned()));
+        assertTrue(aboutEqual(-180, BinaryAngle.fromDegrees(180).toDegrees()));
+        assertTrue(aboutEqual(0, BinaryAngle.fromDegrees(360).toDegrees()));
+        assertTrue(aboutEqual(280, BinaryAngle.fromDegrees(1e6).toDegreesUnsigned()));
+        assertTrue(aboutEqual(Math.PI / 2, BinaryAngle.from(AngleUnit.RADIANS, Math.PI / 2).toRadians()));
+        assertTrue(new Angle(-80).equals(BinaryAngle.fromAngle(new Angle(-1e6 + 720)).negate().toAngle()));
+
+        //A quarter turn is a quarter of 2^32
+        assertEquals(1 << 30, BinaryAngle.fromDegrees(90).toRaw());
+        assertEquals(Integer.MIN_VALUE, BinaryAngle.degreesToRaw(-180));
+    }
+
+    /*
+    Makes sure math wraps around and doesn't drift
+     */
+    @Test
+    public void exactMath() {
+        BinaryAngle a = BinaryAngle.fromDegrees(170);
+        BinaryAngle b = BinaryAngle.fromDegrees(20);
+
+        assertTrue(aboutEqual(-170, a.add(b).toDegrees()));
+        assertTrue(aboutEqual(-150, b.subtract(a).toDegrees()));
+        assertTrue(aboutEqual(-20, a.multiply(2).toDegrees()));
+
+        //The raw helpers do the same math on packed ints
+        assertEquals(a.add(b).toRaw(), BinaryAngle.addRaw(a.toRaw(), b.toRaw()));
+        assertEquals(b.subtract(a).toRaw(), BinaryAngle.subtractRaw(b.toRaw(), a.toRaw()));
+        assertTrue(aboutEqual(40, BinaryAngle.differenceDegrees(BinaryAngle.degreesToRaw(-170), BinaryAngle.degreesToRaw(-130))));
+        assertTrue(aboutEqual(20, BinaryAngle.differenceDegrees(a.toRaw(), BinaryAngle.degreesToRaw(-170))));
+
+        //Adding a step a million times and taking it away again returns exactly to the start
+        BinaryAngle step = BinaryAngle.fromDegrees(0.0137);
+        BinaryAngle heading = a;
+        for(int i = 0; i < 1000000; i++) {
+            heading = heading.add(step);
+        }
+        for(int i = 0; i < 1000000; i++) {
+            heading = heading.subtract(step);
+        }
+        assertEquals(a, heading);
+    }
+
+    public boolean aboutEqual(double d1, double d2) {
+        return Math.abs(d1 - d2) < TOLERANCE;
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.rafibaum.metal.geometry;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MutableTest {
+
+    private static final double TOLERANCE = 0.001;
+
+    /*
+    Makes sure that in place vector math matches the immutable vectors
+     */
+    @Test
+    public void mutableVectorMath() {
+        XY a1 = new XY(34.32, 14.53);
+        XY a2 = new XY(24.54, -124.632);
+
+        MutableXY v = new MutableXY(34.32, 14.53);
+        assertSame(v, v.addInPlace(a2));
+        assertTrue(a1.add(a2).equals(v));
+
+        v.set(a2).subtractInPlace(a1).scaleInPlace(2.5);
+        assertTrue(a2.subtract(a1).scale(2.5).equals(v));
+
+        v.set(a2).normalizeInPlace();
+        assertTrue(a2.normalize().equals(v));
+
+        v.set(3, 4).rotateInPlace(new Angle(90));
+        assertTrue(new XY(4, -3).equals(v));
+
+        //The Vector methods shouldn't change the mutable vector
+        Vector sum = v.add(a1);
+        assertTrue(new XY(4, -3).equals(v));
+        assertTrue(new XY(38.32, 11.53).equals(sum));
+        assertTrue(aboutEqual(new XY(4, -3).getAngle().toDegrees(), v.getAngle().toDegrees()));
+    }
+
+    /*
+    Makes sure that in place angle math and wrapping work
+     */
+    @Test
+    public void mutableAngleMath() {
+        MutableAngle a = new MutableAngle(45);
+        a.addInPlace(new Angle(-93.5)).scaleInPlace(2);
+        assertTrue(aboutEqual(-97, a.toDegrees()));
+
+        a.set(1e6).wrapInPlace();
+        assertTrue(aboutEqual(280, a.toDegrees()));
+
+        a.set(330).wrapNavigationInPlace();
+        assertTrue(aboutEqual(-30, a.toDegrees()));
+        assertTrue(a.isEquivalent(new Angle(-30)));
+        assertFalse(a.isEquivalent(new Angle(330)));
+
+        //Equals is symmetric, so mutable and immutable angles are never equal
+        assertFalse(a.equals(new Angle(-30)));
+        assertFalse(new Angle(-30).equals(a));
+        assertTrue(a.equals(new MutableAngle(-30)));
+
+        a.set(AngleUnit.RADIANS, Math.PI).subtractInPlace(90);
+        assertTrue(aboutEqual(Math.PI / 2, a.toRadians()));
+    }
+
+    /*
+    Makes sure the arena reuses its temporaries after a reset and grows when it runs out
+     */
+    @Test
+    public void arenaReuse() {
+        ScratchArena arena = new ScratchArena(2);
+
+        MutableXY v1 = arena.vector(1, 2);
+        MutableXY v2 = arena.vector(3, 4);
+        MutableAngle a1 = arena.angle(45);
+
+        //Running out of vectors should grow the arena
+        MutableXY v3 = arena.vector();
+        assertEquals(4, arena.vectorCapacity());
+        assertTrue(new XY(1, 2).equals(v1));
+        assertTrue(new XY(0, 0).equals(v3));
+
+        arena.reset();
+
+        //Temporaries are handed out again in the same order, cleared
+        assertSame(v1, arena.vector());
+        assertSame(v2, arena.vector());
+        assertTrue(new XY(0, 0).equals(v1));
+        assertSame(a1, arena.angle());
+        assertTrue(aboutEqual(0, a1.toDegrees()));
+    }
+
+    public boolean aboutEqual(double d1, double d2) {
+        return Math.abs(d1 - d2) < TOLERANCE;
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.rafibaum.metal.geometry;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
+public class PoseTest {
+
+    private static final double TOLERANCE = 0.001;
+
+    /*
+    Makes sure that converting between the robot and field frames works for both
+    single vectors and buffers
+     */
+    @Test
+    public void frameConversions() {
+        Pose2d pose = new Pose2d(2, 3, new Angle(90));
+
+        //Facing along the field's X axis, forward is +X and right is -Y
+        assertTrue(new XY(4, 3).equals(pose.toField(new XY(0, 2))));
+        assertTrue(new XY(3, 3).equals(pose.toField(new XY(0, 1))));
+        assertTrue(new XY(2, 2).equals(pose.toField(new XY(1, 0))));
+        assertTrue(new XY(0, 1).equals(pose.toRobot(new XY(3, 3))));
+
+        VectorBuffer points = new VectorBuffer(2);
+        points.append(0, 1);
+        points.append(1, 0);
+        pose.toField(points, 0, 2);
+        assertTrue(new XY(3, 3).equals(points.get(0)));
+        assertTrue(new XY(2, 2).equals(points.get(1)));
+        pose.toRobot(points, 0, 2);
+        assertTrue(new XY(0, 1).equals(points.get(0)));
+        assertTrue(new XY(1, 0).equals(points.get(1)));
+    }
+
+    /*
+    Makes sure that transforms and relative poses undo each other
+     */
+    @Test
+    public void transforms() {
+        Pose2d start = new Pose2d(1, 2, new Angle(30));
+        Transform2d transform = new Transform2d(new XY(0, 2), new Angle(45));
+        Pose2d end = start.transformBy(transform);
+
+        assertTrue(new Pose2d(2, 2 + Math.sqrt(3), new Angle(75)).equals(end));
+        assertTrue(transform.equals(new Transform2d(start, end)));
+        assertTrue(new Pose2d(0, 2, new Angle(45)).equals(end.relativeTo(start)));
+        assertTrue(start.equals(end.transformBy(transform.inverse())));
+
+        Transform2d second = new Transform2d(new XY(-1, 0.5), new Angle(-100));
+        assertTrue(end.transformBy(second).equals(start.transformBy(transform.plus(second))));
+    }
+
+    /*
+    Makes sure that twists follow arcs and that log undoes exp
+     */
+    @Test
+    public void twists() {
+        Pose2d start = new Pose2d(1, 1, new Angle(90));
+
+        //Driving a quarter circle of radius 1 while turning clockwise
+        Pose2d end = start.exp(new Twist2d(0, Math.PI / 2, new Angle(90)));
+        assertTrue(new Pose2d(2, 0, new Angle(180)).equals(end));
+
+        //Straight lines shouldn't divide by zero
+        assertTrue(new Pose2d(3, 1, new Angle(90)).equals(start.exp(new Twist2d(0, 2, Angle.ZERO))));
+
+        Twist2d twist = new Twist2d(0.3, 1.2, new Angle(-37));
+        Twist2d recovered = start.log(start.exp(twist));
+        assertTrue(twist.equals(recovered));
+        assertTrue(aboutEqual(-37, recovered.getDtheta().toDegrees()));
+    }
+
+    /*
+    Makes sure the arc integrals stay accurate for tiny turns with the table based trig provider,
+    where 1 - cos(dtheta) cancels
+     */
+    @Test
+    public void smallTwistsWithFastProvider() {
+        TrigProvider previous = Trig.getProvider();
+        Trig.setProvider(new FastTrigProvider());
+        try {
+            double[] turns = {1e-7, 1e-5, 3e-4, 2e-3, 1e-2, 0.3, -0.02};
+            for(double dtheta : turns) {
+                double c = (1 - Math.cos(dtheta)) / dtheta;
+                assertTrue(Math.abs(c - Twist2d.versineOverAngle(dtheta)) < Math.abs(c) * 0.01);
+                assertTrue(aboutEqual(Math.sin(dtheta) / dtheta, Twist2d.sinOverAngle(dtheta)));
+            }
+
+            //On a gentle curve the sideways drift comes from c, so it has to be right
+            Pose2d end = Pose2d.ORIGIN.exp(new Twist2d(0, 1, 1e-5));
+            assertTrue(Math.abs(end.getX() - 5e-6) < 1e-7);
+        } finally {
+            Trig.setProvider(previous);
+        }
+    }
+
+    public boolean aboutEqual(double d1, double d2) {
+        return Math.abs(d1 - d2) < TOLERANCE;
+    }
+
+}
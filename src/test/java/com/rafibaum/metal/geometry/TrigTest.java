@@ -0,0 +1,71 @@
+package com.rafibaum.metal.geometry;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
+public class TrigTest {
+
+    private static final double SIN_TOLERANCE = 3e-7;
+    private static final double ATAN_TOLERANCE = 1e-7;
+
+    @After
+    public void resetProvider() {
+        Trig.setProvider(new MathTrigProvider());
+    }
+
+    /*
+    Makes sure the fast provider stays within its documented error, including for large angles
+     */
+    @Test
+    public void fastSinCos() {
+        FastTrigProvider fast = new FastTrigProvider();
+
+        for(double degrees = -1e6; degrees <= 1e6; degrees += 97.3) {
+            double radians = Math.toRadians(degrees);
+            assertTrue(Math.abs(Math.sin(radians) - fast.sin(radians)) < SIN_TOLERANCE);
+            assertTrue(Math.abs(Math.cos(radians) - fast.cos(radians)) < SIN_TOLERANCE);
+        }
+
+        for(double radians = -10; radians <= 10; radians += 0.00037) {
+            assertTrue(Math.abs(Math.sin(radians) - fast.sin(radians)) < SIN_TOLERANCE);
+            assertTrue(Math.abs(Math.cos(radians) - fast.cos(radians)) < SIN_TOLERANCE);
+        }
+    }
+
+    /*
+    Makes sure the fast atan2 stays within its documented error in every quadrant
+     */
+    @Test
+    public void fastAtan2() {
+        FastTrigProvider fast = new FastTrigProvider();
+
+        for(double degrees = 0; degrees < 360; degrees += 0.0137) {
+            double radians = Math.toRadians(degrees);
+            double x = 3.7 * Math.cos(radians);
+            double y = 3.7 * Math.sin(radians);
+            assertTrue(Math.abs(Math.atan2(y, x) - fast.atan2(y, x)) < ATAN_TOLERANCE);
+        }
+
+        //Special cases should match Math exactly
+        assertTrue(fast.atan2(0, -1) == Math.atan2(0, -1));
+        assertTrue(fast.atan2(-2, 0) == Math.atan2(-2, 0));
+        assertTrue(fast.atan2(0, 0) == Math.atan2(0, 0));
+        assertTrue(Double.isNaN(fast.atan2(Double.NaN, 1)));
+    }
+
+    /*
+    Makes sure vectors keep working with the fast provider selected
+     */
+    @Test
+    public void vectorsWithFastProvider() {
+        Trig.setProvider(new FastTrigProvider());
+
+        Polar polar = new Polar(54, -64);
+        assertTrue(Math.abs(-48.5349 - polar.getX()) < 0.001);
+        assertTrue(Math.abs(23.6720 - polar.getY()) < 0.001);
+        assertTrue(new Angle(139.844).equals(new XY(54, -64).getAngle()));
+    }
+
+}
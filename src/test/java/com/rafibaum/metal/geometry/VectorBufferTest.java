@@ -0,0 +1,93 @@
+package com.rafibaum.metal.geometry;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class VectorBufferTest {
+
+    private static final double TOLERANCE = 0.001;
+
+    /*
+    Makes sure that bulk math matches the results of the Vector classes
+     */
+    @Test
+    public void bulkMath() {
+        VectorBuffer buffer = new VectorBuffer(4);
+        buffer.append(34.32, 14.53);
+        buffer.append(new XY(24.54, -124.632));
+        buffer.append(new Polar(5, 30));
+        assertEquals(3, buffer.size());
+
+        //Translate only the first two vectors
+        buffer.add(0, 2, 1, -2);
+        assertTrue(new XY(35.32, 12.53).equals(buffer.get(0)));
+        assertTrue(new XY(25.54, -126.632).equals(buffer.get(1)));
+        assertTrue(new Polar(5, 30).equals(buffer.get(2)));
+
+        buffer.subtract(0, 2, 1, -2);
+        buffer.scale(1, 3, 2.5);
+        assertTrue(new XY(34.32, 14.53).equals(buffer.get(0)));
+        assertTrue(new XY(24.54, -124.632).scale(2.5).equals(buffer.get(1)));
+
+        //Rotating is clockwise
+        buffer.rotate(2, 3, new Angle(60));
+        assertTrue(new Polar(12.5, 90).equals(buffer.get(2)));
+
+        double[] out = new double[3];
+        buffer.magnitude(0, 3, out, 0);
+        assertTrue(aboutEqual(new XY(34.32, 14.53).getMagnitude(), out[0]));
+        assertTrue(aboutEqual(12.5, out[2]));
+
+        buffer.dot(0, 3, 0, 1, out, 0);
+        assertTrue(aboutEqual(14.53, out[0]));
+        assertTrue(aboutEqual(0, out[2]));
+
+        buffer.normalize(0, 3);
+        assertTrue(new XY(34.32, 14.53).normalize().equals(buffer.get(0)));
+        assertTrue(new XY(1, 0).equals(buffer.get(2)));
+    }
+
+    /*
+    Makes sure that element by element operations line up the right indices
+     */
+    @Test
+    public void elementwiseMath() {
+        VectorBuffer a = new VectorBuffer(2);
+        a.append(1, 2);
+        a.append(3, 4);
+
+        VectorBuffer b = new VectorBuffer(3);
+        b.append(100, 100);
+        b.append(10, 20);
+        b.append(30, 40);
+
+        a.add(0, 2, b, 1);
+        assertTrue(new XY(11, 22).equals(a.get(0)));
+        assertTrue(new XY(33, 44).equals(a.get(1)));
+
+        double[] out = new double[3];
+        a.dot(0, 2, b, 1, out, 1);
+        assertTrue(aboutEqual(11 * 10 + 22 * 20, out[1]));
+        assertTrue(aboutEqual(33 * 30 + 44 * 40, out[2]));
+
+        a.subtract(0, 2, b, 1);
+        assertTrue(new XY(1, 2).equals(a.get(0)));
+    }
+
+    /*
+    Makes sure that ranges outside of the stored vectors are rejected
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rangeTest() {
+        VectorBuffer buffer = new VectorBuffer(4);
+        buffer.append(1, 1);
+        buffer.scale(0, 2, 2);
+    }
+
+    public boolean aboutEqual(double d1, double d2) {
+        return Math.abs(d1 - d2) < TOLERANCE;
+    }
+
+}
@@ -129,6 +129,48 @@ public class VectorTest {
         assertTrue(aboutEqual(315, q4.getAngle().toDegrees()));
     }
 
+    /*
+    Testing cross products and the angles between vectors
+     */
+    @Test
+    public void crossProductTest() {
+        XY forward = new XY(0, 2);
+        XY right = new XY(3, 0);
+        Polar left = new Polar(3, -90);
+
+        //Right is clockwise of forward, so the signed cross product is negative
+        assertTrue(aboutEqual(-6, forward.signedCrossProduct(right)));
+        assertTrue(aboutEqual(6, forward.signedCrossProduct(left)));
+        assertTrue(aboutEqual(6, forward.crossProduct(right)));
+        assertTrue(aboutEqual(6, left.crossProduct(forward)));
+
+        //More than 180 degrees apart by angle, but only 70 degrees apart in reality
+        Polar p1 = new Polar(2, 10);
+        Polar p2 = new Polar(4, 300);
+        assertTrue(aboutEqual(8 * Math.sin(Math.toRadians(70)), p1.crossProduct(p2)));
+
+        assertTrue(aboutEqual(90, forward.angleBetween(right).toDegrees()));
+        assertTrue(aboutEqual(-90, forward.angleBetween(left).toDegrees()));
+        assertTrue(aboutEqual(-70, p1.angleBetween(p2).toDegrees()));
+        assertTrue(aboutEqual(70, p2.angleBetween(p1).toDegrees()));
+    }
+
+    /*
+    Testing that rotations are clockwise for both kinds of vectors
+     */
+    @Test
+    public void rotationTest() {
+        XY v1 = new XY(3, 4);
+        Polar v2 = new Polar(5, 30);
+
+        assertTrue(new XY(4, -3).equals(v1.rotate(new Angle(90))));
+        assertTrue(new Polar(5, 75).equals(v2.rotate(new Angle(45))));
+
+        double radians = Math.toRadians(-120);
+        assertTrue(v1.rotate(new Angle(-120)).equals(v1.rotate(Math.cos(radians), Math.sin(radians))));
+        assertTrue(new Polar(5, -90).equals(v2.rotate(Math.cos(radians), Math.sin(radians))));
+    }
+
     public boolean aboutEqual(double d1, double d2) {
         return Math.abs(d1 - d2) < TOLERANCE;
     }
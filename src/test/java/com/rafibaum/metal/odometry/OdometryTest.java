@@ -0,0 +1,133 @@
+package com.rafibaum.metal.odometry;
+
+import com.rafibaum.metal.geometry.Angle;
+import com.rafibaum.metal.geometry.FastTrigProvider;
+import com.rafibaum.metal.geometry.MutableAngle;
+import com.rafibaum.metal.geometry.MutableXY;
+import com.rafibaum.metal.geometry.Pose2d;
+import com.rafibaum.metal.geometry.Trig;
+import com.rafibaum.metal.geometry.TrigProvider;
+import com.rafibaum.metal.geometry.XY;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OdometryTest {
+
+    private static final double TOLERANCE = 0.001;
+
+    /*
+    Makes sure the history interpolates between poses and forgets old poses once full
+     */
+    @Test
+    public void historyLookup() {
+        PoseHistory history = new PoseHistory(4);
+        MutableXY position = new MutableXY();
+        MutableAngle heading = new MutableAngle();
+        assertFalse(history.getPose(0, position, heading));
+
+        history.record(0.0, 0, 0, 170);
+        history.record(0.1, 1, 2, -170);
+        history.record(0.2, 2, 2, -160);
+
+        //Headings interpolate along the shortest turn
+        assertTrue(history.getPose(0.05, position, heading));
+        assertTrue(new XY(0.5, 1).equals(position));
+        assertTrue(aboutEqual(180, heading.toDegrees()));
+
+        //Times outside of the history are clamped
+        history.getPose(5, position, heading);
+        assertTrue(new XY(2, 2).equals(position));
+
+        //Out of order poses are rejected
+        assertFalse(history.record(0.15, 9, 9, 0));
+
+        history.record(0.3, 3, 2, 0);
+        history.record(0.4, 4, 2, 0);
+        assertEquals(4, history.size());
+        assertTrue(aboutEqual(0.1, history.getOldestTimestamp()));
+        assertTrue(new Pose2d(1.5, 2, new Angle(-165)).equals(history.getPose(0.15)));
+    }
+
+    /*
+    Makes sure movements are integrated as arcs
+     */
+    @Test
+    public void integration() {
+        Odometry odometry = new Odometry(100);
+        odometry.reset(0, new Pose2d(1, 1, new Angle(90)), new Angle(30));
+
+        //Drive a quarter circle of radius 1 clockwise in small steps
+        int steps = 50;
+        double step = Math.PI / 2 / steps;
+        for(int i = 1; i <= steps; i++) {
+            odometry.update(i * 0.02, 0, step, 30 + 90.0 * i / steps);
+        }
+
+        assertTrue(new Pose2d(2, 0, new Angle(180)).equals(odometry.getPose()));
+
+        //Sideways movement with a differential update is impossible
+        odometry.updateDifferential(1.02, 1, 1, new Angle(120));
+        assertTrue(new Pose2d(2, -1, new Angle(180)).equals(odometry.getPose()));
+    }
+
+    /*
+    Makes sure late measurements correct the current pose by how far off the robot was at the time
+     */
+    @Test
+    public void lateMeasurements() {
+        Odometry odometry = new Odometry(100);
+        odometry.reset(0, Pose2d.ORIGIN, Angle.ZERO);
+        for(int i = 1; i <= 10; i++) {
+            odometry.update(i * 0.02, 0, 0.1, 0);
+        }
+
+        //At 0.1 seconds the robot thought it was at (0, 0.5) but it was really at (0.2, 0.5) and turned
+        assertTrue(odometry.addMeasurement(0.1, new Pose2d(0.2, 0.5, new Angle(90)), 1));
+        assertTrue(new Pose2d(0.7, 0.5, new Angle(90)).equals(odometry.getPose()));
+
+        //The history is corrected too, so the same measurement again changes nothing
+        assertTrue(odometry.addMeasurement(0.1, new Pose2d(0.2, 0.5, new Angle(90)), 1));
+        assertTrue(new Pose2d(0.7, 0.5, new Angle(90)).equals(odometry.getPose()));
+
+        //Odometry keeps working in the corrected frame
+        odometry.update(0.22, 0, 0.1, 0);
+        assertTrue(new Pose2d(0.8, 0.5, new Angle(90)).equals(odometry.getPose()));
+
+        assertFalse(odometry.addMeasurement(-1, Pose2d.ORIGIN, 1));
+    }
+
+    /*
+    Makes sure many tiny turns don't drift with the table based trig provider
+     */
+    @Test
+    public void fastTrigIntegration() {
+        Pose2d exact = gentleCurve();
+
+        TrigProvider previous = Trig.getProvider();
+        Trig.setProvider(new FastTrigProvider());
+        try {
+            Pose2d fast = gentleCurve();
+            assertTrue(Math.abs(exact.getX() - fast.getX()) < 0.01);
+            assertTrue(Math.abs(exact.getY() - fast.getY()) < 0.01);
+        } finally {
+            Trig.setProvider(previous);
+        }
+    }
+
+    private Pose2d gentleCurve() {
+        Odometry odometry = new Odometry(10);
+        odometry.reset(0, Pose2d.ORIGIN, Angle.ZERO);
+        for(int i = 1; i <= 30000; i++) {
+            odometry.update(i * 0.02, 0, 0.001, i * 0.002);
+        }
+        return odometry.getPose();
+    }
+
+    public boolean aboutEqual(double d1, double d2) {
+        return Math.abs(d1 - d2) < TOLERANCE;
+    }
+
+}
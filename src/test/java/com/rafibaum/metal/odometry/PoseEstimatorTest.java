@@ -0,0 +1,95 @@
+package com.rafibaum.metal.odometry;
+
+import com.rafibaum.metal.geometry.Angle;
+import com.rafibaum.metal.geometry.Pose2d;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PoseEstimatorTest {
+
+    private static final double TOLERANCE = 0.001;
+
+    /*
+    Makes sure predictions integrate like odometry and make the estimate less certain
+     */
+    @Test
+    public void prediction() {
+        PoseEstimator estimator = new PoseEstimator(100);
+        Odometry odometry = new Odometry(100);
+        estimator.reset(0, new Pose2d(1, 1, new Angle(90)), 0.1, 0.1, 1);
+        odometry.reset(0, new Pose2d(1, 1, new Angle(90)), Angle.ZERO);
+
+        for(int i = 1; i <= 50; i++) {
+            estimator.predict(i * 0.02, 0.01, 0.03, 1.5);
+            odometry.update(i * 0.02, 0.01, 0.03, 1.5 * i);
+        }
+
+        assertTrue(odometry.getPose().equals(estimator.getPose()));
+        assertTrue(estimator.getCovariance(0, 0) > 0.01);
+        assertTrue(aboutEqual(estimator.getCovariance(0, 1), estimator.getCovariance(1, 0)));
+        assertFalse(estimator.predict(0.5, 0, 0, 0));
+    }
+
+    /*
+    Makes sure measurements are weighted by how uncertain the estimate and the measurement are
+     */
+    @Test
+    public void correction() {
+        PoseEstimator estimator = new PoseEstimator(10);
+        estimator.reset(0, Pose2d.ORIGIN, 1, 1, 10);
+
+        //Equally uncertain, so the estimate moves halfway and the uncertainty halves
+        assertTrue(estimator.addMeasurement(0, new Pose2d(2, -4, new Angle(-10)), 1, 1, 10));
+        assertTrue(new Pose2d(1, -2, new Angle(-5)).equals(estimator.getPose()));
+        assertTrue(aboutEqual(0.5, estimator.getCovariance(0, 0)));
+
+        //Headings are corrected along the shortest turn
+        estimator.reset(0, new Pose2d(0, 0, new Angle(170)), 1, 1, 10);
+        estimator.addMeasurement(0, new Pose2d(0, 0, new Angle(-170)), 1, 1, 10);
+        assertTrue(aboutEqual(180, estimator.getHeadingDegrees()));
+
+        //A precise measurement is trusted almost completely
+        estimator.addMeasurement(0, new Pose2d(3, 3, new Angle(45)), 0.001, 0.001, 0.001);
+        assertTrue(new Pose2d(3, 3, new Angle(45)).equals(estimator.getPose()));
+    }
+
+    /*
+    Makes sure a late measurement gives the same estimate as if it had arrived on time
+     */
+    @Test
+    public void lateMeasurements() {
+        PoseEstimator onTime = new PoseEstimator(100);
+        PoseEstimator late = new PoseEstimator(100);
+        onTime.reset(0, Pose2d.ORIGIN, 0.1, 0.1, 2);
+        late.reset(0, Pose2d.ORIGIN, 0.1, 0.1, 2);
+
+        for(int i = 1; i <= 40; i++) {
+            onTime.predict(i * 0.02, 0, 0.05, 0.8);
+            late.predict(i * 0.02, 0, 0.05, 0.8);
+            if(i == 10) {
+                onTime.addMeasurement(0.2, 0.3, 0.4, 5, 0.05, 0.05, 1);
+            }
+        }
+
+        //Arrives 0.6 seconds late, between steps, and is applied to the step before it
+        late.addMeasurement(0.21, 0.3, 0.4, 5, 0.05, 0.05, 1);
+        assertTrue(onTime.getPose().equals(late.getPose()));
+        assertTrue(aboutEqual(onTime.getCovariance(0, 2), late.getCovariance(0, 2)));
+
+        //Measurements older than the history are ignored
+        PoseEstimator small = new PoseEstimator(5);
+        small.reset(0, Pose2d.ORIGIN, 0.1, 0.1, 2);
+        for(int i = 1; i <= 10; i++) {
+            small.predict(i * 0.02, 0, 0.05, 0);
+        }
+        assertFalse(small.addMeasurement(0.05, Pose2d.ORIGIN, 0.01, 0.01, 1));
+        assertTrue(small.addMeasurement(0.15, Pose2d.ORIGIN, 0.01, 0.01, 1));
+    }
+
+    public boolean aboutEqual(double d1, double d2) {
+        return Math.abs(d1 - d2) < TOLERANCE;
+    }
+
+}
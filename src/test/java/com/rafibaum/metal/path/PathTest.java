@@ -0,0 +1,99 @@
+package com.rafibaum.metal.path;
+
+import com.rafibaum.metal.geometry.Angle;
+import com.rafibaum.metal.geometry.MutableXY;
+import com.rafibaum.metal.geometry.Pose2d;
+import com.rafibaum.metal.geometry.XY;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PathTest {
+
+    private static final double TOLERANCE = 0.001;
+
+    /*
+    Makes sure a straight path is measured and sampled correctly
+     */
+    @Test
+    public void straightPath() {
+        Path path = new PathGenerator(SplineType.QUINTIC).generate(Arrays.asList(
+                new Pose2d(0, 0, new Angle(90)),
+                new Pose2d(4, 0, new Angle(90))));
+
+        assertTrue(aboutEqual(4, path.getLength()));
+        assertTrue(new XY(1.5, 0).equals(path.getPosition(1.5, new MutableXY())));
+        assertTrue(aboutEqual(90, path.getHeadingDegrees(2)));
+        assertTrue(aboutEqual(0, path.getCurvature(2)));
+
+        //Samples are no further apart than the maximum step
+        for(int i = 1; i < path.size(); i++) {
+            assertTrue(path.getSampleDistance(i) - path.getSampleDistance(i - 1) <= 0.05 + TOLERANCE);
+        }
+
+        //Distances past the ends are clamped
+        assertTrue(new XY(4, 0).equals(path.getPosition(10, new MutableXY())));
+        assertTrue(new XY(0, 0).equals(path.getPosition(-1, new MutableXY())));
+    }
+
+    /*
+    Makes sure curved paths pass through their waypoints with the right headings and turn the right way
+     */
+    @Test
+    public void curvedPath() {
+        for(SplineType type : SplineType.values()) {
+            Path path = new PathGenerator(type).generate(Arrays.asList(
+                    new Pose2d(0, 0, Angle.ZERO),
+                    new Pose2d(1, 1, new Angle(90)),
+                    new Pose2d(3, 1, new Angle(90))));
+
+            assertTrue(aboutEqual(0, path.getHeadingDegrees(0)));
+            assertTrue(aboutEqual(90, path.getHeadingDegrees(path.getLength())));
+            assertTrue(new XY(3, 1).equals(path.getPosition(path.getLength(), new MutableXY())));
+
+            //Arc is a little longer than a quarter circle plus the straight
+            assertTrue(path.getLength() > Math.PI / 2 + 2 - 0.1 && path.getLength() < 4);
+
+            //Turning right is clockwise, so the curvature is positive in the first segment
+            assertTrue(path.getCurvature(0.5) > 0);
+
+            //Headings change smoothly between samples
+            for(int i = 1; i < path.size(); i++) {
+                double turn = Angle.wrapNavigationDegrees(path.getSampleHeadingDegrees(i) - path.getSampleHeadingDegrees(i - 1));
+                assertTrue(Math.abs(turn) <= 2 + TOLERANCE);
+            }
+        }
+    }
+
+    /*
+    Makes sure generating in parallel gives the same path as generating on one thread
+     */
+    @Test
+    public void parallelMatchesSerial() {
+        Pose2d[] waypoints = new Pose2d[20];
+        for(int i = 0; i < waypoints.length; i++) {
+            waypoints[i] = new Pose2d(i, (i % 2) * 2, new Angle(i % 2 == 0 ? 45 : 135));
+        }
+
+        Path parallel = new PathGenerator(SplineType.QUINTIC).generate(Arrays.asList(waypoints));
+        ForkJoinPool pool = new ForkJoinPool(1);
+        Path serial;
+        try {
+            serial = new PathGenerator(SplineType.QUINTIC, pool).generate(Arrays.asList(waypoints));
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(serial.size(), parallel.size());
+        assertTrue(aboutEqual(serial.getLength(), parallel.getLength()));
+    }
+
+    public boolean aboutEqual(double d1, double d2) {
+        return Math.abs(d1 - d2) < TOLERANCE;
+    }
+
+}
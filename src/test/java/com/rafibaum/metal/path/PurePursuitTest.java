@@ -0,0 +1,132 @@
+package com.rafibaum.metal.path;
+
+import com.rafibaum.metal.geometry.Angle;
+import com.rafibaum.metal.geometry.Pose2d;
+import com.rafibaum.metal.geometry.Twist2d;
+import com.rafibaum.metal.interfaces.IPoseSource;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PurePursuitTest {
+
+    private static final double TOLERANCE = 0.001;
+
+    /*
+    A robot which drives along arcs exactly as commanded
+     */
+    private static class SimulatedRobot implements IPoseSource {
+        Pose2d pose;
+        double speed;
+        double curvature;
+
+        SimulatedRobot(Pose2d pose) {
+            this.pose = pose;
+        }
+
+        void step(double dt) {
+            double distance = speed * dt;
+            pose = pose.exp(new Twist2d(0, distance, distance * curvature));
+        }
+
+        @Override
+        public double getX() {
+            return pose.getX();
+        }
+
+        @Override
+        public double getY() {
+            return pose.getY();
+        }
+
+        @Override
+        public double getHeadingDegrees() {
+            return pose.getHeading().toDegrees();
+        }
+    }
+
+    /*
+    Makes sure the nearest point and the lookahead point are found and steered towards
+     */
+    @Test
+    public void steering() {
+        Path path = new PathGenerator(SplineType.QUINTIC).generate(Arrays.asList(
+                new Pose2d(0, 0, Angle.ZERO),
+                new Pose2d(0, 10, Angle.ZERO)));
+        SimulatedRobot robot = new SimulatedRobot(new Pose2d(0.6, 2, Angle.ZERO));
+        PurePursuitController controller = new PurePursuitController(path, 1, 2, robot, (speed, curvature) -> { });
+
+        controller.calculate(robot.getX(), robot.getY(), robot.getHeadingDegrees());
+        assertTrue(aboutEqual(2, controller.getNearestDistance()));
+        assertTrue(aboutEqual(0, controller.getTarget().getX()));
+        assertTrue(aboutEqual(2.8, controller.getTarget().getY()));
+
+        //Path is to the robot's left, so it turns counter-clockwise
+        assertTrue(aboutEqual(2 * -0.6, controller.getCurvature()));
+        assertTrue(aboutEqual(2, controller.getCommandedSpeed()));
+    }
+
+    /*
+    Makes sure the follower drives a curved path to its end
+     */
+    @Test
+    public void following() {
+        Path path = new PathGenerator(SplineType.QUINTIC).generate(Arrays.asList(
+                new Pose2d(0, 0, Angle.ZERO),
+                new Pose2d(2, 3, new Angle(90)),
+                new Pose2d(5, 3, new Angle(90))));
+        SimulatedRobot robot = new SimulatedRobot(new Pose2d(0, 0, Angle.ZERO));
+        PurePursuitController controller = new PurePursuitController(path, 0.5, 2, robot, (speed, curvature) -> {
+            robot.speed = speed;
+            robot.curvature = curvature;
+        });
+        controller.setMaxDeceleration(3);
+
+        controller.init();
+        double previous = 0;
+        int steps = 0;
+        for(; steps < 1000 && !controller.isFinished(); steps++) {
+            controller.update(steps * 0.01, 0.01);
+            robot.step(0.01);
+
+            //Progress along the path never goes backwards
+            assertTrue(controller.getNearestDistance() >= previous - TOLERANCE);
+            previous = controller.getNearestDistance();
+        }
+
+        assertTrue(controller.isFinished());
+        assertTrue(Math.hypot(robot.getX() - 5, robot.getY() - 3) < 0.1);
+        controller.update(steps * 0.01, 0.01);
+        assertEquals(0, robot.speed, TOLERANCE);
+    }
+
+    /*
+    Makes sure a path ending in a zero length segment finishes, and the end of a path never commands NaN
+     */
+    @Test
+    public void pathEnd() {
+        double[] zeros = new double[4];
+        Path path = new Path(new double[] {0, 1, 2, 2}, zeros, new double[] {0, 1, 2, 2}, zeros, zeros);
+        SimulatedRobot robot = new SimulatedRobot(new Pose2d(0, 2.5, Angle.ZERO));
+        PurePursuitController controller = new PurePursuitController(path, 1, 2, robot, (speed, curvature) -> { });
+
+        controller.calculate(robot.getX(), robot.getY(), robot.getHeadingDegrees());
+        assertTrue(controller.isFinished());
+        assertEquals(0, controller.getCommandedSpeed(), 0);
+
+        //Not finished right at the end of the path, with no deceleration limit
+        controller.setEndTolerance(-1);
+        controller.calculate(robot.getX(), robot.getY(), robot.getHeadingDegrees());
+        assertFalse(controller.isFinished());
+        assertEquals(0, controller.getCommandedSpeed(), 0);
+    }
+
+    public boolean aboutEqual(double d1, double d2) {
+        return Math.abs(d1 - d2) < TOLERANCE;
+    }
+
+}
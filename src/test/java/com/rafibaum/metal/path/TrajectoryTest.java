@@ -0,0 +1,124 @@
+package com.rafibaum.metal.path;
+
+import com.rafibaum.metal.geometry.Angle;
+import com.rafibaum.metal.geometry.Pose2d;
+import com.rafibaum.metal.utils.MetalConfigurationException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TrajectoryTest {
+
+    private static final double TOLERANCE = 0.001;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /*
+    Makes sure a straight trajectory follows a trapezoidal velocity profile
+     */
+    @Test
+    public void straightTrajectory() {
+        Path path = new PathGenerator(SplineType.QUINTIC).generate(Arrays.asList(
+                new Pose2d(0, 0, Angle.ZERO),
+                new Pose2d(0, 4, Angle.ZERO)));
+        Trajectory trajectory = new TrajectoryGenerator(2, 2).generate(path);
+        TrajectorySample sample = new TrajectorySample();
+
+        //One second speeding up, one cruising and one slowing down
+        assertTrue(Math.abs(3 - trajectory.getDuration()) < 0.01);
+        trajectory.sample(0.5, sample);
+        assertTrue(Math.abs(1 - sample.getVelocity()) < 0.01);
+        assertTrue(Math.abs(0.25 - sample.getY()) < 0.01);
+        assertTrue(aboutEqual(2, sample.getAcceleration()));
+
+        trajectory.sample(1.5, sample);
+        assertTrue(aboutEqual(2, sample.getVelocity()));
+        assertTrue(Math.abs(2 - sample.getDistance()) < 0.01);
+        assertTrue(aboutEqual(0, sample.getX()));
+
+        //Times outside of the trajectory are clamped
+        trajectory.sample(10, sample);
+        assertTrue(aboutEqual(0, sample.getVelocity()));
+        assertTrue(aboutEqual(4, sample.getY()));
+    }
+
+    /*
+    Makes sure turns are slowed down for and limits are never broken
+     */
+    @Test
+    public void limits() {
+        Path path = new PathGenerator(SplineType.QUINTIC).generate(Arrays.asList(
+                new Pose2d(0, 0, Angle.ZERO),
+                new Pose2d(1.5, 3, new Angle(90)),
+                new Pose2d(4, 3, new Angle(90))));
+        Trajectory trajectory = new TrajectoryGenerator(3, 2).setMaxCentripetalAcceleration(1).generate(path);
+        TrajectorySample sample = new TrajectorySample();
+
+        for(double t = 0; t < trajectory.getDuration(); t += 0.01) {
+            trajectory.sample(t, sample);
+            assertTrue(sample.getVelocity() <= 3 + TOLERANCE);
+            assertTrue(Math.abs(sample.getAcceleration()) <= 2 + TOLERANCE);
+            assertTrue(sample.getVelocity() * sample.getVelocity() * Math.abs(sample.getCurvature()) <= 1 + 0.05);
+        }
+    }
+
+    /*
+    Makes sure compiled trajectories are saved and memory mapped back unchanged
+     */
+    @Test
+    public void compileAndLoad() throws IOException {
+        java.nio.file.Path sources = folder.newFolder("trajectories").toPath();
+        java.nio.file.Path output = folder.getRoot().toPath().resolve("build");
+        Files.write(sources.resolve("scale.traj"), Arrays.asList(
+                "# Drive to the scale",
+                "maxVelocity 3",
+                "maxAcceleration 2",
+                "",
+                "waypoint 0 0 0",
+                "waypoint 1.5 3 90",
+                "waypoint 4 3 90"), StandardCharsets.UTF_8);
+
+        TrajectoryCompiler.main(new String[] {sources.toString(), output.toString()});
+        Trajectory loaded = Trajectory.load(output.resolve("scale.mtraj"));
+        Trajectory generated = TrajectoryCompiler.compile(Files.readAllLines(sources.resolve("scale.traj")), "scale");
+
+        assertEquals(generated.size(), loaded.size());
+        TrajectorySample expected = new TrajectorySample();
+        TrajectorySample actual = new TrajectorySample();
+        for(double t = 0; t < generated.getDuration(); t += 0.1) {
+            generated.sample(t, expected);
+            loaded.sample(t, actual);
+            assertEquals(expected.getX(), actual.getX(), 0);
+            assertEquals(expected.getHeadingDegrees(), actual.getHeadingDegrees(), 0);
+            assertEquals(expected.getVelocity(), actual.getVelocity(), 0);
+        }
+    }
+
+    /*
+    Makes sure mistakes in definitions point at the line they're on
+     */
+    @Test
+    public void definitionErrors() {
+        try {
+            TrajectoryCompiler.compile(Arrays.asList("maxVelocity 3", "waypoint 0 0"), "auto");
+            fail("Definition should not compile");
+        } catch(MetalConfigurationException e) {
+            assertEquals("auto:2: waypoint takes 3 value(s)", e.getMessage());
+        }
+    }
+
+    public boolean aboutEqual(double d1, double d2) {
+        return Math.abs(d1 - d2) < TOLERANCE;
+    }
+
+}
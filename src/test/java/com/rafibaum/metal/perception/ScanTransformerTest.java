@@ -0,0 +1,85 @@
+package com.rafibaum.metal.perception;
+
+import com.rafibaum.metal.geometry.XY;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ScanTransformerTest {
+
+    private static final double TOLERANCE = 0.001;
+
+    /*
+    Makes sure points end up in the right place on the field with a mounted sensor and invalid ranges dropped
+     */
+    @Test
+    public void transform() {
+        //Sensor 0.5 ahead of the center, facing right
+        ScanTransformer transformer = new ScanTransformer(0, 0.5, 90);
+        transformer.setBearings(-90, 90, 5);
+        transformer.setRangeLimits(0.1, 10);
+        PointCloud cloud = new PointCloud(5);
+
+        //Robot at (1, 2) facing along +X, so the sensor is at (1.5, 2) facing -Y
+        double[] ranges = {1, 2, Double.NaN, 0.05, Double.POSITIVE_INFINITY};
+        assertEquals(2, transformer.transform(ranges, 5, 1, 2, 90, cloud));
+        assertEquals(2, cloud.size());
+
+        //Bearing -90 from the sensor is the robot's forward, bearing 0 is the robot's right
+        assertTrue(new XY(2.5, 2).equals(cloud.get(0)));
+        assertTrue(new XY(1.5, 0).equals(cloud.get(1)));
+
+        //Bearings given with the scan land in the same place
+        double[] bearings = {-90, 0, 90, 180, 270};
+        PointCloud other = new PointCloud(5);
+        assertEquals(2, transformer.transform(ranges, bearings, 5, 1, 2, 90, other));
+        assertTrue(aboutEqual(cloud.getX(1), other.getX(1)));
+        assertTrue(aboutEqual(cloud.getY(1), other.getY(1)));
+
+        //No return is dropped even without an upper limit
+        ScanTransformer unlimited = new ScanTransformer();
+        unlimited.setBearings(0, 90, 2);
+        assertEquals(1, unlimited.transform(new double[] {Double.POSITIVE_INFINITY, 3}, 2, 0, 0, 0, cloud));
+        assertTrue(new XY(3, 0).equals(cloud.get(0)));
+    }
+
+    /*
+    Makes sure a large scan split across a pool matches transforming it on one thread
+     */
+    @Test
+    public void parallel() {
+        int count = 20000;
+        double[] ranges = new double[count];
+        for(int i = 0; i < count; i++) {
+            ranges[i] = i % 97 == 0 ? 0 : 1 + (i % 13) * 0.5;
+        }
+
+        ScanTransformer transformer = new ScanTransformer(0.1, -0.2, 15);
+        transformer.setBearings(-180, 360.0 / count, count);
+        transformer.setRangeLimits(0.5, 20);
+        PointCloud serial = new PointCloud(count);
+        int valid = transformer.transform(ranges, count, 3, -4, 33, serial);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        PointCloud split = new PointCloud(count);
+        try {
+            transformer.setParallel(pool, 4096);
+            assertEquals(valid, transformer.transform(ranges, count, 3, -4, 33, split));
+        } finally {
+            pool.shutdown();
+        }
+
+        for(int i = 0; i < valid; i++) {
+            assertEquals(serial.getX(i), split.getX(i), 0);
+            assertEquals(serial.getY(i), split.getY(i), 0);
+        }
+    }
+
+    public boolean aboutEqual(double d1, double d2) {
+        return Math.abs(d1 - d2) < TOLERANCE;
+    }
+
+}
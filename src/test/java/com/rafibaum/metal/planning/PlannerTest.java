@@ -0,0 +1,183 @@
+package com.rafibaum.metal.planning;
+
+import com.rafibaum.metal.geometry.VectorBuffer;
+import com.rafibaum.metal.geometry.XY;
+import com.rafibaum.metal.perception.PointCloud;
+import com.rafibaum.metal.perception.ScanTransformer;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PlannerTest {
+
+    private static final double TOLERANCE = 0.001;
+
+    /*
+    Makes sure cells are found from field coordinates and obstacles grow by the inflation radius
+     */
+    @Test
+    public void grid() {
+        OccupancyGrid grid = new OccupancyGrid(-1, -1, 0.1, 100, 70);
+        assertEquals(11, grid.toColumn(0.15));
+        assertEquals(-1, grid.toColumn(-1.05));
+        assertTrue(aboutEqual(0.15, grid.getCenterX(11)));
+
+        //Outside of the grid is always occupied
+        assertTrue(grid.isOccupiedAt(-2.0, 0));
+        assertFalse(grid.isOccupiedAt(0, 0));
+
+        grid.setAt(0.05, 0.05, true);
+        assertTrue(grid.isOccupied(10, 10));
+        assertEquals(1, grid.countOccupied());
+
+        //Whole numbers are still field coordinates when given to the coordinate methods
+        grid.setAt(2, 1, true);
+        assertTrue(grid.isOccupied(30, 20));
+        assertFalse(grid.isOccupied(2, 1));
+        grid.setAt(2, 1, false);
+
+        //A radius of 3 cells fills every cell center within 0.3 of the obstacle's center, 29 cells
+        OccupancyGrid inflated = new OccupancyGrid(grid);
+        grid.inflate(0.3, inflated);
+        assertEquals(29, inflated.countOccupied());
+        assertTrue(inflated.isOccupied(13, 10));
+        assertTrue(inflated.isOccupied(12, 12));
+        assertFalse(inflated.isOccupied(13, 11));
+        assertFalse(inflated.isOccupied(14, 10));
+
+        //Filled shapes inflate the same as marking every cell on their own
+        grid.clear();
+        grid.fillRectangle(2, 2, 4, 3, true);
+        grid.fillCircle(6, 3, 0.5, true);
+        OccupancyGrid single = new OccupancyGrid(grid);
+        for(int row = 0; row < grid.getRows(); row++) {
+            for(int column = 0; column < grid.getColumns(); column++) {
+                if(grid.isOccupied(column, row)) {
+                    single.fillCircle(single.getCenterX(column), single.getCenterY(row), 0.25, true);
+                }
+            }
+        }
+        grid.inflate(0.25, inflated);
+        assertEquals(single.countOccupied(), inflated.countOccupied());
+        single.union(inflated);
+        assertEquals(inflated.countOccupied(), single.countOccupied());
+    }
+
+    /*
+    Makes sure the planners go around an obstacle, with Theta* taking shortcuts
+     */
+    @Test
+    public void planning() {
+        //A wall across the middle of the field with a gap at the top
+        OccupancyGrid grid = new OccupancyGrid(0, 0, 0.1, 50, 50);
+        grid.fillRectangle(2.4, 0, 2.6, 4, true);
+
+        OccupancyGrid inflated = new OccupancyGrid(grid);
+        grid.inflate(0.2, inflated);
+
+        GridPlanner planner = new GridPlanner(inflated);
+        VectorBuffer path = new VectorBuffer(2500);
+        assertTrue(planner.plan(1, 1, 4, 1, path));
+        assertTrue(new XY(1, 1).equals(path.get(0)));
+        assertTrue(new XY(4, 1).equals(path.get(path.size() - 1)));
+        checkFree(inflated, path);
+        int eightWay = path.size();
+        double eightWayLength = length(path);
+
+        planner.setAnyAngle(true);
+        assertTrue(planner.plan(1, 1, 4, 1, path));
+        checkFree(inflated, path);
+        assertTrue(path.size() < eightWay);
+        assertTrue(path.size() <= 6);
+
+        //The path has to cross the wall above its top, but cutting corners is shorter than going eight ways
+        double length = length(path);
+        assertTrue(length > 2 * Math.hypot(1.5, 3));
+        assertTrue(length < eightWayLength - 0.1);
+
+        //Closing the gap leaves no way through, and planning into an obstacle fails
+        inflated.fillRectangle(2, 4, 3, 5, true);
+        assertFalse(planner.plan(1, 1, 4, 1, path));
+        assertEquals(0, path.size());
+        assertFalse(planner.plan(1, 1, 2.5, 1, path));
+    }
+
+    /*
+    Makes sure the goal is checked for line of sight like every other cell. The goal's neighbour links
+    back to the start, which can't see the goal past the obstacle
+     */
+    @Test
+    public void goalLineOfSight() {
+        OccupancyGrid grid = new OccupancyGrid(0, 0, 1, 8, 8);
+        grid.set(6, 1, true);
+
+        GridPlanner planner = new GridPlanner(grid).setAnyAngle(true);
+        VectorBuffer path = new VectorBuffer(64);
+        assertTrue(planner.plan(3.5, 3.5, 7.5, 1.5, path));
+        assertTrue(path.size() > 2);
+        checkFree(grid, path);
+    }
+
+    /*
+    Makes sure a lidar scan can be turned into obstacles and planned around
+     */
+    @Test
+    public void scanObstacles() {
+        //A defender seen as an arc of points 1 unit ahead of the robot
+        ScanTransformer transformer = new ScanTransformer();
+        transformer.setBearings(-30, 1, 61);
+        double[] ranges = new double[61];
+        Arrays.fill(ranges, 1);
+        PointCloud cloud = new PointCloud(61);
+        transformer.transform(ranges, 61, 2.5, 1, 0, cloud);
+
+        OccupancyGrid grid = new OccupancyGrid(0, 0, 0.1, 50, 50);
+        grid.mark(cloud);
+        assertTrue(grid.isOccupiedAt(2.5, 2));
+
+        OccupancyGrid inflated = new OccupancyGrid(grid);
+        grid.inflate(0.3, inflated);
+        GridPlanner planner = new GridPlanner(inflated).setAnyAngle(true);
+        VectorBuffer path = new VectorBuffer(100);
+        assertTrue(planner.plan(2.5, 1, 2.5, 3, path));
+        checkFree(inflated, path);
+
+        //Planning again gives the same path without any leftovers from the last search
+        double x = path.getX(1);
+        assertTrue(planner.plan(2.5, 1, 2.5, 3, path));
+        assertTrue(aboutEqual(x, path.getX(1)));
+    }
+
+    private double length(VectorBuffer path) {
+        double length = 0;
+        for(int i = 1; i < path.size(); i++) {
+            length += path.get(i).subtract(path.get(i - 1)).getMagnitude();
+        }
+        return length;
+    }
+
+    /*
+    Walks along each leg of a path in small steps checking that it stays out of obstacles
+     */
+    private void checkFree(OccupancyGrid grid, VectorBuffer path) {
+        for(int i = 1; i < path.size(); i++) {
+            XY from = path.get(i - 1);
+            XY to = path.get(i);
+            for(int step = 0; step <= 100; step++) {
+                double t = step / 100.0;
+                double x = from.getX() + (to.getX() - from.getX()) * t;
+                double y = from.getY() + (to.getY() - from.getY()) * t;
+                assertFalse(grid.isOccupiedAt(x, y));
+            }
+        }
+    }
+
+    public boolean aboutEqual(double d1, double d2) {
+        return Math.abs(d1 - d2) < TOLERANCE;
+    }
+
+}
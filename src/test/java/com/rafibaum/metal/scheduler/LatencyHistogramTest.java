@@ -0,0 +1,80 @@
+package com.rafibaum.metal.scheduler;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+    /*
+    Makes sure every value lands in a bucket which contains it, within the promised precision
+     */
+    @Test
+    public void bucketBounds() {
+        for(long value = 0; value < 10_000_000_000L; value = value * 3 / 2 + 1) {
+            int bucket = LatencyHistogram.bucket(value);
+            long upper = LatencyHistogram.bucketUpperBound(bucket);
+            long lower = bucket == 0 ? 0 : LatencyHistogram.bucketUpperBound(bucket - 1) + 1;
+
+            assertTrue(value >= lower && value <= upper);
+            assertTrue(upper - lower <= Math.max(1, value / 16));
+        }
+    }
+
+    /*
+    Makes sure percentiles come out of the snapshot as expected
+     */
+    @Test
+    public void percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.snapshot().getP99());
+
+        //1 to 1000 microseconds
+        for(int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(1_000_000, snapshot.getMax());
+        assertTrue(Math.abs(snapshot.getMean() - 500_500) < 1);
+
+        //Percentiles are never under the true value and at most one bucket over
+        assertTrue(snapshot.getP50() >= 500_000 && snapshot.getP50() <= 500_000 * 17 / 16);
+        assertTrue(snapshot.getP99() >= 990_000 && snapshot.getP99() <= 1_000_000);
+        assertEquals(1_000_000, snapshot.getPercentile(100));
+
+        //Snapshots can be reused
+        histogram.record(5_000_000);
+        assertEquals(1001, histogram.snapshot(snapshot).getCount());
+        assertEquals(5_000_000, snapshot.getMax());
+    }
+
+    /*
+    Makes sure snapshots taken while another thread records are never torn
+     */
+    @Test
+    public void concurrentSnapshots() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread recorder = new Thread(() -> {
+            for(int i = 0; i < 2_000_000; i++) {
+                histogram.record(1000);
+            }
+        });
+        recorder.start();
+
+        HistogramSnapshot snapshot = new HistogramSnapshot();
+        long last = 0;
+        while(recorder.isAlive()) {
+            histogram.snapshot(snapshot);
+            assertTrue(snapshot.getCount() >= last);
+            //Every value is the same, so a torn copy would show up as a different mean
+            assertTrue(snapshot.getCount() == 0 || snapshot.getMean() == 1000);
+            last = snapshot.getCount();
+        }
+        recorder.join();
+        assertEquals(2_000_000, histogram.snapshot(snapshot).getCount());
+    }
+
+}
@@ -0,0 +1,216 @@
+package com.rafibaum.metal.scheduler;
+
+import com.rafibaum.metal.interfaces.IController;
+import com.rafibaum.metal.utils.MetalConfigurationException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SchedulerTest {
+
+    private static final double TOLERANCE = 0.001;
+
+    /*
+    A clock which only moves when told to, jumping straight to deadlines when waited on
+     */
+    private static class ManualClock implements Clock {
+        long now;
+
+        @Override
+        public long nanoTime() {
+            return now;
+        }
+
+        @Override
+        public void waitUntil(long deadline) {
+            if(deadline > now) now = deadline;
+        }
+    }
+
+    /*
+    A controller which counts its updates and can pretend to take time
+     */
+    private static class CountingController implements IController {
+        final ManualClock clock;
+        long updateNanos;
+        int inits;
+        int updates;
+        int stops;
+        double lastTimestamp;
+        double lastDt;
+
+        CountingController(ManualClock clock) {
+            this.clock = clock;
+        }
+
+        @Override
+        public void init() {
+            inits++;
+        }
+
+        @Override
+        public void update(double timestamp, double dt) {
+            updates++;
+            lastTimestamp = timestamp;
+            lastDt = dt;
+            clock.now += updateNanos;
+        }
+
+        @Override
+        public void stop() {
+            stops++;
+        }
+    }
+
+    /*
+    Makes sure fast and slow loops sharing a thread each run at their own rate
+     */
+    @Test
+    public void sharedThreadRates() {
+        ManualClock clock = new ManualClock();
+        Scheduler scheduler = new Scheduler(clock, 1);
+        CountingController fast = new CountingController(clock);
+        CountingController slow = new CountingController(clock);
+        scheduler.register(fast, 200);
+        scheduler.register(slow, 10);
+
+        LoopGroup group = scheduler.getGroup(0);
+        group.prepare(0);
+        group.init();
+        while(clock.now < 1_000_000_000L) {
+            clock.waitUntil(group.nextDeadline());
+            group.runDue(clock.nanoTime());
+        }
+        group.stop();
+
+        //Updates at 0 and 1 seconds are both included
+        assertEquals(201, fast.updates);
+        assertEquals(11, slow.updates);
+        assertEquals(1, fast.inits);
+        assertEquals(1, slow.stops);
+        assertTrue(aboutEqual(1.0, slow.lastTimestamp));
+        assertTrue(aboutEqual(0.1, slow.lastDt));
+        assertTrue(aboutEqual(0.005, fast.lastDt));
+    }
+
+    /*
+    Makes sure a controller after a slow one in the same group is given its own start time
+     */
+    @Test
+    public void sharedGroupTimestamps() {
+        ManualClock clock = new ManualClock();
+        Scheduler scheduler = new Scheduler(clock, 1);
+        CountingController slow = new CountingController(clock);
+        CountingController quick = new CountingController(clock);
+        scheduler.register(slow, 100);
+        scheduler.register(quick, 100);
+        slow.updateNanos = 3_000_000;
+
+        LoopGroup group = scheduler.getGroup(0);
+        group.prepare(0);
+        group.init();
+        for(int i = 0; i < 5; i++) {
+            clock.waitUntil(group.nextDeadline());
+            long slowStart = clock.nanoTime();
+            group.runDue(slowStart);
+
+            //The quick controller starts once the slow one has finished, and its period is steady
+            assertTrue(quick.lastTimestamp >= (slowStart + slow.updateNanos) / 1e9 - 1e-12);
+            if(i > 0) assertTrue(aboutEqual(0.01, quick.lastDt));
+        }
+    }
+
+    /*
+    Makes sure each controller in a group is only timed for its own update, and its start latency
+    includes waiting for the controllers before it
+     */
+    @Test
+    public void sharedGroupHistograms() {
+        ManualClock clock = new ManualClock();
+        Scheduler scheduler = new Scheduler(clock, 1);
+        CountingController slow = new CountingController(clock);
+        CountingController quick = new CountingController(clock);
+        ScheduledController slowLoop = scheduler.register(slow, 100);
+        ScheduledController quickLoop = scheduler.register(quick, 100);
+        slow.updateNanos = 3_000_000;
+
+        LoopGroup group = scheduler.getGroup(0);
+        group.prepare(0);
+        group.init();
+        for(int i = 0; i < 10; i++) {
+            clock.waitUntil(group.nextDeadline());
+            group.runDue(clock.nanoTime());
+        }
+
+        HistogramSnapshot quickExecution = quickLoop.getExecutionTime().snapshot();
+        assertEquals(10, quickExecution.getCount());
+        assertEquals(0, quickExecution.getMax());
+        assertEquals(3_000_000, slowLoop.getExecutionTime().snapshot().getMax());
+        assertEquals(3_000_000, quickLoop.getStartLatency().snapshot().getMax());
+        assertEquals(0, slowLoop.getStartLatency().snapshot().getMax());
+    }
+
+    /*
+    Makes sure slow updates are counted as overruns and don't make the deadlines drift
+     */
+    @Test
+    public void overruns() {
+        ManualClock clock = new ManualClock();
+        Scheduler scheduler = new Scheduler(clock, 1);
+        CountingController controller = new CountingController(clock);
+        ScheduledController loop = scheduler.register(controller, 100);
+
+        LoopGroup group = scheduler.getGroup(0);
+        group.prepare(0);
+        group.init();
+
+        //Within budget
+        controller.updateNanos = 4_000_000;
+        group.runDue(clock.nanoTime());
+        assertEquals(0, loop.getOverruns());
+        assertEquals(10_000_000, group.nextDeadline());
+
+        //25 ms update misses the 20 ms deadline, so the next one is at 30 ms
+        clock.waitUntil(group.nextDeadline());
+        controller.updateNanos = 25_000_000;
+        group.runDue(clock.nanoTime());
+        assertEquals(1, loop.getOverruns());
+        assertEquals(2, loop.getMissedPeriods());
+        assertEquals(40_000_000, group.nextDeadline());
+
+        //Both updates were timed
+        HistogramSnapshot executionTime = loop.getExecutionTime().snapshot();
+        assertEquals(2, executionTime.getCount());
+        assertEquals(25_000_000, executionTime.getMax());
+        assertEquals(0, loop.getStartLatency().snapshot().getMax());
+    }
+
+    /*
+    Makes sure controllers actually run on the system clock
+     */
+    @Test
+    public void systemClock() throws InterruptedException {
+        Scheduler scheduler = new Scheduler(new SystemClock(), 2);
+        ScheduledController fast = scheduler.register((timestamp, dt) -> { }, 200, 0);
+        ScheduledController slow = scheduler.register((timestamp, dt) -> { }, 20, 1);
+
+        scheduler.start();
+        Thread.sleep(200);
+        scheduler.stop();
+
+        assertTrue(fast.getUpdates() > 10);
+        assertTrue(slow.getUpdates() >= 1);
+        assertTrue(fast.getUpdates() > slow.getUpdates());
+    }
+
+    @Test(expected = MetalConfigurationException.class)
+    public void badFrequency() {
+        new Scheduler().register((timestamp, dt) -> { }, 0);
+    }
+
+    public boolean aboutEqual(double d1, double d2) {
+        return Math.abs(d1 - d2) < TOLERANCE;
+    }
+
+}
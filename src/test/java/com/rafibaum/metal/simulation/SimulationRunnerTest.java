@@ -0,0 +1,105 @@
+package com.rafibaum.metal.simulation;
+
+import com.rafibaum.metal.drive.DifferentialDrive;
+import com.rafibaum.metal.geometry.Angle;
+import com.rafibaum.metal.geometry.Pose2d;
+import com.rafibaum.metal.path.Path;
+import com.rafibaum.metal.path.PathGenerator;
+import com.rafibaum.metal.path.PurePursuitController;
+import com.rafibaum.metal.path.SplineType;
+import com.rafibaum.metal.scheduler.Scheduler;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SimulationRunnerTest {
+
+    private static final double TOLERANCE = 0.001;
+
+    private static final Path PATH = new PathGenerator(SplineType.QUINTIC).generate(Arrays.asList(
+            new Pose2d(0, 0, Angle.ZERO),
+            new Pose2d(1.5, 3, new Angle(90)),
+            new Pose2d(4, 3, new Angle(90))));
+
+    private int targetDistance;
+    private int cycleTime;
+    private int endError;
+
+    /*
+    Makes sure a sweep runs every parameter set and seed, and its results don't depend on the threads
+     */
+    @Test
+    public void sweep() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        SimulationRunner<Double> runner = new SimulationRunner<>(context -> {
+            DifferentialDriveSim sim = new DifferentialDriveSim(MotorModel.CIM, 2, 10.71, 0.0762, 0.6, 60, 6);
+
+            //Each seed starts the robot slightly off the path
+            sim.setPose(new Pose2d(context.getRandom().nextGaussian() * 0.1, 0, Angle.ZERO));
+
+            DifferentialDrive drive = new DifferentialDrive(sim.getLeftMotor(), sim.getRightMotor(), 0.6, sim.getFreeSpeed());
+            PurePursuitController follower = new PurePursuitController(PATH, context.getParameters(), 2, sim, drive);
+            follower.setMaxDeceleration(3);
+
+            Scheduler scheduler = context.getScheduler();
+            scheduler.register(sim, 1000);
+            scheduler.register(follower, 50);
+            scheduler.register((timestamp, dt) -> {
+                context.max(targetDistance, Math.hypot(sim.getX() - follower.getTarget().getX(), sim.getY() - follower.getTarget().getY()));
+            }, 50);
+
+            while(!follower.isFinished() && context.getClock().getSeconds() < 10) {
+                scheduler.runUntil(context.getClock().nanoTime() + 100_000_000L);
+            }
+            scheduler.stop();
+
+            context.set(cycleTime, context.getClock().getSeconds());
+            context.set(endError, Math.hypot(sim.getX() - 4, sim.getY() - 3));
+            if(context.getParameters() < 0.1) throw new IllegalStateException("Lookahead too short");
+        }, pool);
+        try {
+            targetDistance = runner.addMetric("targetDistance");
+            cycleTime = runner.addMetric("cycleTime");
+            endError = runner.addMetric("endError");
+
+            SimulationSummary<Double> summary = runner.run(Arrays.asList(0.05, 0.3, 0.5, 0.8), 3, 7);
+            assertEquals(12, summary.getResults().size());
+            assertEquals(3, summary.getFailures());
+            assertEquals(9, summary.getCount(endError));
+            assertTrue(summary.getMax(endError) < 0.25);
+
+            //Short lookaheads weave around the path, so the longest one ends up closest
+            assertTrue(aboutEqual(0.8, summary.getBest(endError).getParameters()));
+            assertTrue(summary.getMin(cycleTime) > 2);
+            assertTrue(summary.getMean(SimulationRunner.WALL_SECONDS) > 0);
+            assertEquals(endError, summary.getMetricIndex("endError"));
+
+            //Results stay in order of parameters and then seeds
+            SimulationResult<Double> result = summary.getResults().get(7);
+            assertTrue(aboutEqual(0.5, result.getParameters()));
+            assertEquals(8, result.getSeed());
+            assertFalse(result.isFailed());
+            assertTrue(summary.getResults().get(1).isFailed());
+
+            //Running a parameter set again on its own gives the same results
+            SimulationSummary<Double> serial = runner.run(Arrays.asList(0.5), 3, 7);
+            for(int i = 0; i < 3; i++) {
+                assertEquals(summary.getResults().get(6 + i).getMetric(endError), serial.getResults().get(i).getMetric(endError), 0);
+            }
+
+            assertTrue(summary.toString().contains("cycleTime"));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public boolean aboutEqual(double d1, double d2) {
+        return Math.abs(d1 - d2) < TOLERANCE;
+    }
+
+}
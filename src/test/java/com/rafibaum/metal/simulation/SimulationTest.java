@@ -0,0 +1,120 @@
+package com.rafibaum.metal.simulation;
+
+import com.rafibaum.metal.drive.DifferentialDrive;
+import com.rafibaum.metal.geometry.Angle;
+import com.rafibaum.metal.geometry.Pose2d;
+import com.rafibaum.metal.odometry.Odometry;
+import com.rafibaum.metal.path.Path;
+import com.rafibaum.metal.path.PathGenerator;
+import com.rafibaum.metal.path.PurePursuitController;
+import com.rafibaum.metal.path.SplineType;
+import com.rafibaum.metal.scheduler.Scheduler;
+import com.rafibaum.metal.scheduler.VirtualClock;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertTrue;
+
+public class SimulationTest {
+
+    private static final double TOLERANCE = 0.001;
+
+    private DifferentialDriveSim createDrive() {
+        return new DifferentialDriveSim(MotorModel.CIM, 2, 10.71, 0.0762, 0.6, 60, 6);
+    }
+
+    /*
+    Makes sure motors produce no torque at free speed and stall torque at zero speed
+     */
+    @Test
+    public void motorModel() {
+        MotorModel motor = MotorModel.CIM;
+        assertTrue(aboutEqual(2.42, motor.getTorque(12, 0)));
+        assertTrue(aboutEqual(133, motor.getCurrent(12, 0)));
+        assertTrue(aboutEqual(0, motor.getTorque(12, motor.getFreeSpeed())));
+        assertTrue(aboutEqual(0, motor.getTorque(6, motor.getFreeSpeed() / 2) - motor.getTorque(12, motor.getFreeSpeed()) / 2));
+    }
+
+    /*
+    Makes sure driving straight reaches top speed and turning moves the sensors consistently
+     */
+    @Test
+    public void drivetrainPhysics() {
+        DifferentialDriveSim drive = createDrive();
+        drive.getLeftMotor().set(1);
+        drive.getRightMotor().set(1);
+        for(int i = 0; i < 3000; i++) {
+            drive.step(0.001);
+        }
+
+        assertTrue(Math.abs(drive.getVelocity() - drive.getFreeSpeed()) < 0.05);
+        assertTrue(aboutEqual(0, drive.getX()));
+        assertTrue(aboutEqual(drive.getY(), drive.getLeftEncoder().getPosition()));
+
+        //Spinning in place turns clockwise when the left side drives forwards
+        drive.setPose(Pose2d.ORIGIN);
+        double leftStart = drive.getLeftEncoder().getPosition();
+        double rightStart = drive.getRightEncoder().getPosition();
+        drive.getRightMotor().set(-1);
+        for(int i = 0; i < 100; i++) {
+            drive.step(0.001);
+        }
+
+        assertTrue(drive.getHeadingDegrees() > 0);
+        assertTrue(aboutEqual(0, drive.getX()));
+        assertTrue(aboutEqual(0, drive.getY()));
+
+        //The wheels travel the arc of the turn
+        double turned = (drive.getLeftEncoder().getPosition() - leftStart)
+                - (drive.getRightEncoder().getPosition() - rightStart);
+        assertTrue(aboutEqual(drive.getHeadingDegrees(), turned / 0.6 / Math.PI * 180.0));
+    }
+
+    /*
+    Makes sure a full autonomous routine drives a path using only the simulated sensors
+     */
+    @Test
+    public void autonomous() throws InterruptedException {
+        DifferentialDriveSim sim = createDrive();
+        Path path = new PathGenerator(SplineType.QUINTIC).generate(Arrays.asList(
+                new Pose2d(0, 0, Angle.ZERO),
+                new Pose2d(1.5, 3, new Angle(90)),
+                new Pose2d(4, 3, new Angle(90))));
+
+        //Odometry from the encoders and gyro
+        Odometry odometry = new Odometry(100);
+        double[] lastDistance = new double[1];
+        odometry.reset(0, Pose2d.ORIGIN, Angle.ZERO);
+
+        DifferentialDrive drive = new DifferentialDrive(sim.getLeftMotor(), sim.getRightMotor(), 0.6, sim.getFreeSpeed());
+        PurePursuitController follower = new PurePursuitController(path, 0.5, 2, odometry, drive);
+        follower.setMaxDeceleration(3);
+
+        VirtualClock clock = new VirtualClock();
+        Scheduler scheduler = new Scheduler(clock, 1);
+        scheduler.register(sim, 1000);
+        scheduler.register((timestamp, dt) -> {
+            double distance = (sim.getLeftEncoder().getPosition() + sim.getRightEncoder().getPosition()) / 2.0;
+            odometry.update(timestamp, 0, distance - lastDistance[0], sim.getGyro().getHeadingDegrees());
+            lastDistance[0] = distance;
+        }, 200);
+        scheduler.register(follower, 50);
+
+        for(int i = 0; i < 100 && !follower.isFinished(); i++) {
+            scheduler.runUntil(clock.nanoTime() + 100_000_000L);
+        }
+        scheduler.stop();
+
+        assertTrue(follower.isFinished());
+        assertTrue(Math.hypot(sim.getX() - 4, sim.getY() - 3) < 0.15);
+
+        //Odometry agrees with where the robot really is
+        assertTrue(Math.hypot(sim.getX() - odometry.getX(), sim.getY() - odometry.getY()) < 0.05);
+    }
+
+    public boolean aboutEqual(double d1, double d2) {
+        return Math.abs(d1 - d2) < TOLERANCE;
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.rafibaum.metal.telemetry;
+
+import com.rafibaum.metal.control.PIDController;
+import com.rafibaum.metal.interfaces.IController;
+import com.rafibaum.metal.scheduler.Scheduler;
+import com.rafibaum.metal.scheduler.VirtualClock;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ReplayTest {
+
+    private static final double TOLERANCE = 0.001;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /*
+    A mechanism whose position moves at the speed it's told to, logging its position
+     */
+    private static class Mechanism implements IController {
+        final TelemetryLog log;
+        final int channel;
+        double position;
+        double speed;
+
+        Mechanism(TelemetryLog log) {
+            this.log = log;
+            this.channel = log.addChannel("arm/position", ChannelType.DOUBLE);
+        }
+
+        @Override
+        public void update(double timestamp, double dt) {
+            position += speed * dt;
+            log.logDouble(channel, timestamp, position);
+        }
+    }
+
+    /*
+    Records a match of an arm moving to a setpoint, as if on a robot
+     */
+    private void record(String name) throws IOException, InterruptedException {
+        VirtualClock clock = new VirtualClock();
+        Scheduler scheduler = new Scheduler(clock, 1);
+        TelemetryLog log = new TelemetryLog(folder.getRoot().toPath(), name, 1 << 16);
+        Mechanism arm = new Mechanism(log);
+        int output = log.addChannel("arm/output", ChannelType.DOUBLE);
+
+        PIDController pid = new PIDController(2, 0.5, 0.1);
+        pid.setSetpoint(1);
+        pid.setIO(() -> arm.position, value -> {
+            arm.speed = value;
+            log.logDouble(output, clock.getSeconds(), value);
+        });
+
+        log.start();
+        scheduler.register(arm, 200);
+        scheduler.register(pid, 200);
+        scheduler.runUntil(2_000_000_000L);
+        scheduler.stop();
+        log.close();
+    }
+
+    /*
+    Makes sure replaying the same controller reproduces the recording exactly, and a retuned one doesn't
+     */
+    @Test
+    public void replay() throws IOException, InterruptedException {
+        record("match");
+
+        Replay original = Replay.load(folder.getRoot().toPath(), "match");
+        assertTrue(aboutEqual(2, original.getEndTime()));
+        assertEquals(401, original.getChannel("arm/position").size());
+
+        PIDController same = new PIDController(2, 0.5, 0.1);
+        same.setSetpoint(1);
+        ReplayOutput sameOutput = original.output("arm/output");
+        same.setIO(original.input("arm/position"), sameOutput);
+        original.register(same, 200);
+        original.run();
+
+        //Every update plus stopping the controller at the end
+        assertEquals(402, sameOutput.size());
+        assertEquals(0, sameOutput.maxDifference(original.getChannel("arm/output"), 0), 0);
+
+        //A retuned controller sees the same inputs but outputs something else
+        Replay retuned = Replay.load(folder.getRoot().toPath(), "match");
+        PIDController tuned = new PIDController(3, 0.5, 0.1);
+        tuned.setSetpoint(1);
+        ReplayOutput tunedOutput = retuned.output("arm/output");
+        tuned.setIO(retuned.input("arm/position"), tunedOutput);
+        retuned.register(tuned, 200);
+        retuned.run();
+
+        assertTrue(aboutEqual(1, tunedOutput.maxDifference(retuned.getChannel("arm/output"), 0)));
+    }
+
+    public boolean aboutEqual(double d1, double d2) {
+        return Math.abs(d1 - d2) < TOLERANCE;
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.rafibaum.metal.telemetry;
+
+import com.rafibaum.metal.geometry.Angle;
+import com.rafibaum.metal.geometry.XY;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TelemetryTest {
+
+    private static final double TOLERANCE = 0.001;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /*
+    Makes sure every type of channel is written and read back with the schema
+     */
+    @Test
+    public void roundTrip() throws IOException {
+        TelemetryLog log = new TelemetryLog(folder.getRoot().toPath(), "robot", 4096);
+        int output = log.addChannel("arm/output", ChannelType.DOUBLE);
+        int heading = log.addChannel("heading", ChannelType.ANGLE);
+        int position = log.addChannel("position", ChannelType.VECTOR);
+        int outputs = log.addArrayChannel("drive/outputs", 3);
+        log.start();
+
+        assertTrue(log.logDouble(output, 0.005, 0.75));
+        assertTrue(log.logAngle(heading, 0.005, new Angle(-30)));
+        assertTrue(log.logVector(position, 0.01, new XY(1.5, -2)));
+        assertTrue(log.logArray(outputs, 0.01, new double[] {9, 1, 2, 3}, 1));
+        log.close();
+
+        TelemetryReader reader = new TelemetryReader(log.getFile(0));
+        assertEquals(4, reader.getChannelCount());
+        assertEquals("drive/outputs", reader.getChannelName(outputs));
+        assertEquals(ChannelType.VECTOR, reader.getChannelType(position));
+
+        assertTrue(reader.next());
+        assertEquals(output, reader.getChannel());
+        assertTrue(aboutEqual(0.005, reader.getTimestamp()));
+        assertTrue(aboutEqual(0.75, reader.getValue(0)));
+
+        assertTrue(reader.next());
+        assertTrue(aboutEqual(-30, reader.getValue(0)));
+
+        assertTrue(reader.next());
+        assertTrue(aboutEqual(1.5, reader.getValue(0)));
+        assertTrue(aboutEqual(-2, reader.getValue(1)));
+
+        assertTrue(reader.next());
+        assertEquals(outputs, reader.getChannel());
+        assertTrue(aboutEqual(3, reader.getValue(2)));
+
+        assertFalse(reader.next());
+    }
+
+    /*
+    Makes sure full files are swapped for new ones without losing records
+     */
+    @Test
+    public void rotation() throws IOException, InterruptedException {
+        TelemetryLog log = new TelemetryLog(folder.getRoot().toPath(), "rotating", 1024);
+        int channel = log.addChannel("count", ChannelType.DOUBLE);
+        log.start();
+
+        //Each record is 18 bytes, so this takes several files
+        int count = 200;
+        for(int i = 0; i < count; i++) {
+            //Wait for the background thread instead of dropping
+            while(!log.logDouble(channel, i * 0.005, i)) {
+                Thread.sleep(1);
+            }
+        }
+        log.close();
+        assertEquals(count, log.getRecords());
+        assertTrue(log.getFileCount() > 3);
+
+        int expected = 0;
+        for(int file = 0; file < log.getFileCount(); file++) {
+            TelemetryReader reader = new TelemetryReader(log.getFile(file));
+            assertEquals(file, reader.getFileIndex());
+            while(reader.next()) {
+                assertTrue(aboutEqual(expected, reader.getValue(0)));
+                expected++;
+            }
+        }
+        assertEquals(count, expected);
+    }
+
+    public boolean aboutEqual(double d1, double d2) {
+        return Math.abs(d1 - d2) < TOLERANCE;
+    }
+
+}